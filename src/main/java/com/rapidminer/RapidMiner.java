@@ -380,6 +380,38 @@ public class RapidMiner {
 	 */
 	public static final String PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT = "rapidminer.system.legacy_data_mgmt";
 
+	/**
+	 * The name of the property defining the directory for memory-mapped files used by the off-heap
+	 * data management. If empty, off-heap data is stored in direct memory.
+	 *
+	 * @since 7.6
+	 */
+	public static final String PROPERTY_RAPIDMINER_SYSTEM_OFF_HEAP_DIRECTORY = "rapidminer.system.off_heap_directory";
+
+	/**
+	 * The name of the property indicating whether example sets should be stored in the columnar
+	 * format in local repositories.
+	 *
+	 * @since 7.6
+	 */
+	public static final String PROPERTY_RAPIDMINER_SYSTEM_COLUMNAR_REPOSITORY_FORMAT = "rapidminer.system.columnar_repository_format";
+
+	/**
+	 * The name of the property defining how many megabytes of shared strings of an XLSX file are
+	 * kept in memory. Further shared strings are stored in a temporary file.
+	 *
+	 * @since 7.6
+	 */
+	public static final String PROPERTY_RAPIDMINER_SYSTEM_XLSX_SHARED_STRINGS_LIMIT = "rapidminer.system.xlsx_shared_strings_limit";
+
+	/**
+	 * The name of the property defining whether operators of a subprocess that do not depend on
+	 * each other are executed in parallel.
+	 *
+	 * @since 7.6
+	 */
+	public static final String PROPERTY_RAPIDMINER_SYSTEM_PARALLEL_SUBPROCESS_EXECUTION = "rapidminer.system.parallel_subprocess_execution";
+
 	public static final String PROPERTY_RAPIDMINER_PROXY_MODE = "rapidminer.proxy.mode";
 	public static final String PROPERTY_RAPIDMINER_PROXY_EXCLUDE = "rapidminer.proxy.exclude";
 
@@ -511,6 +543,13 @@ public class RapidMiner {
 		registerParameter(new ParameterTypeInt(PROPERTY_RAPIDMINER_MAX_MEMORY, "", 384, Integer.MAX_VALUE, true), "system");
 		
 		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT, "", false), "system");
+		registerParameter(new ParameterTypeDirectory(PROPERTY_RAPIDMINER_SYSTEM_OFF_HEAP_DIRECTORY, "", true), "system");
+		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_SYSTEM_COLUMNAR_REPOSITORY_FORMAT, "", false),
+				"system");
+		registerParameter(new ParameterTypeInt(PROPERTY_RAPIDMINER_SYSTEM_XLSX_SHARED_STRINGS_LIMIT, "", 0,
+				Integer.MAX_VALUE, 64), "system");
+		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_SYSTEM_PARALLEL_SUBPROCESS_EXECUTION, "", false),
+				"system");
 
 		registerParameter(new ParameterTypeInt(WebServiceTools.WEB_SERVICE_TIMEOUT, "", 1, Integer.MAX_VALUE, 20000),
 				"system");
@@ -22,6 +22,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
 
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.example.table.ExampleTable;
 import com.rapidminer.operator.ResultObject;
 
@@ -108,6 +109,57 @@ public interface ExampleSet extends ResultObject, Cloneable, Iterable<Example> {
 	 */
 	public Example getExample(int index);
 
+	/**
+	 * Copies the values of the given attribute for the examples with indices {@code from}
+	 * (inclusive) to {@code to} (exclusive) into the target array, i.e., {@code target[i]} is set to
+	 * the value of the example with index {@code from + i}. This is equivalent to calling
+	 * {@link Example#getValue(Attribute)} for every example in the range but allows implementations
+	 * to read the underlying data without creating an {@link Example} per row.
+	 * <p>
+	 * The default implementation falls back to {@link #getExample(int)}.
+	 *
+	 * @param attribute
+	 *            the attribute whose values should be copied
+	 * @param from
+	 *            the index of the first example, inclusive
+	 * @param to
+	 *            the index of the last example, exclusive
+	 * @param target
+	 *            the array to fill, must have a length of at least {@code to - from}
+	 * @since 7.6
+	 */
+	public default void getValues(Attribute attribute, int from, int to, double[] target) {
+		for (int i = from; i < to; i++) {
+			target[i - from] = getExample(i).getValue(attribute);
+		}
+	}
+
+	/**
+	 * Copies the values of the given attribute for the examples with the indices
+	 * {@code rows[from]} to {@code rows[to - 1]} into the target array, i.e., {@code target[i]} is
+	 * set to the value of the example with index {@code rows[from + i]}. See
+	 * {@link #getValues(Attribute, int, int, double[])}.
+	 * <p>
+	 * The default implementation falls back to {@link #getExample(int)}.
+	 *
+	 * @param attribute
+	 *            the attribute whose values should be copied
+	 * @param rows
+	 *            the example indices to read
+	 * @param from
+	 *            the first position in rows, inclusive
+	 * @param to
+	 *            the last position in rows, exclusive
+	 * @param target
+	 *            the array to fill, must have a length of at least {@code to - from}
+	 * @since 7.6
+	 */
+	public default void getValues(Attribute attribute, int[] rows, int from, int to, double[] target) {
+		for (int i = from; i < to; i++) {
+			target[i - from] = getExample(rows[i]).getValue(attribute);
+		}
+	}
+
 	/**
 	 * Remaps all ids. This method should be invoked before the method
 	 * {@link #getExampleFromId(double)} is used.
@@ -150,9 +202,29 @@ public interface ExampleSet extends ResultObject, Cloneable, Iterable<Example> {
 
 	// ------------------- Statistics ---------------
 
-	/** Recalculate all attribute statistics. */
+	/**
+	 * Recalculate all attribute statistics. Implementations may defer the calculation until the
+	 * statistics are requested.
+	 */
 	public void recalculateAllAttributeStatistics();
 
+	/**
+	 * Recalculate all attribute statistics right away, using the given context to count the
+	 * examples in parallel. Should be preferred if the statistics of most attributes are requested
+	 * directly afterwards.
+	 * <p>
+	 * The default implementation ignores the context and invokes
+	 * {@link #recalculateAllAttributeStatistics()}.
+	 *
+	 * @param context
+	 *            the context used to count in parallel, can be {@code null} to count
+	 *            single-threaded
+	 * @since 7.6
+	 */
+	public default void recalculateAllAttributeStatistics(ConcurrencyContext context) {
+		recalculateAllAttributeStatistics();
+	}
+
 	/** Recalculate the attribute statistics of the given attribute. */
 	public void recalculateAttributeStatistics(Attribute attribute);
 
@@ -0,0 +1,40 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example;
+
+/**
+ * Attribute statistics that can be calculated on parts of the examples independently and combined
+ * afterwards. This allows to count the examples of an example set in chunks, e.g. in parallel.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public interface MergeableStatistics extends Statistics {
+
+	/**
+	 * Adds the values counted by the given statistics to this statistics. The result must be the
+	 * same as if the values counted by the other statistics had been counted by this statistics
+	 * after its own values. Both statistics must have been started for the same attribute.
+	 *
+	 * @param other
+	 *            statistics of the same class
+	 */
+	public void merge(Statistics other);
+
+}
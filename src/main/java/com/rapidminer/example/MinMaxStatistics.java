@@ -29,7 +29,7 @@ import java.util.logging.Level;
  * 
  * @author Ingo Mierswa
  */
-public class MinMaxStatistics implements Statistics {
+public class MinMaxStatistics implements MergeableStatistics {
 
 	private static final long serialVersionUID = 1027895282018510951L;
 
@@ -62,6 +62,17 @@ public class MinMaxStatistics implements Statistics {
 		}
 	}
 
+	@Override
+	public void merge(Statistics other) {
+		MinMaxStatistics statistics = (MinMaxStatistics) other;
+		if (minimum > statistics.minimum) {
+			minimum = statistics.minimum;
+		}
+		if (maximum < statistics.maximum) {
+			maximum = statistics.maximum;
+		}
+	}
+
 	@Override
 	public double getStatistics(Attribute attribute, String name, String parameter) {
 		if (MINIMUM.equals(name)) {
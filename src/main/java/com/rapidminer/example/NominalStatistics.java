@@ -29,7 +29,7 @@ import java.util.logging.Level;
  * 
  * @author Ingo Mierswa
  */
-public class NominalStatistics implements Statistics {
+public class NominalStatistics implements MergeableStatistics {
 
 	private static final long serialVersionUID = -7644523717916796701L;
 
@@ -39,6 +39,15 @@ public class NominalStatistics implements Statistics {
 
 	private long[] scores;
 
+	/** The number of counted values including missing ones. */
+	private long counted = 0;
+
+	/**
+	 * The position of the last occurrence of each value. Needed to find the same mode as a single
+	 * pass when merging.
+	 */
+	private long[] lastPositions;
+
 	public NominalStatistics() {}
 
 	/** Clone constructor. */
@@ -51,6 +60,10 @@ public class NominalStatistics implements Statistics {
 				this.scores[i] = other.scores[i];
 			}
 		}
+		this.counted = other.counted;
+		if (other.lastPositions != null) {
+			this.lastPositions = other.lastPositions.clone();
+		}
 	}
 
 	/** Returns a clone of this statistics object. The attribute is only cloned by reference. */
@@ -62,22 +75,24 @@ public class NominalStatistics implements Statistics {
 	@Override
 	public void startCounting(Attribute attribute) {
 		this.scores = new long[attribute.getMapping().size()];
+		this.lastPositions = new long[scores.length];
 		this.mode = -1;
 		this.maxCounter = 0;
+		this.counted = 0;
 	}
 
 	@Override
 	public void count(double doubleIndex, double weight) {
+		long position = counted++;
 		if (!Double.isNaN(doubleIndex)) {
 			int index = (int) doubleIndex;
 			if (index >= 0) {
 				// more values than before? Increase Array size...
 				if (index >= scores.length) {
-					long[] newScores = new long[index + 1];
-					System.arraycopy(scores, 0, newScores, 0, scores.length);
-					scores = newScores;
+					ensureCapacity(index + 1);
 				}
 				scores[index]++;
+				lastPositions[index] = position;
 				if (scores[index] > maxCounter) {
 					maxCounter = scores[index];
 					mode = index;
@@ -86,6 +101,46 @@ public class NominalStatistics implements Statistics {
 		}
 	}
 
+	/**
+	 * Adds the counts of the other statistics. The mode is the value with the highest count which
+	 * reached it first, i.e., whose last occurrence comes first, as in {@link #count}.
+	 */
+	@Override
+	public void merge(Statistics other) {
+		NominalStatistics statistics = (NominalStatistics) other;
+		if (statistics.scores.length > scores.length) {
+			ensureCapacity(statistics.scores.length);
+		}
+		for (int i = 0; i < statistics.scores.length; i++) {
+			if (statistics.scores[i] > 0) {
+				scores[i] += statistics.scores[i];
+				lastPositions[i] = counted + statistics.lastPositions[i];
+			}
+		}
+		counted += statistics.counted;
+
+		mode = -1;
+		maxCounter = 0;
+		for (int i = 0; i < scores.length; i++) {
+			if (scores[i] > maxCounter
+					|| scores[i] == maxCounter && scores[i] > 0 && lastPositions[i] < lastPositions[(int) mode]) {
+				maxCounter = scores[i];
+				mode = i;
+			}
+		}
+	}
+
+	private void ensureCapacity(int length) {
+		long[] newScores = new long[length];
+		System.arraycopy(scores, 0, newScores, 0, scores.length);
+		scores = newScores;
+		long[] newPositions = new long[length];
+		if (lastPositions != null) {
+			System.arraycopy(lastPositions, 0, newPositions, 0, lastPositions.length);
+		}
+		lastPositions = newPositions;
+	}
+
 	@Override
 	public boolean handleStatistics(String name) {
 		return MODE.equals(name) || COUNT.equals(name) || LEAST.equals(name);
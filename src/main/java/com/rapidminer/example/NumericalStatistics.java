@@ -28,7 +28,7 @@ import com.rapidminer.tools.LogService;
  *
  * @author Ingo Mierswa
  */
-public class NumericalStatistics implements Statistics {
+public class NumericalStatistics implements MergeableStatistics {
 
 	private static final long serialVersionUID = -6283236022093847887L;
 
@@ -68,6 +68,14 @@ public class NumericalStatistics implements Statistics {
 		}
 	}
 
+	@Override
+	public void merge(Statistics other) {
+		NumericalStatistics statistics = (NumericalStatistics) other;
+		sum += statistics.sum;
+		squaredSum += statistics.squaredSum;
+		valueCounter += statistics.valueCounter;
+	}
+
 	@Override
 	public boolean handleStatistics(String name) {
 		return AVERAGE.equals(name) || VARIANCE.equals(name) || SUM.equals(name);
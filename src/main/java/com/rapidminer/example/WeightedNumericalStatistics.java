@@ -28,7 +28,7 @@ import java.util.logging.Level;
  * 
  * @author Ingo Mierswa, Tobias Malbrecht
  */
-public class WeightedNumericalStatistics implements Statistics {
+public class WeightedNumericalStatistics implements MergeableStatistics {
 
 	private static final long serialVersionUID = -6283236022093847887L;
 
@@ -76,6 +76,15 @@ public class WeightedNumericalStatistics implements Statistics {
 		}
 	}
 
+	@Override
+	public void merge(Statistics other) {
+		WeightedNumericalStatistics statistics = (WeightedNumericalStatistics) other;
+		sum += statistics.sum;
+		squaredSum += statistics.squaredSum;
+		totalWeight += statistics.totalWeight;
+		count += statistics.count;
+	}
+
 	@Override
 	public boolean handleStatistics(String name) {
 		return AVERAGE_WEIGHTED.equals(name) || VARIANCE_WEIGHTED.equals(name) || SUM_WEIGHTED.equals(name);
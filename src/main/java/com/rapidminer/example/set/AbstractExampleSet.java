@@ -29,7 +29,7 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.zip.GZIPOutputStream;
@@ -40,6 +40,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.datatable.DataTable;
 import com.rapidminer.datatable.DataTableExampleSetAdapter;
 import com.rapidminer.example.Attribute;
@@ -76,6 +77,12 @@ public abstract class AbstractExampleSet extends ResultObjectAdapter implements
 	/** Maps attribute names to list of statistics objects. */
 	private final Map<String, List<Statistics>> statisticsMap = new HashMap<String, List<Statistics>>();
 
+	/**
+	 * Maps attribute names to the attributes whose statistics should be recalculated on the next
+	 * request. Can be {@code null}. Guarded by {@link #statisticsMap}.
+	 */
+	private Map<String, Attribute> pendingStatistics;
+
 	/** Maps the id values on the line index in the example table. */
 	private Map<Double, int[]> idMap = new HashMap<Double, int[]>();
 
@@ -430,111 +437,82 @@ public abstract class AbstractExampleSet extends ResultObjectAdapter implements
 	// =============================================================================
 
 	/**
-	 * Recalculates the attribute statistics for all attributes. They are average value, variance,
-	 * minimum, and maximum. For nominal attributes the occurences for all values are counted. This
-	 * method collects all attributes (regular and special) in a list and invokes
-	 * <code>recalculateAttributeStatistics(List attributes)</code> and performs only one data scan.
-	 * <p>
-	 * The statistics calculation is stopped by {@link Thread#interrupt()}.
+	 * Marks the statistics of all attributes for recalculation. The statistics are calculated on
+	 * the first request via {@link #getStatistics(Attribute, String, String)} in a single pass for
+	 * all marked attributes. See {@link #recalculateAttributeStatistics(Attribute)} for the
+	 * consequences of the deferred calculation.
 	 */
 	@Override
 	public void recalculateAllAttributeStatistics() {
-		List<Attribute> allAttributes = new ArrayList<Attribute>();
-		Iterator<Attribute> a = getAttributes().allAttributes();
-		while (a.hasNext()) {
-			allAttributes.add(a.next());
+		synchronized (statisticsMap) {
+			markAllAttributeStatistics();
 		}
-		recalculateAttributeStatistics(allAttributes);
 	}
 
 	/**
-	 * Recalculate the attribute statistics of the given attribute.
+	 * Recalculates the statistics of all attributes right away. The examples are counted in
+	 * parallel if the example set is large enough.
 	 * <p>
 	 * The statistics calculation is stopped by {@link Thread#interrupt()}.
 	 */
 	@Override
-	public void recalculateAttributeStatistics(Attribute attribute) {
-		List<Attribute> allAttributes = new ArrayList<Attribute>();
-		allAttributes.add(attribute);
-		recalculateAttributeStatistics(allAttributes);
+	public void recalculateAllAttributeStatistics(ConcurrencyContext context) {
+		synchronized (statisticsMap) {
+			markAllAttributeStatistics();
+			calculatePendingStatistics(context);
+		}
 	}
 
 	/**
-	 * Here the Example Set is parsed only once, all the information is retained for each example
-	 * set.
+	 * Marks the statistics of the given attribute for recalculation. The statistics are calculated
+	 * on the first request via {@link #getStatistics(Attribute, String, String)}.
 	 * <p>
-	 * The statistics calculation is stopped by {@link Thread#interrupt()}.
+	 * The deferred calculation has two consequences. It runs in the thread that requests the
+	 * statistics first, which may be a UI thread, and blocks all other statistics requests on this
+	 * example set until it is done. And it counts the examples of the example set as they are at
+	 * the time of the request, not at the time of this call. Callers that need the statistics of
+	 * the current state or that want to count outside of the requesting thread should use
+	 * {@link #recalculateAllAttributeStatistics(ConcurrencyContext)} instead.
 	 */
-	private void recalculateAttributeStatistics(List<Attribute> attributeList) {
-		// do nothing if not desired
-		if (attributeList.size() == 0) {
-			return;
-		} else {
-			// init statistics
-			resetAttributeStatistics(attributeList);
-
-			// calculate statistics
-			Attribute weightAttribute = getAttributes().getWeight();
-			if (weightAttribute != null && !weightAttribute.isNumerical()) {
-				weightAttribute = null;
-			}
-			
-			for (Attribute attribute : attributeList) {
-				if (weightAttribute == null) {
-					for (Example example : this) {
-						double value = example.getValue(attribute);
-						attribute.getAllStatistics().forEachRemaining(s -> s.count(value, 1.0d));
-					}
-				} else {
-					for (Example example : this) {
-						double value = example.getValue(attribute);
-						double weight = example.getValue(weightAttribute);
-						attribute.getAllStatistics().forEachRemaining(s -> s.count(value, weight));
-					}
-				}
-				if (Thread.currentThread().isInterrupted()) {
-					// statistics is only partly calculated
-					resetAttributeStatistics(attributeList);
-					return;
-				}
+	@Override
+	public void recalculateAttributeStatistics(Attribute attribute) {
+		synchronized (statisticsMap) {
+			if (pendingStatistics == null) {
+				pendingStatistics = new LinkedHashMap<>();
 			}
+			pendingStatistics.put(attribute.getName(), attribute);
+		}
+	}
 
-			// store cloned statistics
-			for (Attribute attribute : attributeList) {
-				List<Statistics> statisticsList = statisticsMap.get(attribute.getName());
-				// no stats known for this attribute at all --> new list
-				if (statisticsList == null) {
-					statisticsList = new LinkedList<Statistics>();
-					statisticsMap.put(attribute.getName(), statisticsList);
-				}
-
-				// in all cases: clear the list before adding new stats (clone of the calculations)
-				statisticsList.clear();
-
-				Iterator<Statistics> stats = attribute.getAllStatistics();
-				while (stats.hasNext()) {
-					Statistics statistics = (Statistics) stats.next().clone();
-					statisticsList.add(statistics);
-				}
-				if (Thread.currentThread().isInterrupted()) {
-					return;
-				}
-			}
+	private void markAllAttributeStatistics() {
+		if (pendingStatistics == null) {
+			pendingStatistics = new LinkedHashMap<>();
+		}
+		Iterator<Attribute> a = getAttributes().allAttributes();
+		while (a.hasNext()) {
+			Attribute attribute = a.next();
+			pendingStatistics.put(attribute.getName(), attribute);
 		}
 	}
 
 	/**
-	 * Resets the statistics for all attributes from attributeList.
-	 *
-	 * @param attributeList
-	 *            the attributes for which to reset the statistics
+	 * Calculates the statistics of all attributes marked for recalculation. Here the Example Set is
+	 * parsed only once, all the information is retained for each example set. Must be called while
+	 * holding the lock of {@link #statisticsMap}.
+	 * <p>
+	 * The statistics calculation is stopped by {@link Thread#interrupt()}. In this case the
+	 * attributes stay marked and the previous statistics are kept.
 	 */
-	private void resetAttributeStatistics(List<Attribute> attributeList) {
-		for (Attribute attribute : attributeList) {
-			for (Iterator<Statistics> stats = attribute.getAllStatistics(); stats.hasNext();) {
-				Statistics statistics = stats.next();
-				statistics.startCounting(attribute);
-			}
+	private void calculatePendingStatistics(ConcurrencyContext context) {
+		if (pendingStatistics == null || pendingStatistics.isEmpty()) {
+			return;
+		}
+		List<Attribute> attributeList = new ArrayList<>(pendingStatistics.values());
+		Map<String, List<Statistics>> statistics = new AttributeStatisticsCalculator(context).calculate(this,
+				attributeList);
+		if (statistics != null) {
+			statisticsMap.putAll(statistics);
+			pendingStatistics.clear();
 		}
 	}
 
@@ -560,17 +538,23 @@ public abstract class AbstractExampleSet extends ResultObjectAdapter implements
 	 */
 	@Override
 	public double getStatistics(Attribute attribute, String statisticsName, String statisticsParameter) {
-		List<Statistics> statisticsList = statisticsMap.get(attribute.getName());
-		if (statisticsList == null) {
-			return Double.NaN;
-		}
+		synchronized (statisticsMap) {
+			if (pendingStatistics != null && pendingStatistics.containsKey(attribute.getName())) {
+				calculatePendingStatistics(null);
+			}
 
-		for (Statistics statistics : statisticsList) {
-			if (statistics.handleStatistics(statisticsName)) {
-				return statistics.getStatistics(attribute, statisticsName, statisticsParameter);
+			List<Statistics> statisticsList = statisticsMap.get(attribute.getName());
+			if (statisticsList == null) {
+				return Double.NaN;
 			}
-		}
 
-		return Double.NaN;
+			for (Statistics statistics : statisticsList) {
+				if (statistics.handleStatistics(statisticsName)) {
+					return statistics.getStatistics(attribute, statisticsName, statisticsParameter);
+				}
+			}
+
+			return Double.NaN;
+		}
 	}
 }
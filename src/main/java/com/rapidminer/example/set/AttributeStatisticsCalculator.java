@@ -0,0 +1,216 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.set;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.MergeableStatistics;
+import com.rapidminer.example.Statistics;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.studio.concurrency.internal.util.ConcurrencyTools;
+
+
+/**
+ * Calculates the {@link Statistics} of attributes in a single pass over an {@link ExampleSet}.
+ * <p>
+ * The values are read column by column in blocks via
+ * {@link ExampleSet#getValues(Attribute, int, int, double[])} instead of creating an example per
+ * row. If a {@link ConcurrencyContext} is given and the example set is large enough, the examples
+ * are split into consecutive ranges which are counted in parallel and the partial statistics are
+ * merged in the order of the ranges afterwards. Attributes with statistics that are not
+ * {@link MergeableStatistics} are counted over all examples by a single task. Since views like
+ * filtered or joined example sets are not safe for concurrent reads, only example sets that are
+ * {@link ExampleSets#isThreadSafe(ExampleSet) thread-safe} are counted in parallel. Copying other
+ * example sets would cost more than the parallel counting saves.
+ * <p>
+ * The statistics objects of the attributes only serve as prototypes and are not changed.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+class AttributeStatisticsCalculator {
+
+	/** The number of rows read per attribute at once */
+	private static final int BLOCK_SIZE = 1024;
+
+	/** The minimal number of values a parallel task should count */
+	private static final long MIN_PARALLEL_VALUES = 1 << 18;
+
+	private final ConcurrencyContext context;
+
+	/**
+	 * Creates a new calculator.
+	 *
+	 * @param context
+	 *            the context used to count in parallel, can be {@code null} to count
+	 *            single-threaded
+	 */
+	AttributeStatisticsCalculator(ConcurrencyContext context) {
+		this.context = context;
+	}
+
+	/**
+	 * Calculates the statistics of the given attributes. The examples are weighted by the weight
+	 * attribute of the example set if it is numerical.
+	 * <p>
+	 * The calculation is stopped by {@link Thread#interrupt()}.
+	 *
+	 * @param exampleSet
+	 *            the examples to count
+	 * @param attributes
+	 *            the attributes to calculate the statistics for
+	 * @return the calculated statistics by attribute name or {@code null} if the calculation was
+	 *         interrupted
+	 */
+	Map<String, List<Statistics>> calculate(ExampleSet exampleSet, List<Attribute> attributes) {
+		Attribute weightAttribute = exampleSet.getAttributes().getWeight();
+		if (weightAttribute != null && !weightAttribute.isNumerical()) {
+			weightAttribute = null;
+		}
+
+		List<Attribute> mergeableAttributes = new ArrayList<>();
+		List<List<Statistics>> mergeablePrototypes = new ArrayList<>();
+		List<Attribute> otherAttributes = new ArrayList<>();
+		List<List<Statistics>> otherPrototypes = new ArrayList<>();
+		for (Attribute attribute : attributes) {
+			List<Statistics> prototypes = new ArrayList<>();
+			boolean mergeable = true;
+			for (Iterator<Statistics> stats = attribute.getAllStatistics(); stats.hasNext();) {
+				Statistics statistics = stats.next();
+				mergeable &= statistics instanceof MergeableStatistics;
+				prototypes.add(statistics);
+			}
+			if (mergeable) {
+				mergeableAttributes.add(attribute);
+				mergeablePrototypes.add(prototypes);
+			} else {
+				otherAttributes.add(attribute);
+				otherPrototypes.add(prototypes);
+			}
+		}
+
+		ConcurrencyContext context = ExampleSets.isThreadSafe(exampleSet) ? this.context : null;
+		int size = exampleSet.size();
+		int parallelism = context == null ? 1 : Math.max(1, context.getParallelism());
+		long values = (long) size * Math.max(1, mergeableAttributes.size());
+		int parts = (int) Math.max(1, Math.min(parallelism, values / MIN_PARALLEL_VALUES));
+
+		List<Callable<List<List<Statistics>>>> tasks = new ArrayList<>(parts + 1);
+		if (!mergeableAttributes.isEmpty()) {
+			for (int i = 0; i < parts; i++) {
+				int from = (int) ((long) size * i / parts);
+				int to = (int) ((long) size * (i + 1) / parts);
+				Attribute weight = weightAttribute;
+				tasks.add(() -> count(exampleSet, mergeableAttributes, mergeablePrototypes, weight, from, to));
+			}
+		}
+		if (!otherAttributes.isEmpty()) {
+			Attribute weight = weightAttribute;
+			tasks.add(() -> count(exampleSet, otherAttributes, otherPrototypes, weight, 0, size));
+		}
+
+		List<List<List<Statistics>>> results = ConcurrencyTools.call(context, tasks);
+		for (List<List<Statistics>> result : results) {
+			if (result == null) {
+				return null;
+			}
+		}
+		if (Thread.currentThread().isInterrupted()) {
+			return null;
+		}
+
+		Map<String, List<Statistics>> statisticsMap = new HashMap<>();
+		if (!mergeableAttributes.isEmpty()) {
+			for (int a = 0; a < mergeableAttributes.size(); a++) {
+				List<Statistics> statistics = results.get(0).get(a);
+				for (int part = 1; part < parts; part++) {
+					List<Statistics> partStatistics = results.get(part).get(a);
+					for (int s = 0; s < statistics.size(); s++) {
+						((MergeableStatistics) statistics.get(s)).merge(partStatistics.get(s));
+					}
+				}
+				statisticsMap.put(mergeableAttributes.get(a).getName(), statistics);
+			}
+		}
+		if (!otherAttributes.isEmpty()) {
+			List<List<Statistics>> statistics = results.get(results.size() - 1);
+			for (int a = 0; a < otherAttributes.size(); a++) {
+				statisticsMap.put(otherAttributes.get(a).getName(), statistics.get(a));
+			}
+		}
+		return statisticsMap;
+	}
+
+	/**
+	 * Counts the values of the examples with indices {@code from} (inclusive) to {@code to}
+	 * (exclusive) into fresh copies of the prototypes.
+	 *
+	 * @return the statistics per attribute or {@code null} if the thread was interrupted
+	 */
+	private static List<List<Statistics>> count(ExampleSet exampleSet, List<Attribute> attributes,
+			List<List<Statistics>> prototypes, Attribute weightAttribute, int from, int to) {
+		List<List<Statistics>> statistics = new ArrayList<>(attributes.size());
+		for (int a = 0; a < attributes.size(); a++) {
+			List<Statistics> attributeStatistics = new LinkedList<>();
+			for (Statistics prototype : prototypes.get(a)) {
+				Statistics copy = (Statistics) prototype.clone();
+				copy.startCounting(attributes.get(a));
+				attributeStatistics.add(copy);
+			}
+			statistics.add(attributeStatistics);
+		}
+
+		double[] values = new double[BLOCK_SIZE];
+		double[] weights = weightAttribute == null ? null : new double[BLOCK_SIZE];
+		for (int start = from; start < to; start += BLOCK_SIZE) {
+			int end = Math.min(to, start + BLOCK_SIZE);
+			int length = end - start;
+			if (weights != null) {
+				exampleSet.getValues(weightAttribute, start, end, weights);
+			}
+			for (int a = 0; a < attributes.size(); a++) {
+				exampleSet.getValues(attributes.get(a), start, end, values);
+				for (Statistics attributeStatistics : statistics.get(a)) {
+					if (weights == null) {
+						for (int i = 0; i < length; i++) {
+							attributeStatistics.count(values[i], 1.0d);
+						}
+					} else {
+						for (int i = 0; i < length; i++) {
+							attributeStatistics.count(values[i], weights[i]);
+						}
+					}
+				}
+			}
+			if (Thread.currentThread().isInterrupted()) {
+				return null;
+			}
+		}
+		return statistics;
+	}
+}
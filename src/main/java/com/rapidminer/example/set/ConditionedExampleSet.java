@@ -24,6 +24,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Attributes;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
@@ -196,6 +197,22 @@ public class ConditionedExampleSet extends AbstractExampleSet {
 		}
 	}
 
+	/** Reads the values of the mapped examples from the parent example set. */
+	@Override
+	public void getValues(Attribute attribute, int from, int to, double[] target) {
+		parent.getValues(attribute, mapping, from, to, target);
+	}
+
+	/** Reads the values of the mapped examples from the parent example set. */
+	@Override
+	public void getValues(Attribute attribute, int[] rows, int from, int to, double[] target) {
+		int[] parentRows = new int[to - from];
+		for (int i = from; i < to; i++) {
+			parentRows[i - from] = mapping[rows[i]];
+		}
+		parent.getValues(attribute, parentRows, 0, parentRows.length, target);
+	}
+
 	/** Counts the number of examples which fulfills the condition. */
 	@Override
 	public int size() {
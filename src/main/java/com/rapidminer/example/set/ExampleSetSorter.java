@@ -0,0 +1,537 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.set;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.NominalMapping;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.studio.concurrency.internal.util.ConcurrencyTools;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Computes the order of the examples of an {@link ExampleSet} with respect to one or more
+ * attributes, e.g. as mapping for a {@link SortedExampleSet}.
+ * <p>
+ * Every sort key is converted into a primitive {@code double}: numerical values are used as they
+ * are, date values are truncated to milliseconds and nominal values are replaced by the rank of
+ * their string in the lexicographical order of the mapping. Missing numerical values are greater
+ * than all other values, missing nominal values are ranked like the string
+ * {@value Attribute#MISSING_NOMINAL_VALUE} and missing dates like the epoch. Ties are resolved by the
+ * original example index, so the sort is stable in both directions.
+ * <p>
+ * If the keys fit into the memory budget, they are sorted in memory. Otherwise runs of the size of
+ * the budget are sorted one after another, written to temporary files and combined by a k-way
+ * merge. In-memory sorts are split into parts which are sorted and merged in parallel if a
+ * {@link ConcurrencyContext} is given. The keys are always read from the example set by the
+ * calling thread and only the arrays of keys are shared with other threads, so views that are not
+ * safe for concurrent reads can be sorted without a copy. The resulting mapping itself always
+ * needs four bytes per example.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class ExampleSetSorter {
+
+	/** Sort inputs smaller than this are sorted by a single thread */
+	private static final int MIN_PARALLEL_ROWS = 1 << 16;
+
+	/** Ranges smaller than this are sorted by insertion sort */
+	private static final int INSERTION_SORT_THRESHOLD = 32;
+
+	/** The minimal number of rows of a run written to disk */
+	private static final int MIN_RUN_ROWS = 1 << 12;
+
+	/** The maximal number of runs merged at once */
+	private static final int MAX_FAN_IN = 64;
+
+	/** Buffer size of the streams reading and writing runs */
+	private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+	/** Prefix of the temporary run files */
+	private static final String TEMP_FILE_PREFIX = "rm_sort_run_";
+
+	/** Suffix of the temporary run files */
+	private static final String TEMP_FILE_SUFFIX = ".dump";
+
+	/**
+	 * The keys of a range of examples and their original indices. Compares positions within the
+	 * range.
+	 */
+	private static final class Keys {
+
+		private final double[][] values;
+		private final int[] rows;
+		private final boolean[] descending;
+
+		private Keys(int numberOfKeys, int size, boolean[] descending) {
+			this.values = new double[numberOfKeys][size];
+			this.rows = new int[size];
+			this.descending = descending;
+		}
+
+		private int compare(int a, int b) {
+			for (int k = 0; k < values.length; k++) {
+				int result = Double.compare(values[k][a], values[k][b]);
+				if (result != 0) {
+					return descending[k] ? -result : result;
+				}
+			}
+			return Integer.compare(rows[a], rows[b]);
+		}
+	}
+
+	/**
+	 * Reads the records of a run file one after another.
+	 */
+	private static final class RunReader implements AutoCloseable {
+
+		private final DataInputStream in;
+		private final double[] key;
+		private long remaining;
+		private int row;
+
+		private RunReader(File file, int numberOfKeys, long size) throws IOException {
+			this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), STREAM_BUFFER_SIZE));
+			this.key = new double[numberOfKeys];
+			this.remaining = size;
+		}
+
+		/**
+		 * @return {@code false} if the run is exhausted
+		 */
+		private boolean next() throws IOException {
+			if (remaining == 0) {
+				return false;
+			}
+			for (int k = 0; k < key.length; k++) {
+				key[k] = in.readDouble();
+			}
+			row = in.readInt();
+			remaining--;
+			return true;
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+	}
+
+	/** A sorted run on disk */
+	private static final class Run {
+
+		private final File file;
+		private final long size;
+
+		private Run(File file, long size) {
+			this.file = file;
+			this.size = size;
+		}
+	}
+
+	private final ConcurrencyContext context;
+
+	private final long memoryBudget;
+
+	/**
+	 * Creates a new sorter.
+	 *
+	 * @param context
+	 *            the context used to sort in parallel, can be {@code null} to sort single-threaded
+	 * @param memoryBudget
+	 *            the number of bytes the sort keys may use in memory, runs are written to disk if
+	 *            the keys exceed it
+	 */
+	public ExampleSetSorter(ConcurrencyContext context, long memoryBudget) {
+		this.context = context;
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Sorts the examples by the given attributes. The first attribute is the primary key, the
+	 * following attributes are only used to order examples with equal preceding keys.
+	 *
+	 * @param exampleSet
+	 *            the example set to sort
+	 * @param attributes
+	 *            the attributes to sort by
+	 * @param descending
+	 *            for each attribute whether it is sorted in decreasing direction
+	 * @param progress
+	 *            the progress to report to, can be {@code null}
+	 * @return the indices of the examples in sorted order
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 * @throws IOException
+	 *             if a run cannot be written to or read from disk
+	 */
+	public int[] sort(ExampleSet exampleSet, List<Attribute> attributes, boolean[] descending, OperatorProgress progress)
+			throws ProcessStoppedException, IOException {
+		if (attributes.size() != descending.length) {
+			throw new IllegalArgumentException("One direction per attribute required");
+		}
+		int size = exampleSet.size();
+		Attribute[] keyAttributes = attributes.toArray(new Attribute[attributes.size()]);
+		double[][] nominalRanks = new double[keyAttributes.length][];
+		for (int k = 0; k < keyAttributes.length; k++) {
+			if (keyAttributes[k].isNominal()) {
+				nominalRanks[k] = rankNominalValues(keyAttributes[k].getMapping());
+			}
+		}
+		if (progress != null) {
+			progress.setTotal(100);
+		}
+
+		long bytesPerRow = 8L * keyAttributes.length + 4;
+		// sorting in memory needs an additional int buffer per row
+		if ((bytesPerRow + 8) * size <= memoryBudget) {
+			Keys keys = readKeys(exampleSet, keyAttributes, nominalRanks, descending, 0, size);
+			if (progress != null) {
+				progress.setCompleted(40);
+			}
+			int[] order = sort(keys);
+			for (int i = 0; i < size; i++) {
+				order[i] = keys.rows[order[i]];
+			}
+			if (progress != null) {
+				progress.setCompleted(100);
+			}
+			return order;
+		}
+
+		int runRows = (int) Math.min(size, Math.max(MIN_RUN_ROWS, memoryBudget / (bytesPerRow + 8)));
+		List<Run> runs = new ArrayList<>();
+		try {
+			for (int from = 0; from < size; from += runRows) {
+				int to = Math.min(size, from + runRows);
+				Keys keys = readKeys(exampleSet, keyAttributes, nominalRanks, descending, from, to);
+				runs.add(writeRun(keys, sort(keys)));
+				if (progress != null) {
+					progress.setCompleted((int) (60L * to / size));
+				}
+			}
+			while (runs.size() > MAX_FAN_IN) {
+				List<Run> merged = new ArrayList<>();
+				for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+					List<Run> group = runs.subList(i, Math.min(runs.size(), i + MAX_FAN_IN));
+					merged.add(mergeToRun(group, descending));
+					delete(group);
+				}
+				runs = merged;
+				if (progress != null) {
+					// checks whether the process was stopped
+					progress.setCompleted(60);
+				}
+			}
+			int[] mapping = new int[size];
+			merge(runs, descending, new RowConsumer() {
+
+				private int position = 0;
+
+				@Override
+				public void accept(double[] key, int row) {
+					mapping[position++] = row;
+				}
+			});
+			if (progress != null) {
+				progress.setCompleted(100);
+			}
+			return mapping;
+		} finally {
+			delete(runs);
+		}
+	}
+
+	/**
+	 * Returns the rank of every mapping index in the lexicographical order of the mapped strings.
+	 * The last entry holds the rank of missing values.
+	 */
+	private static double[] rankNominalValues(NominalMapping mapping) {
+		List<String> values = mapping.getValues();
+		int size = values.size();
+		String[] sorted = values.toArray(new String[size + 1]);
+		sorted[size] = Attribute.MISSING_NOMINAL_VALUE;
+		Arrays.sort(sorted);
+		double[] ranks = new double[size + 1];
+		for (int i = 0; i < size; i++) {
+			ranks[i] = Arrays.binarySearch(sorted, values.get(i));
+		}
+		// equal to an existing value if the missing value string is used as nominal value
+		ranks[size] = Arrays.binarySearch(sorted, Attribute.MISSING_NOMINAL_VALUE);
+		for (int i = 0; i < size; i++) {
+			if (values.get(i).equals(Attribute.MISSING_NOMINAL_VALUE)) {
+				ranks[size] = ranks[i];
+			}
+		}
+		return ranks;
+	}
+
+	/**
+	 * Reads and converts the keys of the examples {@code from} (inclusive) to {@code to}
+	 * (exclusive).
+	 */
+	private static Keys readKeys(ExampleSet exampleSet, Attribute[] attributes, double[][] nominalRanks,
+			boolean[] descending, int from, int to) {
+		Keys keys = new Keys(attributes.length, to - from, descending);
+		for (int k = 0; k < attributes.length; k++) {
+			double[] values = keys.values[k];
+			exampleSet.getValues(attributes[k], from, to, values);
+			double[] ranks = nominalRanks[k];
+			if (ranks != null) {
+				int missing = ranks.length - 1;
+				for (int i = 0; i < values.length; i++) {
+					values[i] = Double.isNaN(values[i]) ? ranks[missing] : ranks[(int) values[i]];
+				}
+			} else if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(attributes[k].getValueType(), Ontology.DATE_TIME)) {
+				for (int i = 0; i < values.length; i++) {
+					values[i] = (long) values[i];
+				}
+			}
+		}
+		for (int i = 0; i < keys.rows.length; i++) {
+			keys.rows[i] = from + i;
+		}
+		return keys;
+	}
+
+	/**
+	 * Sorts the positions of the keys. The positions are split into one part per available
+	 * thread, each part is sorted by merge sort and the sorted parts are merged pairwise.
+	 *
+	 * @return the sorted positions
+	 */
+	private int[] sort(Keys keys) {
+		int size = keys.rows.length;
+		int[] order = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		int[] buffer = new int[size];
+		int parallelism = context == null ? 1 : Math.max(1, context.getParallelism());
+		int parts = Math.max(1, Math.min(parallelism, size / MIN_PARALLEL_ROWS));
+		int[] bounds = new int[parts + 1];
+		for (int i = 0; i <= parts; i++) {
+			bounds[i] = (int) ((long) size * i / parts);
+		}
+
+		List<Callable<Void>> tasks = new ArrayList<>(parts);
+		for (int i = 0; i < parts; i++) {
+			int from = bounds[i];
+			int to = bounds[i + 1];
+			tasks.add(() -> {
+				mergeSort(order, buffer, from, to, keys);
+				return null;
+			});
+		}
+		ConcurrencyTools.call(context, tasks);
+
+		int[] source = order;
+		int[] target = buffer;
+		for (int width = 1; width < parts; width *= 2) {
+			tasks = new ArrayList<>();
+			for (int i = 0; i < parts; i += 2 * width) {
+				int from = bounds[i];
+				int middle = bounds[Math.min(parts, i + width)];
+				int to = bounds[Math.min(parts, i + 2 * width)];
+				int[] currentSource = source;
+				int[] currentTarget = target;
+				tasks.add(() -> {
+					merge(currentSource, currentTarget, from, middle, to, keys);
+					return null;
+				});
+			}
+			ConcurrencyTools.call(context, tasks);
+			int[] swap = source;
+			source = target;
+			target = swap;
+		}
+		return source;
+	}
+
+	/**
+	 * Sorts the range of the array using the buffer for merging.
+	 */
+	private static void mergeSort(int[] order, int[] buffer, int from, int to, Keys keys) {
+		if (to - from <= INSERTION_SORT_THRESHOLD) {
+			for (int i = from + 1; i < to; i++) {
+				int value = order[i];
+				int j = i - 1;
+				while (j >= from && keys.compare(order[j], value) > 0) {
+					order[j + 1] = order[j];
+					j--;
+				}
+				order[j + 1] = value;
+			}
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		mergeSort(order, buffer, from, middle, keys);
+		mergeSort(order, buffer, middle, to, keys);
+		if (keys.compare(order[middle - 1], order[middle]) <= 0) {
+			// already in order
+			return;
+		}
+		System.arraycopy(order, from, buffer, from, to - from);
+		merge(buffer, order, from, middle, to, keys);
+	}
+
+	/**
+	 * Merges the sorted ranges {@code [from, middle)} and {@code [middle, to)} of the source into
+	 * the same range of the target.
+	 */
+	private static void merge(int[] source, int[] target, int from, int middle, int to, Keys keys) {
+		int left = from;
+		int right = middle;
+		int position = from;
+		while (left < middle && right < to) {
+			if (keys.compare(source[right], source[left]) < 0) {
+				target[position++] = source[right++];
+			} else {
+				target[position++] = source[left++];
+			}
+		}
+		System.arraycopy(source, left, target, position, middle - left);
+		position += middle - left;
+		System.arraycopy(source, right, target, position, to - right);
+	}
+
+	/**
+	 * Writes the keys in the given order to a new temporary file.
+	 */
+	private static Run writeRun(Keys keys, int[] order) throws IOException {
+		File file = createTempFile();
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file), STREAM_BUFFER_SIZE))) {
+			for (int position : order) {
+				for (double[] values : keys.values) {
+					out.writeDouble(values[position]);
+				}
+				out.writeInt(keys.rows[position]);
+			}
+		} catch (IOException | RuntimeException e) {
+			delete(file);
+			throw e;
+		}
+		return new Run(file, order.length);
+	}
+
+	/** Receives the records of a merge in sorted order */
+	private interface RowConsumer {
+
+		void accept(double[] key, int row) throws IOException;
+	}
+
+	/**
+	 * Merges the runs into a new run.
+	 */
+	private static Run mergeToRun(List<Run> runs, boolean[] descending) throws IOException {
+		File file = createTempFile();
+		long size = 0;
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file), STREAM_BUFFER_SIZE))) {
+			merge(runs, descending, (key, row) -> {
+				for (double value : key) {
+					out.writeDouble(value);
+				}
+				out.writeInt(row);
+			});
+			for (Run run : runs) {
+				size += run.size;
+			}
+		} catch (IOException | RuntimeException e) {
+			delete(file);
+			throw e;
+		}
+		return new Run(file, size);
+	}
+
+	/**
+	 * Merges the runs using a priority queue of the current record of every run. Ties are resolved
+	 * by the original example index like in memory.
+	 */
+	private static void merge(List<Run> runs, boolean[] descending, RowConsumer consumer) throws IOException {
+		PriorityQueue<RunReader> queue = new PriorityQueue<>(Math.max(1, runs.size()), (a, b) -> {
+			for (int k = 0; k < a.key.length; k++) {
+				int result = Double.compare(a.key[k], b.key[k]);
+				if (result != 0) {
+					return descending[k] ? -result : result;
+				}
+			}
+			return Integer.compare(a.row, b.row);
+		});
+		List<RunReader> readers = new ArrayList<>(runs.size());
+		try {
+			for (Run run : runs) {
+				RunReader reader = new RunReader(run.file, descending.length, run.size);
+				readers.add(reader);
+				if (reader.next()) {
+					queue.add(reader);
+				}
+			}
+			while (!queue.isEmpty()) {
+				RunReader reader = queue.poll();
+				consumer.accept(reader.key, reader.row);
+				if (reader.next()) {
+					queue.add(reader);
+				}
+			}
+		} finally {
+			for (RunReader reader : readers) {
+				reader.close();
+			}
+		}
+	}
+
+	private static File createTempFile() throws IOException {
+		File file = File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+		file.deleteOnExit();
+		return file;
+	}
+
+	private static void delete(List<Run> runs) {
+		for (Run run : runs) {
+			delete(run.file);
+		}
+	}
+
+	private static void delete(File file) {
+		if (!file.delete()) {
+			file.deleteOnExit();
+		}
+	}
+
+}
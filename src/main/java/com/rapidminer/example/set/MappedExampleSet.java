@@ -152,6 +152,22 @@ public class MappedExampleSet extends AbstractExampleSet {
 		}
 	}
 
+	/** Reads the values of the mapped examples from the parent example set. */
+	@Override
+	public void getValues(Attribute attribute, int from, int to, double[] target) {
+		parent.getValues(attribute, mapping, from, to, target);
+	}
+
+	/** Reads the values of the mapped examples from the parent example set. */
+	@Override
+	public void getValues(Attribute attribute, int[] rows, int from, int to, double[] target) {
+		int[] parentRows = new int[to - from];
+		for (int i = from; i < to; i++) {
+			parentRows[i - from] = mapping[rows[i]];
+		}
+		parent.getValues(attribute, parentRows, 0, parentRows.length, target);
+	}
+
 	/** Counts the number of examples. */
 	@Override
 	public int size() {
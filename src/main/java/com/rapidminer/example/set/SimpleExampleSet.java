@@ -172,6 +172,36 @@ public class SimpleExampleSet extends AbstractExampleSet {
 		}
 	}
 
+	/**
+	 * Reads the values directly from the columns if the table is a {@link ColumnarExampleTable} and
+	 * the attribute has no transformations, otherwise from the {@link DataRow}s of the table.
+	 */
+	@Override
+	public void getValues(Attribute attribute, int from, int to, double[] target) {
+		if (exampleTable instanceof ColumnarExampleTable && attribute.getLastTransformation() == null) {
+			((ColumnarExampleTable) exampleTable).getValues(attribute, from, to, target);
+		} else {
+			for (int i = from; i < to; i++) {
+				target[i - from] = attribute.getValue(exampleTable.getDataRow(i));
+			}
+		}
+	}
+
+	/**
+	 * Reads the values directly from the columns if the table is a {@link ColumnarExampleTable} and
+	 * the attribute has no transformations, otherwise from the {@link DataRow}s of the table.
+	 */
+	@Override
+	public void getValues(Attribute attribute, int[] rows, int from, int to, double[] target) {
+		if (exampleTable instanceof ColumnarExampleTable && attribute.getLastTransformation() == null) {
+			((ColumnarExampleTable) exampleTable).getValues(attribute, rows, from, to, target);
+		} else {
+			for (int i = from; i < to; i++) {
+				target[i - from] = attribute.getValue(exampleTable.getDataRow(rows[i]));
+			}
+		}
+	}
+
 	@Override
 	public Iterator<Example> iterator() {
 		return new SimpleExampleReader(getExampleTable().getDataRowReader(), this);
@@ -18,13 +18,10 @@
 */
 package com.rapidminer.example.set;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.Date;
 import java.util.Iterator;
-import java.util.List;
 
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Attributes;
@@ -34,7 +31,6 @@ import com.rapidminer.example.table.ExampleTable;
 import com.rapidminer.operator.Annotations;
 import com.rapidminer.operator.OperatorProgress;
 import com.rapidminer.operator.ProcessStoppedException;
-import com.rapidminer.tools.Ontology;
 
 
 /**
@@ -56,39 +52,6 @@ public class SortedExampleSet extends AbstractExampleSet {
 	public static final int INCREASING = 0;
 	public static final int DECREASING = 1;
 
-	private static class SortingIndex {
-
-		final private Object key;
-		final private int index;
-
-		public SortingIndex(Object key, int index) {
-			this.key = key;
-			this.index = index;
-		}
-
-		public int getIndex() {
-			return index;
-		}
-
-		public Date getKeyAsDate() {
-			return (Date) key;
-		}
-
-		public String getKeyAsString() {
-			return (String) key;
-		}
-
-		public Double getKeyAsDouble() {
-			return (Double) key;
-		}
-
-		@Override
-		public String toString() {
-			return key + " --> " + index;
-		}
-
-	}
-
 	/** The parent example set. */
 	private ExampleSet parent;
 
@@ -114,97 +77,14 @@ public class SortedExampleSet extends AbstractExampleSet {
 	private void createSortedExampleSet(ExampleSet parent, final Attribute sortingAttribute, int sortingDirection,
 			OperatorProgress progress) throws ProcessStoppedException {
 		this.parent = (ExampleSet) parent.clone();
-		List<SortingIndex> sortingIndex = new ArrayList<SortingIndex>(parent.size());
-		if (progress != null) {
-			progress.setTotal(100);
-		}
-
-		// create sort index
-		int exampleCounter = 0;
-		int progressTriggerCounter = 0;
-		Iterator<Example> i = parent.iterator();
-		while (i.hasNext()) {
-			Example example = i.next();
-			if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(sortingAttribute.getValueType(), Ontology.DATE_TIME)) {
-				sortingIndex.add(new SortingIndex(example.getDateValue(sortingAttribute), exampleCounter));
-			} else if (sortingAttribute.isNumerical()) {
-				sortingIndex.add(new SortingIndex(example.getNumericalValue(sortingAttribute), exampleCounter));
-
-			} else {
-				sortingIndex.add(new SortingIndex(example.getNominalValue(sortingAttribute), exampleCounter));
-
-			}
-			exampleCounter++;
-			progressTriggerCounter++;
-			if (progress != null && progressTriggerCounter > 2_000_000) {
-				progressTriggerCounter = 0;
-				progress.setCompleted((int) ((long) exampleCounter * 40 / parent.size()));
-			}
-		}
-		if (progress != null) {
-			progress.setCompleted(40);
-		}
-
-		// create comparator
-		Comparator<SortingIndex> sortComparator = new Comparator<SortingIndex>() {
-
-			@Override
-			public int compare(SortingIndex o1, SortingIndex o2) {
-				if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(sortingAttribute.getValueType(), Ontology.DATE_TIME)) {
-					Date firstDate = o1.getKeyAsDate();
-					Date secondDate = o2.getKeyAsDate();
-					if (firstDate == secondDate || firstDate == null) {
-						return 0;
-					} else {
-						return firstDate.compareTo(secondDate);
-					}
-				} else if (sortingAttribute.isNumerical()) {
-					Double firstDouble = o1.getKeyAsDouble();
-					Double secondDouble = o2.getKeyAsDouble();
-					if (firstDouble == null || firstDouble.equals(secondDouble)) {
-						return 0;
-					} else {
-						return firstDouble.compareTo(secondDouble);
-					}
-				} else if (sortingAttribute.isNominal()) {
-					String firstString = o1.getKeyAsString();
-					String secondString = o2.getKeyAsString();
-					if (firstString == null || firstString.equals(secondString)) {
-						return 0;
-					} else {
-						return firstString.compareTo(secondString);
-					}
-				}
-				return 0;
-			}
-		};
-
-		// sort
-		if (sortingDirection == INCREASING) {
-			Collections.sort(sortingIndex, sortComparator);
-		} else {
-			Collections.sort(sortingIndex, Collections.reverseOrder(sortComparator));
-		}
-		if (progress != null) {
-			progress.setCompleted(60);
-		}
-
-		// change mapping
-		int[] mapping = new int[parent.size()];
-		exampleCounter = 0;
-		progressTriggerCounter = 0;
-		Iterator<SortingIndex> k = sortingIndex.iterator();
-		while (k.hasNext()) {
-			Integer index = k.next().getIndex();
-			mapping[exampleCounter++] = index;
-			progressTriggerCounter++;
-			if (progress != null && progressTriggerCounter > 2_000_000) {
-				progressTriggerCounter = 0;
-				progress.setCompleted((int) (60 + (long) exampleCounter * 40 / sortingIndex.size()));
-			}
+		try {
+			this.mapping = new ExampleSetSorter(null, Long.MAX_VALUE).sort(parent,
+					Collections.singletonList(sortingAttribute), new boolean[] { sortingDirection == DECREASING },
+					progress);
+		} catch (IOException e) {
+			// Cannot happen, the sort happens in memory
+			throw new RuntimeException(e);
 		}
-
-		this.mapping = mapping;
 	}
 
 	/** Constructs an example set based on the given sort mapping. */
@@ -262,6 +142,22 @@ public class SortedExampleSet extends AbstractExampleSet {
 		}
 	}
 
+	/** Reads the values of the mapped examples from the parent example set. */
+	@Override
+	public void getValues(Attribute attribute, int from, int to, double[] target) {
+		parent.getValues(attribute, mapping, from, to, target);
+	}
+
+	/** Reads the values of the mapped examples from the parent example set. */
+	@Override
+	public void getValues(Attribute attribute, int[] rows, int from, int to, double[] target) {
+		int[] parentRows = new int[to - from];
+		for (int i = from; i < to; i++) {
+			parentRows[i - from] = mapping[rows[i]];
+		}
+		parent.getValues(attribute, parentRows, 0, parentRows.length, target);
+	}
+
 	/** Counts the number of examples. */
 	@Override
 	public int size() {
@@ -0,0 +1,607 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.table;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.table.internal.ColumnarExampleTable;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Imports the rows of a {@link ResultSet} directly into a {@link ColumnarExampleTable}. In contrast
+ * to the {@link ResultSetDataRowReader} no {@link DataRow} is created per row. Instead the columns
+ * are read by index using the getter matching their type, e.g. {@link ResultSet#getLong} for
+ * integer columns, into primitive batches which are then appended column by column to the table.
+ * <p>
+ * The i-th attribute is read from the i-th column of the result set. The {@link #setFetchSize fetch
+ * size} is passed to the JDBC driver as a hint on how many rows to transfer per round trip. Note
+ * that some drivers, e.g. the PostgreSQL driver, only respect the hint if auto-commit is disabled
+ * for the connection.
+ * <p>
+ * {@link #readParallel} additionally allows to split a query by the range of a numerical key column
+ * and to read the parts via several connections at the same time.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class BatchedResultSetReader {
+
+	/**
+	 * Provides a new database connection for every part of a {@link BatchedResultSetReader#readParallel
+	 * parallel import}. The connections are closed by the reader.
+	 */
+	@FunctionalInterface
+	public interface ConnectionProvider {
+
+		/**
+		 * @return a new connection
+		 * @throws SQLException
+		 *             if the connection cannot be established
+		 */
+		Connection getConnection() throws SQLException;
+	}
+
+	/** The default number of rows transferred per round trip */
+	public static final int DEFAULT_FETCH_SIZE = 10_000;
+
+	/** The default number of rows appended to the table at once */
+	public static final int DEFAULT_BATCH_SIZE = 4_096;
+
+	/** The alias of the query when it is wrapped for a parallel import */
+	private static final String QUERY_ALIAS = "rm_key_range";
+
+	/** The number of batches per range that are read ahead of the appending thread */
+	private static final int QUEUED_BATCHES = 4;
+
+	/** How long a waiting thread sleeps before it checks whether the import was aborted */
+	private static final long WAIT_MILLIS = 100;
+
+	/** How values of a column are read from the result set */
+	private enum ColumnType {
+		INTEGER, REAL, DATE_TIME, NOMINAL, CLOB, UNSUPPORTED
+	}
+
+	/**
+	 * A block of rows read from a result set. Nominal values are either already mapped to indices
+	 * or kept as strings if the mapping must not be accessed from the reading thread.
+	 */
+	private static final class Batch {
+
+		private final double[][] values;
+		private final String[][] strings;
+		private int size;
+
+		private Batch(int columns, int batchSize, boolean keepStrings) {
+			values = new double[columns][batchSize];
+			strings = keepStrings ? new String[columns][] : null;
+		}
+	}
+
+	/** Marks the end of the batches of a range */
+	private static final Batch END = new Batch(0, 0, false);
+
+	private final Attribute[] attributes;
+
+	private int fetchSize = DEFAULT_FETCH_SIZE;
+
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	private DataManagement management = DataManagement.AUTO;
+
+	/**
+	 * Creates a new reader for the given attributes.
+	 *
+	 * @param attributes
+	 *            the attributes, the i-th attribute is read from the i-th column
+	 */
+	public BatchedResultSetReader(List<Attribute> attributes) {
+		this.attributes = attributes.toArray(new Attribute[attributes.size()]);
+	}
+
+	/**
+	 * Sets the number of rows the JDBC driver should transfer per round trip. A value of {@code 0}
+	 * leaves the default of the driver untouched.
+	 *
+	 * @param fetchSize
+	 *            the fetch size, must not be negative
+	 */
+	public void setFetchSize(int fetchSize) {
+		if (fetchSize < 0) {
+			throw new IllegalArgumentException("fetchSize must not be negative");
+		}
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * Sets the number of rows that are read before they are appended to the table.
+	 *
+	 * @param batchSize
+	 *            the batch size, must be positive
+	 */
+	public void setBatchSize(int batchSize) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("batchSize must be positive");
+		}
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Sets the data management of the created table.
+	 *
+	 * @param management
+	 *            the data management to use
+	 */
+	public void setDataManagement(DataManagement management) {
+		this.management = management;
+	}
+
+	/**
+	 * Creates attributes matching the columns described by the meta data. Integer columns become
+	 * {@link Ontology#INTEGER}, other numerical columns {@link Ontology#REAL}, date and time columns
+	 * the matching date types, {@link Types#BIT} and {@link Types#BOOLEAN} columns
+	 * {@link Ontology#BINOMINAL} and all remaining columns {@link Ontology#POLYNOMINAL}.
+	 *
+	 * @param metaData
+	 *            the meta data of the result set
+	 * @return the attributes in the order of the columns
+	 * @throws SQLException
+	 *             if the meta data cannot be accessed
+	 */
+	public static List<Attribute> createAttributes(ResultSetMetaData metaData) throws SQLException {
+		int columnCount = metaData.getColumnCount();
+		List<Attribute> attributes = new ArrayList<>(columnCount);
+		for (int i = 1; i <= columnCount; i++) {
+			int valueType;
+			switch (metaData.getColumnType(i)) {
+				case Types.TINYINT:
+				case Types.SMALLINT:
+				case Types.INTEGER:
+				case Types.BIGINT:
+					valueType = Ontology.INTEGER;
+					break;
+				case Types.REAL:
+				case Types.FLOAT:
+				case Types.DOUBLE:
+				case Types.DECIMAL:
+				case Types.NUMERIC:
+					valueType = Ontology.REAL;
+					break;
+				case Types.DATE:
+					valueType = Ontology.DATE;
+					break;
+				case Types.TIME:
+					valueType = Ontology.TIME;
+					break;
+				case Types.TIMESTAMP:
+					valueType = Ontology.DATE_TIME;
+					break;
+				case Types.BIT:
+				case Types.BOOLEAN:
+					valueType = Ontology.BINOMINAL;
+					break;
+				default:
+					valueType = Ontology.POLYNOMINAL;
+					break;
+			}
+			attributes.add(AttributeFactory.createAttribute(metaData.getColumnLabel(i), valueType));
+		}
+		return attributes;
+	}
+
+	/**
+	 * Reads all remaining rows of the result set into a new table. The result set is not closed.
+	 *
+	 * @param resultSet
+	 *            the result set to read
+	 * @return the completed table
+	 * @throws SQLException
+	 *             if the result set cannot be read
+	 */
+	public ColumnarExampleTable read(ResultSet resultSet) throws SQLException {
+		ColumnarExampleTable table = new ColumnarExampleTable(Arrays.asList(attributes), management, true);
+		ColumnType[] types = getColumnTypes(resultSet);
+		if (fetchSize > 0) {
+			resultSet.setFetchSize(fetchSize);
+		}
+		Batch batch = new Batch(attributes.length, batchSize, false);
+		while (readBatch(resultSet, types, batch)) {
+			append(table, batch);
+		}
+		append(table, batch);
+		table.complete();
+		return table;
+	}
+
+	/**
+	 * Reads the result of the query by splitting it into ranges of the numerical key column. First
+	 * the minimum and maximum of the key are determined. Then every range is queried via its own
+	 * connection, rows with a missing key are read as part of the first range. The ranges are read
+	 * in parallel using the given context and appended to the table in ascending order of the key
+	 * ranges. Within a range the order is the one returned by the database.
+	 * <p>
+	 * The calling thread appends every batch as soon as it is its turn. The ranges are read in
+	 * ascending order by at most as many threads as the context offers, and a reading thread waits
+	 * while a few batches of its range are not yet appended. Hence only a few batches per reading
+	 * thread are held in memory instead of the whole result.
+	 * <p>
+	 * To restrict the rows, the query is wrapped into a sub-select, e.g.
+	 * {@code SELECT * FROM (query) rm_key_range WHERE key >= ? AND key < ?}. Hence the query must
+	 * be usable as a derived table and the key column must be a valid identifier of its result.
+	 *
+	 * @param connections
+	 *            provides a new connection for every range
+	 * @param query
+	 *            the query to read
+	 * @param keyColumn
+	 *            the numerical column used to split the query, quoted if necessary
+	 * @param numberOfRanges
+	 *            the number of ranges to split the query into
+	 * @param context
+	 *            the context used to query the ranges in parallel
+	 * @return the completed table
+	 * @throws SQLException
+	 *             if a query fails
+	 */
+	public ColumnarExampleTable readParallel(ConnectionProvider connections, String query, String keyColumn,
+			int numberOfRanges, ConcurrencyContext context) throws SQLException {
+		BigDecimal min;
+		BigDecimal max;
+		try (Connection connection = connections.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet bounds = statement.executeQuery("SELECT MIN(" + keyColumn + "), MAX(" + keyColumn
+						+ ") FROM (" + query + ") " + QUERY_ALIAS)) {
+			if (!bounds.next()) {
+				throw new SQLException("Cannot determine the range of the key column " + keyColumn);
+			}
+			min = bounds.getBigDecimal(1);
+			max = bounds.getBigDecimal(2);
+		}
+
+		int ranges = min == null ? 1 : Math.max(1, numberOfRanges);
+		BigDecimal[] boundaries = new BigDecimal[ranges + 1];
+		List<BlockingQueue<Batch>> queues = new ArrayList<>(ranges);
+		for (int i = 0; i < ranges; i++) {
+			boundaries[i] = min == null ? null : boundary(min, max, i, ranges);
+			queues.add(new ArrayBlockingQueue<>(QUEUED_BATCHES));
+		}
+		boundaries[ranges] = min == null ? null : max;
+
+		// the ranges are taken in ascending order, so the range to append next is always being read
+		AtomicInteger nextRange = new AtomicInteger();
+		AtomicBoolean aborted = new AtomicBoolean();
+		int readers = Math.max(1, Math.min(ranges, context.getParallelism()));
+		List<Callable<Void>> tasks = new ArrayList<>(readers);
+		for (int i = 0; i < readers; i++) {
+			tasks.add(() -> {
+				try {
+					for (int range = nextRange.getAndIncrement(); range < ranges && !aborted.get(); range = nextRange
+							.getAndIncrement()) {
+						readRange(connections, query, keyColumn, boundaries[range], boundaries[range + 1], range == 0,
+								range == ranges - 1, queues.get(range), aborted, context);
+					}
+				} catch (Throwable e) {
+					aborted.set(true);
+					throw e;
+				}
+				return null;
+			});
+		}
+
+		ColumnarExampleTable table = new ColumnarExampleTable(Arrays.asList(attributes), management, true);
+		List<Future<Void>> futures = context.submit(tasks);
+		try {
+			for (int range = 0; range < ranges && !aborted.get(); range++) {
+				BlockingQueue<Batch> queue = queues.get(range);
+				for (Batch batch = take(queue, aborted); batch != null && batch != END; batch = take(queue, aborted)) {
+					append(table, batch);
+				}
+			}
+			context.collectResults(futures);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while reading the key ranges", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof SQLException) {
+				throw (SQLException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new SQLException(cause.getMessage(), cause);
+			}
+		} finally {
+			// releases the readers if the appending failed
+			aborted.set(true);
+		}
+		table.complete();
+		return table;
+	}
+
+	/**
+	 * Queries the rows whose key lies in the given range and hands them to the appending thread via
+	 * the queue, followed by {@link #END}. Nominal values are kept as strings since the nominal
+	 * mappings must only be accessed by the appending thread. Stops early if the import is aborted.
+	 */
+	private void readRange(ConnectionProvider connections, String query, String keyColumn, BigDecimal from,
+			BigDecimal to, boolean first, boolean last, BlockingQueue<Batch> queue, AtomicBoolean aborted,
+			ConcurrencyContext context) throws SQLException, InterruptedException {
+		StringBuilder sql = new StringBuilder("SELECT * FROM (").append(query).append(") ").append(QUERY_ALIAS);
+		if (from != null) {
+			sql.append(" WHERE (").append(keyColumn).append(" >= ? AND ").append(keyColumn)
+					.append(last ? " <= ?)" : " < ?)");
+			if (first) {
+				sql.append(" OR ").append(keyColumn).append(" IS NULL");
+			}
+		}
+		try (Connection connection = connections.getConnection();
+				PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+			if (from != null) {
+				statement.setBigDecimal(1, from);
+				statement.setBigDecimal(2, to);
+			}
+			if (fetchSize > 0) {
+				statement.setFetchSize(fetchSize);
+			}
+			try (ResultSet resultSet = statement.executeQuery()) {
+				ColumnType[] types = getColumnTypes(resultSet);
+				boolean more = true;
+				while (more) {
+					context.checkStatus();
+					Batch batch = new Batch(attributes.length, batchSize, true);
+					more = readBatch(resultSet, types, batch);
+					if (batch.size > 0 && !put(queue, batch, aborted)) {
+						return;
+					}
+				}
+			}
+		}
+		put(queue, END, aborted);
+	}
+
+	/**
+	 * Waits until the batch can be queued.
+	 *
+	 * @return {@code false} if the import was aborted before
+	 */
+	private static boolean put(BlockingQueue<Batch> queue, Batch batch, AtomicBoolean aborted)
+			throws InterruptedException {
+		while (!queue.offer(batch, WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+			if (aborted.get()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Waits for the next batch of the queue. The waiting is managed, so that a fork join pool the
+	 * calling thread belongs to can activate a spare thread for the readers in the meantime.
+	 *
+	 * @return the next batch or {@code null} if the import was aborted before
+	 */
+	private static Batch take(BlockingQueue<Batch> queue, AtomicBoolean aborted) throws InterruptedException {
+		Batch batch = queue.poll();
+		if (batch != null) {
+			return batch;
+		}
+		Batch[] taken = new Batch[1];
+		ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+
+			@Override
+			public boolean block() throws InterruptedException {
+				if (taken[0] == null) {
+					taken[0] = queue.poll(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+				}
+				return isReleasable();
+			}
+
+			@Override
+			public boolean isReleasable() {
+				if (taken[0] == null) {
+					taken[0] = queue.poll();
+				}
+				return taken[0] != null || aborted.get();
+			}
+		});
+		return taken[0];
+	}
+
+	/**
+	 * Returns the i-th of n equidistant boundaries between min and max.
+	 */
+	private static BigDecimal boundary(BigDecimal min, BigDecimal max, int i, int n) {
+		if (i == 0) {
+			return min;
+		} else if (i == n) {
+			return max;
+		}
+		return max.subtract(min).multiply(BigDecimal.valueOf(i)).divide(BigDecimal.valueOf(n), MathContext.DECIMAL128)
+				.add(min);
+	}
+
+	/**
+	 * Determines how the columns of the result set are read.
+	 */
+	private ColumnType[] getColumnTypes(ResultSet resultSet) throws SQLException {
+		ResultSetMetaData metaData = resultSet.getMetaData();
+		if (metaData.getColumnCount() < attributes.length) {
+			throw new SQLException("The result set has only " + metaData.getColumnCount() + " columns but "
+					+ attributes.length + " attributes should be read");
+		}
+		ColumnType[] types = new ColumnType[attributes.length];
+		for (int i = 0; i < attributes.length; i++) {
+			int valueType = attributes[i].getValueType();
+			if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(valueType, Ontology.DATE_TIME)) {
+				types[i] = ColumnType.DATE_TIME;
+			} else if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(valueType, Ontology.NUMERICAL)) {
+				switch (metaData.getColumnType(i + 1)) {
+					case Types.TINYINT:
+					case Types.SMALLINT:
+					case Types.INTEGER:
+					case Types.BIGINT:
+						types[i] = ColumnType.INTEGER;
+						break;
+					default:
+						types[i] = ColumnType.REAL;
+						break;
+				}
+			} else if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(valueType, Ontology.NOMINAL)) {
+				types[i] = metaData.getColumnType(i + 1) == Types.CLOB ? ColumnType.CLOB : ColumnType.NOMINAL;
+			} else {
+				types[i] = ColumnType.UNSUPPORTED;
+			}
+		}
+		return types;
+	}
+
+	/**
+	 * Reads up to {@link #batchSize} rows into the batch.
+	 *
+	 * @return {@code true} if the batch was filled completely and more rows might follow
+	 */
+	private boolean readBatch(ResultSet resultSet, ColumnType[] types, Batch batch) throws SQLException {
+		int capacity = batch.values.length > 0 ? batch.values[0].length : batchSize;
+		int row = 0;
+		while (row < capacity && resultSet.next()) {
+			for (int column = 0; column < types.length; column++) {
+				int index = column + 1;
+				double value;
+				switch (types[column]) {
+					case INTEGER:
+						long longValue = resultSet.getLong(index);
+						value = resultSet.wasNull() ? Double.NaN : longValue;
+						break;
+					case REAL:
+						double doubleValue = resultSet.getDouble(index);
+						value = resultSet.wasNull() ? Double.NaN : doubleValue;
+						break;
+					case DATE_TIME:
+						Timestamp timestamp = resultSet.getTimestamp(index);
+						value = timestamp == null ? Double.NaN : timestamp.getTime();
+						break;
+					case NOMINAL:
+						value = nominal(batch, column, row, capacity, resultSet.getString(index));
+						break;
+					case CLOB:
+						value = nominal(batch, column, row, capacity, readClob(resultSet.getClob(index)));
+						break;
+					default:
+						value = Double.NaN;
+						break;
+				}
+				batch.values[column][row] = value;
+			}
+			row++;
+		}
+		batch.size = row;
+		return row == capacity;
+	}
+
+	/**
+	 * Maps the nominal value or stores it in the batch if the batch keeps strings.
+	 */
+	private double nominal(Batch batch, int column, int row, int capacity, String value) {
+		if (batch.strings != null) {
+			if (batch.strings[column] == null) {
+				batch.strings[column] = new String[capacity];
+			}
+			batch.strings[column][row] = value;
+			return Double.NaN;
+		}
+		return value == null ? Double.NaN : attributes[column].getMapping().mapString(value);
+	}
+
+	/**
+	 * Reads the content of the CLOB, each line terminated by a new line like
+	 * {@link DatabaseDataRow#readColumn}.
+	 */
+	private static String readClob(Clob clob) throws SQLException {
+		if (clob == null) {
+			return null;
+		}
+		StringBuilder builder = new StringBuilder();
+		try (BufferedReader reader = new BufferedReader(clob.getCharacterStream())) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				builder.append(line).append('\n');
+			}
+		} catch (IOException e) {
+			return null;
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Appends the rows of the batch to the table, mapping nominal strings if necessary.
+	 */
+	private void append(ColumnarExampleTable table, Batch batch) {
+		if (batch.size == 0) {
+			return;
+		}
+		int from = table.size();
+		int to = from + batch.size;
+		table.addBlankRows(batch.size);
+		for (int column = 0; column < attributes.length; column++) {
+			Attribute attribute = attributes[column];
+			if (batch.strings != null && batch.strings[column] != null) {
+				String[] strings = batch.strings[column];
+				NominalMapping mapping = attribute.getMapping();
+				table.fillColumn(attribute, from, to, row -> {
+					String value = strings[row - from];
+					return value == null ? Double.NaN : mapping.mapString(value);
+				});
+			} else {
+				double[] values = batch.values[column];
+				table.fillColumn(attribute, from, to, row -> values[row - from]);
+			}
+		}
+		batch.size = 0;
+	}
+
+}
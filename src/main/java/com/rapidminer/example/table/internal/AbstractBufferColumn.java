@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.example.table.internal;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+
+
+/**
+ * Base class for {@link Column}s used in mode {@link DataManagement#OFF_HEAP}. The values are
+ * stored in chunks of {@link #CHUNK_SIZE} rows, each chunk being a {@link ByteBuffer} allocated by
+ * the {@link OffHeapBuffers} of the column outside of the Java heap. Growing the column only allocates new chunks,
+ * existing chunks are never copied.
+ * <p>
+ * The chunks are not serializable, instead the values are written to the stream and new chunks are
+ * allocated on deserialization.
+ *
+ * @author RapidMiner
+ * @see Column
+ * @see ColumnarExampleTable
+ * @since 7.6
+ */
+abstract class AbstractBufferColumn implements Column {
+
+	private static final long serialVersionUID = 1L;
+
+	/** the number of bits to shift a row index to get the chunk index */
+	static final int CHUNK_SHIFT = 16;
+
+	/** the number of rows stored in one chunk */
+	static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+	/** mask to get the index of a row inside of its chunk */
+	static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/** the number of bytes needed to store one value */
+	private final int bytesPerValue;
+
+	/** the ensured number of rows */
+	private int capacity;
+
+	/** the off-heap chunks, recreated on deserialization */
+	private transient ByteBuffer[] chunks;
+
+	/** the allocator of the chunks, recreated on deserialization */
+	private transient OffHeapBuffers buffers;
+
+	/**
+	 * Creates a new column with a capacity for {@code size} values.
+	 *
+	 * @param size
+	 *            the initial capacity
+	 * @param bytesPerValue
+	 *            the number of bytes used by one value
+	 */
+	AbstractBufferColumn(int size, int bytesPerValue) {
+		this.bytesPerValue = bytesPerValue;
+		this.chunks = new ByteBuffer[0];
+		this.buffers = new OffHeapBuffers(CHUNK_SIZE * bytesPerValue);
+		ensure(size);
+	}
+
+	@Override
+	public void ensure(int size) {
+		int neededChunks = (size >>> CHUNK_SHIFT) + ((size & CHUNK_MASK) > 0 ? 1 : 0);
+		if (neededChunks != chunks.length) {
+			ByteBuffer[] newChunks = Arrays.copyOf(chunks, neededChunks);
+			for (int i = chunks.length; i < neededChunks; i++) {
+				newChunks[i] = buffers.allocate();
+			}
+			chunks = newChunks;
+		}
+		capacity = size;
+	}
+
+	@Override
+	public void setLast(int row, double value) {
+		set(row, value);
+	}
+
+	/**
+	 * Returns the chunk containing the given row.
+	 *
+	 * @param row
+	 *            the row index
+	 * @return the chunk holding the row
+	 */
+	final ByteBuffer chunk(int row) {
+		return chunks[row >>> CHUNK_SHIFT];
+	}
+
+	/**
+	 * Returns the byte offset of the given row inside of its chunk.
+	 *
+	 * @param row
+	 *            the row index
+	 * @return the offset in the chunk returned by {@link #chunk(int)}
+	 */
+	final int offset(int row) {
+		return (row & CHUNK_MASK) * bytesPerValue;
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		for (int row = 0; row < capacity; row++) {
+			out.writeDouble(get(row));
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		chunks = new ByteBuffer[0];
+		buffers = new OffHeapBuffers(CHUNK_SIZE * bytesPerValue);
+		ensure(capacity);
+		for (int row = 0; row < capacity; row++) {
+			set(row, in.readDouble());
+		}
+	}
+
+}
@@ -41,6 +41,42 @@ interface Column extends Serializable {
 	 */
 	double get(int row);
 
+	/**
+	 * Copies the values of the rows {@code from} (inclusive) to {@code to} (exclusive) into the
+	 * target array, starting at position 0.
+	 *
+	 * @param from
+	 *            the first row, inclusive
+	 * @param to
+	 *            the last row, exclusive
+	 * @param target
+	 *            the array to fill
+	 */
+	default void get(int from, int to, double[] target) {
+		for (int row = from; row < to; row++) {
+			target[row - from] = get(row);
+		}
+	}
+
+	/**
+	 * Copies the values of the rows {@code rows[from]} to {@code rows[to - 1]} into the target
+	 * array, starting at position 0.
+	 *
+	 * @param rows
+	 *            the rows to look up
+	 * @param from
+	 *            the first position in rows, inclusive
+	 * @param to
+	 *            the last position in rows, exclusive
+	 * @param target
+	 *            the array to fill
+	 */
+	default void get(int[] rows, int from, int to, double[] target) {
+		for (int i = from; i < to; i++) {
+			target[i - from] = get(rows[i]);
+		}
+	}
+
 	/**
 	 * Sets the value at the specified row to the given value. It does the same as
 	 * {@link #set(int, double)} but with the additional information that the highest row that was
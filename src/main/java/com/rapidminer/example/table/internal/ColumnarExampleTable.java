@@ -193,6 +193,7 @@ public class ColumnarExampleTable extends AbstractExampleTable implements Growin
 		this.size = table.size;
 		this.sizeLimit = table.sizeLimit;
 		this.completable = table.completable;
+		this.management = table.management;
 	}
 
 	@Override
@@ -226,6 +227,46 @@ public class ColumnarExampleTable extends AbstractExampleTable implements Growin
 		return new RowView(index);
 	}
 
+	/**
+	 * Copies the raw values of the column associated with the attribute for the rows {@code from}
+	 * (inclusive) to {@code to} (exclusive) into the target array. Attribute transformations are
+	 * not applied.
+	 *
+	 * @param attribute
+	 *            the attribute whose column should be read
+	 * @param from
+	 *            the first row, inclusive
+	 * @param to
+	 *            the last row, exclusive
+	 * @param target
+	 *            the array to fill, must have a length of at least {@code to - from}
+	 * @since 7.6
+	 */
+	public void getValues(Attribute attribute, int from, int to, double[] target) {
+		columns[attribute.getTableIndex()].get(from, to, target);
+	}
+
+	/**
+	 * Copies the raw values of the column associated with the attribute for the rows
+	 * {@code rows[from]} to {@code rows[to - 1]} into the target array. Attribute transformations
+	 * are not applied.
+	 *
+	 * @param attribute
+	 *            the attribute whose column should be read
+	 * @param rows
+	 *            the rows to read
+	 * @param from
+	 *            the first position in rows, inclusive
+	 * @param to
+	 *            the last position in rows, exclusive
+	 * @param target
+	 *            the array to fill, must have a length of at least {@code to - from}
+	 * @since 7.6
+	 */
+	public void getValues(Attribute attribute, int[] rows, int from, int to, double[] target) {
+		columns[attribute.getTableIndex()].get(rows, from, to, target);
+	}
+
 	/**
 	 * Adds a copy of the given data row to the example table. Will throw an
 	 * {@link ArrayIndexOutOfBoundsException} if the data row does not fit the attributes of this
@@ -295,6 +336,28 @@ public class ColumnarExampleTable extends AbstractExampleTable implements Growin
 		}
 	}
 
+	/**
+	 * Fills the rows {@code from} (inclusive) to {@code to} (exclusive) of the column associated
+	 * with the attribute using the function. Successive calls for the same column must fill
+	 * ascending row ranges, e.g. after each call to {@link #addBlankRows}.
+	 *
+	 * @param attribute
+	 *            the attribute whose column should be filled with values
+	 * @param from
+	 *            the first row to fill
+	 * @param to
+	 *            the row after the last row to fill, at most {@link #size()}
+	 * @param function
+	 *            the function providing the values to fill the column
+	 * @since 7.6
+	 */
+	public void fillColumn(Attribute attribute, int from, int to, IntToDoubleFunction function) {
+		Column column = columns[attribute.getTableIndex()];
+		for (int i = from; i < to; i++) {
+			column.setLast(i, function.applyAsDouble(i));
+		}
+	}
+
 	/**
 	 * Resets the column associated with the attribute. The reset is necessary if there were already
 	 * rows added in case auto columns are used because this overwrites the values, so the automatic
@@ -437,11 +500,14 @@ public class ColumnarExampleTable extends AbstractExampleTable implements Growin
 		}
 		switch (attribute.getValueType()) {
 			case Ontology.BINOMINAL:
+				// two bits per value, small enough to stay on the heap even in off-heap mode
 				columns[column] = new ByteArrayColumn(sizeLimit);
 				break;
 			case Ontology.NOMINAL:
 			case Ontology.POLYNOMINAL:
-				if (management == DataManagement.SPEED_OPTIMIZED) {
+				if (management == DataManagement.OFF_HEAP) {
+					columns[column] = new IntegerBufferColumn(sizeLimit);
+				} else if (management == DataManagement.SPEED_OPTIMIZED) {
 					columns[column] = new IntegerArrayColumn(sizeLimit);
 				} else {
 					columns[column] = completable ? new IntegerAutoColumn(sizeLimit, management)
@@ -449,7 +515,9 @@ public class ColumnarExampleTable extends AbstractExampleTable implements Growin
 				}
 				break;
 			default:
-				if (management == DataManagement.SPEED_OPTIMIZED) {
+				if (management == DataManagement.OFF_HEAP) {
+					columns[column] = new DoubleBufferColumn(sizeLimit);
+				} else if (management == DataManagement.SPEED_OPTIMIZED) {
 					columns[column] = new DoubleArrayColumn(sizeLimit);
 				} else {
 					columns[column] = completable ? new DoubleAutoColumn(sizeLimit, management)
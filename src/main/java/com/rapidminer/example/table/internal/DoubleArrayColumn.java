@@ -50,6 +50,18 @@ class DoubleArrayColumn implements Column {
 		return data[row];
 	}
 
+	@Override
+	public void get(int from, int to, double[] target) {
+		System.arraycopy(data, from, target, 0, to - from);
+	}
+
+	@Override
+	public void get(int[] rows, int from, int to, double[] target) {
+		for (int i = from; i < to; i++) {
+			target[i - from] = data[rows[i]];
+		}
+	}
+
 	@Override
 	public void set(int row, double value) {
 		data[row] = value;
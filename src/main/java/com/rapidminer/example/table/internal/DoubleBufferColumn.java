@@ -0,0 +1,68 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.example.table.internal;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+
+
+/**
+ * This implementation of {@link Column} stores double values in off-heap chunks and is used for
+ * non-nominal attributes in mode {@link DataManagement#OFF_HEAP}.
+ *
+ * @author RapidMiner
+ * @see AbstractBufferColumn
+ * @see DoubleArrayColumn
+ * @since 7.6
+ */
+class DoubleBufferColumn extends AbstractBufferColumn {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Creates a new {@code DoubleBufferColumn} with a capacity for {@code size} double values. */
+	DoubleBufferColumn(int size) {
+		super(size, Double.BYTES);
+	}
+
+	@Override
+	public double get(int row) {
+		return chunk(row).getDouble(offset(row));
+	}
+
+	@Override
+	public void get(int from, int to, double[] target) {
+		int row = from;
+		while (row < to) {
+			// copy chunk-wise, the duplicate is needed to not change the position of the chunk
+			int end = Math.min(to, (row | CHUNK_MASK) + 1);
+			ByteBuffer view = chunk(row).duplicate().order(ByteOrder.nativeOrder());
+			view.position(offset(row));
+			view.asDoubleBuffer().get(target, row - from, end - row);
+			row = end;
+		}
+	}
+
+	@Override
+	public void set(int row, double value) {
+		chunk(row).putDouble(offset(row), value);
+	}
+
+}
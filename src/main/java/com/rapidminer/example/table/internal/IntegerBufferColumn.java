@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.example.table.internal;
+
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * This implementation of {@link Column} stores integer values in off-heap chunks and is used for
+ * poly-nominal or nominal attributes (see {@link Ontology#NOMINAL}, {@link Ontology#POLYNOMINAL})
+ * in mode {@link DataManagement#OFF_HEAP}. Missing values are encoded as in
+ * {@link IntegerArrayColumn}.
+ *
+ * @author RapidMiner
+ * @see AbstractBufferColumn
+ * @see IntegerArrayColumn
+ * @since 7.6
+ */
+class IntegerBufferColumn extends AbstractBufferColumn {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Creates a new {@code IntegerBufferColumn} with a capacity for {@code size} integer values. */
+	IntegerBufferColumn(int size) {
+		super(size, Integer.BYTES);
+	}
+
+	@Override
+	public double get(int row) {
+		int value = chunk(row).getInt(offset(row));
+		return value == Integer.MIN_VALUE ? Double.NaN : value;
+	}
+
+	@Override
+	public void set(int row, double value) {
+		chunk(row).putInt(offset(row), Double.isNaN(value) ? Integer.MIN_VALUE : (int) value);
+	}
+
+}
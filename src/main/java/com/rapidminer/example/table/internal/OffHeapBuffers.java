@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.example.table.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.logging.Level;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.tools.LogService;
+import com.rapidminer.tools.ParameterService;
+
+
+/**
+ * Allocates the chunks used by an {@link AbstractBufferColumn} of a {@link ColumnarExampleTable} in
+ * mode {@link DataManagement#OFF_HEAP}. If the property
+ * {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_OFF_HEAP_DIRECTORY} points to a directory, the
+ * chunks are slices of regions memory-mapped from temporary files in that directory so that the
+ * operating system can page them out. Otherwise, or if mapping fails, every chunk is a direct
+ * {@link ByteBuffer}.
+ * <p>
+ * Every column uses its own instance. The regions of a column double in size up to
+ * {@link #MAX_REGION_BYTES}, so that a column needs only a few mappings even for hundreds of
+ * millions of rows. Mapping every chunk separately would soon exceed the limit of mappings per
+ * process of the operating system.
+ *
+ * @author RapidMiner
+ * @see AbstractBufferColumn
+ * @since 7.6
+ */
+final class OffHeapBuffers {
+
+	/** the prefix for the temporary files backing memory-mapped regions */
+	private static final String FILE_PREFIX = "rm-column-";
+
+	/** the suffix for the temporary files backing memory-mapped regions */
+	private static final String FILE_SUFFIX = ".region";
+
+	/** the size of the first region of a column */
+	static final int MIN_REGION_BYTES = 1 << 23;
+
+	/** the maximal size of a region */
+	static final int MAX_REGION_BYTES = 1 << 30;
+
+	/** the size of a chunk in bytes */
+	private final int chunkBytes;
+
+	/** the number of chunks of the next region */
+	private int regionChunks;
+
+	/** the current region, its position marks the start of the next free chunk */
+	private ByteBuffer region;
+
+	/**
+	 * Creates an allocator for chunks of the given size.
+	 *
+	 * @param chunkBytes
+	 *            the capacity of a chunk in bytes, at most {@link #MAX_REGION_BYTES}
+	 */
+	OffHeapBuffers(int chunkBytes) {
+		this.chunkBytes = chunkBytes;
+		this.regionChunks = Math.max(1, MIN_REGION_BYTES / chunkBytes);
+	}
+
+	/**
+	 * Allocates a zero-filled chunk outside of the Java heap.
+	 *
+	 * @return a new buffer with the capacity of a chunk using the native byte order
+	 */
+	ByteBuffer allocate() {
+		File directory = getMappingDirectory();
+		if (directory != null) {
+			if (region == null || region.remaining() < chunkBytes) {
+				try {
+					region = map(directory, regionChunks * chunkBytes);
+					regionChunks = Math.min(2 * regionChunks, Math.max(1, MAX_REGION_BYTES / chunkBytes));
+				} catch (IOException e) {
+					LogService.getRoot().log(Level.WARNING,
+							"com.rapidminer.example.table.internal.OffHeapBuffers.mapping_failed",
+							new Object[] { directory, e.getMessage() });
+					region = null;
+				}
+			}
+			if (region != null) {
+				ByteBuffer chunk = region.slice();
+				chunk.limit(chunkBytes);
+				region.position(region.position() + chunkBytes);
+				return chunk.order(ByteOrder.nativeOrder());
+			}
+		}
+		return ByteBuffer.allocateDirect(chunkBytes).order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Returns the directory configured for memory-mapped chunks or {@code null} if direct buffers
+	 * should be used.
+	 *
+	 * @return the mapping directory or {@code null}
+	 */
+	private static File getMappingDirectory() {
+		String path = ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OFF_HEAP_DIRECTORY);
+		if (path == null || path.trim().isEmpty()) {
+			return null;
+		}
+		File directory = new File(path.trim());
+		return directory.isDirectory() ? directory : null;
+	}
+
+	/**
+	 * Maps a new temporary file of the given size into memory. The file is deleted right after
+	 * mapping where the operating system allows this, otherwise it is deleted on exit. The mapping
+	 * stays valid until the buffer and all of its slices are garbage collected.
+	 *
+	 * @param directory
+	 *            the directory for the temporary file
+	 * @param bytes
+	 *            the size of the mapping in bytes
+	 * @return the mapped buffer
+	 * @throws IOException
+	 *             if the file cannot be created or mapped
+	 */
+	private static ByteBuffer map(File directory, int bytes) throws IOException {
+		File file = File.createTempFile(FILE_PREFIX, FILE_SUFFIX, directory);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+			raf.setLength(bytes);
+			return channel.map(MapMode.READ_WRITE, 0, bytes);
+		} finally {
+			if (!file.delete()) {
+				file.deleteOnExit();
+			}
+		}
+	}
+
+}
@@ -196,6 +196,12 @@
  * ones. The only difference is, that their dense chunks allocate always the full expected size
  * instead of only 2048 values first before the sparsity check.
  *
+ * <p>
+ * In mode {@link DataManagement#OFF_HEAP}, numerical and nominal attributes use a
+ * {@link DoubleBufferColumn} or {@link IntegerBufferColumn} instead. These store their values in
+ * dense chunks of 65536 rows outside of the Java heap, either as direct buffers or memory-mapped
+ * from temporary files (see {@link OffHeapBuffers}). There is no sparsity detection in this mode.
+ *
  * @author Gisa Schaefer
  *
  */
@@ -78,7 +78,13 @@ public abstract class ExampleSetBuilder {
 		/**
 		 * Decreases memory usage by compressing sparse columns as much as possible.
 		 */
-		MEMORY_OPTIMIZED;
+		MEMORY_OPTIMIZED,
+
+		/**
+		 * Stores the data outside of the Java heap, either in direct buffers or in memory-mapped
+		 * files. Allows for data larger than the heap and reduces garbage collection pauses.
+		 */
+		OFF_HEAP;
 	}
 
 	/** all the attributes in the example set */
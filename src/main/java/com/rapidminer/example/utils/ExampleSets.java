@@ -25,7 +25,6 @@ import java.util.Set;
 
 import com.rapidminer.RapidMiner;
 import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Attributes;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.SimpleAttributes;
 import com.rapidminer.example.set.SimpleExampleSet;
@@ -136,46 +135,56 @@ public final class ExampleSets {
 	 * @param set the input example set
 	 * @return the thread safe copy of the given set
 	 * @throws IllegalArgumentException if the input example set is {@code null}
+	 * @see #isThreadSafe(ExampleSet)
 	 */
 	public static ExampleSet createThreadSafeCopy(ExampleSet set) {
 		if (set == null) {
 			throw new IllegalArgumentException("Example set must not be null");
 		}
 		
-		boolean foundUnsafeComponent = false;
+		if (isThreadSafe(set)) {
+			return (ExampleSet) set.clone();
+		} else {
+			return MaterializeDataInMemory.materializeExampleSet(set);
+		}
 		
+	}
+
+	/**
+	 * Checks whether the example set guarantees thread-safety for read access, i.e. whether it is a
+	 * {@link SimpleExampleSet} on a {@link ColumnarExampleTable} whose attributes are known to be
+	 * safe and have no transformations.
+	 *
+	 * @param set
+	 *            the example set to check
+	 * @return {@code true} if the example set can be read by several threads at once
+	 * @since 7.6
+	 */
+	public static boolean isThreadSafe(ExampleSet set) {
 		// check example set implementation
-		foundUnsafeComponent |= set.getClass() != SimpleExampleSet.class;
-		
+		if (set.getClass() != SimpleExampleSet.class) {
+			return false;
+		}
+
 		// check example table implementation
-		if (!foundUnsafeComponent) {
-			ExampleTable table = set.getExampleTable();
-			foundUnsafeComponent |= table.getClass() != ColumnarExampleTable.class;
+		if (set.getExampleTable().getClass() != ColumnarExampleTable.class) {
+			return false;
 		}
-		
+
 		// check attribute implementation
-		if (!foundUnsafeComponent) {
-			Attributes attributes = set.getAttributes();
-			foundUnsafeComponent |= attributes.getClass() != SimpleAttributes.class;
+		if (set.getAttributes().getClass() != SimpleAttributes.class) {
+			return false;
 		}
-		
+
 		// check individual attributes and attribute transformations
-		if (!foundUnsafeComponent) {
-			Iterator<Attribute> attributes = set.getAttributes().allAttributes();
-			while (!foundUnsafeComponent && attributes.hasNext()) {
-				Attribute attribute = attributes.next();
-				if (!SAFE_ATTRIBUTES.contains(attribute.getClass()) || attribute.getLastTransformation() != null) {
-					foundUnsafeComponent = true;
-				}
+		Iterator<Attribute> attributes = set.getAttributes().allAttributes();
+		while (attributes.hasNext()) {
+			Attribute attribute = attributes.next();
+			if (!SAFE_ATTRIBUTES.contains(attribute.getClass()) || attribute.getLastTransformation() != null) {
+				return false;
 			}
 		}
-		
-		if (foundUnsafeComponent) {
-			return MaterializeDataInMemory.materializeExampleSet(set);
-		} else {
-			return (ExampleSet) set.clone();
-		}
-		
+		return true;
 	}
 
 }
@@ -19,12 +19,13 @@
 package com.rapidminer.operator.collections;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.IOObjectCollection;
-import com.rapidminer.operator.OperatorChain;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.concurrency.internal.ParallelOperatorChain;
 import com.rapidminer.operator.ports.CollectingPortPairExtender;
 import com.rapidminer.operator.ports.InputPort;
 import com.rapidminer.operator.ports.OutputPort;
@@ -46,7 +47,7 @@ import com.rapidminer.parameter.conditions.BooleanParameterCondition;
  * @author Simon Fischer
  *
  */
-public class CollectionIterationOperator extends OperatorChain {
+public class CollectionIterationOperator extends ParallelOperatorChain {
 
 	protected static final String PARAMETER_SET_MACRO = "set_iteration_macro";
 	protected static final String PARAMETER_MACRO_NAME = "macro_name";
@@ -109,22 +110,66 @@ public class CollectionIterationOperator extends OperatorChain {
 			macroIterationOffset = getParameterAsInt(PARAMETER_MACRO_START_VALUE);
 		}
 		this.currentIteration = 0;
-		for (IOObject o : list) {
-			if (setIterationMacro) {
-				String iterationString = Integer.toString(currentIteration + macroIterationOffset);
-				getProcess().getMacroHandler().addMacro(iterationMacroName, iterationString);
+		if (isParallelExecution(list.size())) {
+			performIterationsInParallel(list, iterationMacroName, macroIterationOffset);
+		} else {
+			for (IOObject o : list) {
+				if (setIterationMacro) {
+					String iterationString = Integer.toString(currentIteration + macroIterationOffset);
+					getProcess().getMacroHandler().addMacro(iterationMacroName, iterationString);
+				}
+				singleInnerSource.deliver(o);
+				getSubprocess(0).execute();
+				outExtender.collect();
+				currentIteration++;
+				inApplyLoop();
+				getProgress().step();
 			}
-			singleInnerSource.deliver(o);
-			getSubprocess(0).execute();
-			outExtender.collect();
-			currentIteration++;
-			inApplyLoop();
-			getProgress().step();
 		}
 		getProgress().complete();
 		// outExtender.passDataThrough();
 	}
 
+	/**
+	 * Executes the subprocess for every element by a clone of this operator. Every clone sets the
+	 * iteration macro in its own process. The outputs are collected in the order of the elements.
+	 */
+	private void performIterationsInParallel(List<IOObject> list, String iterationMacroName, int macroIterationOffset)
+			throws OperatorException {
+		executeInParallel(list.size(), new Iterations<List<IOObject>>() {
+
+			@Override
+			public Callable<List<IOObject>> createIteration(int iteration, ParallelOperatorChain clone)
+					throws OperatorException {
+				CollectionIterationOperator iterationClone = (CollectionIterationOperator) clone;
+				IOObject element = getDataCopy(list.get(iteration), true);
+				return () -> {
+					iterationClone.currentIteration = iteration;
+					if (iterationMacroName != null) {
+						iterationClone.getProcess().getMacroHandler().addMacro(iterationMacroName,
+								Integer.toString(iteration + macroIterationOffset));
+					}
+					iterationClone.singleInnerSource.deliver(element);
+					iterationClone.getSubprocess(0).execute();
+					return iterationClone.outExtender.getDataOrNull();
+				};
+			}
+
+			@Override
+			public void iterationFinished(int iteration, List<IOObject> results) throws OperatorException {
+				outExtender.collect(results);
+				currentIteration = iteration + 1;
+				inApplyLoop();
+				getProgress().step();
+			}
+		});
+	}
+
+	@Override
+	protected boolean isParallelExecutionEnabledByDefault() {
+		return false;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
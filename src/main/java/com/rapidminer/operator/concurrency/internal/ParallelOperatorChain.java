@@ -20,6 +20,7 @@ package com.rapidminer.operator.concurrency.internal;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.utils.ExampleSets;
@@ -28,9 +29,12 @@ import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.OperatorChain;
 import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.UndefinedParameterError;
+import com.rapidminer.studio.concurrency.internal.ConcurrencyExecutionService;
+import com.rapidminer.studio.concurrency.internal.ConcurrencyExecutionServiceProvider;
 
 
 /**
@@ -45,10 +49,109 @@ public abstract class ParallelOperatorChain extends OperatorChain {
 
 	private static String PARAMETER_ENABLE_PARALLEL_EXECUTION = "enable_parallel_execution";
 
+	/**
+	 * The iterations of an operator executed by {@link ParallelOperatorChain#executeInParallel(int,
+	 * Iterations)}. Both methods are called by the executing thread in the order of the iterations,
+	 * so data splits or random numbers are drawn and results are combined as in a sequential
+	 * execution.
+	 *
+	 * @param <T>
+	 *            the type of the iteration results
+	 * @since 7.6
+	 */
+	protected interface Iterations<T> {
+
+		/**
+		 * Creates the work of the given iteration that is executed by the given clone of the
+		 * operator. Data handed over to the clone must be safe for concurrent use, see
+		 * {@link ParallelOperatorChain#getDataCopy(IOObject, boolean)}.
+		 */
+		Callable<T> createIteration(int iteration, ParallelOperatorChain clone) throws OperatorException;
+
+		/**
+		 * Handles the result of the given iteration once all iterations of its batch are
+		 * finished.
+		 */
+		void iterationFinished(int iteration, T result) throws OperatorException;
+	}
+
 	public ParallelOperatorChain(OperatorDescription description, String... subprocessNames) {
 		super(description, subprocessNames);
 	}
 
+	/**
+	 * Subclasses that only execute their subprocesses in parallel in some configurations or
+	 * subclasses can overwrite this method. If it returns {@code false}, the parameter enabling the
+	 * parallel execution is not offered.
+	 *
+	 * @return {@code true} by default
+	 * @since 7.6
+	 */
+	protected boolean supportsParallelExecution() {
+		return true;
+	}
+
+	/**
+	 * Subclasses that should only execute their subprocesses in parallel if requested by the user
+	 * can overwrite this method, e.g. if the iterations could interfere by side effects.
+	 *
+	 * @return the default value of the parameter enabling the parallel execution, {@code true} by
+	 *         default
+	 * @since 7.6
+	 */
+	protected boolean isParallelExecutionEnabledByDefault() {
+		return true;
+	}
+
+	/**
+	 * Checks whether the user has enabled the parallel execution of this operator. In contrast to
+	 * {@link #isParallelExecution(int)}, neither breakpoints nor the availability of the
+	 * {@link ConcurrencyExecutionService} are considered.
+	 *
+	 * @since 7.6
+	 */
+	protected boolean isParallelExecutionEnabled() {
+		return supportsParallelExecution() && getParameterAsBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION);
+	}
+
+	/**
+	 * Checks whether the given number of iterations should be executed in parallel, i.e. whether
+	 * there is more than one iteration, the {@link ConcurrencyExecutionService} is available and
+	 * {@link #checkParallelizability()} allows it.
+	 *
+	 * @since 7.6
+	 */
+	protected boolean isParallelExecution(int numberOfIterations) {
+		return numberOfIterations > 1 && supportsParallelExecution()
+				&& ConcurrencyExecutionServiceProvider.INSTANCE.isInitialized() && checkParallelizability();
+	}
+
+	/**
+	 * Executes the given iterations in parallel. Every iteration is executed by a clone of this
+	 * operator via the {@link ConcurrencyExecutionService}, in batches of the recommended batch
+	 * size. The side effects of the clones, e.g. macros, are only merged back for the last
+	 * iteration.
+	 *
+	 * @since 7.6
+	 */
+	protected <T> void executeInParallel(int numberOfIterations, Iterations<T> iterations) throws OperatorException {
+		ConcurrencyExecutionService service = ConcurrencyExecutionServiceProvider.INSTANCE.getService();
+		int batchSize = ConcurrencyExecutionService.getRecommendedConcurrencyBatchSize();
+		for (int start = 0; start < numberOfIterations; start += batchSize) {
+			int end = Math.min(numberOfIterations, start + batchSize);
+			List<Callable<T>> tasks = new ArrayList<>(end - start);
+			for (int iteration = start; iteration < end; iteration++) {
+				ParallelOperatorChain clone = (ParallelOperatorChain) cloneOperator(getName(), true);
+				tasks.add(service.prepareOperatorTask(getProcess(), clone, getApplyCount(),
+						iteration == numberOfIterations - 1, iterations.createIteration(iteration, clone)));
+			}
+			List<T> results = service.executeOperatorTasks(this, tasks);
+			for (int i = 0; i < results.size(); i++) {
+				iterations.iterationFinished(start + i, results.get(i));
+			}
+		}
+	}
+
 	/**
 	 * This method checks whether the user has disabled the parallel execution or whether there are
 	 * breakpoints inside the subprocess. In boths situations the process needs to be executed
@@ -121,9 +224,11 @@ public abstract class ParallelOperatorChain extends OperatorChain {
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
-		types.add(new ParameterTypeBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION,
-				"This parameter enables the parallel execution of this operator. Please disable the parallel execution if you run into memory problems.",
-				true, true));
+		if (supportsParallelExecution()) {
+			types.add(new ParameterTypeBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION,
+					"This parameter enables the parallel execution of this operator. Please disable the parallel execution if you run into memory problems.",
+					isParallelExecutionEnabledByDefault(), true));
+		}
 
 		return types;
 	}
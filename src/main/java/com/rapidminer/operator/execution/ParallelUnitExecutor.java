@@ -0,0 +1,307 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.execution;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.rapidminer.Process;
+import com.rapidminer.operator.ExecutionUnit;
+import com.rapidminer.operator.IOObject;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.operator.ports.InputPort;
+import com.rapidminer.operator.ports.OutputPort;
+import com.rapidminer.studio.internal.Resources;
+
+
+/**
+ * Executes an {@link ExecutionUnit} by invoking every operator as soon as all operators delivering
+ * data to its input ports are finished. Operators that do not depend on each other run at the same
+ * time on a pool of the execution, bounded by the parallelism of the process' concurrency context.
+ * If all pool threads are busy, the calling thread executes the operator itself, so nested
+ * subprocesses never wait for a free thread.
+ * <p>
+ * Operators that are ready at the same time are started in their (presorted) ordering, and the
+ * process flow events get the same neighboring operators as in the {@link SimpleUnitExecutor}. An
+ * operator with a breakpoint is only started after all running operators have finished and no
+ * other operator starts before it is done. If an operator fails, no further operators are started
+ * and the first error is thrown once the running operators have finished. If the calling thread
+ * is interrupted, the running operators are interrupted as well and a
+ * {@link ProcessStoppedException} is thrown once they have finished.
+ * <p>
+ * Only port connections are taken into account. Operators communicating by other means, e.g. by
+ * macros or repository entries, must be connected to be executed in order. Instances of this class
+ * can be shared.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class ParallelUnitExecutor implements UnitExecutor {
+
+	/** Keep idle pool threads alive this many seconds */
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	/** Numbers the pool threads of all executions */
+	private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+	/** The result of an operator execution */
+	private static final class Completion {
+
+		private final int index;
+		private final Throwable error;
+
+		private Completion(int index, Throwable error) {
+			this.index = index;
+			this.error = error;
+		}
+	}
+
+	@Override
+	public void execute(ExecutionUnit unit) throws OperatorException {
+		Logger logger = unit.getEnclosingOperator().getLogger();
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Executing subprocess " + unit.getEnclosingOperator().getName() + "." + unit.getName()
+					+ " in parallel. Execution order is: " + unit.getOperators());
+		}
+		Process process = unit.getEnclosingOperator().getProcess();
+		List<Operator> operators = unit.getOperators();
+		int size = operators.size();
+
+		// count the predecessors of every operator within the unit
+		Map<Operator, Integer> indices = new IdentityHashMap<>();
+		for (int i = 0; i < size; i++) {
+			indices.put(operators.get(i), i);
+		}
+		int[] pendingPredecessors = new int[size];
+		List<List<Integer>> successors = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			successors.add(new ArrayList<>());
+		}
+		for (int i = 0; i < size; i++) {
+			Operator operator = operators.get(i);
+			if (operator.getInputPorts() == null) {
+				continue;
+			}
+			for (InputPort inputPort : operator.getInputPorts().getAllPorts()) {
+				OutputPort source = inputPort.getSource();
+				if (source == null) {
+					continue;
+				}
+				Integer predecessor = indices.get(source.getPorts().getOwner().getOperator());
+				if (predecessor != null && predecessor != i && !successors.get(predecessor).contains(i)) {
+					successors.get(predecessor).add(i);
+					pendingPredecessors[i]++;
+				}
+			}
+		}
+
+		PriorityQueue<Integer> ready = new PriorityQueue<>();
+		for (int i = 0; i < size; i++) {
+			if (pendingPredecessors[i] == 0) {
+				ready.add(i);
+			}
+		}
+		BlockingQueue<Completion> completions = new LinkedBlockingQueue<>();
+		ThreadPoolExecutor executor = createPool(unit.getEnclosingOperator());
+		int running = 0;
+		int finished = 0;
+		Throwable failure = null;
+		try {
+			while (finished < size && (failure == null || running > 0)) {
+				while (failure == null && !ready.isEmpty()) {
+					int next = ready.peek();
+					boolean exclusive = operators.get(next).hasBreakpoint();
+					if (exclusive && running > 0) {
+						break;
+					}
+					ready.poll();
+					if (!exclusive) {
+						try {
+							executor.execute(() -> completions.add(execute(process, operators, next)));
+							running++;
+							continue;
+						} catch (RejectedExecutionException e) {
+							// all threads are busy, execute in this thread
+						}
+					}
+					Completion completion = execute(process, operators, next);
+					if (completion.error != null) {
+						failure = completion.error;
+					} else {
+						finished++;
+						release(completion.index, successors, pendingPredecessors, ready);
+					}
+					if (exclusive) {
+						// keep the order of the remaining operators deterministic
+						break;
+					}
+				}
+				if (running == 0) {
+					if (ready.isEmpty() || failure != null) {
+						break;
+					}
+					continue;
+				}
+				Completion completion;
+				try {
+					completion = completions.take();
+				} catch (InterruptedException e) {
+					// interrupt the running operators and wait for them, they still use the unit
+					executor.shutdownNow();
+					awaitCompletions(completions, running);
+					Thread.currentThread().interrupt();
+					throw new ProcessStoppedException(unit.getEnclosingOperator());
+				}
+				running--;
+				if (completion.error != null) {
+					if (failure == null) {
+						failure = completion.error;
+					}
+				} else {
+					finished++;
+					release(completion.index, successors, pendingPredecessors, ready);
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		if (failure instanceof OperatorException) {
+			throw (OperatorException) failure;
+		} else if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else if (failure instanceof Error) {
+			throw (Error) failure;
+		} else if (failure != null) {
+			throw new OperatorException(failure.getMessage(), failure);
+		}
+	}
+
+	/**
+	 * Marks the operator as finished and adds the successors without pending predecessors to the
+	 * ready operators.
+	 */
+	private static void release(int index, List<List<Integer>> successors, int[] pendingPredecessors,
+			PriorityQueue<Integer> ready) {
+		for (int successor : successors.get(index)) {
+			if (--pendingPredecessors[successor] == 0) {
+				ready.add(successor);
+			}
+		}
+	}
+
+	/**
+	 * Executes the operator and fires the process flow events around it.
+	 *
+	 * @return the completion holding the error, if any
+	 */
+	private static Completion execute(Process process, List<Operator> operators, int index) {
+		Operator operator = operators.get(index);
+		Operator previousOperator = index > 0 ? operators.get(index - 1) : null;
+		Operator nextOperator = index + 1 < operators.size() ? operators.get(index + 1) : null;
+		try {
+			// fire event that we are about to start the operator
+			if (process != null) {
+				// gather input data for connected ports
+				List<FlowData> input = new LinkedList<>();
+				if (operator.getInputPorts() != null) {
+					for (InputPort inputPort : operator.getInputPorts().getAllPorts()) {
+						if (inputPort.isConnected()) {
+							IOObject data = inputPort.getAnyDataOrNull();
+							if (data != null) {
+								data = FlowCleaner.INSTANCE.checkCleanup(data, inputPort);
+								input.add(new FlowData(data, inputPort));
+							}
+						}
+					}
+				}
+				process.fireProcessFlowBeforeOperator(previousOperator, operator, input);
+			}
+
+			// execute the operator
+			operator.execute();
+
+			// fire event that we finished the operator
+			if (process != null) {
+				// gather output data for connected ports
+				List<FlowData> output = new LinkedList<>();
+				if (operator.getOutputPorts() != null) {
+					for (OutputPort outputPort : operator.getOutputPorts().getAllPorts()) {
+						if (outputPort.isConnected()) {
+							IOObject data = outputPort.getAnyDataOrNull();
+							if (data != null) {
+								output.add(new FlowData(data, outputPort));
+							}
+						}
+					}
+				}
+				process.fireProcessFlowAfterOperator(operator, nextOperator, output);
+			}
+			operator.freeMemory();
+			return new Completion(index, null);
+		} catch (Throwable e) {
+			return new Completion(index, e);
+		}
+	}
+
+	/**
+	 * Waits until the given number of running operators have completed, ignoring interrupts.
+	 */
+	private static void awaitCompletions(BlockingQueue<Completion> completions, int running) {
+		while (running > 0) {
+			try {
+				completions.take();
+				running--;
+			} catch (InterruptedException e) {
+				// the operators must finish before the unit can be left
+			}
+		}
+	}
+
+	/**
+	 * Creates the pool of a single execution. It never queues operators and is bounded by the
+	 * parallelism of the concurrency context of the given operator, so that executions of other
+	 * units or processes do not affect it.
+	 */
+	private static ThreadPoolExecutor createPool(Operator operator) {
+		int parallelism = Math.max(1, Resources.getConcurrencyContext(operator).getParallelism());
+		return new ThreadPoolExecutor(0, parallelism, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<>(),
+				runnable -> {
+					Thread thread = new Thread(runnable, "ParallelUnitExecutor-" + THREAD_NUMBER.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+}
@@ -18,25 +18,51 @@
 */
 package com.rapidminer.operator.execution;
 
+import com.rapidminer.RapidMiner;
 import com.rapidminer.operator.ExecutionUnit;
+import com.rapidminer.tools.ParameterService;
 
 
 /**
- * Creates instances of {@link UnitExecutor}s for {@link ExecutionUnit}s.
+ * Creates instances of {@link UnitExecutor}s for {@link ExecutionUnit}s. Unless another factory is
+ * set, a {@link ParallelUnitExecutionFactory} is used if
+ * {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_PARALLEL_SUBPROCESS_EXECUTION} is enabled and a
+ * {@link SimpleUnitExecutionFactory} otherwise.
  *
  * @author Simon Fischer
  *
  */
 public abstract class UnitExecutionFactory {
 
-	private static UnitExecutionFactory instance = new SimpleUnitExecutionFactory();
+	private static final UnitExecutionFactory SIMPLE_FACTORY = new SimpleUnitExecutionFactory();
+
+	private static final UnitExecutionFactory PARALLEL_FACTORY = new ParallelUnitExecutionFactory();
+
+	private static volatile UnitExecutionFactory instance = null;
 
 	public static UnitExecutionFactory getInstance() {
-		return instance;
+		UnitExecutionFactory factory = instance;
+		if (factory != null) {
+			return factory;
+		}
+		return Boolean.parseBoolean(
+				ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_PARALLEL_SUBPROCESS_EXECUTION))
+						? PARALLEL_FACTORY : SIMPLE_FACTORY;
+	}
+
+	/**
+	 * Sets the factory used for all execution units.
+	 *
+	 * @param factory
+	 *            the factory or {@code null} to choose the factory by the setting again
+	 * @since 7.6
+	 */
+	public static void setInstance(UnitExecutionFactory factory) {
+		instance = factory;
 	}
 
 	public UnitExecutor getExecutor(ExecutionUnit unit) {
-		return instance.getExecutor(unit);
+		return getInstance().getExecutor(unit);
 	}
 
 }
@@ -20,14 +20,17 @@ package com.rapidminer.operator.io;
 
 import com.rapidminer.operator.Annotations;
 import com.rapidminer.operator.IOObject;
+import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.ProcessSetupError.Severity;
 import com.rapidminer.operator.SimpleProcessSetupError;
 import com.rapidminer.operator.UserError;
+import com.rapidminer.operator.ports.OutputPort;
 import com.rapidminer.operator.ports.metadata.AttributeMetaData;
 import com.rapidminer.operator.ports.metadata.ExampleSetMetaData;
 import com.rapidminer.operator.ports.metadata.MetaData;
+import com.rapidminer.operator.tools.ExampleSetPushdown;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeRepositoryLocation;
 import com.rapidminer.parameter.UndefinedParameterError;
@@ -35,12 +38,16 @@ import com.rapidminer.repository.Entry;
 import com.rapidminer.repository.IOObjectEntry;
 import com.rapidminer.repository.RepositoryException;
 import com.rapidminer.repository.RepositoryLocation;
+import com.rapidminer.repository.local.SimpleIOObjectEntry;
 
 import java.util.List;
 import java.util.logging.Level;
 
 
 /**
+ * Retrieves an object from the repository. If the retrieved entry is an example set stored in the
+ * columnar format of the local repository and the following operator is an
+ * {@link ExampleSetPushdown}, only the attributes and rows needed by this operator are loaded.
  * 
  * @author Sebastian Land
  */
@@ -103,7 +110,14 @@ public class RepositorySource extends AbstractReader<IOObject> {
 	@Override
 	public IOObject read() throws OperatorException {
 		try {
-			final IOObject data = getRepositoryEntry().retrieveData(null);
+			IOObjectEntry entry = getRepositoryEntry();
+			ExampleSetPushdown pushdown = getPushdown();
+			final IOObject data;
+			if (pushdown != null && entry instanceof SimpleIOObjectEntry) {
+				data = ((SimpleIOObjectEntry) entry).retrieveData(pushdown, null);
+			} else {
+				data = entry.retrieveData(null);
+			}
 			data.getAnnotations().setAnnotation(Annotations.KEY_SOURCE, getRepositoryEntry().getLocation().toString());
 			return data;
 		} catch (RepositoryException e) {
@@ -111,6 +125,24 @@ public class RepositorySource extends AbstractReader<IOObject> {
 		}
 	}
 
+	/**
+	 * Returns the operator receiving the output if it is an enabled {@link ExampleSetPushdown}. No
+	 * pushdown is done if this operator has a breakpoint since the complete data should be shown
+	 * then.
+	 */
+	private ExampleSetPushdown getPushdown() {
+		OutputPort output = getOutputPorts().getPortByIndex(0);
+		if (hasBreakpoint() || !output.isConnected()) {
+			return null;
+		}
+		Operator next = output.getDestination().getPorts().getOwner().getOperator();
+		if (next instanceof ExampleSetPushdown && next.isEnabled()
+				&& next.getExecutionUnit() == getExecutionUnit()) {
+			return (ExampleSetPushdown) next;
+		}
+		return null;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
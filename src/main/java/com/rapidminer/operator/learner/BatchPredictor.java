@@ -0,0 +1,274 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.studio.concurrency.internal.util.ConcurrencyTools;
+import com.rapidminer.studio.internal.Resources;
+
+
+/**
+ * Applies a model to an {@link ExampleSet} in chunks of examples. The values of a chunk are read
+ * column by column, the chunks are scored in parallel if an operator is given and the results are
+ * written to the examples in order by the calling thread. Hence the {@link Scorer} must be
+ * thread-safe, the {@link Writer} does not need to be. The values of example sets which are not
+ * {@link ExampleSets#isThreadSafe thread-safe}, e.g. views or sets with transformed attributes,
+ * are read by the calling thread.
+ * <p>
+ * Alternatively, an {@link ExampleScorer} can be applied to the examples directly. The values it
+ * sets on an example are buffered by the worker threads and written in order by the calling thread,
+ * since the columns of an example table cannot be written concurrently. Since the scorer reads the
+ * examples itself, example sets which are not thread-safe are scored by the calling thread.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class BatchPredictor {
+
+	/** Calculates the result for the values of a single example. */
+	public interface Scorer {
+
+		void score(double[] values, double[] result) throws OperatorException;
+	}
+
+	/** Writes the result for a single example. */
+	public interface Writer {
+
+		void write(Example example, double[] result) throws OperatorException;
+	}
+
+	/** Applies a model to a single example and sets the results on it. */
+	public interface ExampleScorer {
+
+		void score(Example example) throws OperatorException;
+	}
+
+	/**
+	 * The minimal number of examples for which {@link #predict(ExampleSet, ExampleScorer)} scores in
+	 * parallel
+	 */
+	public static final int MIN_CONCURRENT_PREDICTION_SIZE = 2000;
+
+	/** The number of examples scored by a single task */
+	private static final int CHUNK_SIZE = 512;
+
+	/** The number of chunks per thread whose results are kept in memory at once */
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	private final ConcurrencyContext context;
+
+	private final OperatorProgress progress;
+
+	/**
+	 * Creates a new predictor.
+	 *
+	 * @param operator
+	 *            the operator applying the model, can be {@code null} to score single-threaded
+	 * @param progress
+	 *            the progress to update, can be {@code null}
+	 */
+	public BatchPredictor(Operator operator, OperatorProgress progress) {
+		this.context = operator == null ? null : Resources.getConcurrencyContext(operator);
+		this.progress = progress;
+	}
+
+	/**
+	 * Scores all examples of the example set and writes the results.
+	 *
+	 * @param exampleSet
+	 *            the examples to score
+	 * @param attributes
+	 *            the attributes whose values are passed to the scorer, in this order
+	 * @param resultLength
+	 *            the length of the result array of a single example
+	 */
+	public void predict(ExampleSet exampleSet, List<Attribute> attributes, int resultLength, Scorer scorer, Writer writer)
+			throws OperatorException {
+		int size = exampleSet.size();
+		int parallelism = context == null ? 1 : Math.max(1, context.getParallelism());
+		boolean threadSafe = parallelism == 1 || ExampleSets.isThreadSafe(exampleSet);
+		int batchSize = parallelism * CHUNKS_PER_THREAD * CHUNK_SIZE;
+		Iterator<Example> examples = exampleSet.iterator();
+		for (int batchStart = 0; batchStart < size; batchStart += batchSize) {
+			int batchEnd = Math.min(size, batchStart + batchSize);
+			List<Callable<double[][]>> tasks = new ArrayList<>();
+			for (int chunkStart = batchStart; chunkStart < batchEnd; chunkStart += CHUNK_SIZE) {
+				int from = chunkStart;
+				int to = Math.min(batchEnd, chunkStart + CHUNK_SIZE);
+				if (threadSafe) {
+					tasks.add(() -> score(read(exampleSet, attributes, from, to), to - from, resultLength, scorer));
+				} else {
+					double[][] columns = read(exampleSet, attributes, from, to);
+					tasks.add(() -> score(columns, to - from, resultLength, scorer));
+				}
+			}
+			for (double[][] results : ConcurrencyTools.call(context, tasks, OperatorException.class)) {
+				for (double[] result : results) {
+					writer.write(examples.next(), result);
+				}
+			}
+			if (progress != null) {
+				progress.setCompleted(batchEnd);
+			}
+		}
+	}
+
+	/**
+	 * Applies the scorer to all examples of the example set. Thread-safe example sets with at least
+	 * {@link #MIN_CONCURRENT_PREDICTION_SIZE} examples are scored in parallel if an operator is
+	 * given. In this case the values set by the scorer are written to the examples in order by the
+	 * calling thread.
+	 *
+	 * @param exampleSet
+	 *            the examples to score
+	 * @param scorer
+	 *            the thread-safe scorer which sets the results on the given examples
+	 */
+	public void predict(ExampleSet exampleSet, ExampleScorer scorer) throws OperatorException {
+		int size = exampleSet.size();
+		int parallelism = context == null ? 1 : Math.max(1, context.getParallelism());
+		Iterator<Example> examples = exampleSet.iterator();
+		if (parallelism == 1 || size < MIN_CONCURRENT_PREDICTION_SIZE || !ExampleSets.isThreadSafe(exampleSet)) {
+			int completed = 0;
+			while (examples.hasNext()) {
+				scorer.score(examples.next());
+				if (progress != null && ++completed % CHUNK_SIZE == 0) {
+					progress.setCompleted(completed);
+				}
+			}
+			return;
+		}
+		int batchSize = parallelism * CHUNKS_PER_THREAD * CHUNK_SIZE;
+		Example[] batch = new Example[Math.min(size, batchSize)];
+		for (int batchStart = 0; batchStart < size; batchStart += batchSize) {
+			int batchEnd = Math.min(size, batchStart + batchSize);
+			for (int i = 0; i < batchEnd - batchStart; i++) {
+				batch[i] = examples.next();
+			}
+			List<Callable<BufferedExample[]>> tasks = new ArrayList<>();
+			for (int chunkStart = 0; chunkStart < batchEnd - batchStart; chunkStart += CHUNK_SIZE) {
+				int from = chunkStart;
+				int to = Math.min(batchEnd - batchStart, chunkStart + CHUNK_SIZE);
+				tasks.add(() -> score(exampleSet, batch, scorer, from, to));
+			}
+			for (BufferedExample[] results : ConcurrencyTools.call(context, tasks, OperatorException.class)) {
+				for (BufferedExample result : results) {
+					result.flush();
+				}
+			}
+			if (progress != null) {
+				progress.setCompleted(batchEnd);
+			}
+		}
+	}
+
+	private static BufferedExample[] score(ExampleSet exampleSet, Example[] batch, ExampleScorer scorer, int from,
+			int to) throws OperatorException {
+		BufferedExample[] results = new BufferedExample[to - from];
+		for (int i = 0; i < results.length; i++) {
+			results[i] = new BufferedExample(batch[from + i], exampleSet);
+			scorer.score(results[i]);
+		}
+		return results;
+	}
+
+	/**
+	 * Reads the values of the given attributes for the examples in the given range column by
+	 * column.
+	 */
+	private static double[][] read(ExampleSet exampleSet, List<Attribute> attributes, int from, int to) {
+		double[][] columns = new double[attributes.size()][to - from];
+		for (int a = 0; a < columns.length; a++) {
+			exampleSet.getValues(attributes.get(a), from, to, columns[a]);
+		}
+		return columns;
+	}
+
+	private static double[][] score(double[][] columns, int rows, int resultLength, Scorer scorer)
+			throws OperatorException {
+		double[][] results = new double[rows][resultLength];
+		double[] values = new double[columns.length];
+		for (int row = 0; row < results.length; row++) {
+			for (int a = 0; a < columns.length; a++) {
+				values[a] = columns[a][row];
+			}
+			scorer.score(values, results[row]);
+		}
+		return results;
+	}
+
+	/**
+	 * An example which keeps the values set on it instead of writing them to the underlying data
+	 * row. The values are written by {@link #flush()} in the order they were set.
+	 */
+	private static final class BufferedExample extends Example {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Example example;
+
+		private final List<Attribute> attributes = new ArrayList<>(4);
+
+		private double[] values = new double[4];
+
+		private BufferedExample(Example example, ExampleSet exampleSet) {
+			super(example.getDataRow(), exampleSet);
+			this.example = example;
+		}
+
+		@Override
+		public double getValue(Attribute a) {
+			for (int i = attributes.size() - 1; i >= 0; i--) {
+				if (attributes.get(i) == a) {
+					return values[i];
+				}
+			}
+			return super.getValue(a);
+		}
+
+		@Override
+		public void setValue(Attribute a, double value) {
+			if (attributes.size() == values.length) {
+				values = Arrays.copyOf(values, 2 * values.length);
+			}
+			values[attributes.size()] = value;
+			attributes.add(a);
+		}
+
+		/** Writes the buffered values to the underlying example. */
+		private void flush() {
+			for (int i = 0; i < attributes.size(); i++) {
+				example.setValue(attributes.get(i), values[i]);
+			}
+		}
+	}
+}
@@ -18,8 +18,6 @@
 */
 package com.rapidminer.operator.learner;
 
-import java.util.Iterator;
-
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
@@ -43,8 +41,6 @@ public abstract class SimpleBinaryPredictionModel extends PredictionModel {
 
 	private static final long serialVersionUID = 1540861516979781090L;
 
-	private static final int OPERATOR_PROGRESS_STEPS = 2000;
-
 	private double threshold = 0.0d;
 
 	protected SimpleBinaryPredictionModel(ExampleSet exampleSet, double threshold) {
@@ -57,6 +53,18 @@ public abstract class SimpleBinaryPredictionModel extends PredictionModel {
 	 */
 	public abstract double predict(Example example) throws OperatorException;
 
+	/**
+	 * Returns whether {@link #predict(Example)} can be called concurrently for different examples,
+	 * see {@link SimplePredictionModel#supportsConcurrentPrediction()}. The default implementation
+	 * returns {@code false}.
+	 *
+	 * @return whether the model supports concurrent predictions
+	 * @since 7.6
+	 */
+	protected boolean supportsConcurrentPrediction() {
+		return false;
+	}
+
 	/** Iterates over all examples and applies the model to them. */
 	@Override
 	public ExampleSet performPrediction(ExampleSet exampleSet, Attribute predictedLabel) throws OperatorException {
@@ -68,36 +76,31 @@ public abstract class SimpleBinaryPredictionModel extends PredictionModel {
 			throw new UserError(null, 114, getName(), predictedLabel.getName());
 		}
 
-		Iterator<Example> r = exampleSet.iterator();
 		OperatorProgress progress = null;
 		if (getShowProgress() && getOperator() != null && getOperator().getProgress() != null) {
 			progress = getOperator().getProgress();
 			progress.setTotal(exampleSet.size());
 		}
-		int progressCounter = 0;
-
-		while (r.hasNext()) {
-			Example example = r.next();
-			double functionValue = predict(example) - threshold;
-
-			// map prediction
-			if (functionValue > 0.0d) {
-				example.setValue(predictedLabel, getLabel().getMapping().getPositiveIndex());
-			} else {
-				example.setValue(predictedLabel, getLabel().getMapping().getNegativeIndex());
-			}
+		new BatchPredictor(supportsConcurrentPrediction() ? getOperator() : null, progress).predict(exampleSet,
+				example -> setPrediction(example, predictedLabel));
+		return exampleSet;
+	}
 
-			// set confidence values
-			example.setConfidence(getLabel().getMapping().mapIndex(predictedLabel.getMapping().getPositiveIndex()),
-					1.0d / (1.0d + java.lang.Math.exp(-functionValue)));
-			example.setConfidence(getLabel().getMapping().mapIndex(predictedLabel.getMapping().getNegativeIndex()),
-					1.0d / (1.0d + java.lang.Math.exp(functionValue)));
+	/** Applies the model to the example and sets the predicted label and the confidences. */
+	private void setPrediction(Example example, Attribute predictedLabel) throws OperatorException {
+		double functionValue = predict(example) - threshold;
 
-			if (progress != null && ++progressCounter % OPERATOR_PROGRESS_STEPS == 0) {
-				progress.setCompleted(progressCounter);
-			}
+		// map prediction
+		if (functionValue > 0.0d) {
+			example.setValue(predictedLabel, getLabel().getMapping().getPositiveIndex());
+		} else {
+			example.setValue(predictedLabel, getLabel().getMapping().getNegativeIndex());
 		}
 
-		return exampleSet;
+		// set confidence values
+		example.setConfidence(getLabel().getMapping().mapIndex(predictedLabel.getMapping().getPositiveIndex()),
+			1.0d / (1.0d + java.lang.Math.exp(-functionValue)));
+		example.setConfidence(getLabel().getMapping().mapIndex(predictedLabel.getMapping().getNegativeIndex()),
+			1.0d / (1.0d + java.lang.Math.exp(functionValue)));
 	}
 }
@@ -18,8 +18,6 @@
 */
 package com.rapidminer.operator.learner;
 
-import java.util.Iterator;
-
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
@@ -42,8 +40,6 @@ public abstract class SimplePredictionModel extends PredictionModel {
 	 */
 	private static final long serialVersionUID = 6275902545494306001L;
 
-	private static final int OPERATOR_PROGRESS_STEPS = 1000;
-
 	/**
 	 * @deprecated Since RapidMiner Studio 6.0.009. Please use the new Constructor
 	 *             {@link #SimplePredictionModel(ExampleSet, com.rapidminer.example.set.ExampleSetUtilities.SetsCompareOption, com.rapidminer.example.set.ExampleSetUtilities.TypesCompareOption)}
@@ -77,24 +73,33 @@ public abstract class SimplePredictionModel extends PredictionModel {
 	 */
 	public abstract double predict(Example example) throws OperatorException;
 
-	/** Iterates over all examples and applies the model to them. */
+	/**
+	 * Returns whether {@link #predict(Example)} can be called concurrently for different examples.
+	 * This is the case if the prediction neither changes the state of the model nor uses shared
+	 * state like the global random generator. Models returning {@code true} are applied to large
+	 * example sets in parallel. The default implementation returns {@code false}.
+	 *
+	 * @return whether the model supports concurrent predictions
+	 * @since 7.6
+	 */
+	protected boolean supportsConcurrentPrediction() {
+		return false;
+	}
+
+	/**
+	 * Iterates over all examples and applies the model to them. If the model
+	 * {@link #supportsConcurrentPrediction() supports concurrent predictions}, large example sets
+	 * are predicted in parallel by a {@link BatchPredictor}.
+	 */
 	@Override
 	public ExampleSet performPrediction(ExampleSet exampleSet, Attribute predictedLabel) throws OperatorException {
-		Iterator<Example> r = exampleSet.iterator();
 		OperatorProgress progress = null;
 		if (getShowProgress() && getOperator() != null && getOperator().getProgress() != null) {
 			progress = getOperator().getProgress();
 			progress.setTotal(exampleSet.size());
 		}
-		int progressCounter = 0;
-
-		while (r.hasNext()) {
-			Example example = r.next();
-			example.setValue(predictedLabel, predict(example));
-			if (progress != null && ++progressCounter % OPERATOR_PROGRESS_STEPS == 0) {
-				progress.setCompleted(progressCounter);
-			}
-		}
+		new BatchPredictor(supportsConcurrentPrediction() ? getOperator() : null, progress).predict(exampleSet,
+				example -> example.setValue(predictedLabel, predict(example)));
 		return exampleSet;
 	}
 }
@@ -96,6 +96,11 @@ public class DiscriminantModel extends SimplePredictionModel {
 		return bestValue;
 	}
 
+	@Override
+	protected boolean supportsConcurrentPrediction() {
+		return true;
+	}
+
 	@Override
 	protected boolean supportsConfidences(Attribute label) {
 		return false;
@@ -73,6 +73,11 @@ public class LogisticRegressionModel extends SimpleBinaryPredictionModel {
 		return Math.exp(eta) / (1 + Math.exp(eta));
 	}
 
+	@Override
+	protected boolean supportsConcurrentPrediction() {
+		return true;
+	}
+
 	@Override
 	public String toString() {
 		StringBuffer result = new StringBuffer();
@@ -58,6 +58,11 @@ public class PolynomialRegressionModel extends SimplePredictionModel {
 		return calculatePrediction(example, coefficients, degrees, offset);
 	}
 
+	@Override
+	protected boolean supportsConcurrentPrediction() {
+		return true;
+	}
+
 	/**
 	 * Calculates the prediction using the values of the example at its regular attributes.
 	 */
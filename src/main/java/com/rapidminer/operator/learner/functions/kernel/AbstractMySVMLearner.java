@@ -55,6 +55,7 @@ import com.rapidminer.parameter.ParameterTypeDouble;
 import com.rapidminer.parameter.ParameterTypeInt;
 import com.rapidminer.parameter.UndefinedParameterError;
 import com.rapidminer.parameter.conditions.EqualTypeCondition;
+import com.rapidminer.studio.internal.Resources;
 
 
 /**
@@ -102,6 +103,9 @@ public abstract class AbstractMySVMLearner extends AbstractKernelBasedLearner {
 	/** The parameter name for &quot;Size of the cache for kernel evaluations im MB &quot; */
 	public static final String PARAMETER_KERNEL_CACHE = "kernel_cache";
 
+	/** The parameter name for &quot;Stores cached kernel rows with float precision&quot; */
+	public static final String PARAMETER_KERNEL_CACHE_FLOAT_PRECISION = "kernel_cache_float_precision";
+
 	/** The parameter name for &quot;Precision on the KKT conditions&quot; */
 	public static final String PARAMETER_CONVERGENCE_EPSILON = "convergence_epsilon";
 
@@ -287,12 +291,15 @@ public abstract class AbstractMySVMLearner extends AbstractKernelBasedLearner {
 			((KernelMultiquadric) kernel).setParameters(getParameterAsDouble(PARAMETER_KERNEL_SIGMA1),
 					getParameterAsDouble(PARAMETER_KERNEL_SHIFT));
 		}
-		kernel.init(svmExamples, cacheSize);
+		kernel.setConcurrencyContext(Resources.getConcurrencyContext(this));
+		kernel.init(svmExamples, cacheSize, getParameterAsBoolean(PARAMETER_KERNEL_CACHE_FLOAT_PRECISION));
 
 		// SVM
 		svm = createSVM(label, kernel, svmExamples, exampleSet);
 		svm.init(kernel, svmExamples);
 		svm.train();
+		getLogger().fine("Kernel cache: " + kernel.getCacheHits() + " hits, " + kernel.getCacheMisses() + " misses");
+		kernel.clearCache();
 
 		return createSVMModel(exampleSet, svmExamples, kernel, kernelType);
 	}
@@ -418,6 +425,8 @@ public abstract class AbstractMySVMLearner extends AbstractKernelBasedLearner {
 		types.add(type);
 		types.add(new ParameterTypeInt(PARAMETER_KERNEL_CACHE, "Size of the cache for kernel evaluations im MB ", 0,
 				Integer.MAX_VALUE, 200));
+		types.add(new ParameterTypeBoolean(PARAMETER_KERNEL_CACHE_FLOAT_PRECISION,
+				"Stores cached kernel rows with float precision, which fits twice as many rows into the cache.", false));
 		type = new ParameterTypeDouble(PARAMETER_C,
 				"The SVM complexity constant. Use -1 for different C values for positive and negative.", -1,
 				Double.POSITIVE_INFINITY, 0.0d);
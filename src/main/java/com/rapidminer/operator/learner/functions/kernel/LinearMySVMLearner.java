@@ -36,6 +36,7 @@ import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.ParameterTypeDouble;
 import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
 import com.rapidminer.tools.RandomGenerator;
 
@@ -55,6 +56,9 @@ public class LinearMySVMLearner extends AbstractKernelBasedLearner {
 	/** The parameter name for &quot;Size of the cache for kernel evaluations im MB &quot; */
 	public static final String PARAMETER_KERNEL_CACHE = "kernel_cache";
 
+	/** The parameter name for &quot;Stores cached kernel rows with float precision&quot; */
+	public static final String PARAMETER_KERNEL_CACHE_FLOAT_PRECISION = "kernel_cache_float_precision";
+
 	/** The parameter name for &quot;Precision on the KKT conditions&quot; */
 	public static final String PARAMETER_CONVERGENCE_EPSILON = "convergence_epsilon";
 
@@ -134,12 +138,15 @@ public class LinearMySVMLearner extends AbstractKernelBasedLearner {
 		// kernel
 		int cacheSize = getParameterAsInt(PARAMETER_KERNEL_CACHE);
 		Kernel kernel = new KernelDot();
-		kernel.init(svmExamples, cacheSize);
+		kernel.setConcurrencyContext(Resources.getConcurrencyContext(this));
+		kernel.init(svmExamples, cacheSize, getParameterAsBoolean(PARAMETER_KERNEL_CACHE_FLOAT_PRECISION));
 
 		// SVM
 		SVMInterface svm = createSVM(label, kernel, svmExamples, exampleSet);
 		svm.init(kernel, svmExamples);
 		svm.train();
+		getLogger().fine("Kernel cache: " + kernel.getCacheHits() + " hits, " + kernel.getCacheMisses() + " misses");
+		kernel.clearCache();
 
 		LinearMySVMModel model = new LinearMySVMModel(exampleSet, svmExamples, kernel, KERNEL_DOT);
 		this.svmExamples = null;
@@ -171,6 +178,8 @@ public class LinearMySVMLearner extends AbstractKernelBasedLearner {
 		List<ParameterType> types = super.getParameterTypes();
 		types.add(new ParameterTypeInt(PARAMETER_KERNEL_CACHE, "Size of the cache for kernel evaluations im MB ", 0,
 				Integer.MAX_VALUE, 200));
+		types.add(new ParameterTypeBoolean(PARAMETER_KERNEL_CACHE_FLOAT_PRECISION,
+				"Stores cached kernel rows with float precision, which fits twice as many rows into the cache.", false));
 		ParameterType type = new ParameterTypeDouble(PARAMETER_C,
 				"The SVM complexity constant. Use -1 for different C values for positive and negative.", -1,
 				Double.POSITIVE_INFINITY, 0.0d);
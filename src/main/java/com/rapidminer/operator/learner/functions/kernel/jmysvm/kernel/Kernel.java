@@ -18,11 +18,16 @@
 */
 package com.rapidminer.operator.learner.functions.kernel.jmysvm.kernel;
 
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.operator.learner.functions.kernel.jmysvm.examples.SVMExample;
 import com.rapidminer.operator.learner.functions.kernel.jmysvm.examples.SVMExamples;
-import com.rapidminer.operator.learner.functions.kernel.jmysvm.util.Cache;
+import com.rapidminer.operator.learner.functions.kernel.jmysvm.util.KernelRowCache;
+import com.rapidminer.studio.concurrency.internal.util.ConcurrencyTools;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 
 /**
@@ -34,6 +39,9 @@ public abstract class Kernel implements Serializable {
 
 	private static final long serialVersionUID = 6086202515099260920L;
 
+	/** Rows with fewer entries are always calculated in a single thread. */
+	private static final int MINIMAL_ROW_LENGTH_FOR_CONCURRENT_CALCULATION = 10000;
+
 	/**
 	 * Container for the examples, parameters etc.
 	 */
@@ -47,17 +55,27 @@ public abstract class Kernel implements Serializable {
 	/**
 	 * Kernel cache
 	 */
-	protected transient Cache kernel_cache;
+	protected transient KernelRowCache kernel_cache;
 
 	/**
-	 * Number of elements in cache
+	 * Size of cache in MB
 	 */
-	protected int kernel_cache_size;
+	protected int cache_MB;
 
 	/**
-	 * Size of cache in MB
+	 * Whether the cache stores rows with float precision
 	 */
-	protected int cache_MB;
+	protected boolean cache_float_precision;
+
+	/**
+	 * Context used to calculate long kernel rows in parallel, may be null
+	 */
+	protected transient ConcurrencyContext context;
+
+	/**
+	 * Buffer the rows cached with float precision are converted into
+	 */
+	private transient double[] row_buffer;
 
 	/**
 	 * number of examples after shrinking
@@ -84,12 +102,35 @@ public abstract class Kernel implements Serializable {
 	 *            Container for the examples.
 	 */
 	public void init(SVMExamples examples, int cacheSizeMB) {
+		init(examples, cacheSizeMB, false);
+	};
+
+	/**
+	 * Init the kernel
+	 * 
+	 * @param examples
+	 *            Container for the examples.
+	 * @param floatPrecision
+	 *            whether the kernel cache stores rows with float precision
+	 * @since 7.6
+	 */
+	public void init(SVMExamples examples, int cacheSizeMB, boolean floatPrecision) {
 		the_examples = examples;
 		examples_total = the_examples.count_examples();
 		dim = the_examples.get_dim();
+		cache_float_precision = floatPrecision;
 		init_kernel_cache(cacheSizeMB);
 	};
 
+	/**
+	 * Sets the context used to calculate long kernel rows in parallel.
+	 * 
+	 * @since 7.6
+	 */
+	public void setConcurrencyContext(ConcurrencyContext context) {
+		this.context = context;
+	}
+
 	/**
 	 * Calculates kernel value of vectors x and y
 	 */
@@ -166,20 +207,38 @@ public abstract class Kernel implements Serializable {
 	};
 
 	/**
-	 * Gets a kernel row
+	 * Gets a kernel row. If the rows are cached with float precision, the returned row is a buffer
+	 * which is overwritten by the next call, so it must not be kept. Callers using two rows at once
+	 * must use {@link #get_row(int, double[])} with a buffer per row.
 	 */
 	public double[] get_row(int i) {
-		double[] result = null;
-		result = ((double[]) kernel_cache.get_element(i));
+		if (cache_float_precision && (row_buffer == null || row_buffer.length != examples_total)) {
+			row_buffer = new double[examples_total];
+		}
+		return get_row(i, row_buffer);
+	};
+
+	/**
+	 * Gets a kernel row. If the rows are cached with float precision, the row is written into the
+	 * given buffer, which is replaced by a new array if it is {@code null} or of another length. The
+	 * returned row is then only valid until the buffer is used again.
+	 *
+	 * @param i
+	 *            the index of the row
+	 * @param buffer
+	 *            the buffer for rows cached with float precision, can be {@code null}
+	 * @return the row
+	 */
+	public double[] get_row(int i, double[] buffer) {
+		if (cache_float_precision && (buffer == null || buffer.length != examples_total)) {
+			buffer = new double[examples_total];
+		}
+		double[] result = kernel_cache.get(i, buffer);
 		if (result == null) {
-			// get last cache element, don't assign new memory
-			result = (double[]) kernel_cache.get_lru_element();
-			if (result == null) {
-				result = new double[examples_total];
-			}
-			;
-			calculate_K_row(result, i);
-			kernel_cache.put_element(i, result);
+			// the cache keeps a float copy of the buffer, but rows with double precision are kept
+			// themselves and evicted rows might still be in use, so they always get new memory
+			result = calculate_K_row(cache_float_precision ? buffer : new double[examples_total], i);
+			kernel_cache.put(i, result);
 		}
 		;
 		return result;
@@ -193,17 +252,7 @@ public abstract class Kernel implements Serializable {
 	 */
 	public void init_kernel_cache(int size) {
 		cache_MB = size;
-		// array of train_size doubles
-		kernel_cache_size = size * 1048576 / 4 / examples_total;
-		if (kernel_cache_size < 1) {
-			kernel_cache_size = 1;
-		}
-		;
-		if (kernel_cache_size > the_examples.count_examples()) {
-			kernel_cache_size = the_examples.count_examples();
-		}
-		;
-		kernel_cache = new Cache(kernel_cache_size, examples_total);
+		kernel_cache = new KernelRowCache(size * 1048576L, cache_float_precision);
 	};
 
 	public int getCacheSize() {
@@ -211,30 +260,45 @@ public abstract class Kernel implements Serializable {
 	}
 
 	/**
-	 * Sets the number of examples to new value
+	 * Returns the number of kernel rows found in the cache.
+	 * 
+	 * @since 7.6
 	 */
-	public void set_examples_size(int new_examples_total) {
-		// number of rows that fit into cache:
-		int new_kernel_cache_size = cache_MB * 1048576 / 4 / new_examples_total;
-		if (new_kernel_cache_size < 1) {
-			new_kernel_cache_size = 1;
-		}
-		;
-		if (new_kernel_cache_size > new_examples_total) {
-			new_kernel_cache_size = new_examples_total;
-		}
-		;
+	public long getCacheHits() {
+		return kernel_cache == null ? 0 : kernel_cache.getHits();
+	}
+
+	/**
+	 * Returns the number of kernel rows which had to be calculated.
+	 * 
+	 * @since 7.6
+	 */
+	public long getCacheMisses() {
+		return kernel_cache == null ? 0 : kernel_cache.getMisses();
+	}
 
-		// kernel_cache = new Cache(kernel_cache_size);
+	/**
+	 * Removes all rows from the kernel cache to free its memory. The cache is refilled on demand.
+	 * 
+	 * @since 7.6
+	 */
+	public void clearCache() {
+		if (kernel_cache != null) {
+			kernel_cache.clear();
+		}
+	}
 
+	/**
+	 * Sets the number of examples to new value
+	 */
+	public void set_examples_size(int new_examples_total) {
 		if (new_examples_total < examples_total) {
-			// keep cache
-			kernel_cache.shrink(new_kernel_cache_size, new_examples_total);
+			// keep cache, the freed memory is used for further rows
+			kernel_cache.truncate(new_examples_total);
 		} else if (new_examples_total > examples_total) {
-			kernel_cache.init(new_kernel_cache_size);
+			kernel_cache.clear();
 		}
 		;
-		kernel_cache_size = new_kernel_cache_size;
 		examples_total = new_examples_total;
 	};
 
@@ -258,23 +322,45 @@ public abstract class Kernel implements Serializable {
 		return calculate_K(x.index, x.att, y.index, y.att);
 	};
 
-	public double[] calculate_K_row(double[] result, int i) {
-		int[] x_index;
-		double[] x_att;
-		int[] y_index;
-		double[] y_att;
-		x_index = the_examples.index[i];
-		x_att = the_examples.atts[i];
+	public double[] calculate_K_row(final double[] result, int i) {
+		final int[] x_index = the_examples.index[i];
+		final double[] x_att = the_examples.atts[i];
 
-		for (int k = 0; k < examples_total; k++) {
-			y_index = the_examples.index[k];
-			y_att = the_examples.atts[k];
-			result[k] = calculate_K(x_index, x_att, y_index, y_att);
+		if (context == null || context.getParallelism() < 2
+				|| examples_total < MINIMAL_ROW_LENGTH_FOR_CONCURRENT_CALCULATION) {
+			calculate_K_row(result, x_index, x_att, 0, examples_total);
+			return result;
 		}
-		;
+
+		// split the row into one part per thread
+		int parts = context.getParallelism();
+		int partSize = examples_total / parts + 1;
+		List<Callable<Void>> tasks = new ArrayList<>(parts);
+		for (int start = 0; start < examples_total; start += partSize) {
+			final int from = start;
+			final int to = Math.min(start + partSize, examples_total);
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					calculate_K_row(result, x_index, x_att, from, to);
+					return null;
+				}
+			});
+		}
+		ConcurrencyTools.call(context, tasks);
 		return result;
 	};
 
+	/**
+	 * Calculates the kernel values of x with the examples from (inclusive) to (exclusive).
+	 */
+	private void calculate_K_row(double[] result, int[] x_index, double[] x_att, int from, int to) {
+		for (int k = from; k < to; k++) {
+			result[k] = calculate_K(x_index, x_att, the_examples.index[k], the_examples.atts[k]);
+		}
+	}
+
 	/**
 	 * swap two training examples
 	 * 
@@ -22,7 +22,10 @@ package com.rapidminer.operator.learner.functions.kernel.jmysvm.util;
  * Implements a last recently used cache
  * 
  * @author Stefan Rueping
+ * @deprecated since 7.6, kernel rows are cached by the thread-safe and memory bounded
+ *             {@link KernelRowCache}
  */
+@Deprecated
 public class Cache {
 
 	/**
@@ -0,0 +1,292 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.functions.kernel.jmysvm.util;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+
+/**
+ * Thread-safe least recently used cache for kernel rows. In contrast to {@link Cache} the cache is
+ * bounded by the memory of the cached rows instead of their number. The rows can be stored with
+ * float precision, which fits twice as many rows into the same memory.
+ * <p>
+ * All kernel caches share a common budget, by default a quarter of the maximal heap, so that
+ * concurrently running learners together do not exceed it. A cache which does not get enough of the
+ * shared budget evicts its own least recently used rows. Caches which are garbage collected no
+ * longer count against the budget. Hits, misses and evictions are counted for monitoring.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class KernelRowCache {
+
+	/** Approximate memory of an array header and its entry in the cache. */
+	private static final long ROW_OVERHEAD = 64;
+
+	/** All caches that might still hold rows. Guarded by itself. */
+	private static final Set<KernelRowCache> CACHES = Collections
+			.newSetFromMap(new WeakHashMap<KernelRowCache, Boolean>());
+
+	private static volatile long sharedBudget = Runtime.getRuntime().maxMemory() / 4;
+
+	/** The cached rows in access order. Guarded by this. */
+	private final LinkedHashMap<Integer, Object> rows = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final long maximalBytes;
+
+	private final boolean floatPrecision;
+
+	/** Memory of the cached rows. Guarded by this, volatile to be read by other caches. */
+	private volatile long usedBytes;
+
+	private long hits;
+
+	private long misses;
+
+	private long evictions;
+
+	/**
+	 * Creates a new cache.
+	 *
+	 * @param maximalBytes
+	 *            the maximal memory of the cached rows in bytes. At least one row is always cached.
+	 * @param floatPrecision
+	 *            whether the rows are stored with float precision
+	 */
+	public KernelRowCache(long maximalBytes, boolean floatPrecision) {
+		this.maximalBytes = maximalBytes;
+		this.floatPrecision = floatPrecision;
+		synchronized (CACHES) {
+			CACHES.add(this);
+		}
+	}
+
+	/**
+	 * Returns the cached row with the given index or {@code null} if the row is not cached. Rows
+	 * stored with float precision are returned as new arrays.
+	 */
+	public double[] get(int i) {
+		return get(i, null);
+	}
+
+	/**
+	 * Returns the cached row with the given index or {@code null} if the row is not cached. Rows
+	 * stored with float precision are converted into the given buffer, which is only replaced by a
+	 * new array if it is {@code null} or shorter than the row. Hence the returned row is only valid
+	 * until the buffer is used again.
+	 *
+	 * @param i
+	 *            the index of the row
+	 * @param buffer
+	 *            the array to convert float rows into, can be {@code null}
+	 * @return the row, the buffer or {@code null}
+	 */
+	public synchronized double[] get(int i, double[] buffer) {
+		Object row = rows.get(i);
+		if (row == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		if (row instanceof double[]) {
+			return (double[]) row;
+		}
+		float[] floatRow = (float[]) row;
+		double[] result = buffer == null || buffer.length < floatRow.length ? new double[floatRow.length] : buffer;
+		for (int k = 0; k < floatRow.length; k++) {
+			result[k] = floatRow[k];
+		}
+		return result;
+	}
+
+	/**
+	 * Stores the row with the given index and evicts least recently used rows until the cache fits
+	 * into its memory and its part of the shared budget again. If the rows are stored with float
+	 * precision, the values of the given row are rounded in place so that the caller sees the same
+	 * values as later readers of the cache.
+	 */
+	public void put(int i, double[] row) {
+		Object stored;
+		if (floatPrecision) {
+			float[] floatRow = new float[row.length];
+			for (int k = 0; k < row.length; k++) {
+				floatRow[k] = (float) row[k];
+				row[k] = floatRow[k];
+			}
+			stored = floatRow;
+		} else {
+			stored = row;
+		}
+		synchronized (this) {
+			Object old = rows.put(i, stored);
+			if (old != null) {
+				usedBytes -= getBytes(old);
+			}
+			usedBytes += getBytes(stored);
+			long limit = Math.min(maximalBytes, sharedBudget - getBytesOfOtherCaches());
+			Iterator<Entry<Integer, Object>> iterator = rows.entrySet().iterator();
+			while (usedBytes > limit && rows.size() > 1) {
+				Entry<Integer, Object> eldest = iterator.next();
+				if (eldest.getKey() != i) {
+					usedBytes -= getBytes(eldest.getValue());
+					iterator.remove();
+					evictions++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Exchanges the examples with the indices i and j in all cached rows. The row i is replaced by
+	 * the row j, the row j is removed. Only to be used for shrinking.
+	 */
+	public synchronized void swap(int i, int j) {
+		Object rowI = remove(i);
+		Object rowJ = remove(j);
+		if (rowI != null && rowJ != null) {
+			rows.put(i, rowJ);
+			usedBytes += getBytes(rowJ);
+		}
+		for (Object row : rows.values()) {
+			if (row instanceof double[]) {
+				double[] doubleRow = (double[]) row;
+				if (doubleRow.length > Math.max(i, j)) {
+					double dummy = doubleRow[i];
+					doubleRow[i] = doubleRow[j];
+					doubleRow[j] = dummy;
+				}
+			} else {
+				float[] floatRow = (float[]) row;
+				if (floatRow.length > Math.max(i, j)) {
+					float dummy = floatRow[i];
+					floatRow[i] = floatRow[j];
+					floatRow[j] = dummy;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Cuts all cached rows to the given length.
+	 */
+	public synchronized void truncate(int length) {
+		for (Map.Entry<Integer, Object> entry : rows.entrySet()) {
+			Object row = entry.getValue();
+			if (row instanceof double[] && ((double[]) row).length > length) {
+				double[] doubleRow = new double[length];
+				System.arraycopy(row, 0, doubleRow, 0, length);
+				usedBytes += getBytes(doubleRow) - getBytes(row);
+				entry.setValue(doubleRow);
+			} else if (row instanceof float[] && ((float[]) row).length > length) {
+				float[] floatRow = new float[length];
+				System.arraycopy(row, 0, floatRow, 0, length);
+				usedBytes += getBytes(floatRow) - getBytes(row);
+				entry.setValue(floatRow);
+			}
+		}
+	}
+
+	/**
+	 * Removes all rows from the cache. The cache can still be used afterwards.
+	 */
+	public synchronized void clear() {
+		rows.clear();
+		usedBytes = 0;
+	}
+
+	/** Returns the number of successful lookups. */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/** Returns the number of lookups of rows which were not cached. */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/** Returns the number of rows which were removed to free memory. */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/** Returns the number of cached rows. */
+	public synchronized int getNumberOfRows() {
+		return rows.size();
+	}
+
+	/** Returns the memory of the cached rows in bytes. */
+	public long getUsedBytes() {
+		return usedBytes;
+	}
+
+	/** Returns the memory in bytes that all kernel caches together may use. */
+	public static long getSharedBudget() {
+		return sharedBudget;
+	}
+
+	/** Returns the memory in bytes that all kernel caches together currently use. */
+	public static long getSharedUsedBytes() {
+		long bytes = 0;
+		synchronized (CACHES) {
+			for (KernelRowCache cache : CACHES) {
+				bytes += cache.usedBytes;
+			}
+		}
+		return bytes;
+	}
+
+	/** Sets the memory in bytes that all kernel caches together may use. */
+	public static void setSharedBudget(long bytes) {
+		sharedBudget = bytes;
+	}
+
+	private Object remove(int i) {
+		Object row = rows.remove(i);
+		if (row != null) {
+			usedBytes -= getBytes(row);
+		}
+		return row;
+	}
+
+	private long getBytesOfOtherCaches() {
+		long bytes = 0;
+		synchronized (CACHES) {
+			for (KernelRowCache cache : CACHES) {
+				if (cache != this) {
+					bytes += cache.usedBytes;
+				}
+			}
+		}
+		return bytes;
+	}
+
+	private static long getBytes(Object row) {
+		if (row instanceof double[]) {
+			return ROW_OVERHEAD + 8L * ((double[]) row).length;
+		} else {
+			return ROW_OVERHEAD + 4L * ((float[]) row).length;
+		}
+	}
+}
@@ -57,6 +57,11 @@ public class KLR implements SVMInterface {
 
 	boolean[] atBound;
 
+	/** separate buffers, since both kernel rows are used at once by {@link #takeStep(int, int)} */
+	double[] rowBufferI;
+
+	double[] rowBufferJ;
+
 	int iUp;
 
 	int iLow;
@@ -164,8 +169,8 @@ public class KLR implements SVMInterface {
 	}
 
 	protected boolean takeStep(int i, int j) {
-		double[] kernel_row_i = kernel.get_row(i);
-		double[] kernel_row_j = kernel.get_row(j);
+		double[] kernel_row_i = rowBufferI = kernel.get_row(i, rowBufferI);
+		double[] kernel_row_j = rowBufferJ = kernel.get_row(j, rowBufferJ);
 		double aio = alphas[i];
 		double ajo = alphas[j];
 		double yi = target[i];
@@ -27,8 +27,10 @@ import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.ExampleSetUtilities;
 import com.rapidminer.example.set.ExampleSetUtilities.SetsCompareOption;
+import com.rapidminer.example.table.NominalMapping;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.learner.BatchPredictor;
 import com.rapidminer.operator.learner.UpdateablePredictionModel;
 import com.rapidminer.tools.Tools;
 import com.rapidminer.tools.container.Tupel;
@@ -45,8 +47,6 @@ public class KNNClassificationModel extends UpdateablePredictionModel {
 
 	private static final long serialVersionUID = -6292869962412072573L;
 
-	private static final int OPERATOR_PROGRESS_STEPS = 1000;
-
 	private int k;
 
 	private int size;
@@ -87,77 +87,70 @@ public class KNNClassificationModel extends UpdateablePredictionModel {
 			progress = getOperator().getProgress();
 			progress.setTotal(exampleSet.size());
 		}
-		int progressCounter = 0;
-
-		double[] values = new double[sampleAttributes.size()];
-		for (Example example : exampleSet) {
-			// reading values
-			int i = 0;
-			for (Attribute attribute : sampleAttributes) {
-				values[i] = example.getValue(attribute);
-				i++;
-			}
 
-			// counting frequency of labels
-			double[] counter = new double[predictedLabel.getMapping().size()];
-			double totalDistance = 0;
-			if (!weightByDistance || k == 1) {
-				// finding next k neighbours
-				Collection<Integer> neighbourLabels = samples.getNearestValues(k, values);
-				// distance is 1 for complete neighbourhood
-				totalDistance = k;
-
-				// counting frequency of labels
-				for (int index : neighbourLabels) {
-					counter[index] += 1 / totalDistance;
-				}
-			} else {
-				// finding next k neighbours and their distances
-				Collection<Tupel<Double, Integer>> neighbours = samples.getNearestValueDistances(k, values);
-				for (Tupel<Double, Integer> tupel : neighbours) {
-					totalDistance += tupel.getFirst();
-				}
+		// searching the neighbours in parallel, setting the predictions in order
+		NominalMapping mapping = predictedLabel.getMapping();
+		new BatchPredictor(getOperator(), progress).predict(exampleSet, sampleAttributes, mapping.size(),
+				this::countLabels, (example, counter) -> {
+					// finding most frequent class
+					int mostFrequentIndex = Integer.MIN_VALUE;
+					double mostFrequentFrequency = Double.NEGATIVE_INFINITY;
+					for (int index = 0; index < counter.length; index++) {
+						if (mostFrequentFrequency < counter[index]) {
+							mostFrequentFrequency = counter[index];
+							mostFrequentIndex = index;
+						}
+					}
+					// setting prediction
+					if (mostFrequentIndex == Integer.MIN_VALUE) {
+						example.setValue(predictedLabel, Double.NaN);
+					} else {
+						example.setValue(predictedLabel, mostFrequentIndex);
+					}
+
+					// setting confidence
+					for (int index = 0; index < counter.length; index++) {
+						example.setConfidence(mapping.mapIndex(index), counter[index]);
+					}
+				});
+		return exampleSet;
+	}
 
-				double totalSimilarity = 0.0d;
-				if (totalDistance == 0) {
-					totalDistance = 1;
-					totalSimilarity = k;
-				} else {
-					totalSimilarity = Math.max(k - 1, 1);
-				}
+	/**
+	 * Counts the frequency of the labels of the k nearest neighbours of the given values.
+	 */
+	private void countLabels(double[] values, double[] counter) {
+		double totalDistance = 0;
+		if (!weightByDistance || k == 1) {
+			// finding next k neighbours
+			Collection<Integer> neighbourLabels = samples.getNearestValues(k, values);
+			// distance is 1 for complete neighbourhood
+			totalDistance = k;
 
-				// counting frequency of labels
-				for (Tupel<Double, Integer> tupel : neighbours) {
-					counter[tupel.getSecond()] += (1d - tupel.getFirst() / totalDistance) / totalSimilarity;
-				}
-			}
-			// finding most frequent class
-			int mostFrequentIndex = Integer.MIN_VALUE;
-			double mostFrequentFrequency = Double.NEGATIVE_INFINITY;
-			for (int index = 0; index < counter.length; index++) {
-				if (mostFrequentFrequency < counter[index]) {
-					mostFrequentFrequency = counter[index];
-					mostFrequentIndex = index;
-				}
+			// counting frequency of labels
+			for (int index : neighbourLabels) {
+				counter[index] += 1 / totalDistance;
 			}
-			// setting prediction
-			if (mostFrequentIndex == Integer.MIN_VALUE) {
-				example.setValue(predictedLabel, Double.NaN);
-			} else {
-				example.setValue(predictedLabel, mostFrequentIndex);
+		} else {
+			// finding next k neighbours and their distances
+			Collection<Tupel<Double, Integer>> neighbours = samples.getNearestValueDistances(k, values);
+			for (Tupel<Double, Integer> tupel : neighbours) {
+				totalDistance += tupel.getFirst();
 			}
 
-			// setting confidence
-			for (int index = 0; index < counter.length; index++) {
-				example.setConfidence(predictedLabel.getMapping().mapIndex(index), counter[index]);
+			double totalSimilarity = 0.0d;
+			if (totalDistance == 0) {
+				totalDistance = 1;
+				totalSimilarity = k;
+			} else {
+				totalSimilarity = Math.max(k - 1, 1);
 			}
 
-			// trigger progress
-			if (progress != null && ++progressCounter % OPERATOR_PROGRESS_STEPS == 0) {
-				progress.setCompleted(progressCounter);
+			// counting frequency of labels
+			for (Tupel<Double, Integer> tupel : neighbours) {
+				counter[tupel.getSecond()] += (1d - tupel.getFirst() / totalDistance) / totalSimilarity;
 			}
 		}
-		return exampleSet;
 	}
 
 	@Override
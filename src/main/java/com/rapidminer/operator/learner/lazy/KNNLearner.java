@@ -33,13 +33,19 @@ import com.rapidminer.operator.ports.metadata.DistanceMeasurePrecondition;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.parameter.UndefinedParameterError;
+import com.rapidminer.parameter.conditions.BooleanParameterCondition;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
+import com.rapidminer.tools.RandomGenerator;
 import com.rapidminer.tools.math.container.GeometricDataCollection;
+import com.rapidminer.tools.math.container.HNSWGraph;
 import com.rapidminer.tools.math.container.LinearList;
+import com.rapidminer.tools.math.container.PrimitiveKDTree;
 import com.rapidminer.tools.math.similarity.DistanceMeasure;
 import com.rapidminer.tools.math.similarity.DistanceMeasureHelper;
 import com.rapidminer.tools.math.similarity.DistanceMeasures;
 
+import java.io.Serializable;
 import java.util.List;
 
 
@@ -57,6 +63,18 @@ public class KNNLearner extends AbstractLearner {
 	/** The parameter name for &quot;Indicates if the votes should be weighted by similarity.&quot; */
 	public static final String PARAMETER_WEIGHTED_VOTE = "weighted_vote";
 
+	/** The parameter name for &quot;Indicates if the neighbors should be searched approximately.&quot; */
+	public static final String PARAMETER_APPROXIMATE_SEARCH = "approximate_search";
+
+	/** The parameter name for &quot;The number of candidates examined per approximate search.&quot; */
+	public static final String PARAMETER_SEARCH_EFFORT = "search_effort";
+
+	/** The maximal number of dimensions for which a KD-Tree is used */
+	private static final int MAX_KD_TREE_DIMENSIONS = 20;
+
+	/** The minimal number of examples for which a KD-Tree is used */
+	private static final int MIN_KD_TREE_SIZE = 1000;
+
 	private DistanceMeasureHelper measureHelper = new DistanceMeasureHelper(this);
 
 	public KNNLearner(OperatorDescription description) {
@@ -71,9 +89,8 @@ public class KNNLearner extends AbstractLearner {
 		Attribute label = exampleSet.getAttributes().getLabel();
 		if (label.isNominal()) {
 			// classification
-			GeometricDataCollection<Integer> samples = new LinearList<Integer>(measure);
-
 			Attributes attributes = exampleSet.getAttributes();
+			GeometricDataCollection<Integer> samples = createSamples(measure, attributes.size(), exampleSet.size());
 
 			int valuesSize = attributes.size();
 			for (Example example : exampleSet) {
@@ -91,8 +108,8 @@ public class KNNLearner extends AbstractLearner {
 					getParameterAsBoolean(PARAMETER_WEIGHTED_VOTE));
 		} else {
 			// regression
-			GeometricDataCollection<Double> samples = new LinearList<Double>(measure);
 			Attributes attributes = exampleSet.getAttributes();
+			GeometricDataCollection<Double> samples = createSamples(measure, attributes.size(), exampleSet.size());
 
 			int valuesSize = attributes.size();
 			for (Example example : exampleSet) {
@@ -111,6 +128,26 @@ public class KNNLearner extends AbstractLearner {
 		}
 	}
 
+	/**
+	 * Creates the collection storing the training examples. A {@link PrimitiveKDTree} is used if it
+	 * supports the measure and the number of examples is large compared to the number of
+	 * dimensions, since a KD-Tree prunes hardly any examples otherwise. Otherwise an
+	 * {@link HNSWGraph} is used if an approximate search was requested. In all other cases the
+	 * examples are searched linearly.
+	 */
+	private <T extends Serializable> GeometricDataCollection<T> createSamples(DistanceMeasure measure, int dimensions,
+			int size) throws UndefinedParameterError {
+		if (PrimitiveKDTree.isSupported(measure) && dimensions <= MAX_KD_TREE_DIMENSIONS
+				&& size >= Math.max(MIN_KD_TREE_SIZE, 1 << dimensions)) {
+			return new PrimitiveKDTree<T>(measure);
+		} else if (getParameterAsBoolean(PARAMETER_APPROXIMATE_SEARCH)) {
+			return new HNSWGraph<T>(measure, HNSWGraph.DEFAULT_MAX_NEIGHBOURS, HNSWGraph.DEFAULT_CONSTRUCTION_EFFORT,
+					getParameterAsInt(PARAMETER_SEARCH_EFFORT), RandomGenerator.getRandomGenerator(this).nextLong());
+		} else {
+			return new LinearList<T>(measure);
+		}
+	}
+
 	@Override
 	public Class<? extends PredictionModel> getModelClass() {
 		// TODO: Needs to unify models in order to return common class
@@ -156,6 +193,20 @@ public class KNNLearner extends AbstractLearner {
 		types.add(new ParameterTypeBoolean(PARAMETER_WEIGHTED_VOTE,
 				"Indicates if the votes should be weighted by similarity.", false, false));
 
+		types.add(new ParameterTypeBoolean(PARAMETER_APPROXIMATE_SEARCH,
+				"Indicates if the neighbors should be searched approximately. This is much faster for large data sets with many attributes, but might miss some of the nearest neighbors.",
+				false, true));
+		type = new ParameterTypeInt(PARAMETER_SEARCH_EFFORT,
+				"The number of candidates examined per approximate search. Higher values find more of the true nearest neighbors but are slower.",
+				1, Integer.MAX_VALUE, HNSWGraph.DEFAULT_SEARCH_EFFORT);
+		type.registerDependencyCondition(new BooleanParameterCondition(this, PARAMETER_APPROXIMATE_SEARCH, true, true));
+		types.add(type);
+		for (ParameterType randomType : RandomGenerator.getRandomGeneratorParameters(this)) {
+			randomType.registerDependencyCondition(
+					new BooleanParameterCondition(this, PARAMETER_APPROXIMATE_SEARCH, false, true));
+			types.add(randomType);
+		}
+
 		types.addAll(DistanceMeasures.getParameterTypes(this));
 		return types;
 	}
@@ -107,31 +107,44 @@ public class ConfidenceVoteModel extends SimplePredictionModel implements MetaMo
 
 	@Override
 	public double predict(Example example) throws OperatorException {
-		Map<String, Double> classConfidenceSums = new HashMap<>();
+		List<String> classNames = getLabel().getMapping().getValues();
+		double[] classConfidenceSums = new double[classNames.size()];
 		for (SimplePredictionModel model : models) {
 			model.predict(example);
-			for (String className : getLabel().getMapping().getValues()) {
-				Double classConfidence = example.getConfidence(className);
-				if (Double.isNaN(classConfidence)) {
-					throw new OperatorException("Child model failed to compute confidence value.");
-				}
-				Double currentSum = classConfidenceSums.get(className);
-				if (currentSum == null) {
-					classConfidenceSums.put(className, classConfidence);
-				} else {
-					classConfidenceSums.put(className, currentSum + classConfidence);
-				}
+			for (int i = 0; i < classConfidenceSums.length; i++) {
+				classConfidenceSums[i] += example.getConfidence(classNames.get(i));
 			}
 		}
+		return vote(example, classConfidenceSums);
+	}
 
-		// normalize confidence sums
-		for (Entry<String, Double> entry : classConfidenceSums.entrySet()) {
-			entry.setValue(entry.getValue() / models.size());
+	/**
+	 * Chooses the class with the highest mean confidence and sets the confidences of the example to
+	 * the mean confidences. Ties are broken randomly.
+	 *
+	 * @param example
+	 *            the example to set the confidences for
+	 * @param classConfidenceSums
+	 *            the sums of the confidences of the models by the index of the class
+	 * @return the index of the chosen class
+	 * @throws OperatorException
+	 *             if a model failed to compute a confidence
+	 * @since 7.6
+	 */
+	public double vote(Example example, double[] classConfidenceSums) throws OperatorException {
+		List<String> classNames = getLabel().getMapping().getValues();
+		Map<String, Double> classConfidences = new HashMap<>();
+		for (int i = 0; i < classConfidenceSums.length; i++) {
+			if (Double.isNaN(classConfidenceSums[i])) {
+				throw new OperatorException("Child model failed to compute confidence value.");
+			}
+			// normalize confidence sums
+			classConfidences.put(classNames.get(i), classConfidenceSums[i] / models.size());
 		}
 
-		List<String> bestClasses = new ArrayList<>(classConfidenceSums.size());
+		List<String> bestClasses = new ArrayList<>(classConfidences.size());
 		double maxConfidence = -1;
-		for (Entry<String, Double> entry : classConfidenceSums.entrySet()) {
+		for (Entry<String, Double> entry : classConfidences.entrySet()) {
 			String className = entry.getKey();
 			double confidence = entry.getValue();
 			if (confidence > maxConfidence) {
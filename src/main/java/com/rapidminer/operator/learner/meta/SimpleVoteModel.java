@@ -21,9 +21,6 @@ package com.rapidminer.operator.learner.meta;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
@@ -71,43 +68,16 @@ public class SimpleVoteModel extends SimplePredictionModel implements MetaModel
 	@Override
 	public double predict(Example example) throws OperatorException {
 		if (labelIsNominal) {
-			Map<Double, AtomicInteger> classVotes = new TreeMap<>();
+			int[] classVotes = new int[getLabel().getMapping().size()];
 			Iterator<? extends SimplePredictionModel> iterator = baseModels.iterator();
 			while (iterator.hasNext()) {
 				double prediction = iterator.next().predict(example);
-				AtomicInteger counter = classVotes.get(prediction);
-				if (counter == null) {
-					classVotes.put(prediction, new AtomicInteger(1));
-				} else {
-					counter.incrementAndGet();
+				int index = (int) prediction;
+				if (index == prediction && index >= 0 && index < classVotes.length) {
+					classVotes[index]++;
 				}
 			}
-
-			List<Double> bestClasses = new LinkedList<>();
-			int bestClassesVotes = -1;
-			for (double currentClass : labelIndices) {
-				AtomicInteger votes = classVotes.get(currentClass);
-				if (votes != null) {
-					int currentVotes = votes.intValue();
-					if (currentVotes > bestClassesVotes) {
-						bestClasses.clear();
-						bestClasses.add(currentClass);
-						bestClassesVotes = currentVotes;
-					}
-					if (currentVotes == bestClassesVotes) {
-						bestClasses.add(currentClass);
-					}
-					example.setConfidence(getLabel().getMapping().mapIndex((int) currentClass), (double) currentVotes
-							/ (double) baseModels.size());
-				} else {
-					example.setConfidence(getLabel().getMapping().mapIndex((int) currentClass), 0.00);
-				}
-			}
-			if (bestClasses.size() == 1) {
-				return bestClasses.get(0);
-			} else {
-				return bestClasses.get(RandomGenerator.getGlobalRandomGenerator().nextInt(bestClasses.size()));
-			}
+			return vote(example, classVotes);
 		} else {
 			double sum = 0.0d;
 			Iterator<? extends SimplePredictionModel> iterator = baseModels.iterator();
@@ -118,6 +88,44 @@ public class SimpleVoteModel extends SimplePredictionModel implements MetaModel
 		}
 	}
 
+	/**
+	 * Chooses the class with the most votes and sets the confidences of the example to the
+	 * fractions of the votes. Ties are broken randomly.
+	 *
+	 * @param example
+	 *            the example to set the confidences for
+	 * @param classVotes
+	 *            the number of votes of the base models by the index of the class
+	 * @return the index of the chosen class
+	 * @since 7.6
+	 */
+	public double vote(Example example, int[] classVotes) {
+		List<Double> bestClasses = new LinkedList<>();
+		int bestClassesVotes = -1;
+		for (double currentClass : labelIndices) {
+			int currentVotes = classVotes[(int) currentClass];
+			if (currentVotes > 0) {
+				if (currentVotes > bestClassesVotes) {
+					bestClasses.clear();
+					bestClasses.add(currentClass);
+					bestClassesVotes = currentVotes;
+				}
+				if (currentVotes == bestClassesVotes) {
+					bestClasses.add(currentClass);
+				}
+				example.setConfidence(getLabel().getMapping().mapIndex((int) currentClass), (double) currentVotes
+						/ (double) baseModels.size());
+			} else {
+				example.setConfidence(getLabel().getMapping().mapIndex((int) currentClass), 0.00);
+			}
+		}
+		if (bestClasses.size() == 1) {
+			return bestClasses.get(0);
+		} else {
+			return bestClasses.get(RandomGenerator.getGlobalRandomGenerator().nextInt(bestClasses.size()));
+		}
+	}
+
 	@Override
 	public String toString() {
 		StringBuffer buffer = new StringBuffer();
@@ -164,6 +164,11 @@ public class ConjunctiveRuleModel extends SimplePredictionModel {
 		return this.predictedLabel;
 	}
 
+	@Override
+	protected boolean supportsConcurrentPrediction() {
+		return true;
+	}
+
 	/** @return the number of literals */
 	public int getRuleLength() {
 		return this.myLiterals.size();
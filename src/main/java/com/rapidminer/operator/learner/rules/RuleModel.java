@@ -65,6 +65,11 @@ public class RuleModel extends SimplePredictionModel implements Readable {
 		return Double.NaN; // return unknown if no rule exists
 	}
 
+	@Override
+	protected boolean supportsConcurrentPrediction() {
+		return true;
+	}
+
 	public double getPrediction(Example example) {
 		for (Rule rule : rules) {
 			if (rule.coversExample(example)) {
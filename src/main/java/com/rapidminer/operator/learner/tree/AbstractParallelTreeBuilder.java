@@ -18,11 +18,13 @@
 */
 package com.rapidminer.operator.learner.tree;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.ExampleSet;
@@ -45,10 +47,21 @@ import com.rapidminer.studio.internal.Resources;
  * selection of the examples should be done in parallel. (Note that this only has an effect if there
  * are numerical attributes.)
  *
+ * If a number of bins is set via {@link #setNumberOfBins(int)}, the numerical attributes are
+ * discretized once instead of sorted and the numerical splits are calculated on per-bin label
+ * histograms. The histograms of the largest child of a split are then derived by subtracting the
+ * histograms of its siblings from the ones of its parent.
+ *
  * @author Ingo Mierswa, Gisa Schaefer
  */
 public abstract class AbstractParallelTreeBuilder {
 
+	/**
+	 * The histograms are only kept for nodes with at least this number of examples. This bounds
+	 * the memory for the histograms since the kept nodes have disjoint example selections.
+	 */
+	private static final int MINIMAL_EXAMPLES_FOR_KEEPING_HISTOGRAMS = 2000;
+
 	final protected Operator operator;
 
 	final protected ColumnTerminator minLeafSizeTerminator;
@@ -77,6 +90,11 @@ public abstract class AbstractParallelTreeBuilder {
 
 	final protected boolean parallelAllowed;
 
+	/** the maximal number of bins for the numerical attributes, 0 if they are not binned */
+	protected int numberOfBins = 0;
+
+	protected ColumnHistogramSplitter histogramSplitter;
+
 	/**
 	 * Initializes the fields.
 	 *
@@ -112,6 +130,25 @@ public abstract class AbstractParallelTreeBuilder {
 		this.parallelAllowed = parallelAllowed;
 	}
 
+	/**
+	 * Sets the maximal number of bins into which the numerical attributes are discretized before
+	 * growing the tree. Then the numerical splits are found on label histograms and only the bin
+	 * boundaries are considered as split points.
+	 *
+	 * @param numberOfBins
+	 *            the maximal number of bins between 2 and
+	 *            {@link ColumnExampleTable#MAXIMAL_NUMBER_OF_BINS}, or 0 to consider all split
+	 *            points on sorted attributes
+	 * @since 7.6
+	 */
+	public void setNumberOfBins(int numberOfBins) {
+		if (numberOfBins != 0 && (numberOfBins < 2 || numberOfBins > ColumnExampleTable.MAXIMAL_NUMBER_OF_BINS)) {
+			throw new IllegalArgumentException(
+					"numberOfBins must be 0 or between 2 and " + ColumnExampleTable.MAXIMAL_NUMBER_OF_BINS);
+		}
+		this.numberOfBins = numberOfBins;
+	}
+
 	/**
 	 * Creates a copy of the example set in form of the {@link ColumnExampleTable}, starts the tree
 	 * growing procedure and prunes the finished tree.
@@ -127,6 +164,7 @@ public abstract class AbstractParallelTreeBuilder {
 
 		columnTable = new ColumnExampleTable(exampleSet, operator, parallelAllowed);
 		benefitCalculator = new BenefitCalculator(columnTable, criterion, operator);
+		histogramSplitter = new ColumnHistogramSplitter(columnTable, criterion);
 		selectionCreator = new SelectionCreator(columnTable);
 
 		Map<Integer, int[]> allSelectedExamples = createExampleStartSelection();
@@ -160,14 +198,19 @@ public abstract class AbstractParallelTreeBuilder {
 	}
 
 	/**
-	 * Creates for every numerical attribute a sorted start selection, possibly in parallel.
+	 * Creates for every numerical attribute a sorted start selection, possibly in parallel. If a
+	 * number of bins is set, the numerical attributes are binned instead and a single unsorted start
+	 * selection is created.
 	 *
 	 * @return
 	 * @throws OperatorException
 	 */
 	protected Map<Integer, int[]> createExampleStartSelection() throws OperatorException {
 		Map<Integer, int[]> allSelectedExamples;
-		if (doStartSelectionInParallel() && operator != null) {
+		if (numberOfBins > 0) {
+			columnTable.createBins(numberOfBins, doStartSelectionInParallel() ? operator : null);
+			allSelectedExamples = selectionCreator.getUnsortedStartSelection();
+		} else if (doStartSelectionInParallel() && operator != null) {
 			allSelectedExamples = selectionCreator.getStartSelectionParallel(operator);
 		} else {
 			allSelectedExamples = selectionCreator.getStartSelection();
@@ -227,8 +270,13 @@ public abstract class AbstractParallelTreeBuilder {
 			selectedAttributes = preprocessing.preprocess(selectedAttributes);
 		}
 
-		// calculate all benefits
-		List<ParallelBenefit> benefits = getBenefits(allSelectedExamples, selectedAttributes, attributeParallel);
+		// calculate all benefits, keeping the histograms for the children if the table is binned
+		Map<Integer, double[][]> histograms = nodeData.getHistograms();
+		if (histograms == null && columnTable.isBinned()) {
+			histograms = new ConcurrentHashMap<>();
+		}
+		List<ParallelBenefit> benefits = getBenefits(allSelectedExamples, selectedAttributes, attributeParallel,
+				histograms);
 		// sort all benefits
 		Collections.sort(benefits);
 
@@ -263,17 +311,21 @@ public abstract class AbstractParallelTreeBuilder {
 				int[] remainingAttributes = selectionCreator.updateRemainingAttributes(selectedAttributes, bestAttribute);
 
 				LinkedList<NodeData> children = new LinkedList<>();
+				List<Map<Integer, double[][]>> childHistograms = createChildHistograms(histograms, splits);
 
 				int i = 0;
+				int s = 0;
 				for (Map<Integer, int[]> split : splits) {
 					if (SelectionCreator.getArbitraryValue(split).length > 0) {
 						Tree child = new Tree(null);
 						addToParentTree(current, child, bestAttribute, bestSplitValue,
 								SelectionCreator.getArbitraryValue(split), i);
-						NodeData newNode = new NodeData(child, split, remainingAttributes, depth + 1);
+						NodeData newNode = new NodeData(child, split, remainingAttributes, depth + 1,
+								childHistograms == null ? null : childHistograms.get(s));
 						children.add(newNode);
 						i++;
 					}
+					s++;
 				}
 
 				// end loop
@@ -323,15 +375,98 @@ public abstract class AbstractParallelTreeBuilder {
 	 */
 	protected List<ParallelBenefit> getBenefits(Map<Integer, int[]> allSelectedExamples, int[] selectedAttributes,
 			boolean attributeParallel) throws OperatorException {
+		return getBenefits(allSelectedExamples, selectedAttributes, attributeParallel, null);
+	}
+
+	/**
+	 * For each attribute calculate the benefit for splitting there, possibly in parallel if
+	 * attributeParallel is <code>true</code>. If the column table is binned, the histograms of the
+	 * numerical attributes are taken from or added to the given histograms.
+	 *
+	 * @param allSelectedExamples
+	 * @param selectedAttributes
+	 * @param attributeParallel
+	 * @param histograms
+	 *            a thread-safe map from the attribute numbers to their histograms, can be
+	 *            <code>null</code>
+	 * @return
+	 * @throws OperatorException
+	 * @since 7.6
+	 */
+	protected List<ParallelBenefit> getBenefits(Map<Integer, int[]> allSelectedExamples, int[] selectedAttributes,
+			boolean attributeParallel, Map<Integer, double[][]> histograms) throws OperatorException {
 		List<ParallelBenefit> benefits;
 		if (attributeParallel && operator != null) {
-			benefits = benefitCalculator.calculateAllBenefitsParallel(allSelectedExamples, selectedAttributes);
+			benefits = benefitCalculator.calculateAllBenefitsParallel(allSelectedExamples, selectedAttributes,
+					histograms);
 		} else {
-			benefits = benefitCalculator.calculateAllBenefits(allSelectedExamples, selectedAttributes);
+			benefits = benefitCalculator.calculateAllBenefits(allSelectedExamples, selectedAttributes, histograms);
 		}
 		return benefits;
 	}
 
+	/**
+	 * Creates the histograms of the children of a split from the histograms of the parent. The
+	 * histograms of all children but the largest are calculated from their selections, the ones of
+	 * the largest child are the histograms of the parent minus the ones of its siblings.
+	 *
+	 * The histograms are only kept for children which have enough examples. They are not created
+	 * at all if the attributes are preprocessed at every node, since then the children consider
+	 * other attributes than the parent, or if there are weights, since the subtraction is only
+	 * exact for counts.
+	 *
+	 * @param histograms
+	 *            the histograms of the parent, can be <code>null</code>
+	 * @param splits
+	 *            the selections of the children
+	 * @return the histograms for every split or <code>null</code> if no child keeps histograms
+	 */
+	private List<Map<Integer, double[][]>> createChildHistograms(Map<Integer, double[][]> histograms,
+			Collection<Map<Integer, int[]>> splits) {
+		if (histograms == null || histograms.isEmpty() || preprocessing != null || columnTable.getWeight() != null) {
+			return null;
+		}
+		List<int[]> selections = new ArrayList<>(splits.size());
+		int largest = -1;
+		for (Map<Integer, int[]> split : splits) {
+			int[] selection = SelectionCreator.getArbitraryValue(split);
+			if (largest < 0 || selection.length > selections.get(largest).length) {
+				largest = selections.size();
+			}
+			selections.add(selection);
+		}
+		if (selections.get(largest).length < MINIMAL_EXAMPLES_FOR_KEEPING_HISTOGRAMS) {
+			return null;
+		}
+
+		List<Map<Integer, double[][]>> childHistograms = new ArrayList<>(selections.size());
+		for (int s = 0; s < selections.size(); s++) {
+			int[] selection = selections.get(s);
+			if (s == largest) {
+				// the histograms of the parent are not needed anymore
+				childHistograms.add(histograms);
+			} else if (selection.length >= MINIMAL_EXAMPLES_FOR_KEEPING_HISTOGRAMS) {
+				childHistograms.add(new ConcurrentHashMap<Integer, double[][]>());
+			} else {
+				childHistograms.add(null);
+			}
+		}
+
+		for (Map.Entry<Integer, double[][]> entry : histograms.entrySet()) {
+			int attributeNumber = entry.getKey();
+			for (int s = 0; s < selections.size(); s++) {
+				if (s != largest && selections.get(s).length > 0) {
+					double[][] histogram = histogramSplitter.getHistogram(selections.get(s), attributeNumber);
+					ColumnHistogramSplitter.subtract(entry.getValue(), histogram);
+					if (childHistograms.get(s) != null) {
+						childHistograms.get(s).put(attributeNumber, histogram);
+					}
+				}
+			}
+		}
+		return childHistograms;
+	}
+
 	/**
 	 * Checks in the case of prepruning whether the minimal leaf size is satisfied.
 	 *
@@ -400,12 +535,19 @@ public abstract class AbstractParallelTreeBuilder {
 		Map<Integer, int[]> allSelectedExamples;
 		int[] selectedAttributes;
 		int depth;
+		Map<Integer, double[][]> histograms;
 
 		NodeData(Tree tree, Map<Integer, int[]> allSelectedExamples, int[] selectedAttributes, int depth) {
+			this(tree, allSelectedExamples, selectedAttributes, depth, null);
+		}
+
+		NodeData(Tree tree, Map<Integer, int[]> allSelectedExamples, int[] selectedAttributes, int depth,
+				Map<Integer, double[][]> histograms) {
 			this.tree = tree;
 			this.allSelectedExamples = allSelectedExamples;
 			this.selectedAttributes = selectedAttributes;
 			this.depth = depth;
+			this.histograms = histograms;
 		}
 
 		Tree getTree() {
@@ -423,6 +565,14 @@ public abstract class AbstractParallelTreeBuilder {
 		int getDepth() {
 			return depth;
 		}
+
+		/**
+		 * @return the histograms of the numerical attributes derived from the parent node, can be
+		 *         <code>null</code>
+		 */
+		Map<Integer, double[][]> getHistograms() {
+			return histograms;
+		}
 	}
 
 }
@@ -80,6 +80,20 @@ public abstract class AbstractParallelTreeLearner extends AbstractLearner {
 
 	public static final String PARAMETER_NUMBER_OF_PREPRUNING_ALTERNATIVES = "number_of_prepruning_alternatives";
 
+	/**
+	 * The parameter name for &quot;Finds numerical splits on histograms of binned attributes.&quot;
+	 *
+	 * @since 7.6
+	 */
+	public static final String PARAMETER_USE_HISTOGRAMS = "use_histograms";
+
+	/**
+	 * The parameter name for &quot;The maximal number of bins per numerical attribute.&quot;
+	 *
+	 * @since 7.6
+	 */
+	public static final String PARAMETER_NUMBER_OF_BINS = "number_of_bins";
+
 	public static final String[] CRITERIA_NAMES = { "gain_ratio", "information_gain", "gini_index", "accuracy" };
 
 	public static final Class<?>[] CRITERIA_CLASSES = { GainRatioColumnCriterion.class, InfoGainColumnCriterion.class,
@@ -140,6 +154,9 @@ public abstract class AbstractParallelTreeLearner extends AbstractLearner {
 
 		// create tree builder
 		AbstractParallelTreeBuilder builder = getTreeBuilder(exampleSet);
+		if (getParameterAsBoolean(PARAMETER_USE_HISTOGRAMS)) {
+			builder.setNumberOfBins(getParameterAsInt(PARAMETER_NUMBER_OF_BINS));
+		}
 		// learn tree
 		Tree root = builder.learnTree(exampleSet);
 
@@ -206,6 +223,16 @@ public abstract class AbstractParallelTreeLearner extends AbstractLearner {
 		type.registerDependencyCondition(new BooleanParameterCondition(this, PARAMETER_PRE_PRUNING, false, true));
 		types.add(type);
 
+		types.add(new ParameterTypeBoolean(PARAMETER_USE_HISTOGRAMS,
+				"Discretizes the numerical attributes into bins once and finds numerical splits on per-bin label histograms. "
+						+ "This is much faster on large data sets, but only the bin boundaries are considered as split points.",
+				false));
+
+		type = new ParameterTypeInt(PARAMETER_NUMBER_OF_BINS, "The maximal number of bins per numerical attribute.", 2,
+				ColumnExampleTable.MAXIMAL_NUMBER_OF_BINS, ColumnExampleTable.MAXIMAL_NUMBER_OF_BINS);
+		type.registerDependencyCondition(new BooleanParameterCondition(this, PARAMETER_USE_HISTOGRAMS, false, true));
+		types.add(type);
+
 		return types;
 	}
 }
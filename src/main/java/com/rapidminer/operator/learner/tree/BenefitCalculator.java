@@ -49,21 +49,36 @@ public class BenefitCalculator {
 
 	private ColumnNumericalSplitter splitter;
 
+	private ColumnHistogramSplitter histogramSplitter;
+
 	public BenefitCalculator(ColumnExampleTable columnTable, ColumnCriterion criterion, Operator operator) {
 		this.columnTable = columnTable;
 		this.criterion = criterion;
 		this.operator = operator;
 		splitter = new ColumnNumericalSplitter(columnTable, criterion);
+		histogramSplitter = new ColumnHistogramSplitter(columnTable, criterion);
 	}
 
 	/**
 	 * This method calculates the benefit of the given attribute. This implementation utilizes the
-	 * defined {@link Criterion}.
+	 * defined {@link Criterion}. If the column table is binned, the split of a numerical attribute
+	 * is calculated on its histogram which is taken from or added to the histograms.
 	 */
-	private ParallelBenefit calculateBenefit(Map<Integer, int[]> allSelectedExamples, int attributeNumber) {
+	private ParallelBenefit calculateBenefit(Map<Integer, int[]> allSelectedExamples, int attributeNumber,
+			Map<Integer, double[][]> histograms) {
 		if (columnTable.representsNominalAttribute(attributeNumber)) {
 			return new ParallelBenefit(criterion.getNominalBenefit(columnTable,
 					SelectionCreator.getArbitraryValue(allSelectedExamples), attributeNumber), attributeNumber);
+		} else if (columnTable.isBinned()) {
+			double[][] histogram = histograms == null ? null : histograms.get(attributeNumber);
+			if (histogram == null) {
+				histogram = histogramSplitter.getHistogram(SelectionCreator.getArbitraryValue(allSelectedExamples),
+						attributeNumber);
+				if (histograms != null) {
+					histograms.put(attributeNumber, histogram);
+				}
+			}
+			return histogramSplitter.getBestSplitBenefit(histogram, attributeNumber);
 		} else {
 			// numerical attribute
 			int[] selectedExamples = allSelectedExamples.get(attributeNumber);
@@ -82,6 +97,25 @@ public class BenefitCalculator {
 	 */
 	public List<ParallelBenefit> calculateAllBenefitsParallel(final Map<Integer, int[]> allSelectedExamples,
 			final int[] selectedAttributes) throws OperatorException {
+		return calculateAllBenefitsParallel(allSelectedExamples, selectedAttributes, null);
+	}
+
+	/**
+	 * Calculates the benefits for all selected attributes on the given selected examples in
+	 * parallel. If the column table is binned, the histograms of the numerical attributes are
+	 * taken from the given histograms if present and otherwise calculated and added to them.
+	 *
+	 * @param allSelectedExamples
+	 * @param selectedAttributes
+	 * @param histograms
+	 *            a thread-safe map from the attribute numbers to their histograms, can be
+	 *            <code>null</code>
+	 * @return
+	 * @throws OperatorException
+	 * @since 7.6
+	 */
+	public List<ParallelBenefit> calculateAllBenefitsParallel(final Map<Integer, int[]> allSelectedExamples,
+			final int[] selectedAttributes, final Map<Integer, double[][]> histograms) throws OperatorException {
 		ConcurrencyContext context = Resources.getConcurrencyContext(operator);
 
 		final Vector<ParallelBenefit> benefits = new Vector<ParallelBenefit>();
@@ -97,7 +131,7 @@ public class BenefitCalculator {
 					for (int j = counter; j < selectedAttributes.length; j += numberOfParallel) {
 
 						int attribute = selectedAttributes[j];
-						ParallelBenefit currentBenefit = calculateBenefit(allSelectedExamples, attribute);
+						ParallelBenefit currentBenefit = calculateBenefit(allSelectedExamples, attribute, histograms);
 						if (currentBenefit != null) {
 							benefits.add(currentBenefit);
 						}
@@ -133,10 +167,27 @@ public class BenefitCalculator {
 	 * @return
 	 */
 	public List<ParallelBenefit> calculateAllBenefits(Map<Integer, int[]> allSelectedExamples, int[] selectedAttributes) {
+		return calculateAllBenefits(allSelectedExamples, selectedAttributes, null);
+	}
+
+	/**
+	 * Calculates the benefits for all selected attributes on the given selected examples. If the
+	 * column table is binned, the histograms of the numerical attributes are taken from the given
+	 * histograms if present and otherwise calculated and added to them.
+	 *
+	 * @param allSelectedExamples
+	 * @param selectedAttributes
+	 * @param histograms
+	 *            a map from the attribute numbers to their histograms, can be <code>null</code>
+	 * @return
+	 * @since 7.6
+	 */
+	public List<ParallelBenefit> calculateAllBenefits(Map<Integer, int[]> allSelectedExamples, int[] selectedAttributes,
+			Map<Integer, double[][]> histograms) {
 		Vector<ParallelBenefit> benefits = new Vector<ParallelBenefit>();
 
 		for (int attribute : selectedAttributes) {
-			ParallelBenefit currentBenefit = calculateBenefit(allSelectedExamples, attribute);
+			ParallelBenefit currentBenefit = calculateBenefit(allSelectedExamples, attribute, histograms);
 			if (currentBenefit != null) {
 				benefits.add(currentBenefit);
 			}
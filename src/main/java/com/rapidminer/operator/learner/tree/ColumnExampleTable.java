@@ -19,6 +19,7 @@
 package com.rapidminer.operator.learner.tree;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
@@ -33,6 +34,7 @@ import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.UserError;
 import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.Tools;
 
 
 /**
@@ -52,6 +54,10 @@ import com.rapidminer.studio.internal.Resources;
  * from their {@link NominalMapping} or, if they are missing values, as the size of the mapping. The
  * label must not have missing values.
  *
+ * Optionally, the numerical attributes can be discretized into bins by {@link #createBins}. Then
+ * every numerical column is accompanied by a column of bin indices which allows to find splits on
+ * label histograms instead of sorted columns.
+ *
  * @author Gisa Schaefer
  *
  */
@@ -69,6 +75,9 @@ public class ColumnExampleTable {
 	/** If a nominal attribute has more than this number of different values, it is ignored. */
 	private static final int MAXIMAL_NOMINAL_VALUES = 127;
 
+	/** The maximal number of bins, such that the bin indices and the missing bin fit into a byte */
+	public static final int MAXIMAL_NUMBER_OF_BINS = 255;
+
 	private int numberOfExamples = 0;
 
 	private int numberOfRegularNominalAttributes = 0;
@@ -105,6 +114,20 @@ public class ColumnExampleTable {
 	 */
 	private double[][] numericalColumnTable;
 
+	/**
+	 * table containing the bin indices of the values of the numerical attributes, stored as
+	 * unsigned bytes: binColumnTable[c][r] contains the bin of numericalColumnTable[c][r], or the
+	 * number of bins of the column if the value is missing. <code>null</code> if the table is not
+	 * binned.
+	 */
+	private byte[][] binColumnTable;
+
+	/** binMinima[c][b] contains the smallest value of the numerical column c in bin b */
+	private double[][] binMinima;
+
+	/** binMaxima[c][b] contains the largest value of the numerical column c in bin b */
+	private double[][] binMaxima;
+
 	/**
 	 * The nominal column table is initialized with the values of the regular nominal attributes,
 	 * the numerical column table with the ones of the regular numeric attributes. The values of the
@@ -282,6 +305,179 @@ public class ColumnExampleTable {
 				&& ((long) numberOfRegularNominalAttributes + numberOfRegularNumericalAttributes) * numberOfExamples > THRESHOLD_PRODUCT_PARALLEL;
 	}
 
+	/**
+	 * Discretizes the values of every numerical attribute into at most maximalNumberOfBins bins
+	 * containing about the same number of examples. Equal values always fall into the same bin. If
+	 * an attribute has not more different values than bins, every value gets its own bin. Missing
+	 * values are assigned to an extra bin.
+	 *
+	 * @param maximalNumberOfBins
+	 *            the maximal number of bins per attribute, at most {@link #MAXIMAL_NUMBER_OF_BINS}
+	 * @param operator
+	 *            the operator for which the bins are created in parallel, can be <code>null</code>
+	 *            to create them sequentially
+	 * @throws OperatorException
+	 * @since 7.6
+	 */
+	public void createBins(final int maximalNumberOfBins, Operator operator) throws OperatorException {
+		if (maximalNumberOfBins < 1 || maximalNumberOfBins > MAXIMAL_NUMBER_OF_BINS) {
+			throw new IllegalArgumentException("maximalNumberOfBins must be between 1 and " + MAXIMAL_NUMBER_OF_BINS);
+		}
+		binColumnTable = new byte[numberOfRegularNumericalAttributes][];
+		binMinima = new double[numberOfRegularNumericalAttributes][];
+		binMaxima = new double[numberOfRegularNumericalAttributes][];
+
+		if (operator == null || numberOfRegularNumericalAttributes < 2
+				|| Resources.getConcurrencyContext(operator).getParallelism() < 2) {
+			for (int column = 0; column < numberOfRegularNumericalAttributes; column++) {
+				createBins(column, maximalNumberOfBins);
+			}
+			return;
+		}
+
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfRegularNumericalAttributes);
+		for (int column = 0; column < numberOfRegularNumericalAttributes; column++) {
+			final int binnedColumn = column;
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					createBins(binnedColumn, maximalNumberOfBins);
+					return null;
+				}
+			});
+		}
+		try {
+			Resources.getConcurrencyContext(operator).call(tasks);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new OperatorException(cause.getMessage(), cause);
+			}
+		}
+	}
+
+	/**
+	 * Creates the bins for the numerical column. A new bin is started at a value different from
+	 * its predecessor if the current bins hold their share of the examples or if there are not
+	 * more different values than bins.
+	 *
+	 * @param column
+	 *            the index of the numerical column
+	 * @param maximalNumberOfBins
+	 */
+	private void createBins(int column, int maximalNumberOfBins) {
+		double[] attributeColumn = numericalColumnTable[column];
+		double[] sorted = new double[numberOfExamples];
+		int numberOfValues = 0;
+		for (double value : attributeColumn) {
+			if (!Double.isNaN(value)) {
+				sorted[numberOfValues++] = value;
+			}
+		}
+		Arrays.sort(sorted, 0, numberOfValues);
+
+		int differentValues = 0;
+		for (int i = 0; i < numberOfValues; i++) {
+			if (i == 0 || !Tools.isEqual(sorted[i], sorted[i - 1])) {
+				differentValues++;
+			}
+		}
+		boolean binPerValue = differentValues <= maximalNumberOfBins;
+		double binShare = (double) numberOfValues / maximalNumberOfBins;
+
+		double[] minima = new double[Math.min(differentValues, maximalNumberOfBins)];
+		double[] maxima = new double[minima.length];
+		int numberOfBins = 0;
+		for (int i = 0; i < numberOfValues; i++) {
+			if (i == 0 || !Tools.isEqual(sorted[i], sorted[i - 1]) && (binPerValue || i >= numberOfBins * binShare)) {
+				minima[numberOfBins++] = sorted[i];
+			}
+			maxima[numberOfBins - 1] = sorted[i];
+		}
+		minima = Arrays.copyOf(minima, numberOfBins);
+		maxima = Arrays.copyOf(maxima, numberOfBins);
+
+		byte[] binColumn = new byte[numberOfExamples];
+		for (int row = 0; row < numberOfExamples; row++) {
+			double value = attributeColumn[row];
+			int bin;
+			if (Double.isNaN(value)) {
+				bin = numberOfBins;
+			} else {
+				bin = Arrays.binarySearch(minima, value);
+				if (bin < 0) {
+					// the bin with the largest minimum below the value
+					bin = -bin - 2;
+				}
+			}
+			binColumn[row] = (byte) bin;
+		}
+
+		binColumnTable[column] = binColumn;
+		binMinima[column] = minima;
+		binMaxima[column] = maxima;
+	}
+
+	/**
+	 * @return <code>true</code> if the numerical attributes were discretized by
+	 *         {@link #createBins}
+	 * @since 7.6
+	 */
+	public boolean isBinned() {
+		return binColumnTable != null;
+	}
+
+	/**
+	 * @param attributeNumber
+	 *            a number that represents a numerical attribute
+	 * @return the column containing the bin indices of the represented numerical attribute as
+	 *         unsigned bytes, missing values are in the bin {@link #getNumberOfBins}
+	 * @since 7.6
+	 */
+	public byte[] getBinColumn(int attributeNumber) {
+		return binColumnTable[attributeNumber - numberOfRegularNominalAttributes];
+	}
+
+	/**
+	 * @param attributeNumber
+	 *            a number that represents a numerical attribute
+	 * @return the number of bins of the represented numerical attribute, without the bin for
+	 *         missing values
+	 * @since 7.6
+	 */
+	public int getNumberOfBins(int attributeNumber) {
+		return binMinima[attributeNumber - numberOfRegularNominalAttributes].length;
+	}
+
+	/**
+	 * @param attributeNumber
+	 *            a number that represents a numerical attribute
+	 * @param bin
+	 *            the bin index
+	 * @return the smallest value of the represented numerical attribute in the bin
+	 * @since 7.6
+	 */
+	public double getBinMinimum(int attributeNumber, int bin) {
+		return binMinima[attributeNumber - numberOfRegularNominalAttributes][bin];
+	}
+
+	/**
+	 * @param attributeNumber
+	 *            a number that represents a numerical attribute
+	 * @param bin
+	 *            the bin index
+	 * @return the largest value of the represented numerical attribute in the bin
+	 * @since 7.6
+	 */
+	public double getBinMaximum(int attributeNumber, int bin) {
+		return binMaxima[attributeNumber - numberOfRegularNominalAttributes][bin];
+	}
+
 	/**
 	 * @return the number of examples in table
 	 */
@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.tree;
+
+import com.rapidminer.operator.learner.tree.criterions.ColumnCriterion;
+import com.rapidminer.operator.learner.tree.criterions.WeightDistribution;
+
+
+/**
+ * Calculates the best split point for numerical attributes of a binned {@link ColumnExampleTable}
+ * according to a given criterion. Instead of going along the sorted examples, the split points
+ * between the bins are evaluated on a histogram containing the label weights per bin. The
+ * histogram of a node can be derived from the histograms of its parent and its siblings by
+ * {@link #subtract}.
+ *
+ * If every bin contains only one value, the same split as by the {@link ColumnNumericalSplitter}
+ * is found.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class ColumnHistogramSplitter {
+
+	private ColumnCriterion criterion;
+	private ColumnExampleTable columnTable;
+
+	public ColumnHistogramSplitter(ColumnExampleTable columnTable, ColumnCriterion criterion) {
+		this.criterion = criterion;
+		this.columnTable = columnTable;
+	}
+
+	/**
+	 * Calculates the label weights per bin of the numerical attribute for the selected examples.
+	 *
+	 * @param selectedExamples
+	 *            which of the starting examples are considered, in any order
+	 * @param attributeNumber
+	 *            indicates which attribute is considered
+	 * @return the histogram, the entry [b][l] contains the weight of the examples in bin b with
+	 *         label l, the last bin contains the missing values
+	 */
+	public double[][] getHistogram(int[] selectedExamples, int attributeNumber) {
+		byte[] binColumn = columnTable.getBinColumn(attributeNumber);
+		int[] labelColumn = columnTable.getLabelColumn();
+		double[] weightColumn = columnTable.getWeightColumn();
+
+		double[][] histogram = new double[columnTable.getNumberOfBins(attributeNumber) + 1][columnTable.getLabel()
+				.getMapping().size()];
+		if (weightColumn == null) {
+			for (int j : selectedExamples) {
+				histogram[binColumn[j] & 0xFF][labelColumn[j]]++;
+			}
+		} else {
+			for (int j : selectedExamples) {
+				histogram[binColumn[j] & 0xFF][labelColumn[j]] += weightColumn[j];
+			}
+		}
+		return histogram;
+	}
+
+	/**
+	 * Subtracts the second histogram from the first one.
+	 *
+	 * @param histogram
+	 *            the histogram to change
+	 * @param subtrahend
+	 *            the histogram of a subset of the examples of the first one
+	 */
+	public static void subtract(double[][] histogram, double[][] subtrahend) {
+		for (int bin = 0; bin < histogram.length; bin++) {
+			for (int label = 0; label < histogram[bin].length; label++) {
+				histogram[bin][label] -= subtrahend[bin][label];
+			}
+		}
+	}
+
+	/**
+	 * Calculates where to best split a numerical attribute by considering all split points
+	 * between non-empty bins and the associated benefits according to the given criterion. If
+	 * there are missing values, they are considered as extra class. The split value lies in the
+	 * middle between the largest value of the bin to the left and the smallest value of the bin to
+	 * the right.
+	 *
+	 * @param histogram
+	 *            the histogram of the selected examples as calculated by {@link #getHistogram}
+	 * @param attributeNumber
+	 *            indicates which attribute is considered
+	 * @return the benefit of the best split
+	 */
+	public ParallelBenefit getBestSplitBenefit(double[][] histogram, int attributeNumber) {
+		int missingBin = histogram.length - 1;
+		int numberOfLabels = histogram[missingBin].length;
+		double[] totalLabelWeights = new double[numberOfLabels];
+		for (double[] binLabelWeights : histogram) {
+			for (int label = 0; label < numberOfLabels; label++) {
+				totalLabelWeights[label] += binLabelWeights[label];
+			}
+		}
+		boolean incremental = criterion.supportsIncrementalCalculation();
+		WeightDistribution distribution = new WeightDistribution(totalLabelWeights, histogram[missingBin]);
+
+		// as for the sorted columns, the split with no examples to the left is the start point
+		double bestSplit = Double.NaN;
+		double bestSplitBenefit = getBenefit(distribution, incremental);
+
+		int lastBin = -1;
+		for (int bin = 0; bin < missingBin; bin++) {
+			double[] binLabelWeights = histogram[bin];
+			if (isEmpty(binLabelWeights)) {
+				continue;
+			}
+			if (lastBin > -1) {
+				double benefit = getBenefit(distribution, incremental);
+				if (benefit > bestSplitBenefit) {
+					bestSplitBenefit = benefit;
+					bestSplit = (columnTable.getBinMaximum(attributeNumber, lastBin)
+							+ columnTable.getBinMinimum(attributeNumber, bin)) / 2.0d;
+				}
+			}
+			for (int label = 0; label < numberOfLabels; label++) {
+				if (binLabelWeights[label] != 0) {
+					distribution.increment(label, binLabelWeights[label]);
+				}
+			}
+			lastBin = bin;
+		}
+
+		// all known values to the left do not result in a split
+		if (lastBin > -1 && distribution.hasMissingValues()
+				&& getBenefit(distribution, incremental) > bestSplitBenefit) {
+			bestSplit = Double.NaN;
+		}
+
+		if (Double.isNaN(bestSplit)) {
+			return null;
+		} else {
+			return new ParallelBenefit(bestSplitBenefit, attributeNumber, bestSplit);
+		}
+	}
+
+	/**
+	 * Calculates the benefit of the current distribution, incrementally if the criterion supports
+	 * it.
+	 */
+	private double getBenefit(WeightDistribution distribution, boolean incremental) {
+		if (incremental) {
+			return criterion.getIncrementalBenefit(distribution);
+		}
+		double[][] weightCounts = new double[3][];
+		weightCounts[0] = distribution.getLeftLabelWeigths().clone();
+		weightCounts[1] = distribution.getRightLabelWeigths().clone();
+		weightCounts[2] = distribution.getMissingsLabelWeigths().clone();
+		return criterion.getBenefit(weightCounts);
+	}
+
+	private static boolean isEmpty(double[] binLabelWeights) {
+		for (double weight : binLabelWeights) {
+			if (weight > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,467 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.NominalMapping;
+import com.rapidminer.operator.Model;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.learner.BatchPredictor;
+import com.rapidminer.operator.learner.PredictionModel;
+import com.rapidminer.operator.learner.meta.ConfidenceVoteModel;
+import com.rapidminer.operator.learner.meta.MetaModel;
+import com.rapidminer.operator.learner.meta.SimpleVoteModel;
+import com.rapidminer.tools.Tools;
+
+
+/**
+ * One or more {@link TreeModel}s compiled into flat arrays for scoring the examples of a specific
+ * {@link ExampleSet}. The nodes of all trees are numbered consecutively, the edges of a node are
+ * stored in the order of their evaluation and the confidences of the nodes are precomputed in the
+ * order of the label mapping. The attributes used by the split conditions are resolved to columns,
+ * so that the trees are scored on the primitive values of an example by a {@link BatchPredictor}.
+ * <p>
+ * Scoring a tree finds the same node as {@link TreeModel#predict(Example)}: either the first leaf
+ * whose edge conditions all hold or the inner node where no condition holds. The predictions and
+ * confidences are the same as those of the uncompiled models.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+final class CompiledTrees {
+
+	private static final byte LESS_EQUALS = 0;
+	private static final byte GREATER = 1;
+	private static final byte EQUALS = 2;
+	private static final byte MISSING = 3;
+	private static final byte CONTAINS = 4;
+	private static final byte NOT_CONTAINS = 5;
+
+	private final List<Attribute> attributes;
+	private final int numberOfClasses;
+	private final int[] roots;
+
+	/** the edges of node i are the edges from firstEdges[i] to firstEdges[i + 1], exclusive */
+	private final int[] firstEdges;
+	private final double[] predictions;
+	private final double[] confidences;
+
+	private final byte[] edgeTypes;
+	private final int[] edgeColumns;
+	private final double[] edgeValues;
+	private final int[] edgeChildren;
+	/** whether a nominal index is contained in the categories of the edge, the last entry is for missings */
+	private final boolean[][] edgeCategories;
+
+	private CompiledTrees(Builder builder) {
+		this.attributes = builder.attributes;
+		this.numberOfClasses = builder.numberOfClasses;
+		this.roots = builder.roots;
+		this.firstEdges = Arrays.copyOf(builder.firstEdges, builder.nodes + 1);
+		this.firstEdges[builder.nodes] = builder.edges;
+		this.predictions = Arrays.copyOf(builder.predictions, builder.nodes);
+		this.confidences = Arrays.copyOf(builder.confidences, builder.nodes * numberOfClasses);
+		this.edgeTypes = Arrays.copyOf(builder.edgeTypes, builder.edges);
+		this.edgeColumns = Arrays.copyOf(builder.edgeColumns, builder.edges);
+		this.edgeValues = Arrays.copyOf(builder.edgeValues, builder.edges);
+		this.edgeChildren = Arrays.copyOf(builder.edgeChildren, builder.edges);
+		this.edgeCategories = Arrays.copyOf(builder.edgeCategories, builder.edges);
+	}
+
+	/**
+	 * Compiles the given models for scoring the given example set.
+	 *
+	 * @param models
+	 *            the models to compile
+	 * @param exampleSet
+	 *            the example set to score
+	 * @param mapping
+	 *            the mapping of the label the confidences are computed for
+	 * @return the compiled trees or {@code null} if one of the models is no {@link TreeModel} with
+	 *         the given label mapping or uses a split condition or attribute that is not supported
+	 */
+	static CompiledTrees compile(List<? extends Model> models, ExampleSet exampleSet, NominalMapping mapping) {
+		Builder builder = new Builder(exampleSet, mapping);
+		builder.roots = new int[models.size()];
+		for (int i = 0; i < models.size(); i++) {
+			Model model = models.get(i);
+			if (!(model instanceof TreeModel)) {
+				return null;
+			}
+			TreeModel treeModel = (TreeModel) model;
+			if (!treeModel.getLabel().isNominal()
+					|| !treeModel.getLabel().getMapping().getValues().equals(mapping.getValues())) {
+				return null;
+			}
+			builder.roots[i] = builder.add(treeModel.getRoot());
+			if (builder.roots[i] < 0) {
+				return null;
+			}
+		}
+		return new CompiledTrees(builder);
+	}
+
+	/**
+	 * Scores the examples with the compiled trees of the given vote model in parallel. This is the
+	 * prediction of the random forest models, they fall back to predicting example by example if
+	 * {@code false} is returned.
+	 *
+	 * @param model
+	 *            the model performing the prediction, provides the label, the operator and whether
+	 *            to show the progress
+	 * @param voteModel
+	 *            the {@link SimpleVoteModel} or {@link ConfidenceVoteModel} of the trees
+	 * @param exampleSet
+	 *            the example set to score
+	 * @param predictedLabel
+	 *            the attribute for the predictions
+	 * @return {@code true} if the examples have been scored, {@code false} if the trees cannot be
+	 *         compiled
+	 */
+	static boolean predictVote(PredictionModel model, MetaModel voteModel, ExampleSet exampleSet,
+			Attribute predictedLabel) throws OperatorException {
+		if (!model.getLabel().isNominal()
+				|| !(voteModel instanceof SimpleVoteModel || voteModel instanceof ConfidenceVoteModel)) {
+			return false;
+		}
+		CompiledTrees trees = compile(voteModel.getModels(), exampleSet, model.getLabel().getMapping());
+		if (trees == null) {
+			return false;
+		}
+		OperatorProgress progress = null;
+		if (model.getShowProgress() && model.getOperator() != null && model.getOperator().getProgress() != null) {
+			progress = model.getOperator().getProgress();
+			progress.setTotal(exampleSet.size());
+		}
+		BatchPredictor predictor = new BatchPredictor(model.getOperator(), progress);
+		if (voteModel instanceof ConfidenceVoteModel) {
+			trees.predictConfidenceVote(predictor, exampleSet, predictedLabel, (ConfidenceVoteModel) voteModel);
+		} else {
+			trees.predictMajorityVote(predictor, exampleSet, predictedLabel, (SimpleVoteModel) voteModel);
+		}
+		return true;
+	}
+
+	/**
+	 * Finds the node of the given tree that decides the prediction for the given values.
+	 *
+	 * @param tree
+	 *            the index of the tree
+	 * @param values
+	 *            the values of the {@link #attributes} of an example
+	 * @return the index of the node
+	 */
+	private int findNode(int tree, double[] values) {
+		int node = roots[tree];
+		edges: while (true) {
+			for (int edge = firstEdges[node]; edge < firstEdges[node + 1]; edge++) {
+				if (test(edge, values[edgeColumns[edge]])) {
+					node = edgeChildren[edge];
+					continue edges;
+				}
+			}
+			return node;
+		}
+	}
+
+	private boolean test(int edge, double value) {
+		switch (edgeTypes[edge]) {
+			case LESS_EQUALS:
+				return value <= edgeValues[edge];
+			case GREATER:
+				return value > edgeValues[edge];
+			case EQUALS:
+				return Tools.isEqual(value, edgeValues[edge]);
+			case MISSING:
+				return Double.isNaN(value);
+			case CONTAINS:
+				return contains(edge, value);
+			default:
+				return !contains(edge, value);
+		}
+	}
+
+	private boolean contains(int edge, double value) {
+		boolean[] categories = edgeCategories[edge];
+		return Double.isNaN(value) ? categories[categories.length - 1] : categories[(int) value];
+	}
+
+	/**
+	 * Scores the examples with the first tree like {@link TreeModel#predict(Example)}.
+	 */
+	void predictTree(BatchPredictor predictor, ExampleSet exampleSet, Attribute predictedLabel,
+			NominalMapping mapping) throws OperatorException {
+		Attribute[] confidenceAttributes = new Attribute[numberOfClasses];
+		for (int i = 0; i < numberOfClasses; i++) {
+			confidenceAttributes[i] = exampleSet.getAttributes()
+					.getSpecial(Attributes.CONFIDENCE_NAME + "_" + mapping.mapIndex(i));
+		}
+		predictor.predict(exampleSet, attributes, numberOfClasses + 1, (values, result) -> {
+			int node = findNode(0, values);
+			result[0] = predictions[node];
+			System.arraycopy(confidences, node * numberOfClasses, result, 1, numberOfClasses);
+		}, (example, result) -> {
+			for (int i = 0; i < numberOfClasses; i++) {
+				if (confidenceAttributes[i] != null) {
+					example.setValue(confidenceAttributes[i], result[i + 1]);
+				} else {
+					example.setConfidence(mapping.mapIndex(i), result[i + 1]);
+				}
+			}
+			example.setValue(predictedLabel, result[0]);
+		});
+	}
+
+	/**
+	 * Scores the examples with all trees and lets the vote model choose the class with the most
+	 * votes like {@link SimpleVoteModel#predict(Example)}.
+	 */
+	void predictMajorityVote(BatchPredictor predictor, ExampleSet exampleSet, Attribute predictedLabel,
+			SimpleVoteModel voteModel) throws OperatorException {
+		int[] classVotes = new int[numberOfClasses];
+		predictor.predict(exampleSet, attributes, numberOfClasses, (values, result) -> {
+			for (int tree = 0; tree < roots.length; tree++) {
+				double prediction = predictions[findNode(tree, values)];
+				int index = (int) prediction;
+				if (index == prediction && index >= 0 && index < numberOfClasses) {
+					result[index]++;
+				}
+			}
+		}, (example, result) -> {
+			for (int i = 0; i < numberOfClasses; i++) {
+				classVotes[i] = (int) result[i];
+			}
+			example.setValue(predictedLabel, voteModel.vote(example, classVotes));
+		});
+	}
+
+	/**
+	 * Scores the examples with all trees and lets the vote model choose the class with the highest
+	 * mean confidence like {@link ConfidenceVoteModel#predict(Example)}.
+	 */
+	void predictConfidenceVote(BatchPredictor predictor, ExampleSet exampleSet, Attribute predictedLabel,
+			ConfidenceVoteModel voteModel) throws OperatorException {
+		predictor.predict(exampleSet, attributes, numberOfClasses, (values, result) -> {
+			for (int tree = 0; tree < roots.length; tree++) {
+				int offset = findNode(tree, values) * numberOfClasses;
+				for (int i = 0; i < numberOfClasses; i++) {
+					result[i] += confidences[offset + i];
+				}
+			}
+		}, (example, result) -> example.setValue(predictedLabel, voteModel.vote(example, result)));
+	}
+
+	/**
+	 * Collects the nodes and edges of the trees in growing arrays.
+	 */
+	private static final class Builder {
+
+		private final ExampleSet exampleSet;
+		private final NominalMapping mapping;
+		private final int numberOfClasses;
+		private final List<Attribute> attributes = new ArrayList<>();
+
+		private int[] roots;
+
+		private int nodes;
+		private int[] firstEdges = new int[16];
+		private double[] predictions = new double[16];
+		private double[] confidences;
+
+		private int edges;
+		private byte[] edgeTypes = new byte[16];
+		private int[] edgeColumns = new int[16];
+		private double[] edgeValues = new double[16];
+		private int[] edgeChildren = new int[16];
+		private boolean[][] edgeCategories = new boolean[16][];
+
+		private Builder(ExampleSet exampleSet, NominalMapping mapping) {
+			this.exampleSet = exampleSet;
+			this.mapping = mapping;
+			this.numberOfClasses = mapping.size();
+			this.confidences = new double[16 * numberOfClasses];
+		}
+
+		/**
+		 * Adds the given node and its subtree, the edges of a node are added before its children.
+		 *
+		 * @return the index of the node or {@code -1} if the subtree uses an unknown class,
+		 *         attribute or split condition
+		 */
+		private int add(Tree tree) {
+			int node = nodes++;
+			if (node == firstEdges.length) {
+				firstEdges = Arrays.copyOf(firstEdges, 2 * node);
+				predictions = Arrays.copyOf(predictions, 2 * node);
+				confidences = Arrays.copyOf(confidences, 2 * node * numberOfClasses);
+			}
+			firstEdges[node] = edges;
+			if (tree.isLeaf()) {
+				predictions[node] = mapping.getIndex(tree.getLabel());
+				return setConfidences(node, tree.getCounterMap()) ? node : -1;
+			}
+			if (!setMajority(node, tree.getSubtreeCounterMap())) {
+				return -1;
+			}
+
+			List<Tree> children = new ArrayList<>(tree.getNumberOfChildren());
+			Iterator<Edge> childIterator = tree.childIterator();
+			while (childIterator.hasNext()) {
+				Edge edge = childIterator.next();
+				if (!addEdge(edge.getCondition())) {
+					return -1;
+				}
+				children.add(edge.getChild());
+			}
+			int firstEdge = firstEdges[node];
+			for (int i = 0; i < children.size(); i++) {
+				int child = add(children.get(i));
+				if (child < 0) {
+					return -1;
+				}
+				edgeChildren[firstEdge + i] = child;
+			}
+			return node;
+		}
+
+		/**
+		 * Sets the confidences like {@link TreeModel#predict(Example)} does for a leaf.
+		 *
+		 * @return {@code false} if a class is not part of the label mapping
+		 */
+		private boolean setConfidences(int node, Map<String, Integer> counterMap) {
+			int sum = 0;
+			for (Entry<String, Integer> entry : counterMap.entrySet()) {
+				int count = entry.getValue();
+				int index = mapping.getIndex(entry.getKey());
+				if (index < 0) {
+					return false;
+				}
+				confidences[node * numberOfClasses + index] = count;
+				sum += count;
+			}
+			for (int i = 0; i < numberOfClasses; i++) {
+				confidences[node * numberOfClasses + i] /= sum;
+			}
+			return true;
+		}
+
+		/**
+		 * Sets the majority class and the confidences like {@link TreeModel#predict(Example)} does
+		 * for an inner node without matching edge.
+		 *
+		 * @return {@code false} if a class is not part of the label mapping
+		 */
+		private boolean setMajority(int node, Map<String, Integer> subtreeCounterMap) {
+			String majorityClass = null;
+			int majorityCounter = -1;
+			for (Entry<String, Integer> entry : subtreeCounterMap.entrySet()) {
+				if (entry.getValue() > majorityCounter) {
+					majorityCounter = entry.getValue();
+					majorityClass = entry.getKey();
+				}
+			}
+			predictions[node] = majorityClass != null ? mapping.getIndex(majorityClass) : 0;
+			return setConfidences(node, subtreeCounterMap);
+		}
+
+		/**
+		 * Adds the edge of the given condition.
+		 *
+		 * @return {@code false} if the attribute or the condition is not supported
+		 */
+		private boolean addEdge(SplitCondition condition) {
+			int edge = edges++;
+			if (edge == edgeTypes.length) {
+				edgeTypes = Arrays.copyOf(edgeTypes, 2 * edge);
+				edgeColumns = Arrays.copyOf(edgeColumns, 2 * edge);
+				edgeValues = Arrays.copyOf(edgeValues, 2 * edge);
+				edgeChildren = Arrays.copyOf(edgeChildren, 2 * edge);
+				edgeCategories = Arrays.copyOf(edgeCategories, 2 * edge);
+			}
+			Attribute attribute = exampleSet.getAttributes().get(condition.getAttributeName());
+			if (attribute == null) {
+				return false;
+			}
+			int column = attributes.indexOf(attribute);
+			if (column < 0) {
+				column = attributes.size();
+				attributes.add(attribute);
+			}
+			edgeColumns[edge] = column;
+
+			if (condition instanceof LessEqualsSplitCondition) {
+				edgeTypes[edge] = LESS_EQUALS;
+				edgeValues[edge] = ((LessEqualsSplitCondition) condition).getValue();
+			} else if (condition instanceof GreaterSplitCondition) {
+				edgeTypes[edge] = GREATER;
+				edgeValues[edge] = ((GreaterSplitCondition) condition).getValue();
+			} else if (condition instanceof NominalSplitCondition) {
+				edgeTypes[edge] = EQUALS;
+				edgeValues[edge] = ((NominalSplitCondition) condition).getValue();
+			} else if (condition instanceof NumericalMissingSplitCondition) {
+				edgeTypes[edge] = MISSING;
+			} else if (condition instanceof ContainsSplitCondition) {
+				edgeTypes[edge] = CONTAINS;
+				edgeCategories[edge] = getCategories(attribute, ((ContainsSplitCondition) condition).getCategories());
+				return edgeCategories[edge] != null;
+			} else if (condition instanceof NotContainsSplitCondition) {
+				edgeTypes[edge] = NOT_CONTAINS;
+				edgeCategories[edge] = getCategories(attribute,
+						((NotContainsSplitCondition) condition).getCategories());
+				return edgeCategories[edge] != null;
+			} else {
+				return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Looks up the categories by the nominal values of the attribute like
+		 * {@link Example#getValueAsString(Attribute)}.
+		 *
+		 * @return whether a nominal index is contained in the categories, the last entry is for
+		 *         missings, or {@code null} if the attribute is not nominal
+		 */
+		private boolean[] getCategories(Attribute attribute, Set<String> categories) {
+			if (!attribute.isNominal()) {
+				return null;
+			}
+			NominalMapping attributeMapping = attribute.getMapping();
+			boolean[] contained = new boolean[attributeMapping.size() + 1];
+			for (int i = 0; i < attributeMapping.size(); i++) {
+				contained[i] = categories.contains(attributeMapping.mapIndex(i));
+			}
+			contained[attributeMapping.size()] = categories.contains(Attribute.MISSING_NOMINAL_VALUE);
+			return contained;
+		}
+	}
+}
@@ -19,12 +19,16 @@
 package com.rapidminer.operator.learner.tree;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.OperatorException;
@@ -34,7 +38,10 @@ import com.rapidminer.studio.internal.Resources;
 
 /**
  * Build a tree from an example set in parallel. The benefit calculation for the attributes is
- * parallelized until the nodes are too small. The remaining nodes are split in parallel.
+ * parallelized until the nodes are too small. Subtrees are grown as fork-join tasks so that idle
+ * workers can steal them. If the tree is started from inside a fork-join pool, for example while
+ * several trees of a forest are grown concurrently, the subtree tasks are forked into that pool and
+ * the workers balance the load across all trees.
  *
  * @author Gisa Schaefer
  */
@@ -44,6 +51,9 @@ public class ConcurrentTreeBuilder extends AbstractParallelTreeBuilder {
 
 	private static final int MINIMAL_EXAMPLES_FOR_SORTING_PARALLEL = 10000;
 
+	/** Subtrees with fewer examples are grown by the worker that created them. */
+	private static final int MINIMAL_EXAMPLES_FOR_FORKING = 500;
+
 	/**
 	 * Pipes the arguments to the super constructor and sets an additional parameter allowing
 	 * parallel table creation.
@@ -59,9 +69,67 @@ public class ConcurrentTreeBuilder extends AbstractParallelTreeBuilder {
 	@Override
 	void startTree(Tree root, Map<Integer, int[]> allSelectedExamples, int[] selectedAttributes, int depth)
 			throws OperatorException {
+		final NodeData rootNode = new NodeData(root, allSelectedExamples, selectedAttributes, depth);
+
+		if (ForkJoinTask.inForkJoinPool()) {
+			// already running inside a pool, share its workers with the surrounding computation
+			growInForkJoinPool(rootNode);
+		} else if (operator != null && Resources.getConcurrencyContext(operator).getParallelism() > 1) {
+			Callable<Void> task = new Callable<Void>() {
+
+				@Override
+				public Void call() throws OperatorException {
+					if (ForkJoinTask.inForkJoinPool()) {
+						growInForkJoinPool(rootNode);
+					} else {
+						growInTasks(rootNode);
+					}
+					return null;
+				}
+			};
+			try {
+				Resources.getConcurrencyContext(operator).call(Collections.singletonList(task));
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof OperatorException) {
+					throw (OperatorException) cause;
+				} else if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				} else {
+					throw new OperatorException(cause.getMessage(), cause);
+				}
+			}
+		} else {
+			growInTasks(rootNode);
+		}
+	}
 
-		// start the tree building attribute parallel
-		NodeData rootNode = new NodeData(root, allSelectedExamples, selectedAttributes, depth);
+	/**
+	 * Grows the subtree below the given node by invoking a {@link SubtreeTask} in the current
+	 * fork-join pool.
+	 */
+	private void growInForkJoinPool(NodeData node) throws OperatorException {
+		try {
+			new SubtreeTask(node).invoke();
+		} catch (RuntimeException e) {
+			// the pool might have wrapped the exception again, search the whole chain
+			for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+				if (cause instanceof WrappedOperatorException) {
+					throw (OperatorException) cause.getCause();
+				}
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Grows the tree attribute parallel until the nodes are too small and then splits the remaining
+	 * nodes in parallel tasks. Used if the concurrency context does not run its tasks in a fork-join
+	 * pool.
+	 */
+	private void growInTasks(NodeData rootNode) throws OperatorException {
 		Deque<NodeData> queue = new ArrayDeque<>();
 		queue.push(rootNode);
 		List<NodeData> tooSmallList = new LinkedList<>();
@@ -82,11 +150,7 @@ public class ConcurrentTreeBuilder extends AbstractParallelTreeBuilder {
 
 				@Override
 				public Void call() throws OperatorException {
-					Deque<NodeData> queue = new ArrayDeque<>();
-					queue.push(node);
-					while (!queue.isEmpty()) {
-						queue.addAll(splitNode(queue.pop(), false));
-					}
+					growSequentially(node);
 					return null;
 				}
 
@@ -109,20 +173,86 @@ public class ConcurrentTreeBuilder extends AbstractParallelTreeBuilder {
 				}
 			}
 		} else {
-			for (Callable<Void> task : todo) {
-				try {
-					task.call();
-				} catch (Exception e) {
-					if (e instanceof OperatorException) {
-						throw (OperatorException) e;
-					} else if (e instanceof RuntimeException) {
-						throw (RuntimeException) e;
+			for (NodeData node : tooSmallList) {
+				growSequentially(node);
+			}
+		}
+
+	}
+
+	/**
+	 * Grows the subtree below the given node in the current thread.
+	 */
+	private void growSequentially(NodeData node) throws OperatorException {
+		Deque<NodeData> queue = new ArrayDeque<>();
+		queue.push(node);
+		while (!queue.isEmpty()) {
+			queue.addAll(splitNode(queue.pop(), false));
+		}
+	}
+
+	/**
+	 * Fork-join task growing the subtree below a node. The task follows the first large child
+	 * itself, forks the other large children so that idle workers can steal them and grows the small
+	 * children sequentially before joining the forked subtrees.
+	 */
+	private class SubtreeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final NodeData node;
+
+		private SubtreeTask(NodeData node) {
+			this.node = node;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				grow();
+			} catch (OperatorException e) {
+				throw new WrappedOperatorException(e);
+			}
+		}
+
+		private void grow() throws OperatorException {
+			List<SubtreeTask> forked = new ArrayList<>();
+			Deque<NodeData> smallNodes = new ArrayDeque<>();
+			NodeData current = node;
+			while (current != null) {
+				NodeData next = null;
+				for (NodeData child : splitNode(current, !nodeIsTooSmall(current))) {
+					if (SelectionCreator.getArbitraryValue(child.getAllSelectedExamples()).length < MINIMAL_EXAMPLES_FOR_FORKING) {
+						smallNodes.add(child);
+					} else if (next == null) {
+						next = child;
+					} else {
+						SubtreeTask task = new SubtreeTask(child);
+						task.fork();
+						forked.add(task);
 					}
-					// nothing else possible
 				}
+				current = next;
+			}
+			while (!smallNodes.isEmpty()) {
+				smallNodes.addAll(splitNode(smallNodes.pop(), false));
+			}
+			for (SubtreeTask task : forked) {
+				task.join();
 			}
 		}
+	}
+
+	/**
+	 * Transports an {@link OperatorException} out of a {@link SubtreeTask}.
+	 */
+	private static class WrappedOperatorException extends RuntimeException {
 
+		private static final long serialVersionUID = 1L;
+
+		private WrappedOperatorException(OperatorException cause) {
+			super(cause);
+		}
 	}
 
 	/**
@@ -20,6 +20,7 @@ package com.rapidminer.operator.learner.tree;
 
 import java.util.List;
 
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.ExampleSetUtilities;
@@ -92,6 +93,18 @@ public class ConfigurableRandomForestModel extends SimplePredictionModel impleme
 		return model.predict(example);
 	}
 
+	/**
+	 * Compiles the trees into flat arrays and scores the examples in parallel. Falls back to
+	 * predicting example by example if a tree cannot be compiled.
+	 */
+	@Override
+	public ExampleSet performPrediction(ExampleSet exampleSet, Attribute predictedLabel) throws OperatorException {
+		if (CompiledTrees.predictVote(this, (MetaModel) model, exampleSet, predictedLabel)) {
+			return exampleSet;
+		}
+		return super.performPrediction(exampleSet, predictedLabel);
+	}
+
 	@Override
 	public String toString() {
 		return model.toString();
@@ -111,8 +111,19 @@ public class DecisionTreeLearner extends AbstractTreeLearner {
 
 	@Override
 	protected TreeBuilder getTreeBuilder(ExampleSet exampleSet) throws OperatorException {
+		return getTreeBuilder(exampleSet, getSplitPreprocessing());
+	}
+
+	/**
+	 * Creates a tree builder for the given example set which applies the given split preprocessing
+	 * instead of the one returned by {@link #getSplitPreprocessing()}.
+	 *
+	 * @since 7.6
+	 */
+	protected TreeBuilder getTreeBuilder(ExampleSet exampleSet, SplitPreprocessing preprocessing)
+			throws OperatorException {
 		return new TreeBuilder(createCriterion(getParameterAsDouble(PARAMETER_MINIMAL_GAIN)),
-				getTerminationCriteria(exampleSet), getPruner(), getSplitPreprocessing(), new DecisionTreeLeafCreator(),
+				getTerminationCriteria(exampleSet), getPruner(), preprocessing, new DecisionTreeLeafCreator(),
 				getParameterAsBoolean(PARAMETER_NO_PRE_PRUNING),
 				getParameterAsInt(PARAMETER_NUMBER_OF_PREPRUNING_ALTERNATIVES),
 				getParameterAsInt(PARAMETER_MINIMAL_SIZE_FOR_SPLIT), getParameterAsInt(PARAMETER_MINIMAL_LEAF_SIZE));
@@ -18,21 +18,35 @@
 */
 package com.rapidminer.operator.learner.tree;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.Statistics;
+import com.rapidminer.example.set.MappedExampleSet;
+import com.rapidminer.example.utils.ExampleSets;
 import com.rapidminer.operator.Model;
 import com.rapidminer.operator.OperatorCapability;
 import com.rapidminer.operator.OperatorCreationException;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorVersion;
+import com.rapidminer.operator.UserError;
 import com.rapidminer.operator.learner.PredictionModel;
 import com.rapidminer.operator.learner.tree.ConfigurableRandomForestModel.VotingStrategy;
+import com.rapidminer.operator.preprocessing.MaterializeDataInMemory;
 import com.rapidminer.operator.preprocessing.sampling.BootstrappingOperator;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.studio.concurrency.internal.util.ConcurrencyTools;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.RandomGenerator;
 
 
 /**
@@ -49,6 +63,9 @@ public class RandomForestLearner extends RandomTreeLearner {
 	/** The parameter name for the number of trees. */
 	public static final String PARAMETER_NUMBER_OF_TREES = "number_of_trees";
 
+	/** Up to this version the trees are learned one after another from a shared random generator. */
+	private static final OperatorVersion VERSION_SEQUENTIAL_TREES = new OperatorVersion(7, 5, 1);
+
 	public RandomForestLearner(OperatorDescription description) {
 		super(description);
 	}
@@ -60,29 +77,90 @@ public class RandomForestLearner extends RandomTreeLearner {
 
 	@Override
 	public Model learn(ExampleSet exampleSet) throws OperatorException {
-		BootstrappingOperator bootstrapping = null;
-		try {
-			bootstrapping = OperatorService.createOperator(BootstrappingOperator.class);
-			bootstrapping.setParameter(BootstrappingOperator.PARAMETER_USE_WEIGHTS, "false");
-			bootstrapping.setParameter(BootstrappingOperator.PARAMETER_SAMPLE_RATIO, "1.0");
-		} catch (OperatorCreationException e) {
-			throw new OperatorException(getName() + ": cannot construct random tree learner: " + e.getMessage());
-		}
-
 		// learn base models
-		List<TreeModel> baseModels = new LinkedList<TreeModel>();
+		List<TreeModel> baseModels;
 		int numberOfTrees = getParameterAsInt(PARAMETER_NUMBER_OF_TREES);
 
-		for (int i = 0; i < numberOfTrees; i++) {
-			TreeModel model = (TreeModel) super.learn(bootstrapping.apply(exampleSet));
-			model.setSource(getName());
-			baseModels.add(model);
+		if (getCompatibilityLevel().isAtMost(VERSION_SEQUENTIAL_TREES)) {
+			BootstrappingOperator bootstrapping = null;
+			try {
+				bootstrapping = OperatorService.createOperator(BootstrappingOperator.class);
+				bootstrapping.setParameter(BootstrappingOperator.PARAMETER_USE_WEIGHTS, "false");
+				bootstrapping.setParameter(BootstrappingOperator.PARAMETER_SAMPLE_RATIO, "1.0");
+			} catch (OperatorCreationException e) {
+				throw new OperatorException(getName() + ": cannot construct random tree learner: " + e.getMessage());
+			}
+
+			baseModels = new LinkedList<TreeModel>();
+			for (int i = 0; i < numberOfTrees; i++) {
+				TreeModel model = (TreeModel) super.learn(bootstrapping.apply(exampleSet));
+				model.setSource(getName());
+				baseModels.add(model);
+			}
+		} else {
+			baseModels = learnConcurrently(exampleSet, numberOfTrees);
 		}
 
 		// create and return model
 		return new ConfigurableRandomForestModel(exampleSet, baseModels, VotingStrategy.MAJORITY_VOTE);
 	}
 
+	/**
+	 * Learns the trees as concurrent tasks. Only the seeds for the bootstrap samples and the random
+	 * feature subsets are drawn before the tasks are started, so the resulting forest does not
+	 * depend on the order in which the tasks are executed. Every task draws its bootstrap sample
+	 * itself, so only the samples of the running tasks are in memory.
+	 */
+	private List<TreeModel> learnConcurrently(ExampleSet eSet, int numberOfTrees) throws OperatorException {
+		ConcurrencyContext context = Resources.getConcurrencyContext(this);
+		ExampleSet exampleSet = context.getParallelism() > 1 ? ExampleSets.createThreadSafeCopy(eSet)
+				: (ExampleSet) eSet.clone();
+
+		// cannot bootstrap without any examples
+		if (exampleSet.size() < 1) {
+			throw new UserError(this, 117);
+		}
+
+		// check if the label attribute contains any missing values
+		Attribute labelAtt = exampleSet.getAttributes().getLabel();
+		exampleSet.recalculateAttributeStatistics(labelAtt);
+		if (exampleSet.getStatistics(labelAtt, Statistics.UNKNOWN) > 0) {
+			throw new UserError(this, 162, labelAtt.getName());
+		}
+
+		RandomGenerator random = RandomGenerator.getRandomGenerator(this);
+		List<Callable<TreeModel>> tasks = new ArrayList<>(numberOfTrees);
+		for (int i = 0; i < numberOfTrees; i++) {
+			final int sampleSeed = random.nextInt(Integer.MAX_VALUE - 1) + 1;
+			// the samples have the size of the example set, so the builder can be created here
+			final TreeBuilder builder = getTreeBuilder(exampleSet,
+					getSplitPreprocessing(new RandomGenerator(random.nextLong())));
+			tasks.add(new Callable<TreeModel>() {
+
+				@Override
+				public TreeModel call() throws OperatorException {
+					ExampleSet sample = bootstrap(exampleSet, sampleSeed);
+					TreeModel model = new TreeModel(sample, builder.learnTree(sample));
+					model.setSource(getName());
+					return model;
+				}
+			});
+		}
+
+		return ConcurrencyTools.call(context, tasks, OperatorException.class);
+	}
+
+	/**
+	 * Draws a materialized bootstrap sample of the size of the example set, as the
+	 * {@link BootstrappingOperator} does with a sample ratio of 1 and the given local random seed.
+	 */
+	private static ExampleSet bootstrap(ExampleSet exampleSet, int seed) {
+		int[] mapping = MappedExampleSet.createBootstrappingMapping(exampleSet, exampleSet.size(),
+				new RandomGenerator(seed));
+		int type = exampleSet.getExampleTable().getDataRow(0).getType();
+		return MaterializeDataInMemory.materializeExampleSet(new MappedExampleSet(exampleSet, mapping, true), type);
+	}
+
 	@Override
 	public boolean supportsCapability(OperatorCapability capability) {
 		if (capability == com.rapidminer.operator.OperatorCapability.BINOMINAL_ATTRIBUTES) {
@@ -120,4 +198,13 @@ public class RandomForestLearner extends RandomTreeLearner {
 
 		return types;
 	}
+
+	@Override
+	public OperatorVersion[] getIncompatibleVersionChanges() {
+		OperatorVersion[] incompatibleVersionChanges = super.getIncompatibleVersionChanges();
+		OperatorVersion[] newIncompatibleVersionChanges = Arrays.copyOf(incompatibleVersionChanges,
+				incompatibleVersionChanges.length + 1);
+		newIncompatibleVersionChanges[newIncompatibleVersionChanges.length - 1] = VERSION_SEQUENTIAL_TREES;
+		return newIncompatibleVersionChanges;
+	}
 }
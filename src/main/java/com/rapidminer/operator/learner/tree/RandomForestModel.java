@@ -20,7 +20,9 @@ package com.rapidminer.operator.learner.tree;
 
 import java.util.List;
 
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.learner.meta.SimpleVoteModel;
 
 
@@ -41,6 +43,18 @@ public class RandomForestModel extends SimpleVoteModel {
 		super(exampleSet, baseModels);
 	}
 
+	/**
+	 * Compiles the trees into flat arrays and scores the examples in parallel. Falls back to
+	 * predicting example by example if a tree cannot be compiled.
+	 */
+	@Override
+	public ExampleSet performPrediction(ExampleSet exampleSet, Attribute predictedLabel) throws OperatorException {
+		if (CompiledTrees.predictVote(this, this, exampleSet, predictedLabel)) {
+			return exampleSet;
+		}
+		return super.performPrediction(exampleSet, predictedLabel);
+	}
+
 	@Override
 	public String getName() {
 		return "Random Forest Model";
@@ -81,6 +81,20 @@ public class SelectionCreator {
 		return selection;
 	}
 
+	/**
+	 * Creates a single example index start selection containing all examples in their original
+	 * order. This suffices if the numerical splits are calculated on the histograms of a binned
+	 * {@link ColumnExampleTable}.
+	 *
+	 * @return a map containing one example index array with all examples
+	 * @since 7.6
+	 */
+	public Map<Integer, int[]> getUnsortedStartSelection() {
+		Map<Integer, int[]> selection = new HashMap<>();
+		selection.put(0, createFullArray(columnTable.getNumberOfExamples()));
+		return selection;
+	}
+
 	/**
 	 * Creates in parallel an example index start selection for each numerical attribute, or if
 	 * there is none, only one.
@@ -182,10 +196,19 @@ public class SelectionCreator {
 
 		boolean existNaNs = false;
 		// check if the selectedExamples contain NaN values of the attribute Column - because of
-		// sorting they should be at the end
-		if (Double
-				.isNaN(attributeColumn[allSelectedExamples.get(bestAttribute)[allSelectedExamples.get(bestAttribute).length - 1]])) {
-			existNaNs = true;
+		// sorting they should be at the end, unless the selection is unsorted
+		int[] bestAttributeSelection = allSelectedExamples.get(bestAttribute);
+		if (bestAttributeSelection != null && !columnTable.isBinned()) {
+			existNaNs = Double.isNaN(attributeColumn[bestAttributeSelection[bestAttributeSelection.length - 1]]);
+		} else {
+			for (int j : getArbitraryValue(allSelectedExamples)) {
+				if (Double.isNaN(attributeColumn[j])) {
+					existNaNs = true;
+					break;
+				}
+			}
+		}
+		if (existNaNs) {
 			results.add(2, new HashMap<Integer, int[]>());
 		}
 		int maximalLength = getArbitraryValue(allSelectedExamples).length;
@@ -18,13 +18,17 @@
 */
 package com.rapidminer.operator.learner.tree;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map.Entry;
 
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.ExampleSetUtilities;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.learner.BatchPredictor;
 import com.rapidminer.operator.learner.SimplePredictionModel;
 
 
@@ -54,6 +58,34 @@ public class TreeModel extends SimplePredictionModel {
 		return predict(example, root);
 	}
 
+	@Override
+	protected boolean supportsConcurrentPrediction() {
+		return true;
+	}
+
+	/**
+	 * Compiles the tree into flat arrays and scores the examples in parallel. Falls back to
+	 * predicting example by example if the tree cannot be compiled.
+	 */
+	@Override
+	public ExampleSet performPrediction(ExampleSet exampleSet, Attribute predictedLabel) throws OperatorException {
+		CompiledTrees trees = null;
+		if (getLabel().isNominal()) {
+			trees = CompiledTrees.compile(Collections.singletonList(this), exampleSet, getLabel().getMapping());
+		}
+		if (trees == null) {
+			return super.performPrediction(exampleSet, predictedLabel);
+		}
+		OperatorProgress progress = null;
+		if (getShowProgress() && getOperator() != null && getOperator().getProgress() != null) {
+			progress = getOperator().getProgress();
+			progress.setTotal(exampleSet.size());
+		}
+		trees.predictTree(new BatchPredictor(getOperator(), progress), exampleSet, predictedLabel,
+				getLabel().getMapping());
+		return exampleSet;
+	}
+
 	private double predict(Example example, Tree node) {
 		if (node.isLeaf()) {
 			int[] counts = new int[getLabel().getMapping().size()];
@@ -83,6 +83,28 @@ public class WeightDistribution {
 
 	}
 
+	/**
+	 * Initializes the counting arrays with the start distribution given by the weighted total
+	 * occurrences of each label value and the ones among the missing values.
+	 *
+	 * @param totalLabelWeights
+	 *            the weighted total occurrences of each label value
+	 * @param missingsLabelWeights
+	 *            the weighted occurrences of each label value among the missing values
+	 * @since 7.6
+	 */
+	public WeightDistribution(double[] totalLabelWeights, double[] missingsLabelWeights) {
+		this.totalLabelWeights = totalLabelWeights.clone();
+		this.missingsLabelWeights = missingsLabelWeights.clone();
+		leftLabelWeights = new double[totalLabelWeights.length];
+		leftWeight = 0;
+		totalWeight = getTotalWeight(totalLabelWeights);
+		missingsWeight = getTotalWeight(missingsLabelWeights);
+		hasMissings = missingsWeight > 0;
+		rightWeight = totalWeight - missingsWeight;
+		rightLabelWeights = arrayDifference(totalLabelWeights, missingsLabelWeights);
+	}
+
 	/**
 	 * Calculates the start distributions.
 	 */
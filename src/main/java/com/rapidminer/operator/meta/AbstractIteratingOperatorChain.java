@@ -19,12 +19,14 @@
 package com.rapidminer.operator.meta;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import com.rapidminer.operator.IOContainer;
-import com.rapidminer.operator.OperatorChain;
+import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.ValueDouble;
+import com.rapidminer.operator.concurrency.internal.ParallelOperatorChain;
 import com.rapidminer.operator.ports.CollectingPortPairExtender;
 import com.rapidminer.operator.ports.PortPairExtender;
 import com.rapidminer.operator.ports.metadata.SubprocessTransformRule;
@@ -39,7 +41,7 @@ import com.rapidminer.parameter.conditions.BooleanParameterCondition;
  *
  * @author Sebastian Land
  */
-public abstract class AbstractIteratingOperatorChain extends OperatorChain {
+public abstract class AbstractIteratingOperatorChain extends ParallelOperatorChain {
 
 	public static final String PARAMETER_SET_MACRO = "set_iteration_macro";
 	public static final String PARAMETER_MACRO_NAME = "macro_name";
@@ -86,6 +88,12 @@ public abstract class AbstractIteratingOperatorChain extends OperatorChain {
 			macroIterationOffset = getParameterAsInt(PARAMETER_MACRO_START_VALUE);
 		}
 		this.currentIteration = 0;
+		int numberOfIterations = getNumberOfIterations();
+		if (numberOfIterations >= 0 && isParallelExecution(numberOfIterations)) {
+			performIterationsInParallel(numberOfIterations, iterationMacroName, macroIterationOffset);
+			getProgress().complete();
+			return;
+		}
 		while (!shouldStop(getSubprocess(0).getInnerSinks().createIOContainer(false))) {
 			if (setIterationMacro) {
 				String iterationString = Integer.toString(currentIteration + macroIterationOffset);
@@ -102,10 +110,82 @@ public abstract class AbstractIteratingOperatorChain extends OperatorChain {
 		getProgress().complete();
 	}
 
+	/**
+	 * Executes the iterations by clones of this operator. Every clone sets the iteration macro in
+	 * its own process and works on its own copy of the input. The outputs are collected in the
+	 * order of the iterations.
+	 */
+	private void performIterationsInParallel(int numberOfIterations, String iterationMacroName, int macroIterationOffset)
+			throws OperatorException {
+		List<IOObject> input = inputPortPairExtender.getDataOrNull();
+		for (int i = 0; i < input.size(); i++) {
+			if (input.get(i) != null) {
+				input.set(i, getDataCopy(input.get(i), true));
+			}
+		}
+		executeInParallel(numberOfIterations, new Iterations<List<IOObject>>() {
+
+			@Override
+			public Callable<List<IOObject>> createIteration(int iteration, ParallelOperatorChain clone) {
+				AbstractIteratingOperatorChain iteratingClone = (AbstractIteratingOperatorChain) clone;
+				return () -> {
+					iteratingClone.currentIteration = iteration;
+					if (iterationMacroName != null) {
+						iteratingClone.getProcess().getMacroHandler().addMacro(iterationMacroName,
+								Integer.toString(iteration + macroIterationOffset));
+					}
+					List<PortPairExtender.PortPair> pairs = iteratingClone.inputPortPairExtender.getManagedPairs();
+					for (int i = 0; i < pairs.size() && i < input.size(); i++) {
+						pairs.get(i).getOutputPort().deliver(input.get(i) == null ? null : input.get(i).copy());
+					}
+					iteratingClone.getSubprocess(0).execute();
+					return iteratingClone.outExtender.getDataOrNull();
+				};
+			}
+
+			@Override
+			public void iterationFinished(int iteration, List<IOObject> result) throws OperatorException {
+				outExtender.collect(result);
+				currentIteration = iteration + 1;
+				inApplyLoop();
+				getProgress().step();
+			}
+		});
+	}
+
 	protected int getIteration() {
 		return currentIteration;
 	}
 
+	/**
+	 * Subclasses that know the number of iterations before the first iteration, i.e.
+	 * {@link #shouldStop(IOContainer)} does not depend on the results or the time, can return it to
+	 * allow the parallel execution of the iterations.
+	 *
+	 * @return the number of iterations or -1 if unknown
+	 * @since 7.6
+	 */
+	protected int getNumberOfIterations() throws OperatorException {
+		return -1;
+	}
+
+	/**
+	 * Only subclasses overwriting {@link #getNumberOfIterations()} support the parallel execution.
+	 */
+	@Override
+	protected boolean supportsParallelExecution() {
+		return false;
+	}
+
+	/**
+	 * The iterations of a loop can interfere by side effects, so they are only executed in
+	 * parallel if requested.
+	 */
+	@Override
+	protected boolean isParallelExecutionEnabledByDefault() {
+		return false;
+	}
+
 	abstract boolean shouldStop(IOContainer iterationResults) throws OperatorException;
 
 	@Override
@@ -18,12 +18,16 @@
 */
 package com.rapidminer.operator.meta;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.performance.PerformanceVector;
 import com.rapidminer.tools.LoggingHandler;
 import com.rapidminer.tools.RandomGenerator;
 import com.rapidminer.tools.math.optimization.ec.es.ESOptimization;
 import com.rapidminer.tools.math.optimization.ec.es.Individual;
+import com.rapidminer.tools.math.optimization.ec.es.Population;
 
 
 /**
@@ -36,6 +40,12 @@ public class ESParameterOptimization extends ESOptimization {
 	/** The parent operator. Used for fitness evaluation. */
 	private EvolutionaryParameterOptimizationOperator operator;
 
+	/** The fitness of the individual currently handled after a parallel evaluation. */
+	private PerformanceVector parallelFitness;
+
+	/** Indicates whether the individual currently handled was evaluated in parallel. */
+	private boolean evaluatedInParallel;
+
 	/** Creates a new evolutionary SVM optimization. */
 	public ESParameterOptimization(EvolutionaryParameterOptimizationOperator operator, int individualSize, int initType, // start
 																															// population
@@ -55,9 +65,45 @@ public class ESParameterOptimization extends ESOptimization {
 
 	@Override
 	public PerformanceVector evaluateIndividual(Individual individual) throws OperatorException {
+		if (evaluatedInParallel) {
+			return parallelFitness;
+		}
 		return operator.setParametersAndEvaluate(individual);
 	}
 
+	/**
+	 * Evaluates the individuals without fitness in parallel if enabled. The fitness values are
+	 * handled in the same order as in a sequential evaluation.
+	 */
+	@Override
+	protected void evaluateAll(Population population) throws OperatorException {
+		int size = population.getNumberOfIndividuals();
+		List<Individual> individuals = new ArrayList<>(size);
+		for (int i = size - 1; i >= 0; i--) {
+			Individual current = population.get(i);
+			if (current.getFitness() == null) {
+				individuals.add(current);
+			}
+		}
+		boolean parallel = operator.evaluateInParallel(individuals, (index, fitness) -> {
+			parallelFitness = fitness;
+			evaluatedInParallel = true;
+			try {
+				evaluate(individuals.get(index), population);
+			} finally {
+				evaluatedInParallel = false;
+				parallelFitness = null;
+			}
+		});
+		if (parallel) {
+			for (int i = 0; i < size; i++) {
+				increaseTotalEvaluationCounter();
+			}
+		} else {
+			super.evaluateAll(population);
+		}
+	}
+
 	@Override
 	public void nextIteration() throws OperatorException {
 		this.operator.inApplyLoop();
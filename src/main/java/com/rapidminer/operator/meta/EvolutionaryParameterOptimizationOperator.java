@@ -18,9 +18,11 @@
 */
 package com.rapidminer.operator.meta;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
+import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
@@ -86,6 +88,9 @@ public class EvolutionaryParameterOptimizationOperator extends ParameterOptimiza
 	/** The parameter types. */
 	private OptimizationValueType[] types;
 
+	/** The input of the clones evaluating individuals in parallel, created on demand. */
+	private List<IOObject> parallelInput;
+
 	public EvolutionaryParameterOptimizationOperator(OperatorDescription description) {
 		super(description);
 		addValue(new ValueDouble("best", "best performance ever") {
@@ -187,7 +192,11 @@ public class EvolutionaryParameterOptimizationOperator extends ParameterOptimiza
 			this.optimizer.setExecutingOperator(this);
 		}
 
-		optimizer.optimize();
+		try {
+			optimizer.optimize();
+		} finally {
+			parallelInput = null;
+		}
 
 		// create result and return it
 		double[] bestParameters = optimizer.getBestValuesEver();
@@ -231,18 +240,54 @@ public class EvolutionaryParameterOptimizationOperator extends ParameterOptimiza
 	}
 
 	public PerformanceVector setParametersAndEvaluate(Individual individual) throws OperatorException {
+		String[] values = getParameterValues(individual);
+		for (int j = 0; j < values.length; j++) {
+			operators[j].getParameters().setParameter(parameters[j], values[j]);
+			getLogger().fine(operators[j] + "." + parameters[j] + " = " + values[j]);
+		}
+		return getPerformanceVector();
+	}
+
+	/**
+	 * Evaluates the individuals by clones of this operator executed in parallel, see
+	 * {@link #evaluateInParallel(List, List, ParameterIteratingOperatorChain.EvaluationListener)}.
+	 *
+	 * @return {@code false} if the parallel execution is disabled or not possible, the individuals
+	 *         must then be evaluated by {@link #setParametersAndEvaluate(Individual)}
+	 * @since 7.6
+	 */
+	boolean evaluateInParallel(List<Individual> individuals, EvaluationListener listener) throws OperatorException {
+		if (!isParallelExecution(individuals.size())) {
+			return false;
+		}
+		if (parallelInput == null) {
+			parallelInput = getInputCopy();
+		}
+		List<ParameterSet> parameterSets = new ArrayList<>(individuals.size());
+		for (Individual individual : individuals) {
+			parameterSets.add(new ParameterSet(operators, parameters, getParameterValues(individual), null));
+		}
+		evaluateInParallel(parameterSets, parallelInput, listener);
+		return true;
+	}
+
+	/** Returns the parameter values encoded by the given individual. */
+	private String[] getParameterValues(Individual individual) {
 		double[] currentValues = individual.getValues();
+		String[] values = new String[currentValues.length];
 		for (int j = 0; j < currentValues.length; j++) {
-			String value;
 			if (types[j].equals(OptimizationValueType.VALUE_TYPE_DOUBLE)) {
-				value = currentValues[j] + "";
+				values[j] = currentValues[j] + "";
 			} else {
-				value = (int) Math.round(currentValues[j]) + "";
+				values[j] = (int) Math.round(currentValues[j]) + "";
 			}
-			operators[j].getParameters().setParameter(parameters[j], value);
-			getLogger().fine(operators[j] + "." + parameters[j] + " = " + value);
 		}
-		return getPerformanceVector();
+		return values;
+	}
+
+	@Override
+	protected boolean supportsParallelExecution() {
+		return true;
 	}
 
 	@Override
@@ -19,11 +19,13 @@
 package com.rapidminer.operator.meta;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import com.rapidminer.example.ExampleSet;
-import com.rapidminer.operator.OperatorChain;
+import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.concurrency.internal.ParallelOperatorChain;
 import com.rapidminer.operator.performance.PerformanceVector;
 import com.rapidminer.operator.ports.InputPort;
 import com.rapidminer.operator.ports.InputPortExtender;
@@ -45,7 +47,7 @@ import com.rapidminer.parameter.ParameterTypeBoolean;
  *
  * @author Ingo Mierswa
  */
-public class ExampleSetIterator extends OperatorChain {
+public class ExampleSetIterator extends ParallelOperatorChain {
 
 	private final InputPortExtender exampleSetExtender = new InputPortExtender("example set", getInputPorts()) {
 
@@ -66,6 +68,18 @@ public class ExampleSetIterator extends OperatorChain {
 	 */
 	public static final String PARAMETER_ONLY_BEST = "only_best";
 
+	/** The outputs and the performance of an iteration executed in parallel */
+	private static final class IterationResult {
+
+		private final List<IOObject> outputs;
+		private final PerformanceVector performance;
+
+		private IterationResult(List<IOObject> outputs, PerformanceVector performance) {
+			this.outputs = outputs;
+			this.performance = performance;
+		}
+	}
+
 	public ExampleSetIterator(OperatorDescription description) {
 		super(description, "Subprocess");
 
@@ -96,6 +110,11 @@ public class ExampleSetIterator extends OperatorChain {
 		getProgress().setCheckForStop(false);
 
 		boolean onlyBest = getParameterAsBoolean(PARAMETER_ONLY_BEST);
+		if (isParallelExecution(eSetList.size())) {
+			performIterationsInParallel(eSetList, onlyBest);
+			getProgress().complete();
+			return;
+		}
 		double bestFitness = Double.NEGATIVE_INFINITY;
 		for (ExampleSet exampleSet : eSetList) {
 			exampleSetInnerSource.deliver(exampleSet);
@@ -117,6 +136,58 @@ public class ExampleSetIterator extends OperatorChain {
 		getProgress().complete();
 	}
 
+	/**
+	 * Executes the subprocess for every example set by a clone of this operator. The best or the
+	 * last outputs are selected in the order of the example sets, as in a sequential execution.
+	 */
+	private void performIterationsInParallel(List<ExampleSet> exampleSets, boolean onlyBest) throws OperatorException {
+		List<PortPairExtender.PortPair> pairs = outputExtender.getManagedPairs();
+		executeInParallel(exampleSets.size(), new Iterations<IterationResult>() {
+
+			private double bestFitness = Double.NEGATIVE_INFINITY;
+
+			@Override
+			public Callable<IterationResult> createIteration(int iteration, ParallelOperatorChain clone)
+					throws OperatorException {
+				ExampleSetIterator iteratorClone = (ExampleSetIterator) clone;
+				ExampleSet exampleSet = getDataCopy(exampleSets.get(iteration), true);
+				return () -> {
+					iteratorClone.exampleSetInnerSource.deliver(exampleSet);
+					iteratorClone.getSubprocess(0).execute();
+					PerformanceVector performance = null;
+					if (onlyBest) {
+						performance = iteratorClone.performanceInnerSink.getData(PerformanceVector.class);
+					}
+					return new IterationResult(iteratorClone.outputExtender.getDataOrNull(), performance);
+				};
+			}
+
+			@Override
+			public void iterationFinished(int iteration, IterationResult result) throws OperatorException {
+				boolean deliver = !onlyBest;
+				if (onlyBest) {
+					double fitness = result.performance.getMainCriterion().getFitness();
+					if (fitness > bestFitness) {
+						bestFitness = fitness;
+						deliver = true;
+					}
+				}
+				if (deliver) {
+					for (int i = 0; i < pairs.size() && i < result.outputs.size(); i++) {
+						pairs.get(i).getOutputPort().deliver(result.outputs.get(i));
+					}
+				}
+				inApplyLoop();
+				getProgress().step();
+			}
+		});
+	}
+
+	@Override
+	protected boolean isParallelExecutionEnabledByDefault() {
+		return false;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
@@ -18,16 +18,26 @@
 */
 package com.rapidminer.operator.meta;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.MappedExampleSet;
+import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.UserError;
 import com.rapidminer.operator.performance.PerformanceVector;
+import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeBoolean;
+import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.parameter.conditions.BooleanParameterCondition;
 import com.rapidminer.parameter.value.ParameterValueRange;
 import com.rapidminer.parameter.value.ParameterValues;
+import com.rapidminer.tools.RandomGenerator;
 
 
 /**
@@ -62,10 +72,28 @@ import com.rapidminer.parameter.value.ParameterValues;
  * especially useful for plotting purposes.
  * </p>
  *
+ * <p>
+ * If <var>successive_halving</var> is selected, the combinations are first evaluated on a random
+ * sample of the input example set. Only the best combinations, i.e. one out of
+ * <var>halving_factor</var>, are evaluated again on a sample that is <var>halving_factor</var>
+ * times larger, until the remaining combinations are evaluated on the complete example set. This
+ * abandons clearly inferior combinations early but can miss combinations that only perform well
+ * on large data sets.
+ * </p>
+ *
  * @author Simon Fischer, Helge Homburg, Ingo Mierswa, Tobias Malbrecht 15:35:49 ingomierswa Exp $
  */
 public class GridSearchParameterOptimizationOperator extends ParameterOptimizationOperator {
 
+	/** The parameter name for &quot;Evaluate the combinations on growing samples&quot; */
+	public static final String PARAMETER_SUCCESSIVE_HALVING = "successive_halving";
+
+	/** The parameter name for &quot;Keep one out of this many combinations per round&quot; */
+	public static final String PARAMETER_HALVING_FACTOR = "halving_factor";
+
+	/** Samples for successive halving contain at least this many examples */
+	static final int MINIMUM_SAMPLE_SIZE = 100;
+
 	protected Operator[] operators;
 
 	protected String[] parameters;
@@ -145,6 +173,216 @@ public class GridSearchParameterOptimizationOperator extends ParameterOptimizati
 		}
 	}
 
+	/**
+	 * Returns all combinations of the parameter values as indices into {@link #values}, in the
+	 * order of the grid.
+	 *
+	 * @since 7.6
+	 */
+	protected List<int[]> getCombinations() {
+		List<int[]> combinations = new ArrayList<>();
+		int[] index = new int[numberOfParameters];
+		if (numberOfParameters == 0) {
+			return combinations;
+		}
+		while (true) {
+			combinations.add(index.clone());
+			int k = 0;
+			while (!(++index[k] < values[k].length)) {
+				index[k] = 0;
+				k++;
+				if (k >= index.length) {
+					return combinations;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates the parameter set of the given combination.
+	 *
+	 * @since 7.6
+	 */
+	protected ParameterSet createParameterSet(int[] combination, PerformanceVector performance) {
+		String[] currentValues = new String[parameters.length];
+		for (int j = 0; j < parameters.length; j++) {
+			currentValues[j] = values[j][combination[j]];
+		}
+		return new ParameterSet(operators, parameters, currentValues, performance);
+	}
+
+	/**
+	 * Evaluates the given combinations on the given input. If the parallel execution is enabled,
+	 * the combinations are evaluated by clones of this operator, see
+	 * {@link #evaluateInParallel(List, List, ParameterIteratingOperatorChain.EvaluationListener)}.
+	 * The listener is notified in the order of the combinations.
+	 *
+	 * @since 7.6
+	 */
+	protected void evaluateCombinations(List<int[]> combinations, List<IOObject> input, EvaluationListener listener)
+			throws OperatorException {
+		List<ParameterSet> parameterSets = new ArrayList<>(combinations.size());
+		for (int[] combination : combinations) {
+			parameterSets.add(createParameterSet(combination, null));
+		}
+		if (isParallelExecution(parameterSets.size())) {
+			List<IOObject> inputCopy = new ArrayList<>(input.size());
+			for (IOObject object : input) {
+				inputCopy.add(object == null ? null : getDataCopy(object, true));
+			}
+			evaluateInParallel(parameterSets, inputCopy, listener);
+		} else {
+			for (int i = 0; i < parameterSets.size(); i++) {
+				getLogger().fine("Using parameter set " + parameterSets.get(i));
+				listener.evaluated(i, getPerformanceVector(parameterSets.get(i), input));
+			}
+		}
+	}
+
+	/**
+	 * Evaluates the combinations in rounds, see {@link #PARAMETER_SUCCESSIVE_HALVING}. Without
+	 * successive halving, all combinations are evaluated in a single round on the complete input.
+	 */
+	private void optimizeInRounds(boolean successiveHalving) throws OperatorException {
+		List<int[]> candidates = getCombinations();
+		List<IOObject> input = getInputData();
+		int factor = getParameterAsInt(PARAMETER_HALVING_FACTOR);
+
+		// determine the number of rounds on samples
+		int exampleSetIndex = -1;
+		for (int i = 0; i < input.size() && exampleSetIndex < 0; i++) {
+			if (input.get(i) instanceof ExampleSet) {
+				exampleSetIndex = i;
+			}
+		}
+		int[] roundSizes = { candidates.size() };
+		if (successiveHalving && exampleSetIndex < 0) {
+			logWarning("Successive halving requires an example set as input, evaluating all combinations.");
+		} else if (successiveHalving) {
+			roundSizes = getRoundSizes(candidates.size(), ((ExampleSet) input.get(exampleSetIndex)).size(), factor);
+		}
+		int sampleRounds = roundSizes.length - 1;
+		int evaluations = 0;
+		for (int size : roundSizes) {
+			evaluations += size;
+		}
+		getProgress().setTotal(evaluations);
+
+		// all samples are drawn from the same random order, so larger samples contain smaller ones
+		int[] order = null;
+		if (sampleRounds > 0) {
+			RandomGenerator random = RandomGenerator.getRandomGenerator(this);
+			order = new int[((ExampleSet) input.get(exampleSetIndex)).size()];
+			for (int i = 0; i < order.length; i++) {
+				order[i] = i;
+			}
+			for (int i = order.length - 1; i > 0; i--) {
+				int j = random.nextInt(i + 1);
+				int swap = order[i];
+				order[i] = order[j];
+				order[j] = swap;
+			}
+		}
+
+		best = null;
+		int sampleSize = order == null ? 0 : order.length;
+		for (int round = 0; round < sampleRounds; round++) {
+			sampleSize /= factor;
+		}
+		for (int round = 0; round <= sampleRounds; round++) {
+			boolean finalRound = round == sampleRounds;
+			List<IOObject> roundInput = input;
+			if (!finalRound) {
+				roundInput = new ArrayList<>(input);
+				roundInput.set(exampleSetIndex, new MappedExampleSet((ExampleSet) input.get(exampleSetIndex),
+						Arrays.copyOf(order, sampleSize), true, true));
+				log("Evaluating " + candidates.size() + " combinations on " + sampleSize + " examples");
+				sampleSize *= factor;
+			}
+			List<int[]> roundCandidates = candidates;
+			PerformanceVector[] performances = new PerformanceVector[roundCandidates.size()];
+			evaluateCombinations(roundCandidates, roundInput, (index, performance) -> {
+				performances[index] = performance;
+				// entering if-block if and only if performance != null, because without a
+				// performance we can not say that this is the optimal set
+				if (finalRound && performance != null
+						&& (best == null || performance.compareTo(best.getPerformance()) > 0)) {
+					best = createParameterSet(roundCandidates.get(index), performance);
+					passResultsThrough();
+				}
+				inApplyLoop();
+				getProgress().step();
+			});
+			if (!finalRound) {
+				candidates = selectBest(roundCandidates, performances, roundSizes[round + 1]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of combinations evaluated in each round of the successive halving. One
+	 * out of {@code factor} combinations, rounded up, is kept per round as long as more than
+	 * {@code factor} combinations remain and the next sample contains at least
+	 * {@link #MINIMUM_SAMPLE_SIZE} examples. The last entry is the final round on the complete
+	 * example set.
+	 */
+	static int[] getRoundSizes(int combinations, int exampleSetSize, int factor) {
+		List<Integer> sizes = new ArrayList<>();
+		sizes.add(combinations);
+		int remaining = combinations;
+		int sampleSize = exampleSetSize;
+		while (remaining > factor && sampleSize / factor >= MINIMUM_SAMPLE_SIZE) {
+			remaining = (remaining + factor - 1) / factor;
+			sampleSize /= factor;
+			sizes.add(remaining);
+		}
+		int[] result = new int[sizes.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = sizes.get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the given number of combinations with the best performances in the order of the
+	 * grid. Combinations without performance are ranked last.
+	 */
+	static List<int[]> selectBest(List<int[]> combinations, PerformanceVector[] performances, int number) {
+		Integer[] ranking = new Integer[combinations.size()];
+		for (int i = 0; i < ranking.length; i++) {
+			ranking[i] = i;
+		}
+		// stable sort keeps the grid order of equal performances
+		Arrays.sort(ranking, (a, b) -> {
+			if (performances[a] == null || performances[b] == null) {
+				return performances[a] == null ? performances[b] == null ? 0 : 1 : -1;
+			}
+			return performances[b].compareTo(performances[a]);
+		});
+		Integer[] selected = Arrays.copyOf(ranking, number);
+		Arrays.sort(selected);
+		List<int[]> result = new ArrayList<>(number);
+		for (int i : selected) {
+			result.add(combinations.get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Subclasses that do not evaluate the combinations like the grid search can return
+	 * {@code false} to hide the successive halving parameters.
+	 *
+	 * @since 7.6
+	 */
+	protected boolean supportsSuccessiveHalving() {
+		return true;
+	}
+
+	@Override
+	protected boolean supportsParallelExecution() {
+		return true;
+	}
+
 	@Override
 	public double getCurrentBestPerformance() {
 		if (best != null) {
@@ -170,6 +408,15 @@ public class GridSearchParameterOptimizationOperator extends ParameterOptimizati
 			throw new UserError(this, 922);
 		}
 
+		boolean successiveHalving = supportsSuccessiveHalving()
+				&& getParameterAsBoolean(PARAMETER_SUCCESSIVE_HALVING);
+		if (successiveHalving || isParallelExecution(numberOfCombinations)) {
+			optimizeInRounds(successiveHalving);
+			deliver(best);
+			getProgress().complete();
+			return;
+		}
+
 		int counter = 1;
 		best = null;
 		while (true) {
@@ -209,4 +456,26 @@ public class GridSearchParameterOptimizationOperator extends ParameterOptimizati
 		deliver(best);
 		getProgress().complete();
 	}
+
+	@Override
+	public List<ParameterType> getParameterTypes() {
+		List<ParameterType> types = super.getParameterTypes();
+		if (supportsSuccessiveHalving()) {
+			ParameterType type = new ParameterTypeBoolean(PARAMETER_SUCCESSIVE_HALVING,
+					"If checked, the combinations are evaluated on growing samples of the input example set and only the best combinations of each round are kept.",
+					false);
+			types.add(type);
+			type = new ParameterTypeInt(PARAMETER_HALVING_FACTOR,
+					"One out of this many combinations is kept per round, the sample grows by this factor.", 2,
+					Integer.MAX_VALUE, 3);
+			type.registerDependencyCondition(new BooleanParameterCondition(this, PARAMETER_SUCCESSIVE_HALVING, true, true));
+			types.add(type);
+			for (ParameterType randomType : RandomGenerator.getRandomGeneratorParameters(this)) {
+				randomType.registerDependencyCondition(
+						new BooleanParameterCondition(this, PARAMETER_SUCCESSIVE_HALVING, false, true));
+				types.add(randomType);
+			}
+		}
+		return types;
+	}
 }
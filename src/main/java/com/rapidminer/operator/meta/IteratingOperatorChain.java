@@ -82,6 +82,19 @@ public class IteratingOperatorChain extends AbstractIteratingOperatorChain {
 		return getIteration() >= iterations;
 	}
 
+	@Override
+	protected int getNumberOfIterations() throws OperatorException {
+		if (getParameterAsBoolean(PARAMETER_LIMIT_TIME)) {
+			return -1;
+		}
+		return getParameterAsInt(PARAMETER_ITERATIONS);
+	}
+
+	@Override
+	protected boolean supportsParallelExecution() {
+		return true;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
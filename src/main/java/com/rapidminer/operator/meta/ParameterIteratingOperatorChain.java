@@ -22,18 +22,19 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import com.rapidminer.RapidMiner;
 import com.rapidminer.gui.properties.ConfigureParameterOptimizationDialogCreator;
 import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.Operator;
-import com.rapidminer.operator.OperatorChain;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.OperatorVersion;
 import com.rapidminer.operator.ProcessSetupError.Severity;
 import com.rapidminer.operator.SimpleProcessSetupError;
 import com.rapidminer.operator.UserError;
+import com.rapidminer.operator.concurrency.internal.ParallelOperatorChain;
 import com.rapidminer.operator.performance.PerformanceVector;
 import com.rapidminer.operator.ports.InputPort;
 import com.rapidminer.operator.ports.PortPairExtender;
@@ -64,7 +65,7 @@ import com.rapidminer.tools.ParameterService;
  * 
  * @author Tobias Malbrecht
  */
-public abstract class ParameterIteratingOperatorChain extends OperatorChain {
+public abstract class ParameterIteratingOperatorChain extends ParallelOperatorChain {
 
 	/** Last version where errors in the inner process were not handled properly. */
 	public static final OperatorVersion CHANGE_6_0_3_ERROR_HANDLING = new OperatorVersion(6, 0, 3);
@@ -106,6 +107,36 @@ public abstract class ParameterIteratingOperatorChain extends OperatorChain {
 	public static final int ERROR_FAIL = 0;
 	public static final int ERROR_IGNORE = 1;
 
+	/**
+	 * Handles the evaluations of {@link ParameterIteratingOperatorChain#evaluateInParallel(List,
+	 * List, EvaluationListener)}.
+	 *
+	 * @since 7.6
+	 */
+	protected interface EvaluationListener {
+
+		/**
+		 * Called in the order of the parameter sets after the results of the evaluation of the
+		 * given parameter set have been received at the inner sinks.
+		 *
+		 * @param performance
+		 *            the performance of the parameter set, can be {@code null}
+		 */
+		void evaluated(int index, PerformanceVector performance) throws OperatorException;
+	}
+
+	/** The performance and the inner results of a parameter set evaluated by a clone */
+	private static final class Evaluation {
+
+		private final PerformanceVector performance;
+		private final List<IOObject> results;
+
+		private Evaluation(PerformanceVector performance, List<IOObject> results) {
+			this.performance = performance;
+			this.results = results;
+		}
+	}
+
 	private final PortPairExtender inputExtender = new PortPairExtender("input", getInputPorts(), getSubprocess(0)
 			.getInnerSources());
 	private final InputPort performanceInnerSink = getSubprocess(0).getInnerSinks().createPort("performance");
@@ -300,8 +331,96 @@ public abstract class ParameterIteratingOperatorChain extends OperatorChain {
 	 * performance criteria which is returned.
 	 */
 	protected PerformanceVector getPerformanceVector() throws OperatorException {
+		inputExtender.passDataThrough();
+		return evaluateSubprocess();
+	}
+
+	/**
+	 * Returns the input data, one entry per input port and {@code null} for ports without data.
+	 *
+	 * @since 7.6
+	 */
+	protected List<IOObject> getInputData() {
+		return inputExtender.getDataOrNull();
+	}
+
+	/**
+	 * Returns copies of the input data that are safe for concurrent use, one entry per input port
+	 * and {@code null} for ports without data. Used to hand the input over to clones executed in
+	 * parallel, see {@link #getPerformanceVector(ParameterSet, List)}.
+	 *
+	 * @since 7.6
+	 */
+	protected List<IOObject> getInputCopy() throws OperatorException {
+		List<IOObject> input = getInputData();
+		for (int i = 0; i < input.size(); i++) {
+			if (input.get(i) != null) {
+				input.set(i, getDataCopy(input.get(i), true));
+			}
+		}
+		return input;
+	}
+
+	/**
+	 * Does the same as {@link #getPerformanceVector()} for the given parameter set and input. The
+	 * parameter set is applied to the operators of the process of this operator, e.g. of a clone
+	 * executed in parallel, and the subprocess is applied to copies of the given input.
+	 *
+	 * @param input
+	 *            the input, e.g. as returned by {@link #getInputCopy()} of the original operator
+	 * @since 7.6
+	 */
+	protected PerformanceVector getPerformanceVector(ParameterSet set, List<IOObject> input) throws OperatorException {
+		set.applyAll(getProcess(), null);
+		List<PortPairExtender.PortPair> pairs = inputExtender.getManagedPairs();
+		for (int i = 0; i < pairs.size() && i < input.size(); i++) {
+			pairs.get(i).getOutputPort().deliver(input.get(i) == null ? null : input.get(i).copy());
+		}
+		return evaluateSubprocess();
+	}
+
+	/**
+	 * Evaluates the parameter sets by clones of this operator executed in parallel, see
+	 * {@link #executeInParallel(int, ParallelOperatorChain.Iterations)}. The results of every clone
+	 * are received at the inner sinks of this operator before the listener is notified, so
+	 * {@link #passResultsThrough()} and {@link #getInnerResults()} behave as if this operator had
+	 * evaluated the parameter set.
+	 *
+	 * @param input
+	 *            the input as returned by {@link #getInputCopy()}
+	 * @since 7.6
+	 */
+	protected void evaluateInParallel(List<ParameterSet> parameterSets, List<IOObject> input,
+			EvaluationListener listener) throws OperatorException {
+		executeInParallel(parameterSets.size(), new Iterations<Evaluation>() {
+
+			@Override
+			public Callable<Evaluation> createIteration(int iteration, ParallelOperatorChain clone) {
+				ParameterIteratingOperatorChain evaluatingClone = (ParameterIteratingOperatorChain) clone;
+				ParameterSet set = parameterSets.get(iteration);
+				return () -> {
+					PerformanceVector performance = evaluatingClone.getPerformanceVector(set, input);
+					return new Evaluation(performance, evaluatingClone.innerSinkExtender.getDataOrNull());
+				};
+			}
+
+			@Override
+			public void iterationFinished(int iteration, Evaluation evaluation) throws OperatorException {
+				List<PortPairExtender.PortPair> pairs = innerSinkExtender.getManagedPairs();
+				for (int i = 0; i < pairs.size(); i++) {
+					pairs.get(i).getInputPort().receive(i < evaluation.results.size() ? evaluation.results.get(i) : null);
+				}
+				listener.evaluated(iteration, evaluation.performance);
+			}
+		});
+	}
+
+	/**
+	 * Executes the subprocess and returns the delivered performance vector. Errors are handled
+	 * according to the error handling parameter.
+	 */
+	private PerformanceVector evaluateSubprocess() throws OperatorException {
 		try {
-			inputExtender.passDataThrough();
 			executeSubprocess();
 			if (isPerformanceRequired()) {
 				return getPerformanceInnerSink().getData(PerformanceVector.class);
@@ -334,6 +453,24 @@ public abstract class ParameterIteratingOperatorChain extends OperatorChain {
 		innerSinkExtender.passDataThrough();
 	}
 
+	/**
+	 * Subclasses that evaluate parameter sets by {@link #getPerformanceVector(ParameterSet, List)}
+	 * must return {@code true}.
+	 */
+	@Override
+	protected boolean supportsParallelExecution() {
+		return false;
+	}
+
+	/**
+	 * The inner operators can depend on side effects of earlier parameter sets, so they are only
+	 * evaluated in parallel if requested.
+	 */
+	@Override
+	protected boolean isParallelExecutionEnabledByDefault() {
+		return false;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
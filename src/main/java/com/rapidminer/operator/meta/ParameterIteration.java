@@ -18,6 +18,7 @@
 */
 package com.rapidminer.operator.meta;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.logging.Level;
@@ -108,6 +109,11 @@ public class ParameterIteration extends ParameterIteratingOperatorChain {
 		});
 	}
 
+	@Override
+	protected boolean supportsParallelExecution() {
+		return true;
+	}
+
 	@Override
 	protected boolean isPerformanceRequired() {
 		return false;
@@ -175,8 +181,9 @@ public class ParameterIteration extends ParameterIteratingOperatorChain {
 			throw new UserError(this, 958);
 		}
 
-		// iterate parameter combinations
+		// create parameter combinations
 		this.iteration = 0;
+		List<ParameterSet> parameterSets = new ArrayList<>();
 		while (true) {
 			String[] currentValues = new String[parameters.length];
 			// set all parameter values
@@ -184,11 +191,7 @@ public class ParameterIteration extends ParameterIteratingOperatorChain {
 				currentValues[j] = values[j][currentIndex[j]].trim();
 				// operators[j].setParameter(parameters[j], values[j][currentIndex[j]].trim());
 			}
-			ParameterSet set = new ParameterSet(operators, parameters, currentValues, null);
-
-			evaluateParameterSet(set);
-
-			this.iteration++;
+			parameterSets.add(new ParameterSet(operators, parameters, currentValues, null));
 
 			boolean ok = true;
 			if (!isSynchronized) {
@@ -215,19 +218,52 @@ public class ParameterIteration extends ParameterIteratingOperatorChain {
 			if (!ok) {
 				break;
 			}
+		}
 
-			inApplyLoop();
-			getProgress().step();
+		if (isParallelExecution(parameterSets.size())) {
+			evaluateParameterSetsInParallel(parameterSets);
+		} else {
+			for (ParameterSet set : parameterSets) {
+				if (iteration > 0) {
+					inApplyLoop();
+					getProgress().step();
+				}
+				evaluateParameterSet(set);
+				this.iteration++;
+			}
 		}
 		getProgress().complete();
 	}
 
+	/**
+	 * Evaluates the parameter sets by clones of this operator. The performances and results are
+	 * handled in the order of the parameter sets.
+	 */
+	private void evaluateParameterSetsInParallel(List<ParameterSet> parameterSets) throws OperatorException {
+		evaluateInParallel(parameterSets, getInputCopy(), (index, performance) -> {
+			if (index > 0) {
+				inApplyLoop();
+				getProgress().step();
+			}
+			if (getLogger().isLoggable(Level.FINE)) {
+				getLogger().fine("Evaluated parameter set: " + parameterSets.get(index).toString());
+			}
+			handleEvaluation(performance);
+			this.iteration = index + 1;
+		});
+	}
+
 	protected void evaluateParameterSet(ParameterSet set) throws OperatorException {
 		if (getLogger().isLoggable(Level.FINE)) {
 			getLogger().fine("Evaluating parameter set: " + set.toString());
 		}
 		set.applyAll(getProcess(), null);
-		this.performance = super.getPerformanceVector();
+		handleEvaluation(super.getPerformanceVector());
+	}
+
+	/** Collects the results of the evaluation of the current parameter set. */
+	private void handleEvaluation(PerformanceVector performance) {
+		this.performance = performance;
 		((CollectingPortPairExtender) getInnerSinkExtender()).collect();
 		if (performance == null) {
 			getLogger().info(
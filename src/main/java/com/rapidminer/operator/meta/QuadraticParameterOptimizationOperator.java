@@ -65,6 +65,11 @@ public class QuadraticParameterOptimizationOperator extends GridSearchParameterO
 		super(description);
 	}
 
+	@Override
+	protected boolean supportsSuccessiveHalving() {
+		return false;
+	}
+
 	@Override
 	public double getCurrentBestPerformance() {
 		if (best != null) {
@@ -111,56 +116,21 @@ public class QuadraticParameterOptimizationOperator extends GridSearchParameterO
 		}
 		int[] bestIndex = new int[numberOfParameters];
 		ParameterSet[] allParameters = new ParameterSet[numberOfCombinations];
-		int paramIndex = 0;
 		// Test all parameter combinations
 		best = null;
 
 		// init operator progress (+ 1 for work after loop)
 		getProgress().setTotal(allParameters.length + 1);
-		while (true) {
-			getLogger().fine("Using parameter set");
-			// set all parameter values
-			for (int j = 0; j < operators.length; j++) {
-				operators[j].getParameters().setParameter(parameters[j], values[j][currentIndex[j]]);
-				getLogger().fine(operators[j] + "." + parameters[j] + " = " + values[j][currentIndex[j]]);
-			}
-
-			PerformanceVector performance = getPerformanceVector();
-
-			String[] currentValues = new String[parameters.length];
-			for (int j = 0; j < parameters.length; j++) {
-				currentValues[j] = values[j][currentIndex[j]];
-			}
-			allParameters[paramIndex] = new ParameterSet(operators, parameters, currentValues, performance);
-
+		List<int[]> combinations = getCombinations();
+		evaluateCombinations(combinations, getInputData(), (index, performance) -> {
+			int[] combination = combinations.get(index);
+			allParameters[index] = createParameterSet(combination, performance);
 			if (best == null || performance.compareTo(best.getPerformance()) > 0) {
-				best = allParameters[paramIndex];
-				// bestIndex = currentIndex;
-				for (int j = 0; j < numberOfParameters; j++) {
-					bestIndex[j] = currentIndex[j];
-				}
+				best = allParameters[index];
+				System.arraycopy(combination, 0, bestIndex, 0, numberOfParameters);
 			}
-
 			getProgress().step();
-
-			// next parameter values
-			int k = 0;
-			boolean ok = true;
-			while (!(++currentIndex[k] < values[k].length)) {
-				currentIndex[k] = 0;
-				k++;
-				if (k >= currentIndex.length) {
-					ok = false;
-					break;
-				}
-			}
-			if (!ok) {
-				break;
-			}
-
-			paramIndex++;
-
-		}
+		});
 
 		// start quadratic optimization
 		int nrParameters = 0;
@@ -202,7 +172,7 @@ public class QuadraticParameterOptimizationOperator extends GridSearchParameterO
 			Matrix designMatrix = new Matrix(threetok, nrParameters + nrParameters * (nrParameters + 1) / 2 + 1);
 			Matrix y = new Matrix(threetok, 1);
 
-			paramIndex = 0;
+			int paramIndex = 0;
 			for (int i = numberOfParameters - 1; i >= 0; i--) {
 				if (values[i].length > 2) {
 					currentIndex[i] = bestIndex[i] - 1;
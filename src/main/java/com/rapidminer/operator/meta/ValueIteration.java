@@ -18,18 +18,20 @@
 */
 package com.rapidminer.operator.meta;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.Statistics;
 import com.rapidminer.operator.IOObject;
-import com.rapidminer.operator.OperatorChain;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.UserError;
 import com.rapidminer.operator.ValueString;
+import com.rapidminer.operator.concurrency.internal.ParallelOperatorChain;
 import com.rapidminer.operator.error.AttributeNotFoundError;
 import com.rapidminer.operator.ports.CollectingPortPairExtender;
 import com.rapidminer.operator.ports.InputPort;
@@ -61,7 +63,7 @@ import com.rapidminer.tools.Ontology;
  * @deprecated since 7.4, replaced by the LoopValuesOperator in the Concurrency extension
  */
 @Deprecated
-public class ValueIteration extends OperatorChain {
+public class ValueIteration extends ParallelOperatorChain {
 
 	public static final String PARAMETER_ATTRIBUTE = "attribute";
 
@@ -119,31 +121,42 @@ public class ValueIteration extends OperatorChain {
 		getProgress().setTotal(values.size());
 		getProgress().setCheckForStop(false);
 
+		List<String> occurringValues = new ArrayList<>(values.size());
 		for (String value : values) {
 			if (exampleSet.getStatistics(attribute, Statistics.COUNT, value) > 0) {
-				if (iterationMacro != null) {
-					// getProcess().getMacroHandler().addMacro(iterationMacro, value.replace(' ',
-					// '_'));
-					getProcess().getMacroHandler().addMacro(iterationMacro, value);
-				}
+				occurringValues.add(value);
+			}
+		}
+		if (isParallelExecution(occurringValues.size())) {
+			getProgress().setTotal(occurringValues.size());
+			performIterationsInParallel(exampleSet, occurringValues, iterationMacro);
+		} else {
+			for (String value : values) {
+				if (exampleSet.getStatistics(attribute, Statistics.COUNT, value) > 0) {
+					if (iterationMacro != null) {
+						// getProcess().getMacroHandler().addMacro(iterationMacro, value.replace(' ',
+						// '_'));
+						getProcess().getMacroHandler().addMacro(iterationMacro, value);
+					}
 
-				// store for logging
-				this.currentValue = value;
+					// store for logging
+					this.currentValue = value;
 
-				exampleInnerSource.deliver((ExampleSet) exampleSet.clone());
+					exampleInnerSource.deliver((ExampleSet) exampleSet.clone());
 
-				getSubprocess(0).execute();
+					getSubprocess(0).execute();
 
-				for (PortPairExtender.PortPair pair : outExtender.getManagedPairs()) {
-					IOObject result = pair.getInputPort().getDataOrNull(IOObject.class);
-					if (result != null) {
-						result.setSource(this.getName() + ":" + value);
+					for (PortPairExtender.PortPair pair : outExtender.getManagedPairs()) {
+						IOObject result = pair.getInputPort().getDataOrNull(IOObject.class);
+						if (result != null) {
+							result.setSource(this.getName() + ":" + value);
+						}
 					}
+					outExtender.collect();
 				}
-				outExtender.collect();
+				inApplyLoop();
+				getProgress().step();
 			}
-			inApplyLoop();
-			getProgress().step();
 		}
 
 		if (iterationMacro != null) {
@@ -152,6 +165,51 @@ public class ValueIteration extends OperatorChain {
 		getProgress().complete();
 	}
 
+	/**
+	 * Executes the subprocess for every value by a clone of this operator. Every clone sets the
+	 * iteration macro in its own process. The outputs are collected in the order of the values.
+	 */
+	private void performIterationsInParallel(ExampleSet exampleSet, List<String> values, String iterationMacro)
+			throws OperatorException {
+		ExampleSet input = getDataCopy(exampleSet, true);
+		executeInParallel(values.size(), new Iterations<List<IOObject>>() {
+
+			@Override
+			public Callable<List<IOObject>> createIteration(int iteration, ParallelOperatorChain clone) {
+				ValueIteration iterationClone = (ValueIteration) clone;
+				String value = values.get(iteration);
+				return () -> {
+					if (iterationMacro != null) {
+						iterationClone.getProcess().getMacroHandler().addMacro(iterationMacro, value);
+					}
+					iterationClone.currentValue = value;
+					iterationClone.exampleInnerSource.deliver((ExampleSet) input.clone());
+					iterationClone.getSubprocess(0).execute();
+					List<IOObject> results = iterationClone.outExtender.getDataOrNull();
+					for (IOObject result : results) {
+						if (result != null) {
+							result.setSource(getName() + ":" + value);
+						}
+					}
+					return results;
+				};
+			}
+
+			@Override
+			public void iterationFinished(int iteration, List<IOObject> results) throws OperatorException {
+				currentValue = values.get(iteration);
+				outExtender.collect(results);
+				inApplyLoop();
+				getProgress().step();
+			}
+		});
+	}
+
+	@Override
+	protected boolean isParallelExecutionEnabledByDefault() {
+		return false;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
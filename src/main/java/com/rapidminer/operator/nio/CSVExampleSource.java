@@ -22,12 +22,18 @@ import java.text.NumberFormat;
 import java.util.LinkedList;
 import java.util.List;
 
+import com.rapidminer.example.ExampleSet;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.io.AbstractReader;
 import com.rapidminer.operator.nio.model.AbstractDataResultSetReader;
+import com.rapidminer.operator.nio.model.CSVResultSet;
 import com.rapidminer.operator.nio.model.CSVResultSetConfiguration;
+import com.rapidminer.operator.nio.model.DataResultSet;
 import com.rapidminer.operator.nio.model.DataResultSetFactory;
+import com.rapidminer.operator.nio.model.DataResultSetTranslationConfiguration;
+import com.rapidminer.operator.nio.model.DataResultSetTranslator;
+import com.rapidminer.operator.nio.model.ParallelCSVReader;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.ParameterTypeChar;
@@ -59,6 +65,12 @@ public class CSVExampleSource extends AbstractDataResultSetReader {
 	public static final String PARAMETER_COLUMN_SEPARATORS = "column_separators";
 	public static final String PARAMETER_ESCAPE_CHARACTER = "escape_character";
 
+	/** @since 7.6 */
+	public static final String PARAMETER_PARALLEL_PARSING = "parallel_parsing";
+
+	/** @since 7.6 */
+	public static final String PARAMETER_TOKENIZE_BYTES = "tokenize_bytes";
+
 	static {
 		AbstractReader.registerReaderDescription(new ReaderDescription("csv", CSVExampleSource.class, PARAMETER_CSV_FILE));
 	}
@@ -77,6 +89,17 @@ public class CSVExampleSource extends AbstractDataResultSetReader {
 		return StrictDecimalFormat.getInstance(this, true);
 	}
 
+	@Override
+	protected ExampleSet readDataResultSet(DataResultSetTranslator translator, DataResultSet dataResultSet,
+			DataResultSetTranslationConfiguration configuration) throws OperatorException {
+		if (getParameterAsBoolean(PARAMETER_PARALLEL_PARSING) && ParallelCSVReader.isSupported(dataResultSet)) {
+			ParallelCSVReader reader = new ParallelCSVReader(this, (CSVResultSet) dataResultSet, configuration);
+			reader.setTokenizeBytes(getParameterAsBoolean(PARAMETER_TOKENIZE_BYTES));
+			return reader.read();
+		}
+		return super.readDataResultSet(translator, dataResultSet, configuration);
+	}
+
 	@Override
 	protected boolean supportsEncoding() {
 		return true;
@@ -131,6 +154,15 @@ public class CSVExampleSource extends AbstractDataResultSetReader {
 		types.addAll(StrictDecimalFormat.getParameterTypes(this, true));
 		types.addAll(DateParser.getParameterTypes(this));
 
+		types.add(new ParameterTypeBoolean(PARAMETER_PARALLEL_PARSING,
+				"Indicates if local files should be parsed in parallel. The file is split into chunks of lines which are parsed concurrently.",
+				false, true));
+		type = new ParameterTypeBoolean(PARAMETER_TOKENIZE_BYTES,
+				"Indicates if the lines should be tokenized directly on the bytes of the file when parsing in parallel. This avoids creating strings for numbers and repeated values.",
+				false, true);
+		type.registerDependencyCondition(new BooleanParameterCondition(this, PARAMETER_PARALLEL_PARSING, false, true));
+		types.add(type);
+
 		types.addAll(super.getParameterTypes());
 		return types;
 	}
@@ -167,6 +167,26 @@ public abstract class AbstractDataResultSetReader extends AbstractExampleSource
 		if (configComplete) {
 			translator.guessValueTypes(configuration, dataResultSet, null);
 		}
+		return readDataResultSet(translator, dataResultSet, configuration);
+	}
+
+	/**
+	 * Reads the provided {@link DataResultSet} into an example set after the configuration is
+	 * complete. Subclasses can overwrite this method to use a faster way of reading the data.
+	 *
+	 * @param translator
+	 *            the translator to use
+	 * @param dataResultSet
+	 *            the data result set to read
+	 * @param configuration
+	 *            the complete configuration
+	 * @return the generated example set
+	 * @throws OperatorException
+	 *             in case something goes wrong
+	 * @since 7.6
+	 */
+	protected ExampleSet readDataResultSet(DataResultSetTranslator translator, DataResultSet dataResultSet,
+			DataResultSetTranslationConfiguration configuration) throws OperatorException {
 		return translator.read(dataResultSet, configuration, false, null);
 	}
 
@@ -439,4 +439,12 @@ public class CSVResultSet implements DataResultSet {
 	public List<ParsingError> getErrors() {
 		return errors;
 	}
+
+	/**
+	 * @return the configuration this result set was created with
+	 * @since 7.6
+	 */
+	public CSVResultSetConfiguration getConfiguration() {
+		return configuration;
+	}
 }
@@ -122,26 +122,11 @@ public class DataResultSetTranslator {
 
 		isReading = true;
 		int[] attributeColumns = configuration.getSelectedIndices();
-		int numberOfAttributes = attributeColumns.length;
 
-		Attribute[] attributes = new Attribute[numberOfAttributes];
-		for (int i = 0; i < attributes.length; i++) {
-			int attributeValueType = configuration.getColumnMetaData(attributeColumns[i]).getAttributeValueType();
-			if (attributeValueType == Ontology.ATTRIBUTE_VALUE) {
-				attributeValueType = Ontology.POLYNOMINAL;
-			}
-			attributes[i] = AttributeFactory.createAttribute(
-					configuration.getColumnMetaData(attributeColumns[i]).getOriginalAttributeName(), attributeValueType);
-		}
+		Attribute[] attributes = createAttributes(configuration, attributeColumns);
 
 		// check whether all columns are accessible
-		int numberOfAvailableColumns = dataResultSet.getNumberOfColumns();
-		for (int attributeColumn : attributeColumns) {
-			if (attributeColumn >= numberOfAvailableColumns) {
-				throw new UserError(null, "data_import.specified_more_columns_than_exist",
-						configuration.getColumnMetaData(attributeColumn).getUserDefinedAttributeName(), attributeColumn);
-			}
-		}
+		checkColumns(configuration, attributeColumns, dataResultSet.getNumberOfColumns());
 
 		// building example set
 		ExampleSetBuilder builder = ExampleSets.from(attributes);
@@ -194,49 +179,12 @@ public class DataResultSetTranslator {
 			}
 			if (currentAnnotation != null) {
 				// registering annotation on all attributes
-				int attributeIndex = 0;
-				List<String> attributeNames = new ArrayList<>();
-				for (Attribute attribute : attributes) {
-					if (AbstractDataResultSetReader.ANNOTATION_NAME.equals(currentAnnotation)) {
-						// resetting name
-
-						// going into here, setting the names, maybe add checks here
-
-						String newAttributeName = getString(dataResultSet, exampleIndex, attributeColumns[attributeIndex],
-								isFaultTolerant);
-						if (newAttributeName != null && !newAttributeName.isEmpty()) {
-
-							// going into here, setting the names, maybe add checks here
-							String uniqueAttributeName = newAttributeName;
-							int uniqueNameNumber = 1;
-							while (attributeNames.contains(uniqueAttributeName)) {
-								uniqueAttributeName = newAttributeName + "(" + uniqueNameNumber + ")";
-								uniqueNameNumber++;
-							}
-
-							attribute.setName(uniqueAttributeName);
-							attribute.setConstruction(uniqueAttributeName);
-							// We also remember the name in the CMD since we otherwise would
-							// override the attribute name later in this method
-							ColumnMetaData cmd = configuration.getColumnMetaData(attributeColumns[attributeIndex]);
-							if (cmd != null) {
-								if (!cmd.isAttributeNameSpecified()) {
-									cmd.setUserDefinedAttributeName(uniqueAttributeName);
-								}
-							}
-
-						}
-					} else {
-						// setting annotation
-						String annotationValue = getString(dataResultSet, exampleIndex, attributeColumns[attributeIndex],
-								isFaultTolerant);
-						if (annotationValue != null && !annotationValue.isEmpty()) {
-							attribute.getAnnotations().put(currentAnnotation, annotationValue);
-						}
-					}
-					attributeNames.add(attribute.getName());
-					attributeIndex++;
+				String[] values = new String[attributes.length];
+				for (int attributeIndex = 0; attributeIndex < attributes.length; attributeIndex++) {
+					values[attributeIndex] = getString(dataResultSet, exampleIndex, attributeColumns[attributeIndex],
+							isFaultTolerant);
 				}
+				applyAnnotation(currentAnnotation, values, attributes, configuration, attributeColumns);
 			} else {
 				// creating data row
 				DataRow row = factory.create(attributes.length);
@@ -277,6 +225,97 @@ public class DataResultSetTranslator {
 
 		// derive ExampleSet from builder and assigning roles
 		ExampleSet exampleSet = builder.build();
+		applyColumnMetaData(exampleSet, configuration, attributeColumns);
+
+		isReading = false;
+		if (listener != null) {
+			listener.complete();
+		}
+		return exampleSet;
+	}
+
+	/**
+	 * Creates the attributes for the selected columns of the configuration.
+	 */
+	static Attribute[] createAttributes(DataResultSetTranslationConfiguration configuration, int[] attributeColumns) {
+		Attribute[] attributes = new Attribute[attributeColumns.length];
+		for (int i = 0; i < attributes.length; i++) {
+			int attributeValueType = configuration.getColumnMetaData(attributeColumns[i]).getAttributeValueType();
+			if (attributeValueType == Ontology.ATTRIBUTE_VALUE) {
+				attributeValueType = Ontology.POLYNOMINAL;
+			}
+			attributes[i] = AttributeFactory.createAttribute(
+					configuration.getColumnMetaData(attributeColumns[i]).getOriginalAttributeName(), attributeValueType);
+		}
+		return attributes;
+	}
+
+	/**
+	 * Checks that all selected columns are available.
+	 */
+	static void checkColumns(DataResultSetTranslationConfiguration configuration, int[] attributeColumns,
+			int numberOfAvailableColumns) throws UserError {
+		for (int attributeColumn : attributeColumns) {
+			if (attributeColumn >= numberOfAvailableColumns) {
+				throw new UserError(null, "data_import.specified_more_columns_than_exist",
+						configuration.getColumnMetaData(attributeColumn).getUserDefinedAttributeName(), attributeColumn);
+			}
+		}
+	}
+
+	/**
+	 * Registers the values of an annotated row on the attributes. For the name annotation, the
+	 * attributes are renamed.
+	 */
+	static void applyAnnotation(String annotation, String[] values, Attribute[] attributes,
+			DataResultSetTranslationConfiguration configuration, int[] attributeColumns) {
+		List<String> attributeNames = new ArrayList<>();
+		for (int attributeIndex = 0; attributeIndex < attributes.length; attributeIndex++) {
+			Attribute attribute = attributes[attributeIndex];
+			if (AbstractDataResultSetReader.ANNOTATION_NAME.equals(annotation)) {
+				// resetting name
+
+				// going into here, setting the names, maybe add checks here
+
+				String newAttributeName = values[attributeIndex];
+				if (newAttributeName != null && !newAttributeName.isEmpty()) {
+
+					// going into here, setting the names, maybe add checks here
+					String uniqueAttributeName = newAttributeName;
+					int uniqueNameNumber = 1;
+					while (attributeNames.contains(uniqueAttributeName)) {
+						uniqueAttributeName = newAttributeName + "(" + uniqueNameNumber + ")";
+						uniqueNameNumber++;
+					}
+
+					attribute.setName(uniqueAttributeName);
+					attribute.setConstruction(uniqueAttributeName);
+					// We also remember the name in the CMD since we otherwise would
+					// override the attribute name later in this method
+					ColumnMetaData cmd = configuration.getColumnMetaData(attributeColumns[attributeIndex]);
+					if (cmd != null) {
+						if (!cmd.isAttributeNameSpecified()) {
+							cmd.setUserDefinedAttributeName(uniqueAttributeName);
+						}
+					}
+
+				}
+			} else {
+				// setting annotation
+				String annotationValue = values[attributeIndex];
+				if (annotationValue != null && !annotationValue.isEmpty()) {
+					attribute.getAnnotations().put(annotation, annotationValue);
+				}
+			}
+			attributeNames.add(attribute.getName());
+		}
+	}
+
+	/**
+	 * Renames the attributes of the example set as defined by the user and assigns the roles.
+	 */
+	static void applyColumnMetaData(ExampleSet exampleSet, DataResultSetTranslationConfiguration configuration,
+			int[] attributeColumns) {
 		// Copy attribute list to avoid concurrent modification when setting to special
 		List<Attribute> allAttributes = new LinkedList<>();
 		for (Attribute att : exampleSet.getAttributes()) {
@@ -313,12 +352,6 @@ public class DataResultSetTranslator {
 			attributeIndex++;
 			attributeNames.add(attribute.getName());
 		}
-
-		isReading = false;
-		if (listener != null) {
-			listener.complete();
-		}
-		return exampleSet;
 	}
 
 	/**
@@ -0,0 +1,1202 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.nio.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.AttributeTypeException;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.SimpleExampleSet;
+import com.rapidminer.example.table.internal.ColumnarExampleTable;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.UserError;
+import com.rapidminer.operator.nio.model.ParsingError.ErrorCode;
+import com.rapidminer.parameter.UndefinedParameterError;
+import com.rapidminer.studio.concurrency.internal.util.ConcurrencyTools;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.CSVParseException;
+import com.rapidminer.tools.LineParser;
+import com.rapidminer.tools.LogService;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.ParameterService;
+import com.rapidminer.tools.parameter.internal.DataManagementParameterHelper;
+
+
+/**
+ * Reads a local csv file into an {@link ExampleSet} by parsing chunks of the file in parallel. The
+ * result is the same as reading the {@link CSVResultSet} with the {@link DataResultSetTranslator}.
+ * <p>
+ * Like the {@link CSVResultSet}, every line of the file is a record, so chunks can be split after
+ * any line feed. The rows containing annotations are read first on the calling thread. The rest of
+ * the file is split into chunks which are parsed by the {@link ConcurrencyContext} of the operator,
+ * a number of chunks equal to the parallelism at a time. Every chunk is parsed with its own
+ * {@link LineParser} and formats and uses its own dictionary for nominal values. The parsed chunks
+ * are merged in file order on the calling thread, so that the nominal mappings and the reported
+ * errors do not depend on the parallelism.
+ * <p>
+ * If {@link #setTokenizeBytes byte tokenizing} is active, the chunks are read into byte buffers and
+ * tokenized directly on the bytes of the file. Simple decimal numbers are parsed from the bytes,
+ * nominal values are decoded once per chunk and repeated date values are parsed only once. Lines
+ * which the {@link LineParser} would treat specially, i.e. lines containing quotes, escape
+ * characters, comments or whitespace, are decoded and parsed by the {@link LineParser} as before.
+ * Since the encoding must keep the ASCII characters as single bytes, this is supported for UTF-8
+ * and the usual single-byte encodings.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class ParallelCSVReader {
+
+	/** Size of the buffer used to read lines */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/** Minimal number of bytes of a chunk */
+	private static final long MIN_CHUNK_BYTES = 1L << 20;
+
+	/** Maximal number of bytes of a chunk */
+	private static final long MAX_CHUNK_BYTES = 1L << 25;
+
+	/** Number of chunks per thread if this does not violate the minimal or maximal chunk size */
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	/** Initial capacity of the value arrays of a chunk */
+	private static final int INITIAL_ROWS = 1024;
+
+	/** Same limit as in the {@link CSVResultSet} */
+	private static final int MAX_LOG_COUNT = 100;
+
+	private static final int[] UTF8_BOM = { 239, 187, 191 };
+
+	private static final byte LINE_FEED = '\n';
+
+	private static final byte CARRIAGE_RETURN = '\r';
+
+	/**
+	 * Maximal number of digits of a number parsed from bytes. Such numbers and their powers of ten
+	 * are exact doubles, so that one multiplication or division is rounded like
+	 * {@link Double#parseDouble}.
+	 */
+	private static final int MAX_FAST_DIGITS = 15;
+
+	private static final double[] POWERS_OF_TEN = new double[MAX_FAST_DIGITS + 1];
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	/**
+	 * Reads the lines of a byte range of a file in the same way as a
+	 * {@link java.io.BufferedReader}, i.e. a line is terminated by a line feed, a carriage return
+	 * or a carriage return followed by a line feed.
+	 */
+	private static final class LineScanner {
+
+		private final FileChannel channel;
+		private final Charset charset;
+		private final long end;
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+		/** the position in the file of the first byte after the buffer content */
+		private long bufferEnd;
+		private byte[] line = new byte[256];
+		private boolean skipLineFeed = false;
+
+		private LineScanner(FileChannel channel, Charset charset, long start, long end) {
+			this.channel = channel;
+			this.charset = charset;
+			this.end = end;
+			this.bufferEnd = start;
+			buffer.limit(0);
+		}
+
+		/**
+		 * @return the next line or {@code null} if the end of the range is reached
+		 */
+		private String readLine() throws IOException {
+			int length = 0;
+			while (true) {
+				if (!buffer.hasRemaining() && !fill()) {
+					return length > 0 ? new String(line, 0, length, charset) : null;
+				}
+				byte b = buffer.get();
+				if (skipLineFeed) {
+					skipLineFeed = false;
+					if (b == LINE_FEED) {
+						continue;
+					}
+				}
+				if (b == LINE_FEED || b == CARRIAGE_RETURN) {
+					skipLineFeed = b == CARRIAGE_RETURN;
+					return new String(line, 0, length, charset);
+				}
+				if (length == line.length) {
+					line = Arrays.copyOf(line, 2 * length);
+				}
+				line[length++] = b;
+			}
+		}
+
+		/**
+		 * @return the position in the file of the next byte to read
+		 */
+		private long getPosition() {
+			return bufferEnd - buffer.remaining();
+		}
+
+		private boolean fill() throws IOException {
+			if (bufferEnd >= end) {
+				return false;
+			}
+			buffer.clear();
+			buffer.limit((int) Math.min(BUFFER_SIZE, end - bufferEnd));
+			while (buffer.hasRemaining()) {
+				int read = channel.read(buffer, bufferEnd + buffer.position());
+				if (read < 0) {
+					break;
+				}
+			}
+			buffer.flip();
+			bufferEnd += buffer.limit();
+			return buffer.hasRemaining();
+		}
+
+	}
+
+	/**
+	 * Hash map from byte sequences of a buffer to codes which does not create an object per lookup.
+	 */
+	private static final class ByteDictionary {
+
+		private int[] table = new int[64];
+		private byte[] keys = new byte[1024];
+		private int keysLength = 0;
+		private int[] offsets = new int[32];
+		private int[] lengths = new int[32];
+		private int[] hashes = new int[32];
+		private int[] codes = new int[32];
+		private int size = 0;
+
+		/**
+		 * @return the code of the bytes or -1 if they are not contained
+		 */
+		private int get(ByteBuffer buffer, int from, int to, int hash) {
+			int mask = table.length - 1;
+			for (int slot = hash & mask;; slot = slot + 1 & mask) {
+				int entry = table[slot] - 1;
+				if (entry < 0) {
+					return -1;
+				}
+				if (hashes[entry] == hash && equals(entry, buffer, from, to)) {
+					return codes[entry];
+				}
+			}
+		}
+
+		private boolean equals(int entry, ByteBuffer buffer, int from, int to) {
+			if (lengths[entry] != to - from) {
+				return false;
+			}
+			int offset = offsets[entry];
+			for (int i = from; i < to; i++) {
+				if (keys[offset++] != buffer.get(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Adds the bytes which must not be contained yet.
+		 */
+		private void put(ByteBuffer buffer, int from, int to, int hash, int code) {
+			if (size == offsets.length) {
+				offsets = Arrays.copyOf(offsets, 2 * size);
+				lengths = Arrays.copyOf(lengths, 2 * size);
+				hashes = Arrays.copyOf(hashes, 2 * size);
+				codes = Arrays.copyOf(codes, 2 * size);
+			}
+			int length = to - from;
+			if (keysLength + length > keys.length) {
+				keys = Arrays.copyOf(keys, Math.max(2 * keys.length, keysLength + length));
+			}
+			for (int i = from; i < to; i++) {
+				keys[keysLength + i - from] = buffer.get(i);
+			}
+			offsets[size] = keysLength;
+			lengths[size] = length;
+			hashes[size] = hash;
+			codes[size] = code;
+			keysLength += length;
+			size++;
+			if (2 * size > table.length) {
+				table = new int[2 * table.length];
+				for (int entry = 0; entry < size - 1; entry++) {
+					insert(entry);
+				}
+			}
+			insert(size - 1);
+		}
+
+		private void insert(int entry) {
+			int mask = table.length - 1;
+			int slot = hashes[entry] & mask;
+			while (table[slot] != 0) {
+				slot = slot + 1 & mask;
+			}
+			table[slot] = entry + 1;
+		}
+
+		private static int hash(ByteBuffer buffer, int from, int to) {
+			int hash = 1;
+			for (int i = from; i < to; i++) {
+				hash = 31 * hash + buffer.get(i);
+			}
+			// spread the bits since the table size is a power of two
+			return hash ^ hash >>> 16;
+		}
+
+	}
+
+	/**
+	 * The result of parsing a chunk of the file. Record and row indices are relative to the start
+	 * of the chunk.
+	 */
+	private static final class ParsedChunk {
+
+		/** the position in the file after the chunk */
+		private long end;
+
+		/** the number of records, including annotations and unparseable lines */
+		private int records;
+
+		/** the number of data rows */
+		private int rows;
+
+		/** the values per attribute, the local dictionary index for nominal attributes */
+		private double[][] values;
+
+		/** the local dictionaries of the nominal attributes in order of first occurrence */
+		private List<List<String>> dictionaries;
+
+		/** the record of the first occurrence of each dictionary entry */
+		private int[][] firstRecords;
+
+		private final List<String> annotations = new ArrayList<>();
+		private final List<String[]> annotationValues = new ArrayList<>();
+
+		private final List<Integer> unparseableRecords = new ArrayList<>();
+		private final List<String> unparseableMessages = new ArrayList<>();
+
+		/** the first parsing error, only recorded if not fault tolerant */
+		private ParsingError error;
+		private int errorRecord = -1;
+		private int errorAttribute;
+
+	}
+
+	/**
+	 * Parses the records of one chunk into a {@link ParsedChunk}. Records are either added as lines
+	 * which are parsed by the {@link LineParser} or as byte ranges of a buffer.
+	 */
+	private final class ChunkParser {
+
+		private final ParsedChunk chunk = new ParsedChunk();
+		private final boolean withAnnotations;
+		private final LineParser parser;
+		private final NumberFormat numberFormat;
+		private final DateFormat dateFormat;
+		private final List<Map<String, Integer>> indices;
+		private final int maxAnnotatedRow;
+		private int capacity = INITIAL_ROWS;
+
+		private ByteDictionary[] byteIndices;
+		private byte[][] lastDates;
+		private int[] lastDateLengths;
+		private double[] lastDateValues;
+		private int[] fieldStarts;
+		private int[] fieldEnds;
+		private byte[] scratch;
+
+		/**
+		 * @param withAnnotations
+		 *            whether the chunk starts with the first record and may contain annotated rows
+		 */
+		private ChunkParser(boolean withAnnotations) throws OperatorException {
+			this.withAnnotations = withAnnotations;
+			parser = new LineParser(csvConfiguration);
+			NumberFormat format = configuration.getNumberFormat();
+			numberFormat = format == null ? null : (NumberFormat) format.clone();
+			dateFormat = configuration.getDateFormat();
+			maxAnnotatedRow = configuration.getLastAnnotatedRowIndex();
+
+			chunk.values = new double[attributes.length][capacity];
+			chunk.dictionaries = new ArrayList<>(attributes.length);
+			chunk.firstRecords = new int[attributes.length][];
+			indices = new ArrayList<>(attributes.length);
+			for (int i = 0; i < attributes.length; i++) {
+				chunk.dictionaries.add(nominal[i] ? new ArrayList<>() : null);
+				chunk.firstRecords[i] = nominal[i] ? new int[16] : null;
+				indices.add(nominal[i] ? new HashMap<>() : null);
+			}
+		}
+
+		/**
+		 * Prepares the parser for {@link #addBytes}.
+		 */
+		private void initializeBytes() {
+			byteIndices = new ByteDictionary[attributes.length];
+			lastDates = new byte[attributes.length][];
+			lastDateLengths = new int[attributes.length];
+			lastDateValues = new double[attributes.length];
+			for (int i = 0; i < attributes.length; i++) {
+				if (nominal[i]) {
+					byteIndices[i] = new ByteDictionary();
+				} else if (isDate(attributes[i])) {
+					lastDates[i] = new byte[32];
+					lastDateLengths[i] = -1;
+				}
+			}
+			int numberOfFields = attributeColumns.length == 0 ? 1 : attributeColumns[attributeColumns.length - 1] + 1;
+			fieldStarts = new int[numberOfFields];
+			fieldEnds = new int[numberOfFields];
+			scratch = new byte[256];
+		}
+
+		/**
+		 * @return whether parsing should continue
+		 */
+		private boolean isRunning() {
+			return chunk.error == null;
+		}
+
+		/**
+		 * Parses the line with the {@link LineParser} and adds it.
+		 */
+		private void addLine(String line) {
+			String[] record;
+			try {
+				record = parser.parse(line);
+				if (record == null) {
+					// comment or empty line
+					return;
+				}
+			} catch (CSVParseException e) {
+				chunk.unparseableRecords.add(chunk.records);
+				chunk.unparseableMessages.add(e.toString());
+				record = new String[] { line };
+			}
+			int recordIndex = chunk.records++;
+
+			String annotation = withAnnotations && recordIndex <= maxAnnotatedRow ? configuration.getAnnotation(recordIndex)
+					: null;
+			if (annotation != null) {
+				String[] values = new String[attributes.length];
+				for (int i = 0; i < attributes.length; i++) {
+					values[i] = attributeColumns[i] < record.length ? record[attributeColumns[i]] : null;
+				}
+				chunk.annotations.add(annotation);
+				chunk.annotationValues.add(values);
+				return;
+			}
+
+			int row = addRow();
+			for (int i = 0; i < attributes.length && isRunning(); i++) {
+				int column = attributeColumns[i];
+				setValue(i, row, recordIndex, column < record.length ? record[column] : null);
+			}
+		}
+
+		/**
+		 * Adds the line given by the bytes from {@code from} (inclusive) to {@code to} (exclusive)
+		 * of the buffer. Only lines without bytes that have a special meaning for the
+		 * {@link LineParser} are tokenized on the bytes, all other lines are decoded and passed to
+		 * {@link #addLine(String)}.
+		 */
+		private void addBytes(ByteBuffer buffer, int from, int to) {
+			if (from == to) {
+				// empty line
+				return;
+			}
+			int fields = 0;
+			int fieldStart = from;
+			for (int position = from; position < to; position++) {
+				byte b = buffer.get(position);
+				if (b == separator) {
+					if (fields < fieldStarts.length) {
+						fieldStarts[fields] = fieldStart;
+						fieldEnds[fields] = position;
+					}
+					fields++;
+					fieldStart = position + 1;
+				} else if (b >= 0 && (b <= ' ' || specialBytes[b])) {
+					addLine(decode(buffer, from, to));
+					return;
+				}
+			}
+			if (fields < fieldStarts.length) {
+				fieldStarts[fields] = fieldStart;
+				fieldEnds[fields] = to;
+			}
+			fields++;
+
+			int recordIndex = chunk.records++;
+			int row = addRow();
+			for (int i = 0; i < attributes.length && isRunning(); i++) {
+				int column = attributeColumns[i];
+				if (column >= fields || fieldStarts[column] == fieldEnds[column]) {
+					chunk.values[i][row] = Double.NaN;
+				} else {
+					setValue(i, row, recordIndex, buffer, fieldStarts[column], fieldEnds[column]);
+				}
+			}
+		}
+
+		private int addRow() {
+			if (chunk.rows == capacity) {
+				capacity *= 2;
+				for (int i = 0; i < attributes.length; i++) {
+					chunk.values[i] = Arrays.copyOf(chunk.values[i], capacity);
+				}
+			}
+			return chunk.rows++;
+		}
+
+		/**
+		 * Sets the value of the attribute with the given index in the same way as the
+		 * {@link DataResultSetTranslator}.
+		 */
+		private void setValue(int attributeIndex, int row, int record, String value) {
+			double parsed;
+			if (value == null || value.isEmpty()) {
+				parsed = Double.NaN;
+			} else if (nominal[attributeIndex]) {
+				parsed = getCode(attributeIndex, record, value);
+			} else if (isDate(attributes[attributeIndex])) {
+				try {
+					parsed = dateFormat.parse(value).getTime();
+				} catch (ParseException e) {
+					parsed = Double.NaN;
+					addError(record, attributeIndex, 1, ErrorCode.UNPARSEABLE_DATE, value, e);
+				}
+			} else if (numberFormat != null) {
+				try {
+					Number number = numberFormat.parse(value);
+					parsed = number == null ? Double.NaN : number.doubleValue();
+				} catch (ParseException e) {
+					parsed = Double.NaN;
+					addError(record, attributeIndex, 1, ErrorCode.UNPARSEABLE_REAL, value, e);
+				}
+			} else {
+				try {
+					parsed = Double.parseDouble(value);
+				} catch (NumberFormatException e) {
+					parsed = Double.NaN;
+					addError(record, attributeIndex, 0, ErrorCode.UNPARSEABLE_REAL, value, e);
+				}
+			}
+			chunk.values[attributeIndex][row] = parsed;
+		}
+
+		/**
+		 * Sets the value of the attribute with the given index from the non-empty byte range. Falls
+		 * back to {@link #setValue(int, int, int, String)} if the value cannot be handled on the
+		 * bytes.
+		 */
+		private void setValue(int attributeIndex, int row, int record, ByteBuffer buffer, int from, int to) {
+			if (nominal[attributeIndex]) {
+				ByteDictionary byteIndex = byteIndices[attributeIndex];
+				int hash = ByteDictionary.hash(buffer, from, to);
+				int code = byteIndex.get(buffer, from, to, hash);
+				if (code < 0) {
+					code = getCode(attributeIndex, record, decode(buffer, from, to));
+					byteIndex.put(buffer, from, to, hash, code);
+				}
+				chunk.values[attributeIndex][row] = code;
+			} else if (isDate(attributes[attributeIndex])) {
+				int length = to - from;
+				byte[] lastDate = lastDates[attributeIndex];
+				if (length == lastDateLengths[attributeIndex] && contentEquals(lastDate, buffer, from, to)) {
+					chunk.values[attributeIndex][row] = lastDateValues[attributeIndex];
+					return;
+				}
+				setValue(attributeIndex, row, record, decode(buffer, from, to));
+				if (isRunning() && !Double.isNaN(chunk.values[attributeIndex][row])) {
+					// remember successfully parsed dates
+					if (length > lastDate.length) {
+						lastDate = new byte[length];
+						lastDates[attributeIndex] = lastDate;
+					}
+					for (int i = from; i < to; i++) {
+						lastDate[i - from] = buffer.get(i);
+					}
+					lastDateLengths[attributeIndex] = length;
+					lastDateValues[attributeIndex] = chunk.values[attributeIndex][row];
+				}
+			} else {
+				double parsed = decimalSeparator == 0 ? Double.NaN : parseDecimal(buffer, from, to, decimalSeparator);
+				if (Double.isNaN(parsed)) {
+					setValue(attributeIndex, row, record, decode(buffer, from, to));
+				} else {
+					chunk.values[attributeIndex][row] = parsed;
+				}
+			}
+		}
+
+		/**
+		 * @return the local dictionary code of the nominal value
+		 */
+		private int getCode(int attributeIndex, int record, String value) {
+			Map<String, Integer> index = indices.get(attributeIndex);
+			Integer code = index.get(value);
+			if (code == null) {
+				List<String> dictionary = chunk.dictionaries.get(attributeIndex);
+				code = dictionary.size();
+				dictionary.add(value);
+				index.put(value, code);
+				int[] firstRecords = chunk.firstRecords[attributeIndex];
+				if (code == firstRecords.length) {
+					firstRecords = Arrays.copyOf(firstRecords, 2 * code);
+					chunk.firstRecords[attributeIndex] = firstRecords;
+				}
+				firstRecords[code] = record;
+			}
+			return code;
+		}
+
+		/**
+		 * Records the error with its row relative to the chunk if the configuration is not fault
+		 * tolerant. The row is corrected when merging. The {@link DataResultSetTranslator} reports
+		 * the row of unparseable numbers with offset 1 only if a number format is used.
+		 */
+		private void addError(int record, int attributeIndex, int rowOffset, ErrorCode code, String value,
+				Exception cause) {
+			if (!faultTolerant && chunk.error == null) {
+				chunk.error = new ParsingError(record + rowOffset, attributeColumns[attributeIndex], code, value, cause);
+				chunk.errorRecord = record;
+				chunk.errorAttribute = attributeIndex;
+			}
+		}
+
+		private String decode(ByteBuffer buffer, int from, int to) {
+			int length = to - from;
+			if (length > scratch.length) {
+				scratch = new byte[Math.max(length, 2 * scratch.length)];
+			}
+			for (int i = from; i < to; i++) {
+				scratch[i - from] = buffer.get(i);
+			}
+			return new String(scratch, 0, length, csvConfiguration.getEncoding());
+		}
+
+	}
+
+	private final Operator operator;
+	private final ConcurrencyContext context;
+	private final CSVResultSetConfiguration csvConfiguration;
+	private final DataResultSetTranslationConfiguration configuration;
+	private final long maxChunkBytes;
+	private final int numberOfColumns;
+
+	private final boolean faultTolerant;
+	private final int[] attributeColumns;
+	private Attribute[] attributes;
+	private boolean[] nominal;
+	private int logCount = 0;
+
+	private boolean tokenizeBytes = false;
+
+	/** the column separator as byte or 0 if lines cannot be tokenized on bytes */
+	private byte separator;
+
+	/** the ASCII bytes with a special meaning for the {@link LineParser} */
+	private boolean[] specialBytes;
+
+	/** the decimal separator as byte or 0 if numbers cannot be parsed on bytes */
+	private byte decimalSeparator;
+
+	/**
+	 * Creates a reader for the file of the result set which uses the {@link ConcurrencyContext} of
+	 * the operator. Use {@link #isSupported(DataResultSet)} to check whether the result set can be
+	 * read.
+	 *
+	 * @param operator
+	 *            the operator reading the file
+	 * @param dataResultSet
+	 *            the result set of the file
+	 * @param configuration
+	 *            the complete translation configuration
+	 */
+	public ParallelCSVReader(Operator operator, CSVResultSet dataResultSet,
+			DataResultSetTranslationConfiguration configuration) {
+		this(operator, Resources.getConcurrencyContext(operator), dataResultSet, configuration, MAX_CHUNK_BYTES);
+	}
+
+	/**
+	 * Creates a reader using the given context and maximal chunk size.
+	 *
+	 * @param context
+	 *            the context to parse the chunks with or {@code null} to parse them on the calling
+	 *            thread
+	 * @param maxChunkBytes
+	 *            the maximal number of bytes per chunk
+	 */
+	ParallelCSVReader(Operator operator, ConcurrencyContext context, CSVResultSet dataResultSet,
+			DataResultSetTranslationConfiguration configuration, long maxChunkBytes) {
+		this.operator = operator;
+		this.context = context;
+		this.csvConfiguration = dataResultSet.getConfiguration();
+		this.configuration = configuration;
+		this.maxChunkBytes = maxChunkBytes;
+		this.numberOfColumns = dataResultSet.getNumberOfColumns();
+		this.faultTolerant = configuration.isFaultTolerant();
+		this.attributeColumns = configuration.getSelectedIndices();
+	}
+
+	/**
+	 * Sets whether the chunks are tokenized on the bytes of the file instead of being decoded line
+	 * by line. Default is {@code false}.
+	 *
+	 * @param tokenizeBytes
+	 *            whether to tokenize on bytes
+	 */
+	public void setTokenizeBytes(boolean tokenizeBytes) {
+		this.tokenizeBytes = tokenizeBytes;
+	}
+
+	/**
+	 * Checks whether the result set can be read by this reader. This is the case for a
+	 * {@link CSVResultSet} reading a local file with an encoding in which line feeds and carriage
+	 * returns are single bytes that cannot be part of other characters, if the legacy data
+	 * management is not active.
+	 *
+	 * @param dataResultSet
+	 *            the result set to check
+	 * @return whether the result set can be read in parallel
+	 */
+	public static boolean isSupported(DataResultSet dataResultSet) {
+		if (dataResultSet == null || dataResultSet.getClass() != CSVResultSet.class) {
+			return false;
+		}
+		if (Boolean.parseBoolean(ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT))) {
+			return false;
+		}
+		CSVResultSetConfiguration csvConfiguration = ((CSVResultSet) dataResultSet).getConfiguration();
+		String csvFile = csvConfiguration.getCsvFile();
+		if (csvFile == null) {
+			return false;
+		}
+		try {
+			new URL(csvFile);
+			// read as url by the result set
+			return false;
+		} catch (MalformedURLException e) {
+			if (!new File(csvFile).isFile()) {
+				return false;
+			}
+		}
+		Charset encoding = csvConfiguration.getEncoding();
+		if (StandardCharsets.UTF_8.equals(encoding)) {
+			return true;
+		}
+		return encoding.canEncode() && encoding.newEncoder().maxBytesPerChar() == 1
+				&& Arrays.equals(new byte[] { LINE_FEED, CARRIAGE_RETURN }, "\n\r".getBytes(encoding));
+	}
+
+	/**
+	 * Reads the file into an example set.
+	 *
+	 * @return the example set
+	 * @throws OperatorException
+	 *             if the file cannot be read or a value cannot be parsed and the configuration is
+	 *             not fault tolerant
+	 */
+	public ExampleSet read() throws OperatorException {
+		attributes = DataResultSetTranslator.createAttributes(configuration, attributeColumns);
+		DataResultSetTranslator.checkColumns(configuration, attributeColumns, numberOfColumns);
+		nominal = new boolean[attributes.length];
+		for (int i = 0; i < attributes.length; i++) {
+			nominal[i] = !isNumerical(attributes[i]) && !isDate(attributes[i]);
+		}
+		// initializes the thread local date format before it is used by the workers
+		configuration.getDateFormat();
+		if (tokenizeBytes) {
+			initializeByteTokenizing();
+		}
+
+		DataManagement management = DataManagement.AUTO;
+		if (operator != null) {
+			try {
+				management = DataManagementParameterHelper.getSelectedDataManagement(operator);
+			} catch (UndefinedParameterError e) {
+				// use auto mode
+			}
+		}
+		ColumnarExampleTable table = new ColumnarExampleTable(Arrays.asList(attributes), management, true);
+
+		String csvFile = csvConfiguration.getCsvFile();
+		try (FileChannel channel = FileChannel.open(new File(csvFile).toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (operator != null) {
+				operator.getProgress().setTotal(100);
+			}
+			long position = skipByteOrderMark(channel);
+			int recordOffset = 0;
+
+			// the annotated rows must be read before the data rows
+			int headRecords = configuration.getLastAnnotatedRowIndex() + 1;
+			if (headRecords > 0) {
+				ParsedChunk head = parseLines(channel, position, size, headRecords, true);
+				merge(table, head, recordOffset);
+				recordOffset += head.records;
+				position = head.end;
+			}
+
+			int parallelism = context == null ? 1 : Math.max(1, context.getParallelism());
+			long chunkBytes = Math.max(Math.min(MIN_CHUNK_BYTES, maxChunkBytes),
+					Math.min(maxChunkBytes, (size - position) / ((long) parallelism * CHUNKS_PER_THREAD)));
+			while (position < size) {
+				checkForStop();
+				List<Callable<ParsedChunk>> tasks = new ArrayList<>(parallelism);
+				for (int i = 0; i < parallelism && position < size; i++) {
+					long start = position;
+					long end = findLineStart(channel, Math.min(size, start + chunkBytes), size);
+					tasks.add(() -> {
+						try {
+							if (separator != 0 && end - start <= Integer.MAX_VALUE) {
+								return parseBytes(channel, start, end);
+							}
+							return parseLines(channel, start, end, Integer.MAX_VALUE, false);
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					});
+					position = end;
+				}
+				for (ParsedChunk chunk : parse(tasks)) {
+					merge(table, chunk, recordOffset);
+					recordOffset += chunk.records;
+				}
+				if (operator != null && size > 0) {
+					operator.getProgress().setCompleted((int) (100 * position / size));
+				}
+			}
+		} catch (IOException e) {
+			throw new UserError(operator, e, 321, csvFile, e.toString());
+		}
+
+		table.complete();
+		ExampleSet exampleSet = new SimpleExampleSet(table);
+		DataResultSetTranslator.applyColumnMetaData(exampleSet, configuration, attributeColumns);
+		return exampleSet;
+	}
+
+	/**
+	 * Determines the separator, special bytes and decimal separator for tokenizing on bytes. Leaves
+	 * the separator at 0 if the configuration does not allow this.
+	 */
+	private void initializeByteTokenizing() {
+		separator = 0;
+		String separators = csvConfiguration.getColumnSeparators();
+		Charset encoding = csvConfiguration.getEncoding();
+		// longer separators are regular expressions
+		if (separators == null || separators.length() != 1 || !isAsciiCompatible(encoding)) {
+			return;
+		}
+		specialBytes = new boolean[128];
+		List<Character> special = new ArrayList<>();
+		special.add(csvConfiguration.getEscapeCharacter());
+		if (csvConfiguration.isUseQuotes()) {
+			special.add(csvConfiguration.getQuoteCharacter());
+		}
+		if (csvConfiguration.isSkipComments() && csvConfiguration.getCommentCharacters() != null) {
+			for (char c : csvConfiguration.getCommentCharacters().toCharArray()) {
+				special.add(c);
+			}
+		}
+		char separatorChar = separators.charAt(0);
+		for (char c : special) {
+			if (c >= specialBytes.length || c == separatorChar) {
+				// cannot be detected on the bytes
+				return;
+			}
+			specialBytes[c] = true;
+		}
+		if (separatorChar <= ' ' || separatorChar >= specialBytes.length) {
+			return;
+		}
+		separator = (byte) separatorChar;
+		decimalSeparator = getDecimalSeparator(configuration.getNumberFormat());
+	}
+
+	/**
+	 * @return the decimal separator if plain numbers like {@code -12.5} are parsed by the format as
+	 *         by {@link Double#parseDouble} with this decimal separator, 0 otherwise
+	 */
+	private static byte getDecimalSeparator(NumberFormat format) {
+		if (format == null) {
+			return '.';
+		}
+		if (!(format instanceof DecimalFormat)) {
+			return 0;
+		}
+		DecimalFormat decimalFormat = (DecimalFormat) format;
+		DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+		char decimal = symbols.getDecimalSeparator();
+		if (decimalFormat.getMultiplier() != 1 || decimalFormat.isParseBigDecimal() || decimalFormat.isParseIntegerOnly()
+				|| !decimalFormat.getPositivePrefix().isEmpty() || !decimalFormat.getPositiveSuffix().isEmpty()
+				|| !"-".equals(decimalFormat.getNegativePrefix()) || !decimalFormat.getNegativeSuffix().isEmpty()
+				|| symbols.getZeroDigit() != '0' || decimal <= ' ' || decimal >= 128 || decimal == '-'
+				|| decimal >= '0' && decimal <= '9'
+				|| decimalFormat.isGroupingUsed() && symbols.getGroupingSeparator() == decimal) {
+			return 0;
+		}
+		return (byte) decimal;
+	}
+
+	/**
+	 * @return whether the ASCII characters are encoded as single bytes with the same value
+	 */
+	private static boolean isAsciiCompatible(Charset encoding) {
+		byte[] ascii = new byte[128 - ' '];
+		for (int i = 0; i < ascii.length; i++) {
+			ascii[i] = (byte) (i + ' ');
+		}
+		return Arrays.equals(ascii, new String(ascii, StandardCharsets.US_ASCII).getBytes(encoding));
+	}
+
+	/**
+	 * Parses the chunks with the context or on the calling thread if there is no context. The
+	 * tasks wrap {@link IOException}s into {@link UncheckedIOException}s, which are unwrapped here.
+	 */
+	private List<ParsedChunk> parse(List<Callable<ParsedChunk>> tasks) throws OperatorException, IOException {
+		try {
+			return ConcurrencyTools.call(context, tasks, OperatorException.class);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Parses the records in the given range of the file line by line.
+	 *
+	 * @param maxRecords
+	 *            the number of records after which to stop
+	 * @param withAnnotations
+	 *            whether the range starts with the first record and may contain annotated rows
+	 */
+	private ParsedChunk parseLines(FileChannel channel, long start, long end, int maxRecords, boolean withAnnotations)
+			throws IOException, OperatorException {
+		LineScanner scanner = new LineScanner(channel, csvConfiguration.getEncoding(), start, end);
+		ChunkParser parser = new ChunkParser(withAnnotations);
+		String line;
+		while (parser.chunk.records < maxRecords && parser.isRunning() && (line = scanner.readLine()) != null) {
+			parser.addLine(line);
+		}
+		parser.chunk.end = scanner.getPosition();
+		return parser.chunk;
+	}
+
+	/**
+	 * Reads the given range of the file into a byte buffer and parses its lines on the bytes. The
+	 * range must start at the beginning of a line. The range is read rather than memory-mapped,
+	 * since a mapping keeps the file locked on some platforms until it is garbage collected.
+	 */
+	private ParsedChunk parseBytes(FileChannel channel, long start, long end) throws IOException, OperatorException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, start + buffer.position()) < 0) {
+				break;
+			}
+		}
+		buffer.flip();
+		ChunkParser parser = new ChunkParser(false);
+		parser.initializeBytes();
+		int length = buffer.limit();
+		int lineStart = 0;
+		boolean skipLineFeed = false;
+		for (int position = 0; position < length && parser.isRunning(); position++) {
+			byte b = buffer.get(position);
+			if (b == LINE_FEED || b == CARRIAGE_RETURN) {
+				if (skipLineFeed && b == LINE_FEED && position == lineStart) {
+					// second byte of a carriage return line feed
+					lineStart = position + 1;
+					skipLineFeed = false;
+					continue;
+				}
+				parser.addBytes(buffer, lineStart, position);
+				skipLineFeed = b == CARRIAGE_RETURN;
+				lineStart = position + 1;
+			} else {
+				skipLineFeed = false;
+			}
+		}
+		if (lineStart < length && parser.isRunning()) {
+			parser.addBytes(buffer, lineStart, length);
+		}
+		parser.chunk.end = end;
+		return parser.chunk;
+	}
+
+	/**
+	 * Adds the parsed chunk to the table. Registers the annotations, maps the local dictionaries to
+	 * the attribute mappings and logs the unparseable lines.
+	 *
+	 * @param recordOffset
+	 *            the number of records before the chunk
+	 * @throws UserError
+	 *             if the chunk contains an error and the configuration is not fault tolerant
+	 */
+	private void merge(ColumnarExampleTable table, ParsedChunk chunk, int recordOffset) throws UserError {
+		for (int i = 0; i < chunk.annotations.size(); i++) {
+			DataResultSetTranslator.applyAnnotation(chunk.annotations.get(i), chunk.annotationValues.get(i), attributes,
+					configuration, attributeColumns);
+		}
+		for (int i = 0; i < chunk.unparseableRecords.size(); i++) {
+			logUnparseable(recordOffset + chunk.unparseableRecords.get(i) - 1, chunk.unparseableMessages.get(i));
+		}
+
+		ParsingError error = chunk.error;
+		int errorRecord = chunk.errorRecord;
+		int errorAttribute = chunk.errorAttribute;
+		if (error != null) {
+			error = new ParsingError(recordOffset + error.getRow(), error.getColumn(), error.getErrorCode(),
+					error.getOriginalValue(), error.getCause());
+		}
+		double[][] lookups = new double[attributes.length][];
+		for (int i = 0; i < attributes.length; i++) {
+			if (!nominal[i]) {
+				continue;
+			}
+			List<String> dictionary = chunk.dictionaries.get(i);
+			double[] lookup = new double[dictionary.size()];
+			for (int code = 0; code < lookup.length; code++) {
+				String value = dictionary.get(code);
+				try {
+					lookup[code] = attributes[i].getMapping().mapString(value);
+				} catch (AttributeTypeException e) {
+					lookup[code] = Double.NaN;
+					int record = chunk.firstRecords[i][code];
+					if (!faultTolerant && (error == null || record < errorRecord
+							|| record == errorRecord && i < errorAttribute)) {
+						error = new ParsingError(recordOffset + record + 1, attributeColumns[i],
+								ErrorCode.MORE_THAN_TWO_VALUES, value, e);
+						errorRecord = record;
+						errorAttribute = i;
+					}
+				}
+			}
+			lookups[i] = lookup;
+		}
+		if (error != null) {
+			throw new UserError(operator, 403, error.toString());
+		}
+
+		int from = table.size();
+		table.addBlankRows(chunk.rows);
+		int to = table.size();
+		for (int i = 0; i < attributes.length; i++) {
+			double[] values = chunk.values[i];
+			if (nominal[i]) {
+				double[] lookup = lookups[i];
+				table.fillColumn(attributes[i], from, to, row -> {
+					double code = values[row - from];
+					return Double.isNaN(code) ? Double.NaN : lookup[(int) code];
+				});
+			} else {
+				table.fillColumn(attributes[i], from, to, row -> values[row - from]);
+			}
+		}
+	}
+
+	/**
+	 * Logs the warning for an unparseable line in the same way as the {@link CSVResultSet}.
+	 */
+	private void logUnparseable(int row, String message) {
+		String warning;
+		if (logCount < MAX_LOG_COUNT) {
+			warning = "Could not parse line " + row + " in input: " + message;
+		} else if (logCount == MAX_LOG_COUNT) {
+			warning = "Maximum number of warnings exceeded. Will display no further warnings.";
+		} else {
+			warning = null;
+		}
+		if (warning != null) {
+			if (operator != null) {
+				operator.logWarning(warning);
+			} else {
+				LogService.getRoot().warning(warning);
+			}
+		}
+		logCount++;
+	}
+
+	/**
+	 * @return the position after the UTF-8 byte order mark if the encoding is UTF-8 and the file
+	 *         starts with it, otherwise 0
+	 */
+	private long skipByteOrderMark(FileChannel channel) throws IOException {
+		if (!StandardCharsets.UTF_8.equals(csvConfiguration.getEncoding())) {
+			return 0;
+		}
+		ByteBuffer start = ByteBuffer.allocate(UTF8_BOM.length);
+		while (start.hasRemaining() && channel.read(start, start.position()) >= 0) {
+			// read until full or end of file
+		}
+		if (start.position() < UTF8_BOM.length) {
+			return 0;
+		}
+		for (int i = 0; i < UTF8_BOM.length; i++) {
+			if ((start.get(i) & 0xFF) != UTF8_BOM[i]) {
+				return 0;
+			}
+		}
+		return UTF8_BOM.length;
+	}
+
+	/**
+	 * @return the position after the first line feed at or after the given position or the end of
+	 *         the file if there is none
+	 */
+	private static long findLineStart(FileChannel channel, long position, long size) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		long current = position;
+		while (current < size) {
+			buffer.clear();
+			int read = channel.read(buffer, current);
+			if (read <= 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == LINE_FEED) {
+					return current + i + 1;
+				}
+			}
+			current += read;
+		}
+		return size;
+	}
+
+	/**
+	 * Parses numbers of the form {@code -12.5} with at most {@value #MAX_FAST_DIGITS} digits.
+	 *
+	 * @return the number or {@link Double#NaN} if the bytes are not of this form
+	 */
+	static double parseDecimal(ByteBuffer buffer, int from, int to, byte decimalSeparator) {
+		int position = from;
+		boolean negative = buffer.get(position) == '-';
+		if (negative) {
+			position++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int fractionDigits = 0;
+		boolean fraction = false;
+		for (; position < to; position++) {
+			byte b = buffer.get(position);
+			if (b >= '0' && b <= '9') {
+				if (++digits > MAX_FAST_DIGITS) {
+					return Double.NaN;
+				}
+				mantissa = 10 * mantissa + b - '0';
+				if (fraction) {
+					fractionDigits++;
+				}
+			} else if (b == decimalSeparator && !fraction) {
+				fraction = true;
+			} else {
+				return Double.NaN;
+			}
+		}
+		if (digits == 0) {
+			return Double.NaN;
+		}
+		double value = fractionDigits == 0 ? mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+		return negative ? -value : value;
+	}
+
+	private static boolean contentEquals(byte[] bytes, ByteBuffer buffer, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (bytes[i - from] != buffer.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void checkForStop() throws OperatorException {
+		if (operator != null) {
+			Process process = operator.getProcess();
+			if (process != null && process.getProcessState() == Process.PROCESS_STATE_RUNNING) {
+				operator.checkForStop();
+			}
+		}
+	}
+
+	private static boolean isNumerical(Attribute attribute) {
+		switch (attribute.getValueType()) {
+			case Ontology.INTEGER:
+			case Ontology.NUMERICAL:
+			case Ontology.REAL:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	private static boolean isDate(Attribute attribute) {
+		switch (attribute.getValueType()) {
+			case Ontology.DATE_TIME:
+			case Ontology.TIME:
+			case Ontology.DATE:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+}
@@ -124,6 +124,9 @@ public class XlsxResultSet implements DataResultSet {
 	/** The StAX parser which parses the worksheet content. */
 	private final XlsxSheetContentParser worksheetParser;
 
+	/** The shared strings table which is read along with the worksheet content. */
+	private final XlsxSharedStrings sharedStrings;
+
 	/**
 	 * The {@link DateFormatProvider} used to parse cells that contain date entries
 	 */
@@ -201,24 +204,25 @@ public class XlsxResultSet implements DataResultSet {
 			// as UTF-8 is default XLSX encoding: https://msdn.microsoft.com/en-us/library/bb507946
 			Charset encoding = StandardCharsets.UTF_8;
 
-			// Parse shared strings file (only if it exists)
-			String[] sharedStrings = new String[0];
-			if (workbookRelations.sharedStringsPath != null) {
-				sharedStrings = new XlsxSharedStringsParser(xlsxFile, workbookRelations.sharedStringsPath,
-						XML_STREAM_FACTORY).parseSharedStrings(callingOperator, encoding);
-
-			}
+			// Open shared strings file (only if it exists). Strings are parsed on demand while
+			// reading the worksheet and written to disk if they exceed the configured memory limit.
+			this.sharedStrings = new XlsxSharedStrings(xlsxFile, workbookRelations.sharedStringsPath, XML_STREAM_FACTORY,
+					encoding, XlsxSharedStrings.getConfiguredMemoryLimit());
+			try {
+				// Parse styles file (only if it exists)
+				XlsxNumberFormats numberFormats = null;
+				if (workbookRelations.stylesPath != null) {
+					numberFormats = new XlsxNumberFormatParser(xlsxFile, workbookRelations.stylesPath, XML_STREAM_FACTORY)
+							.parseNumberFormats();
+				}
 
-			// Parse styles file (only if it exists)
-			XlsxNumberFormats numberFormats = null;
-			if (workbookRelations.stylesPath != null) {
-				numberFormats = new XlsxNumberFormatParser(xlsxFile, workbookRelations.stylesPath, XML_STREAM_FACTORY)
-						.parseNumberFormats();
+				// initialize worksheet parser
+				this.worksheetParser = new XlsxSheetContentParser(xlsxFile, workbookRelations.worksheetsPath,
+						sharedStrings, numberFormats, sheetMetaData, XML_STREAM_FACTORY, encoding);
+			} catch (IOException | XMLStreamException | RuntimeException e) {
+				sharedStrings.close();
+				throw e;
 			}
-
-			// initialize worksheet parser
-			this.worksheetParser = new XlsxSheetContentParser(xlsxFile, workbookRelations.worksheetsPath, sharedStrings,
-					numberFormats, sheetMetaData, XML_STREAM_FACTORY, encoding);
 		} catch (IOException | XMLStreamException e) {
 			throw new UserError(callingOperator, e, 321, configuration.getFile(), e.getMessage());
 		} catch (ParserConfigurationException | SAXException e) {
@@ -489,7 +493,7 @@ public class XlsxResultSet implements DataResultSet {
 	public void next(ProgressListener listener) throws OperatorException {
 		try {
 			worksheetParser.next(readMode);
-		} catch (XMLStreamException | ParseException e) {
+		} catch (XMLStreamException | ParseException | IOException e) {
 			throw new UserError(null, e, 321, configuration.getFile(), e.getMessage());
 		}
 
@@ -535,6 +539,9 @@ public class XlsxResultSet implements DataResultSet {
 			if (worksheetParser != null) {
 				worksheetParser.close();
 			}
+			if (sharedStrings != null) {
+				sharedStrings.close();
+			}
 		} catch (XMLStreamException | IOException e) {
 			LogService.getRoot().log(Level.WARNING,
 					I18N.getMessage(LogService.getRoot().getResourceBundle(),
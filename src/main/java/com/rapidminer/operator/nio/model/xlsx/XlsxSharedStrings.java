@@ -0,0 +1,385 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.nio.model.xlsx;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.tools.ParameterService;
+
+
+/**
+ * Streaming view of the XLSX Shared String Table. In contrast to
+ * {@link XlsxSharedStringsParser#parseSharedStrings} the table is not read up front. Instead the
+ * underlying StAX reader is only advanced as far as the largest index requested so far. Since Excel
+ * writes shared strings in the order of their first usage, the worksheet can be read right away
+ * without waiting for the whole table.
+ * <p>
+ * Parsed strings are kept in memory until their estimated size exceeds the configured limit (see
+ * {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_XLSX_SHARED_STRINGS_LIMIT}). All further strings are
+ * written UTF-8 encoded to a temporary file and read back on demand through a small LRU cache. Thus
+ * the memory used by the table is bounded independently of the size of the workbook.
+ * <p>
+ * Instances are not thread-safe and must be {@link #close() closed} to release the XLSX file and
+ * delete the temporary file.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+class XlsxSharedStrings implements AutoCloseable {
+
+	/** Default memory limit in megabytes if the setting is not available */
+	private static final int DEFAULT_LIMIT_MB = 64;
+
+	/** Estimated overhead of a {@link String} object and its reference in bytes */
+	private static final int STRING_OVERHEAD = 48;
+
+	/** Number of strings read from disk that are cached in memory */
+	private static final int CACHE_SIZE = 4096;
+
+	/** Prefix of the temporary file */
+	private static final String TEMP_FILE_PREFIX = "rm_xlsx_strings_";
+
+	/** Suffix of the temporary file */
+	private static final String TEMP_FILE_SUFFIX = ".dump";
+
+	/** The zip file the table is streamed from, {@code null} after the table was fully read */
+	private ZipFile zipFile;
+
+	/** The reader of the shared strings XML, {@code null} after the table was fully read */
+	private XMLStreamReader reader;
+
+	/** The maximal number of bytes used for strings held in memory */
+	private final long memoryLimit;
+
+	/** The estimated number of bytes used for strings held in memory */
+	private long memoryUsed;
+
+	/** The number of strings parsed so far */
+	private int size;
+
+	/** The strings with index smaller than {@link #spillIndex} */
+	private String[] strings = new String[1024];
+
+	/** The index of the first string written to disk or {@link Integer#MAX_VALUE} */
+	private int spillIndex = Integer.MAX_VALUE;
+
+	/** The start offsets of the strings on disk, relative to {@link #spillIndex} */
+	private long[] offsets;
+
+	/** The strings on disk that are {@code null}, relative to {@link #spillIndex} */
+	private final BitSet nullStrings = new BitSet();
+
+	/** The number of bytes written to disk */
+	private long spillSize;
+
+	/** The temporary file, {@code null} as long as no string was written to disk */
+	private File spillFile;
+
+	/** The stream writing to {@link #spillFile} */
+	private OutputStream spillOut;
+
+	/** Whether {@link #spillOut} contains bytes that were not flushed yet */
+	private boolean dirty;
+
+	/** The channel reading from {@link #spillFile} */
+	private FileChannel spillChannel;
+
+	/** Most recently used strings read from disk */
+	private final Map<Integer, String> cache = new LinkedHashMap<Integer, String>(CACHE_SIZE, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	/** Collects the text of the current string item */
+	private final StringBuilder text = new StringBuilder();
+
+	/**
+	 * Opens the shared strings table stored at the given path of the XLSX file. Nothing but the
+	 * start of the XML document is read.
+	 *
+	 * @param xlsxFile
+	 *            the XLSX file
+	 * @param sharedStringsFilePath
+	 *            the path of the shared strings XML relative to {@link XlsxUtilities#XLSX_PATH_PREFIX}
+	 * @param xmlFactory
+	 *            the factory used to create the {@link XMLStreamReader}
+	 * @param encoding
+	 *            the encoding of the XML
+	 * @param memoryLimit
+	 *            the number of bytes that may be used for strings held in memory
+	 * @throws IOException
+	 *             if the XLSX file cannot be opened
+	 * @throws XMLStreamException
+	 *             if the {@link XMLStreamReader} cannot be created
+	 */
+	XlsxSharedStrings(File xlsxFile, String sharedStringsFilePath, XMLInputFactory xmlFactory, Charset encoding,
+			long memoryLimit) throws IOException, XMLStreamException {
+		this.memoryLimit = memoryLimit;
+		if (sharedStringsFilePath == null) {
+			return;
+		}
+		zipFile = new ZipFile(xlsxFile);
+		try {
+			ZipEntry zipEntry = zipFile.getEntry(XlsxUtilities.XLSX_PATH_PREFIX + sharedStringsFilePath);
+			if (zipEntry == null) {
+				// no shared strings defined
+				zipFile.close();
+				zipFile = null;
+				return;
+			}
+			reader = xmlFactory.createXMLStreamReader(new InputStreamReader(zipFile.getInputStream(zipEntry), encoding));
+		} catch (IOException | XMLStreamException | RuntimeException e) {
+			zipFile.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the memory limit for shared strings configured in the settings in bytes
+	 */
+	static long getConfiguredMemoryLimit() {
+		int limit = DEFAULT_LIMIT_MB;
+		try {
+			String value = ParameterService
+					.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_XLSX_SHARED_STRINGS_LIMIT);
+			if (value != null) {
+				limit = Integer.parseInt(value);
+			}
+		} catch (NumberFormatException e) {
+			// use default
+		}
+		return Math.max(0, limit) * 1024L * 1024L;
+	}
+
+	/**
+	 * Returns the shared string with the given index. Reads the table up to that index if
+	 * necessary.
+	 *
+	 * @param index
+	 *            the index of the shared string
+	 * @return the string or {@code null} if the string item has no text
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is negative or the table contains less strings
+	 * @throws XMLStreamException
+	 *             if the shared strings XML cannot be parsed
+	 * @throws IOException
+	 *             if the temporary file cannot be written or read
+	 */
+	String get(int index) throws XMLStreamException, IOException {
+		if (index >= size) {
+			parseUntil(index);
+		}
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Shared string " + index + " does not exist, table size: " + size);
+		}
+		if (index < spillIndex) {
+			return strings[index];
+		}
+		int spilled = index - spillIndex;
+		if (nullStrings.get(spilled)) {
+			return null;
+		}
+		String value = cache.get(index);
+		if (value == null) {
+			value = readFromDisk(spilled);
+			cache.put(index, value);
+		}
+		return value;
+	}
+
+	/**
+	 * Advances the XML reader until the string with the given index was parsed or the end of the
+	 * document is reached.
+	 */
+	private void parseUntil(int index) throws XMLStreamException, IOException {
+		boolean isCurrentTagText = false;
+		boolean hasText = false;
+		while (reader != null && size <= index && reader.hasNext()) {
+			switch (reader.next()) {
+				case XMLStreamReader.START_ELEMENT:
+					if (reader.getLocalName().equals(XlsxSharedStringsParser.TAG_STRING_ITEM)) {
+						text.setLength(0);
+						hasText = false;
+					} else if (reader.getLocalName().equals(XlsxSharedStringsParser.TAG_TEXT)) {
+						// we ignore formatting stored within the Shared Table XML because we are
+						// only looking for the actual text
+						isCurrentTagText = true;
+					}
+					break;
+				case XMLStreamReader.END_ELEMENT:
+					if (reader.getLocalName().equals(XlsxSharedStringsParser.TAG_STRING_ITEM)) {
+						add(hasText ? text.toString() : null);
+					} else if (reader.getLocalName().equals(XlsxSharedStringsParser.TAG_TEXT)) {
+						isCurrentTagText = false;
+					}
+					break;
+				case XMLStreamReader.CHARACTERS:
+					if (isCurrentTagText) {
+						text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+						hasText = true;
+					}
+					break;
+				default:
+					// ignore other cases
+					break;
+			}
+		}
+		if (reader != null && !reader.hasNext()) {
+			closeReader();
+		}
+	}
+
+	/**
+	 * Appends the string either to the in-memory part or to the temporary file.
+	 */
+	private void add(String value) throws IOException {
+		if (spillIndex == Integer.MAX_VALUE) {
+			long required = STRING_OVERHEAD + (value == null ? 0 : 2L * value.length());
+			if (memoryUsed + required <= memoryLimit) {
+				if (size == strings.length) {
+					strings = Arrays.copyOf(strings, strings.length * 2);
+				}
+				strings[size++] = value;
+				memoryUsed += required;
+				return;
+			}
+			startSpilling();
+		}
+		int spilled = size - spillIndex;
+		if (spilled + 1 >= offsets.length) {
+			offsets = Arrays.copyOf(offsets, offsets.length * 2);
+		}
+		if (value == null) {
+			nullStrings.set(spilled);
+		} else {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			spillOut.write(bytes);
+			spillSize += bytes.length;
+			dirty = true;
+		}
+		offsets[spilled + 1] = spillSize;
+		size++;
+	}
+
+	/**
+	 * Creates the temporary file. All strings from now on are written to disk.
+	 */
+	private void startSpilling() throws IOException {
+		spillFile = File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+		spillFile.deleteOnExit();
+		spillOut = new BufferedOutputStream(new FileOutputStream(spillFile), 1 << 16);
+		spillChannel = new RandomAccessFile(spillFile, "r").getChannel();
+		spillIndex = size;
+		offsets = new long[1024];
+		strings = Arrays.copyOf(strings, size);
+	}
+
+	/**
+	 * Reads the spilled string with the given index relative to {@link #spillIndex}.
+	 */
+	private String readFromDisk(int spilled) throws IOException {
+		if (dirty) {
+			spillOut.flush();
+			dirty = false;
+		}
+		long start = offsets[spilled];
+		ByteBuffer buffer = ByteBuffer.allocate((int) (offsets[spilled + 1] - start));
+		while (buffer.hasRemaining()) {
+			if (spillChannel.read(buffer, start + buffer.position()) < 0) {
+				throw new IOException("Unexpected end of temporary shared strings file");
+			}
+		}
+		return new String(buffer.array(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return the number of strings parsed so far
+	 */
+	int getParsedSize() {
+		return size;
+	}
+
+	/**
+	 * @return {@code true} if some strings were written to the temporary file
+	 */
+	boolean isSpilled() {
+		return spillFile != null;
+	}
+
+	private void closeReader() throws XMLStreamException, IOException {
+		try {
+			if (reader != null) {
+				reader.close();
+			}
+		} finally {
+			reader = null;
+			if (zipFile != null) {
+				zipFile.close();
+				zipFile = null;
+			}
+		}
+	}
+
+	@Override
+	public void close() throws XMLStreamException, IOException {
+		try {
+			closeReader();
+		} finally {
+			if (spillFile != null) {
+				try {
+					spillOut.close();
+					spillChannel.close();
+				} finally {
+					if (!spillFile.delete()) {
+						spillFile.deleteOnExit();
+					}
+					spillFile = null;
+					cache.clear();
+				}
+			}
+		}
+	}
+
+}
@@ -99,7 +99,7 @@ public class XlsxSharedStringsParser {
 	 *
 	 * @see ECMA-376, 4th Edition, subclause 18.4.8
 	 */
-	private static final String TAG_STRING_ITEM = "si";
+	static final String TAG_STRING_ITEM = "si";
 
 	/**
 	 * This element represents the text content shown as part of a string.
@@ -108,7 +108,7 @@ public class XlsxSharedStringsParser {
 	 *
 	 * @see ECMA-376, 4th Edition, subclause 18.4.12
 	 */
-	private static final String TAG_TEXT = "t";
+	static final String TAG_TEXT = "t";
 
 	/** The XLSX file */
 	private final File xlsxFile;
@@ -139,7 +139,10 @@ public class XlsxSharedStringsParser {
 	 *             in case the shared string content is malformed
 	 * @throws XlsxException
 	 *             in case the shared string XML content is invalid
+	 * @deprecated since 7.6, the worksheets are read with the streaming {@link XlsxSharedStrings}
+	 *             which keeps the memory bounded instead of reading the whole table up front
 	 */
+	@Deprecated
 	public String[] parseSharedStrings(Operator op, Charset encoding) throws XMLStreamException, IOException, UserError {
 
 		boolean isCurrentTagText = false;
@@ -126,8 +126,8 @@ class XlsxSheetContentParser implements AutoCloseable {
 	/** The path to the worksheet within the XLSX zip file */
 	private final String workbookZipEntryPath;
 
-	/** Strings shared in multiple sheets */
-	private final String[] sharedStrings;
+	/** Strings shared in multiple sheets, read on demand */
+	private final XlsxSharedStrings sharedStrings;
 
 	/** Number formats defined for XLSX cells */
 	private final XlsxNumberFormats numberFormats;
@@ -188,7 +188,8 @@ class XlsxSheetContentParser implements AutoCloseable {
 	 * @param workbookZipEntryPath
 	 *            the path of the workbook Zip entry
 	 * @param sharedStrings
-	 *            A ordered list of shared strings to generate complete cell values.
+	 *            the shared strings table used to generate complete cell values. It is not closed
+	 *            by this parser.
 	 * @param numberFormats
 	 *            the parsed XLSX number formats
 	 * @param maximumCellRange
@@ -200,7 +201,7 @@ class XlsxSheetContentParser implements AutoCloseable {
 	 * @throws IOException
 	 *             in case opening the workbook does not work
 	 */
-	public XlsxSheetContentParser(File xlsxFile, String workbookZipEntryPath, String[] sharedStrings,
+	public XlsxSheetContentParser(File xlsxFile, String workbookZipEntryPath, XlsxSharedStrings sharedStrings,
 			XlsxNumberFormats numberFormats, XlsxSheetMetaData sheetMetaData, XMLInputFactory factory, Charset encoding)
 			throws XMLStreamException, IOException {
 		this.xlsxFile = xlsxFile;
@@ -224,8 +225,10 @@ class XlsxSheetContentParser implements AutoCloseable {
 	 *             If there is an error processing the underlying XML source.
 	 * @throws ParseException
 	 *             If there is an error on parsing a single XML item.
+	 * @throws IOException
+	 *             If the shared strings cannot be read.
 	 */
-	public void next(XlsxReadMode readMode) throws XMLStreamException, ParseException {
+	public void next(XlsxReadMode readMode) throws XMLStreamException, ParseException, IOException {
 
 		// If reading from an operator or wizard preview skip rows up to row index before actual
 		// first row that should be parsed
@@ -269,8 +272,10 @@ class XlsxSheetContentParser implements AutoCloseable {
 	 *             If there is an error processing the underlying XML source.
 	 * @throws ParseException
 	 *             If there is an error on parsing a single XML item.
+	 * @throws IOException
+	 *             If the shared strings cannot be read.
 	 */
-	private void assignNextCurrentRow(boolean assignEmptyRow) throws ParseException, XMLStreamException {
+	private void assignNextCurrentRow(boolean assignEmptyRow) throws ParseException, XMLStreamException, IOException {
 		if (assignEmptyRow) {
 			// If current row is empty initialize a new (empty) array for current row
 			this.currentRowContent = new XlsxCell[sheetMetaData.getNumberOfColumns()];
@@ -292,8 +297,10 @@ class XlsxSheetContentParser implements AutoCloseable {
 	 *             If there is an error processing the underlying XML source.
 	 * @throws ParseException
 	 *             If there is an error on parsing a single XML item.
+	 * @throws IOException
+	 *             If the shared strings cannot be read.
 	 */
-	private XlsxCell[] parseNextRowWithContent() throws ParseException, XMLStreamException {
+	private XlsxCell[] parseNextRowWithContent() throws ParseException, XMLStreamException, IOException {
 
 		boolean isRowWithContent = false;
 		boolean isValue = false;
@@ -366,7 +373,12 @@ class XlsxSheetContentParser implements AutoCloseable {
 					if (!sheetMetaData.isSkipColumn(columnIndex) && isValue) {
 						String text = reader.getText();
 						if (nextRowWithContent[columnIndex].cellType.equals(XlsxCellType.SHARED_STRING)) {
-							nextRowWithContent[columnIndex].value = sharedStrings[Integer.parseInt(text)];
+							try {
+								nextRowWithContent[columnIndex].value = sharedStrings.get(Integer.parseInt(text));
+							} catch (IndexOutOfBoundsException | NumberFormatException e) {
+								throw new ParseException(new ParsingError(parsedRowIndex, columnIndex,
+										ParsingError.ErrorCode.FILE_SYNTAX_ERROR, text));
+							}
 						} else {
 							nextRowWithContent[columnIndex].value = text;
 						}
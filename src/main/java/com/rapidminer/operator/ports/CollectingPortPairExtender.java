@@ -18,6 +18,8 @@
 */
 package com.rapidminer.operator.ports;
 
+import java.util.List;
+
 import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.IOObjectCollection;
 import com.rapidminer.operator.ports.metadata.CollectionMetaData;
@@ -62,11 +64,24 @@ public class CollectingPortPairExtender extends PortPairExtender {
 	 * For all input ports that have data, this data is added to the collection currently assigned
 	 * to the output port.
 	 */
-	@SuppressWarnings("unchecked")
 	public void collect() {
+		collect(getDataOrNull());
+	}
+
+	/**
+	 * Adds the given data to the collections assigned to the output ports. The data is matched to
+	 * the port pairs by position as returned by {@link #getDataOrNull()}, e.g. by the port extender
+	 * of a clone executed in parallel. {@code null} entries are skipped.
+	 *
+	 * @since 7.6
+	 */
+	@SuppressWarnings("unchecked")
+	public void collect(List<IOObject> dataList) {
 		synchronized (this) {
-			for (PortPair pair : getManagedPairs()) {
-				IOObject data = pair.getInputPort().getAnyDataOrNull();
+			List<PortPair> pairs = getManagedPairs();
+			for (int i = 0; i < pairs.size() && i < dataList.size(); i++) {
+				PortPair pair = pairs.get(i);
+				IOObject data = dataList.get(i);
 				if (data != null) {
 					IOObject output = pair.getOutputPort().getAnyDataOrNull();
 					if (output == null) { // first iteration
@@ -18,6 +18,7 @@
 */
 package com.rapidminer.operator.ports;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -263,6 +264,20 @@ public class PortPairExtender implements PortExtender {
 		return results;
 	}
 
+	/**
+	 * Returns the data delivered to the input ports created by this port extender, one entry per
+	 * managed port pair and {@code null} for ports without data.
+	 *
+	 * @since 7.6
+	 */
+	public List<IOObject> getDataOrNull() {
+		List<IOObject> results = new ArrayList<>(managedPairs.size());
+		for (PortPair pair : managedPairs) {
+			results.add(pair.inputPort.getAnyDataOrNull());
+		}
+		return results;
+	}
+
 	public <T extends IOObject> List<T> getData(Class<T> desiredClass) throws UserError {
 		List<T> results = new LinkedList<T>();
 		for (PortPair pair : managedPairs) {
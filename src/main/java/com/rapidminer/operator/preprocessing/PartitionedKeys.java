@@ -0,0 +1,610 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.operator.preprocessing.filter.DuplicateFinder;
+import com.rapidminer.operator.preprocessing.join.PartitionedHashJoin;
+import com.rapidminer.studio.concurrency.internal.util.ConcurrencyTools;
+
+
+/**
+ * The keys of the examples of an {@link ExampleSet} radix partitioned by the upper bits of their
+ * hash, e.g. for the {@link PartitionedHashJoin} and the {@link DuplicateFinder}.
+ * <p>
+ * The values of the key attributes are read in chunks of examples and converted to primitive
+ * {@code long} keys by a {@link KeyConverter}. Partitions are kept in memory as long as they fit
+ * into the memory budget, the remaining partitions are written to temporary files and can be read
+ * back batch by batch by {@link #forEachSpilledPartition}. Within a partition the keys keep the
+ * order of the examples. The keys are counted and scattered in parallel if a
+ * {@link ConcurrencyContext} is given. Since views like filtered or joined example sets are not
+ * safe for concurrent reads, callers read the keys from {@link #getThreadSafeView}.
+ * <p>
+ * The temporary files are deleted by {@link #close()}.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class PartitionedKeys implements Closeable {
+
+	/** Inputs with fewer examples are not partitioned */
+	private static final int MIN_PARTITIONED_ROWS = 1 << 16;
+
+	/** The number of examples whose keys are read at once */
+	private static final int CHUNK_SIZE = 1 << 16;
+
+	/** The maximal number of radix bits */
+	private static final int MAX_PARTITION_BITS = 10;
+
+	/** Buffer size of the streams reading and writing spilled partitions */
+	private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+	/** Suffix of the temporary partition files */
+	private static final String TEMP_FILE_SUFFIX = ".dump";
+
+	/** Converts the values of a key attribute to keys */
+	@FunctionalInterface
+	public interface KeyConverter {
+
+		/**
+		 * Converts the values of a chunk of examples.
+		 *
+		 * @param attribute
+		 *            the index of the key attribute
+		 * @param values
+		 *            the values of the attribute
+		 * @param keys
+		 *            receives the key of every value
+		 * @param skipped
+		 *            set to {@code true} for the examples that have no key
+		 */
+		void convert(int attribute, double[] values, long[] keys, boolean[] skipped);
+	}
+
+	/** Receives the key of an example */
+	@FunctionalInterface
+	public interface KeyConsumer {
+
+		/**
+		 * @param keys
+		 *            the keys by key attribute
+		 * @param position
+		 *            the position of the key in the arrays
+		 * @param row
+		 *            the index of the example
+		 * @param partition
+		 *            the partition of the key
+		 */
+		void accept(long[][] keys, int position, int row, int partition) throws IOException;
+	}
+
+	/** Handles a partition that was read back from disk */
+	@FunctionalInterface
+	public interface SpilledPartitionHandler {
+
+		/**
+		 * @param partition
+		 *            the index of the partition
+		 * @param rows
+		 *            the indices of the examples of the partition in their order
+		 * @param keys
+		 *            the keys by key attribute, in the order of the rows
+		 */
+		void handle(int partition, int[] rows, long[][] keys) throws IOException;
+	}
+
+	/** Keys written to disk */
+	private static final class SpilledKeys {
+
+		private final File file;
+		private final DataOutputStream out;
+		private int size;
+
+		private SpilledKeys(String prefix) throws IOException {
+			file = File.createTempFile(prefix, TEMP_FILE_SUFFIX);
+			file.deleteOnExit();
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), STREAM_BUFFER_SIZE));
+		}
+
+		private void write(long[][] keys, int position, int row) throws IOException {
+			out.writeInt(row);
+			for (long[] key : keys) {
+				out.writeLong(key[position]);
+			}
+			size++;
+		}
+
+		/**
+		 * Passes the keys to the consumer one by one.
+		 */
+		private void read(int numberOfKeys, int partition, KeyConsumer consumer) throws IOException {
+			long[][] keys = new long[numberOfKeys][1];
+			try (DataInputStream in = new DataInputStream(
+					new BufferedInputStream(new FileInputStream(file), STREAM_BUFFER_SIZE))) {
+				for (int i = 0; i < size; i++) {
+					int row = in.readInt();
+					for (long[] key : keys) {
+						key[0] = in.readLong();
+					}
+					consumer.accept(keys, 0, row, partition);
+				}
+			}
+		}
+
+		/**
+		 * Closes the stream if still open and deletes the file.
+		 */
+		private void delete() {
+			try {
+				out.close();
+			} catch (IOException e) {
+				// the file is deleted anyway
+			}
+			if (!file.delete()) {
+				file.deleteOnExit();
+			}
+		}
+	}
+
+	private final ConcurrencyContext context;
+
+	private final long memoryBudget;
+
+	private final long bytesPerRow;
+
+	private final String tempFilePrefix;
+
+	private int numberOfKeys;
+
+	private int partitionBits;
+
+	private int[] partitionStarts;
+
+	private boolean[] inMemory;
+
+	private int[] rows;
+
+	private long[][] keys;
+
+	private SpilledKeys[] spilled;
+
+	private SpilledKeys[] spilledProbes;
+
+	/**
+	 * Creates new partitioned keys.
+	 *
+	 * @param context
+	 *            the context used to partition in parallel, can be {@code null} to work
+	 *            single-threaded
+	 * @param memoryBudget
+	 *            the number of bytes the partitions may use in memory
+	 * @param bytesPerRow
+	 *            the estimated memory of a key, including the structures built for it
+	 * @param tempFilePrefix
+	 *            the prefix of the temporary files
+	 */
+	public PartitionedKeys(ConcurrencyContext context, long memoryBudget, long bytesPerRow, String tempFilePrefix) {
+		this.context = context;
+		this.memoryBudget = memoryBudget;
+		this.bytesPerRow = bytesPerRow;
+		this.tempFilePrefix = tempFilePrefix;
+	}
+
+	/**
+	 * Partitions the keys of the example set. The examples without key are left out.
+	 *
+	 * @param exampleSet
+	 *            the example set
+	 * @param attributes
+	 *            the key attributes
+	 * @param converter
+	 *            the converter of the key values
+	 * @throws IOException
+	 *             if a partition cannot be written to disk
+	 */
+	public void partition(ExampleSet exampleSet, Attribute[] attributes, KeyConverter converter) throws IOException {
+		numberOfKeys = attributes.length;
+		int size = exampleSet.size();
+		partitionBits = getPartitionBits(size);
+		int numberOfPartitions = 1 << partitionBits;
+
+		// count the keys of every partition per chunk
+		int chunks = getNumberOfChunks(exampleSet);
+		int[][] counts = new int[chunks][];
+		List<Callable<Void>> tasks = new ArrayList<>(chunks);
+		for (int c = 0; c < chunks; c++) {
+			int chunk = c;
+			tasks.add(() -> {
+				counts[chunk] = new int[numberOfPartitions];
+				forEachKey(exampleSet, attributes, converter, chunk,
+						(chunkKeys, position, row, partition) -> counts[chunk][partition]++);
+				return null;
+			});
+		}
+		ConcurrencyTools.call(context, tasks, IOException.class);
+
+		// keep partitions in memory as long as they fit into the budget
+		int[] partitionSizes = new int[numberOfPartitions];
+		for (int[] chunkCounts : counts) {
+			for (int p = 0; p < numberOfPartitions; p++) {
+				partitionSizes[p] += chunkCounts[p];
+			}
+		}
+		partitionStarts = new int[numberOfPartitions + 1];
+		inMemory = new boolean[numberOfPartitions];
+		long usedMemory = 0;
+		int inMemorySize = 0;
+		boolean spill = false;
+		for (int p = 0; p < numberOfPartitions; p++) {
+			long required = bytesPerRow * partitionSizes[p];
+			partitionStarts[p] = inMemorySize;
+			if (usedMemory + required <= memoryBudget || partitionSizes[p] == 0) {
+				inMemory[p] = true;
+				usedMemory += required;
+				inMemorySize += partitionSizes[p];
+			} else {
+				spill = true;
+			}
+		}
+		partitionStarts[numberOfPartitions] = inMemorySize;
+
+		// scatter the keys of the partitions in memory, keeping the order of the examples
+		rows = new int[inMemorySize];
+		keys = new long[numberOfKeys][inMemorySize];
+		int[][] positions = new int[chunks][numberOfPartitions];
+		int[] offsets = Arrays.copyOf(partitionStarts, numberOfPartitions);
+		for (int c = 0; c < chunks; c++) {
+			for (int p = 0; p < numberOfPartitions; p++) {
+				positions[c][p] = offsets[p];
+				offsets[p] += counts[c][p];
+			}
+		}
+		tasks.clear();
+		for (int c = 0; c < chunks; c++) {
+			int chunk = c;
+			tasks.add(() -> {
+				int[] chunkPositions = positions[chunk];
+				forEachKey(exampleSet, attributes, converter, chunk, (chunkKeys, position, row, partition) -> {
+					if (inMemory[partition]) {
+						int target = chunkPositions[partition]++;
+						rows[target] = row;
+						for (int k = 0; k < numberOfKeys; k++) {
+							keys[k][target] = chunkKeys[k][position];
+						}
+					}
+				});
+				return null;
+			});
+		}
+		ConcurrencyTools.call(context, tasks, IOException.class);
+
+		// write the remaining partitions to disk
+		if (spill) {
+			spilled = new SpilledKeys[numberOfPartitions];
+			spill(exampleSet, attributes, converter, spilled);
+		}
+	}
+
+	/**
+	 * Writes the keys of another example set that fall into the partitions on disk to temporary
+	 * files, e.g. the probe keys of a join. They can be read by {@link #forEachSpilledKey}.
+	 *
+	 * @param exampleSet
+	 *            the other example set
+	 * @param attributes
+	 *            the key attributes of the other example set, in the same order
+	 * @param converter
+	 *            the converter of the key values of the other example set
+	 * @throws IOException
+	 *             if the keys cannot be written to disk
+	 */
+	public void spillKeys(ExampleSet exampleSet, Attribute[] attributes, KeyConverter converter) throws IOException {
+		if (spilled != null) {
+			spilledProbes = new SpilledKeys[spilled.length];
+			spill(exampleSet, attributes, converter, spilledProbes);
+		}
+	}
+
+	/**
+	 * Writes the keys of the partitions that are not in memory to new temporary files.
+	 */
+	private void spill(ExampleSet exampleSet, Attribute[] attributes, KeyConverter converter, SpilledKeys[] files)
+			throws IOException {
+		for (int p = 0; p < files.length; p++) {
+			if (!inMemory[p]) {
+				files[p] = new SpilledKeys(tempFilePrefix);
+			}
+		}
+		int chunks = getNumberOfChunks(exampleSet);
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			forEachKey(exampleSet, attributes, converter, chunk, (chunkKeys, position, row, partition) -> {
+				SpilledKeys target = files[partition];
+				if (target != null) {
+					target.write(chunkKeys, position, row);
+				}
+			});
+		}
+		for (SpilledKeys file : files) {
+			if (file != null) {
+				file.out.close();
+			}
+		}
+	}
+
+	/**
+	 * Reads the partitions on disk back in batches that fit into the memory budget and passes
+	 * them to the handler. The partitions of a batch are handled in parallel.
+	 *
+	 * @param handler
+	 *            the handler of the partitions
+	 * @param progress
+	 *            the progress to report to, can be {@code null}
+	 * @param from
+	 *            the completed progress before the first batch
+	 * @param to
+	 *            the completed progress after the last batch
+	 * @throws IOException
+	 *             if a partition cannot be read from disk
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 */
+	public void forEachSpilledPartition(SpilledPartitionHandler handler, OperatorProgress progress, int from, int to)
+			throws IOException, ProcessStoppedException {
+		if (spilled == null) {
+			return;
+		}
+		int next = 0;
+		while (next < spilled.length) {
+			List<Callable<Void>> tasks = new ArrayList<>();
+			long usedMemory = 0;
+			for (; next < spilled.length; next++) {
+				SpilledKeys partition = spilled[next];
+				if (partition == null) {
+					continue;
+				}
+				long required = bytesPerRow * partition.size;
+				if (!tasks.isEmpty() && usedMemory + required > memoryBudget) {
+					break;
+				}
+				usedMemory += required;
+				int index = next;
+				tasks.add(() -> {
+					int[] partitionRows = new int[partition.size];
+					long[][] partitionKeys = new long[numberOfKeys][partition.size];
+					int[] position = new int[1];
+					partition.read(numberOfKeys, index, (key, keyPosition, row, p) -> {
+						partitionRows[position[0]] = row;
+						for (int k = 0; k < numberOfKeys; k++) {
+							partitionKeys[k][position[0]] = key[k][keyPosition];
+						}
+						position[0]++;
+					});
+					handler.handle(index, partitionRows, partitionKeys);
+					return null;
+				});
+			}
+			ConcurrencyTools.call(context, tasks, IOException.class);
+			if (progress != null) {
+				progress.setCompleted(from + (int) ((long) (to - from) * next / spilled.length));
+			}
+		}
+	}
+
+	/**
+	 * Passes the keys written by {@link #spillKeys} for the given partition to the consumer one by
+	 * one in the order of the examples.
+	 */
+	public void forEachSpilledKey(int partition, KeyConsumer consumer) throws IOException {
+		spilledProbes[partition].read(numberOfKeys, partition, consumer);
+	}
+
+	/**
+	 * Reads the keys of a chunk of examples and passes the ones that are not skipped by the
+	 * converter to the consumer in the order of the examples.
+	 */
+	public void forEachKey(ExampleSet exampleSet, Attribute[] attributes, KeyConverter converter, int chunk,
+			KeyConsumer consumer) throws IOException {
+		int from = chunk * CHUNK_SIZE;
+		int to = Math.min(exampleSet.size(), from + CHUNK_SIZE);
+		int size = to - from;
+		double[] values = new double[size];
+		long[][] chunkKeys = new long[attributes.length][size];
+		boolean[] skipped = new boolean[size];
+		for (int k = 0; k < attributes.length; k++) {
+			exampleSet.getValues(attributes[k], from, to, values);
+			converter.convert(k, values, chunkKeys[k], skipped);
+		}
+		for (int i = 0; i < size; i++) {
+			if (!skipped[i]) {
+				int partition = partitionBits == 0 ? 0 : (int) (hash(chunkKeys, i) >>> 64 - partitionBits);
+				consumer.accept(chunkKeys, i, from + i, partition);
+			}
+		}
+	}
+
+	/**
+	 * Returns an example set the keys can be read from by several threads at once. If the example
+	 * set is read in parallel and is not {@link ExampleSets#isThreadSafe(ExampleSet) thread-safe},
+	 * only the given attributes are copied, see {@link ExampleSets#createThreadSafeCopy(ExampleSet)}.
+	 * The examples keep their positions, the attributes of the view must be looked up by
+	 * {@link #getAttributes(ExampleSet, Attribute[])}.
+	 *
+	 * @param exampleSet
+	 *            the example set to read the keys from
+	 * @param attributes
+	 *            the key attributes
+	 * @return the example set itself if it is safe to read, a copy of the key attributes otherwise
+	 */
+	public ExampleSet getThreadSafeView(ExampleSet exampleSet, Attribute[] attributes) {
+		if (context == null || context.getParallelism() < 2 || getNumberOfChunks(exampleSet) < 2
+				|| ExampleSets.isThreadSafe(exampleSet)) {
+			return exampleSet;
+		}
+		ExampleSet keySet = (ExampleSet) exampleSet.clone();
+		keySet.getAttributes().clearRegular();
+		keySet.getAttributes().clearSpecial();
+		for (Attribute attribute : attributes) {
+			if (keySet.getAttributes().get(attribute.getName()) == null) {
+				keySet.getAttributes().addRegular(attribute);
+			}
+		}
+		return ExampleSets.createThreadSafeCopy(keySet);
+	}
+
+	/**
+	 * @return the attributes of the view returned by {@link #getThreadSafeView} with the same
+	 *         names as the given attributes
+	 */
+	public static Attribute[] getAttributes(ExampleSet view, Attribute[] attributes) {
+		Attribute[] viewAttributes = new Attribute[attributes.length];
+		for (int k = 0; k < attributes.length; k++) {
+			viewAttributes[k] = view.getAttributes().get(attributes[k].getName());
+		}
+		return viewAttributes;
+	}
+
+	/**
+	 * @return the number of chunks {@link #forEachKey} reads the example set in
+	 */
+	public static int getNumberOfChunks(ExampleSet exampleSet) {
+		return (exampleSet.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+	}
+
+	/**
+	 * @return the number of partitions
+	 */
+	public int getNumberOfPartitions() {
+		return inMemory.length;
+	}
+
+	/**
+	 * @return whether the partition is kept in memory
+	 */
+	public boolean isInMemory(int partition) {
+		return inMemory[partition];
+	}
+
+	/**
+	 * @return the first position of the partition in {@link #getRows()} and {@link #getKeys()}
+	 */
+	public int getStart(int partition) {
+		return partitionStarts[partition];
+	}
+
+	/**
+	 * @return the position after the last one of the partition
+	 */
+	public int getEnd(int partition) {
+		return partitionStarts[partition + 1];
+	}
+
+	/**
+	 * @return the indices of the examples of the partitions in memory
+	 */
+	public int[] getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return the keys of the partitions in memory by key attribute
+	 */
+	public long[][] getKeys() {
+		return keys;
+	}
+
+	/**
+	 * Deletes the temporary files.
+	 */
+	@Override
+	public void close() {
+		for (SpilledKeys[] files : new SpilledKeys[][] { spilled, spilledProbes }) {
+			if (files != null) {
+				for (SpilledKeys file : files) {
+					if (file != null) {
+						file.delete();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Chooses enough partitions to keep all threads busy and to split the keys into partitions
+	 * that fit into the memory budget.
+	 */
+	private int getPartitionBits(int size) {
+		if (size < MIN_PARTITIONED_ROWS) {
+			return 0;
+		}
+		int parallelism = context == null ? 1 : Math.max(1, context.getParallelism());
+		long partitions = Math.max(parallelism * 4L, 4 * bytesPerRow * size / Math.max(1, memoryBudget));
+		int bits = 0;
+		while (bits < MAX_PARTITION_BITS && 1L << bits < partitions) {
+			bits++;
+		}
+		return bits;
+	}
+
+	/**
+	 * @return the hash of the key at the given position
+	 */
+	public static long hash(long[][] keys, int position) {
+		long hash = 0;
+		for (long[] key : keys) {
+			hash = (hash ^ key[position]) * 0x9E3779B97F4A7C15L;
+			hash ^= hash >>> 32;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	/**
+	 * @return whether the keys at the given positions are equal
+	 */
+	public static boolean equal(long[][] keys, int position, long[][] otherKeys, int otherPosition) {
+		for (int k = 0; k < keys.length; k++) {
+			if (keys[k][position] != otherKeys[k][otherPosition]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
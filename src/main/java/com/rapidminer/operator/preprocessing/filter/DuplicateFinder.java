@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.filter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.operator.preprocessing.PartitionedKeys;
+import com.rapidminer.studio.concurrency.internal.util.ConcurrencyTools;
+
+
+/**
+ * Finds the examples of an {@link ExampleSet} that have the same values for a set of attributes as
+ * a preceding example, e.g. for {@link RemoveDuplicates}.
+ * <p>
+ * The values of every example are hashed and the examples are radix partitioned by the upper bits
+ * of their hash, see {@link PartitionedKeys}. Every partition gets its own open addressing hash table on the primitive value
+ * bits, so partitions are deduplicated in parallel if a {@link ConcurrencyContext} is given.
+ * Partitions that do not fit into the memory budget are written to temporary files and are
+ * deduplicated batch by batch afterwards. Since each partition is scanned in the order of the
+ * examples, the first example of every group of equal examples is kept in all modes.
+ * <p>
+ * Values are compared numerically, so {@code 0} and {@code -0} are equal. Missing values are either
+ * equal to each other or make an example unique. The result needs four bytes per example.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class DuplicateFinder {
+
+	/** Marks an example that equals a preceding one */
+	public static final int DUPLICATE = 1;
+
+	/** Prefix of the temporary partition files */
+	private static final String TEMP_FILE_PREFIX = "rm_duplicates_partition_";
+
+	private final ConcurrencyContext context;
+
+	private final long memoryBudget;
+
+	/**
+	 * Creates a new duplicate finder.
+	 *
+	 * @param context
+	 *            the context used to deduplicate partitions in parallel, can be {@code null} to work
+	 *            single-threaded
+	 * @param memoryBudget
+	 *            the number of bytes the hash tables may use in memory, partitions are written to
+	 *            disk if the tables exceed it
+	 */
+	public DuplicateFinder(ConcurrencyContext context, long memoryBudget) {
+		this.context = context;
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Finds the examples that have the same values for the given attributes as a preceding
+	 * example.
+	 *
+	 * @param exampleSet
+	 *            the example set
+	 * @param attributes
+	 *            the attributes to compare
+	 * @param missingsAsDuplicates
+	 *            whether missing values are equal to each other, otherwise examples with a missing
+	 *            value are never duplicates
+	 * @param progress
+	 *            the progress to report to, can be {@code null}
+	 * @return an array containing {@link #DUPLICATE} for every duplicate example and {@code 0}
+	 *         otherwise, which can be used as partition
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 * @throws IOException
+	 *             if a partition cannot be written to or read from disk
+	 */
+	public int[] findDuplicates(ExampleSet exampleSet, Attribute[] attributes, boolean missingsAsDuplicates,
+			OperatorProgress progress) throws ProcessStoppedException, IOException {
+		int[] result = new int[exampleSet.size()];
+		if (progress != null) {
+			progress.setTotal(100);
+		}
+
+		try (PartitionedKeys partitions = new PartitionedKeys(context, memoryBudget, getBytesPerRow(attributes.length),
+				TEMP_FILE_PREFIX)) {
+			ExampleSet keySet = partitions.getThreadSafeView(exampleSet, attributes);
+			partitions.partition(keySet, PartitionedKeys.getAttributes(keySet, attributes),
+					(k, values, keys, skipped) -> convert(values, missingsAsDuplicates, keys, skipped));
+			if (progress != null) {
+				progress.setCompleted(50);
+			}
+
+			// deduplicate the partitions in memory
+			int numberOfPartitions = partitions.getNumberOfPartitions();
+			List<Callable<Void>> tasks = new ArrayList<>(numberOfPartitions);
+			for (int p = 0; p < numberOfPartitions; p++) {
+				int from = partitions.getStart(p);
+				int to = partitions.getEnd(p);
+				if (partitions.isInMemory(p) && to - from > 1) {
+					tasks.add(() -> {
+						markDuplicates(partitions.getRows(), partitions.getKeys(), from, to, result);
+						return null;
+					});
+				}
+			}
+			ConcurrencyTools.call(context, tasks, IOException.class);
+			if (progress != null) {
+				progress.setCompleted(80);
+			}
+
+			partitions.forEachSpilledPartition(
+					(partition, rows, keys) -> markDuplicates(rows, keys, 0, rows.length, result), progress, 80, 100);
+		}
+		if (progress != null) {
+			progress.setCompleted(100);
+		}
+		return result;
+	}
+
+	/**
+	 * Marks the examples of a range of positions that equal a preceding example of the range.
+	 */
+	private static void markDuplicates(int[] rows, long[][] keys, int from, int to, int[] result) {
+		int capacity = Integer.highestOneBit(Math.max(1, to - from)) << 2;
+		int[] heads = new int[capacity];
+		int mask = capacity - 1;
+		Arrays.fill(heads, -1);
+		for (int position = from; position < to; position++) {
+			int slot = (int) PartitionedKeys.hash(keys, position) & mask;
+			while (true) {
+				int head = heads[slot];
+				if (head < 0) {
+					heads[slot] = position;
+					break;
+				}
+				if (PartitionedKeys.equal(keys, head, keys, position)) {
+					result[rows[position]] = DUPLICATE;
+					break;
+				}
+				slot = slot + 1 & mask;
+			}
+		}
+	}
+
+	/**
+	 * Converts the values of an attribute to the bits of their numerical value. Examples with
+	 * missing values are skipped unless missing values are duplicates.
+	 */
+	private static void convert(double[] values, boolean missingsAsDuplicates, long[] keys, boolean[] skipped) {
+		for (int i = 0; i < values.length; i++) {
+			double value = values[i];
+			if (Double.isNaN(value) && !missingsAsDuplicates) {
+				skipped[i] = true;
+			} else {
+				// adding zero turns -0 into 0, doubleToLongBits unifies all NaN values
+				keys[i] = Double.doubleToLongBits(value + 0.0);
+			}
+		}
+	}
+
+	/**
+	 * @return the estimated memory of an example in a table, including the slots and the stored
+	 *         key
+	 */
+	private static long getBytesPerRow(int numberOfKeys) {
+		return 8L * numberOfKeys + 4 + 16;
+	}
+}
@@ -18,8 +18,11 @@
 */
 package com.rapidminer.operator.preprocessing.filter;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.AttributeTypeException;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
@@ -27,6 +30,7 @@ import com.rapidminer.example.set.Condition;
 import com.rapidminer.example.set.ConditionCreationException;
 import com.rapidminer.example.set.ConditionedExampleSet;
 import com.rapidminer.example.set.CustomFilter;
+import com.rapidminer.example.set.CustomFilter.CustomFilters;
 import com.rapidminer.example.set.ExpressionFilter;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
@@ -40,6 +44,8 @@ import com.rapidminer.operator.ports.metadata.MDInteger;
 import com.rapidminer.operator.ports.metadata.MetaData;
 import com.rapidminer.operator.ports.metadata.PassThroughRule;
 import com.rapidminer.operator.preprocessing.AbstractDataProcessing;
+import com.rapidminer.operator.tools.ColumnarExampleSetToStream.ChunkFilter;
+import com.rapidminer.operator.tools.ExampleSetPushdown;
 import com.rapidminer.operator.tools.ExpressionEvaluationException;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
@@ -48,6 +54,7 @@ import com.rapidminer.parameter.ParameterTypeFilter;
 import com.rapidminer.parameter.ParameterTypeList;
 import com.rapidminer.parameter.ParameterTypeString;
 import com.rapidminer.parameter.ParameterTypeStringCategory;
+import com.rapidminer.parameter.ParameterTypeTupel;
 import com.rapidminer.parameter.UndefinedParameterError;
 import com.rapidminer.parameter.conditions.EqualStringCondition;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
@@ -87,9 +94,14 @@ import com.rapidminer.tools.expression.internal.ExpressionParserUtils;
  * value.
  * </p>
  *
+ * <p>
+ * Numerical comparisons of the custom filters are pushed down to the operator delivering the
+ * example set where possible, see {@link #getChunkFilter(ExampleSet)}.
+ * </p>
+ *
  * @author Ingo Mierswa, Simon Fischer
  */
-public class ExampleFilter extends AbstractDataProcessing {
+public class ExampleFilter extends AbstractDataProcessing implements ExampleSetPushdown {
 
 	/** The parameter name for &quot;Implementation of the condition.&quot; */
 	public static final String PARAMETER_CONDITION_CLASS = "condition_class";
@@ -220,6 +232,101 @@ public class ExampleFilter extends AbstractDataProcessing {
 		}
 	}
 
+	@Override
+	public Set<String> getRequiredAttributes(ExampleSet structure) {
+		return null;
+	}
+
+	/**
+	 * Pushes down the numerical comparisons of the custom filters if they must all be fulfilled and
+	 * only the matching examples are used. Other conditions are ignored which is safe since only
+	 * chunks without any matching example are rejected.
+	 */
+	@Override
+	public ChunkFilter getChunkFilter(ExampleSet structure) {
+		if (isOriginalOutputConnected() || unmatchedOutput.isConnected()) {
+			return null;
+		}
+		List<ChunkFilter> filters = new ArrayList<>();
+		try {
+			if (getParameterAsBoolean(PARAMETER_INVERT_FILTER) || !getParameterAsString(PARAMETER_CONDITION_CLASS)
+					.equals(ConditionedExampleSet.KNOWN_CONDITION_NAMES[ConditionedExampleSet.CONDITION_CUSTOM_FILTER])) {
+				return null;
+			}
+			String rawParameterString = getParameters().getParameterAsSpecified(PARAMETER_FILTERS_LIST);
+			if (rawParameterString == null) {
+				return null;
+			}
+			List<String[]> operatorFilterList = ParameterTypeList.transformString2List(rawParameterString);
+			if (operatorFilterList.size() > 1 && !getParameterAsBoolean(PARAMETER_FILTERS_LOGIC_AND)) {
+				return null;
+			}
+			for (String[] entry : operatorFilterList) {
+				if (entry.length == 2) {
+					ChunkFilter filter = createChunkFilter(structure, ParameterTypeTupel.transformString2Tupel(entry[1]));
+					if (filter != null) {
+						filters.add(filter);
+					}
+				}
+			}
+		} catch (UndefinedParameterError e) {
+			// the error is reported when the operator is executed
+			return null;
+		}
+		if (filters.isEmpty()) {
+			return null;
+		}
+		return (name, min, max) -> {
+			for (ChunkFilter filter : filters) {
+				if (!filter.accept(name, min, max)) {
+					return false;
+				}
+			}
+			return true;
+		};
+	}
+
+	/**
+	 * Creates a {@link ChunkFilter} for a single custom filter condition or returns {@code null} if
+	 * the condition is not a numerical comparison with a plain number. Since missing values never
+	 * fulfill these comparisons, chunks with only missing values are rejected as well.
+	 */
+	private static ChunkFilter createChunkFilter(ExampleSet structure, String[] conditionTupel) {
+		if (conditionTupel.length != 3) {
+			return null;
+		}
+		String attributeName = conditionTupel[0];
+		Attribute attribute = structure.getAttributes().get(attributeName);
+		CustomFilters filter = CustomFilters.getBySymbol(conditionTupel[1]);
+		if (attribute == null || !attribute.isNumerical() || attribute.isDateTime() || filter == null) {
+			return null;
+		}
+		double value;
+		try {
+			value = Double.parseDouble(conditionTupel[2]);
+		} catch (NumberFormatException | NullPointerException e) {
+			// missing values, dates and macros are not pushed down
+			return null;
+		}
+		if (Double.isNaN(value)) {
+			return null;
+		}
+		switch (filter) {
+			case LESS:
+				return (name, min, max) -> !attributeName.equals(name) || min < value;
+			case LESS_EQUALS:
+				return (name, min, max) -> !attributeName.equals(name) || min <= value;
+			case GREATER:
+				return (name, min, max) -> !attributeName.equals(name) || max > value;
+			case GREATER_EQUALS:
+				return (name, min, max) -> !attributeName.equals(name) || max >= value;
+			case EQUALS_NUMERICAL:
+				return (name, min, max) -> !attributeName.equals(name) || min <= value && value <= max;
+			default:
+				return null;
+		}
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
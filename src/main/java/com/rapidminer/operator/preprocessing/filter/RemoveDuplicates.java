@@ -18,14 +18,11 @@
 */
 package com.rapidminer.operator.preprocessing.filter;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 
 import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.Partition;
 import com.rapidminer.example.set.SplittedExampleSet;
@@ -41,8 +38,11 @@ import com.rapidminer.operator.preprocessing.AbstractDataProcessing;
 import com.rapidminer.operator.tools.AttributeSubsetSelector;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
+import com.rapidminer.parameter.ParameterTypeInt;
 import com.rapidminer.parameter.UndefinedParameterError;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
+import com.rapidminer.tools.Tools;
 
 
 /**
@@ -56,11 +56,14 @@ public class RemoveDuplicates extends AbstractDataProcessing {
 	/** parameter to define the handling of missing values */
 	private static final String PARAMETER_TREAT_MISSING_VALUES_AS_DUPLICATES = "treat_missing_values_as_duplicates";
 
+	/** parameter to define the memory the hash tables may use before they are written to disk */
+	private static final String PARAMETER_MEMORY_BUDGET = "memory_budget";
+
 	/** The first of their kind */
 	private static final int NO_DUPLICATE = 0;
 
 	/** Duplicate entries are marked with this */
-	private static final int DUPLICATE = 1;
+	private static final int DUPLICATE = DuplicateFinder.DUPLICATE;
 
 	/** The duplicates */
 	private final OutputPort duplicateSetOutput = getOutputPorts().createPort("duplicates");
@@ -95,8 +98,6 @@ public class RemoveDuplicates extends AbstractDataProcessing {
 
 	@Override
 	public ExampleSet apply(ExampleSet exampleSet) throws OperatorException {
-		// partition: 0 select, 1 deselect
-		int[] partition = new int[exampleSet.size()];
 		Set<Attribute> compareAttributes = subsetSelector.getAttributeSubset(exampleSet, false);
 
 		// if set is empty: Nothing can be done!
@@ -104,54 +105,16 @@ public class RemoveDuplicates extends AbstractDataProcessing {
 			throw new UserError(this, 153, 1, 0);
 		}
 
-		// Creating hash buckets and check in case of collision if the example is equal to any other
-		// in the bucket
-		HashMap<Integer, List<Integer>> buckets = new HashMap<>();
+		// partition: 0 select, 1 deselect
 		boolean missingsAsDuplicates = getParameterAsBoolean(PARAMETER_TREAT_MISSING_VALUES_AS_DUPLICATES);
-		for (int i = 0; i < exampleSet.size(); i++) {
-			this.checkForStop();
-			Example example = exampleSet.getExample(i);
-			int hash = 0;
-			for (Attribute attribute : compareAttributes) {
-				long bits = Double.doubleToLongBits(example.getValue(attribute));
-				hash = hash * 31 + (int) (bits ^ bits >>> 32);
-			}
-			if (!buckets.containsKey(hash)) {
-				buckets.put(hash, Collections.singletonList(Integer.valueOf(i)));
-			} else {
-				List<Integer> bucketExampleIndicesList = buckets.get(hash);
-				for (Integer exampleIndex : bucketExampleIndicesList) {
-					boolean equal = true;
-					Example compExample = exampleSet.getExample(exampleIndex);
-					for (Attribute attribute : compareAttributes) {
-						if (missingsAsDuplicates) {
-							if (Double.isNaN(example.getValue(attribute)) && Double.isNaN(compExample.getValue(attribute))) {
-								continue;
-							}
-						}
-						if (example.getValue(attribute) != compExample.getValue(attribute)) {
-							equal = false;
-							break;
-						}
-					}
-					if (equal) {
-						partition[i] = DUPLICATE;
-					}
-				}
-				if (partition[i] == 0) { // then it is unequal with same hash value
-					if (bucketExampleIndicesList.size() == 1) {
-						// in case of a collision we have to replace the singeltonList by an
-						// extendible collection.
-						List<Integer> newList = new ArrayList<>(bucketExampleIndicesList);
-						newList.add(Integer.valueOf(i));
-						buckets.put(hash, newList);
-					} else {
-						// in this case we already have put in an ArrayList, because we had to store
-						// a second example on a previous collision
-						bucketExampleIndicesList.add(i);
-					}
-				}
-			}
+		DuplicateFinder finder = new DuplicateFinder(Resources.getConcurrencyContext(this),
+				Tools.getMemoryBudget(getParameterAsInt(PARAMETER_MEMORY_BUDGET)));
+		int[] partition;
+		try {
+			partition = finder.findDuplicates(exampleSet, compareAttributes.toArray(new Attribute[0]),
+					missingsAsDuplicates, getProgress());
+		} catch (IOException e) {
+			throw new UserError(this, e, 322, "temporary duplicates file", e.getMessage());
 		}
 
 		SplittedExampleSet result = new SplittedExampleSet(exampleSet, new Partition(partition, 2));
@@ -178,6 +141,12 @@ public class RemoveDuplicates extends AbstractDataProcessing {
 		type.setExpert(false);
 		types.add(type);
 
+		type = new ParameterTypeInt(PARAMETER_MEMORY_BUDGET,
+				"The memory in megabytes the hash tables of the compared values may use before partitions are written to disk. If 0, half of the currently available memory is used.",
+				0, Integer.MAX_VALUE, 0);
+		type.setExpert(true);
+		types.add(type);
+
 		return types;
 	}
 
@@ -18,13 +18,17 @@
 */
 package com.rapidminer.operator.preprocessing.filter;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.ExampleSetSorter;
 import com.rapidminer.example.set.SortedExampleSet;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.UserError;
 import com.rapidminer.operator.annotation.ResourceConsumptionEstimator;
 import com.rapidminer.operator.error.AttributeNotFoundError;
 import com.rapidminer.operator.ports.metadata.AttributeSetPrecondition;
@@ -32,7 +36,11 @@ import com.rapidminer.operator.preprocessing.AbstractDataProcessing;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeAttribute;
 import com.rapidminer.parameter.ParameterTypeCategory;
+import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.parameter.ParameterTypeList;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
+import com.rapidminer.tools.Tools;
 
 
 /**
@@ -41,6 +49,11 @@ import com.rapidminer.tools.OperatorResourceConsumptionHandler;
  * sorted according to the natural order of the values of this attribute either in increasing or in
  * decreasing direction.
  * </p>
+ * <p>
+ * Additional attributes can be specified to order examples with equal values of the preceding
+ * attributes. The sort keys are sorted in parallel. If they do not fit into the memory budget,
+ * sorted runs are written to disk and merged afterwards.
+ * </p>
  *
  * @author Ingo Mierswa
  */
@@ -55,6 +68,22 @@ public class Sorting extends AbstractDataProcessing {
 	/** The parameter name for &quot;Indicates the direction of the sorting.&quot; */
 	public static final String PARAMETER_SORTING_DIRECTION = "sorting_direction";
 
+	/**
+	 * The parameter name for &quot;Further attributes used for sorting examples with equal values of
+	 * the preceding attributes.&quot;
+	 *
+	 * @since 7.6
+	 */
+	public static final String PARAMETER_ADDITIONAL_ATTRIBUTES = "additional_attributes";
+
+	/**
+	 * The parameter name for &quot;The memory in megabytes the sort keys may use before sorted runs
+	 * are written to disk.&quot;
+	 *
+	 * @since 7.6
+	 */
+	public static final String PARAMETER_MEMORY_BUDGET = "memory_budget";
+
 	public Sorting(OperatorDescription description) {
 		super(description);
 
@@ -71,9 +100,34 @@ public class Sorting extends AbstractDataProcessing {
 			throw new AttributeNotFoundError(this, PARAMETER_ATTRIBUTE_NAME, getParameterAsString(PARAMETER_ATTRIBUTE_NAME));
 		}
 
-		ExampleSet result = new SortedExampleSet(exampleSet, sortingAttribute, sortingDirection, getProgress());
+		List<Attribute> sortingAttributes = new ArrayList<>();
+		List<Boolean> directions = new ArrayList<>();
+		sortingAttributes.add(sortingAttribute);
+		directions.add(sortingDirection == SortedExampleSet.DECREASING);
+		for (String[] pair : getParameterList(PARAMETER_ADDITIONAL_ATTRIBUTES)) {
+			Attribute attribute = exampleSet.getAttributes().get(pair[0]);
+			if (attribute == null) {
+				throw new AttributeNotFoundError(this, PARAMETER_ADDITIONAL_ATTRIBUTES, pair[0]);
+			}
+			sortingAttributes.add(attribute);
+			directions.add(SortedExampleSet.SORTING_DIRECTIONS[SortedExampleSet.DECREASING].equals(pair[1]));
+		}
+		boolean[] descending = new boolean[directions.size()];
+		for (int i = 0; i < descending.length; i++) {
+			descending[i] = directions.get(i);
+		}
+
+		ExampleSetSorter sorter = new ExampleSetSorter(Resources.getConcurrencyContext(this),
+				Tools.getMemoryBudget(getParameterAsInt(PARAMETER_MEMORY_BUDGET)));
+		int[] mapping;
+		try {
+			mapping = sorter.sort(exampleSet, sortingAttributes, descending, getProgress());
+		} catch (IOException e) {
+			throw new UserError(this, e, 322, "temporary sort file", e.getMessage());
+		}
+		getProgress().complete();
 
-		return result;
+		return new SortedExampleSet(exampleSet, mapping);
 	}
 
 	@Override
@@ -84,6 +138,18 @@ public class Sorting extends AbstractDataProcessing {
 				false));
 		types.add(new ParameterTypeCategory(PARAMETER_SORTING_DIRECTION, "Indicates the direction of the sorting.",
 				SortedExampleSet.SORTING_DIRECTIONS, SortedExampleSet.INCREASING, false));
+		types.add(new ParameterTypeList(PARAMETER_ADDITIONAL_ATTRIBUTES,
+				"Further attributes used for sorting examples with equal values of the preceding attributes.",
+				new ParameterTypeAttribute("additional_attribute", "The attribute used for sorting.",
+						getExampleSetInputPort(), false),
+				new ParameterTypeCategory("additional_sorting_direction", "The direction of the sorting.",
+						SortedExampleSet.SORTING_DIRECTIONS, SortedExampleSet.INCREASING),
+				true));
+		ParameterType type = new ParameterTypeInt(PARAMETER_MEMORY_BUDGET,
+				"The memory in megabytes the sort keys may use before sorted runs are written to disk. If 0, half of the currently available memory is used.",
+				0, Integer.MAX_VALUE, 0);
+		type.setExpert(true);
+		types.add(type);
 		return types;
 	}
 
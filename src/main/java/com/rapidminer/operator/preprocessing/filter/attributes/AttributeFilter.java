@@ -21,6 +21,7 @@ package com.rapidminer.operator.preprocessing.filter.attributes;
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Attributes;
 import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.ConditionCreationException;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.annotation.ResourceConsumptionEstimator;
@@ -29,9 +30,12 @@ import com.rapidminer.operator.ports.metadata.AttributeMetaData;
 import com.rapidminer.operator.ports.metadata.ExampleSetMetaData;
 import com.rapidminer.operator.ports.metadata.MetaData;
 import com.rapidminer.operator.tools.AttributeSubsetSelector;
+import com.rapidminer.operator.tools.ColumnarExampleSetToStream.ChunkFilter;
+import com.rapidminer.operator.tools.ExampleSetPushdown;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
 
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -59,9 +63,15 @@ import java.util.Set;
  * replaced by two ampers ands.
  * </p>
  * 
+ * <p>
+ * If the selection does not depend on the data values and the original example set is not used,
+ * the selected attributes are pushed down to the operator delivering the example set, see
+ * {@link ExampleSetPushdown}.
+ * </p>
+ * 
  * @author Sebastian Land, Ingo Mierswa
  */
-public class AttributeFilter extends AbstractFeatureSelection {
+public class AttributeFilter extends AbstractFeatureSelection implements ExampleSetPushdown {
 
 	private final AttributeSubsetSelector attributeSelector = new AttributeSubsetSelector(this, getExampleSetInputPort());
 
@@ -98,6 +108,35 @@ public class AttributeFilter extends AbstractFeatureSelection {
 		return exampleSet;
 	}
 
+	@Override
+	public Set<String> getRequiredAttributes(ExampleSet structure) {
+		if (isOriginalOutputConnected()) {
+			return null;
+		}
+		try {
+			AttributeFilterCondition condition = AttributeSubsetSelector.createCondition(
+					AttributeSubsetSelector.CONDITION_NAMES[getParameterAsInt(AttributeSubsetSelector.PARAMETER_FILTER_TYPE)],
+					this);
+			if (condition.isNeedingScan()) {
+				// the selection depends on the values which are not known in advance
+				return null;
+			}
+			Set<String> names = new HashSet<>();
+			for (Attribute attribute : attributeSelector.getAttributeSubset(structure, true)) {
+				names.add(attribute.getName());
+			}
+			return names;
+		} catch (OperatorException | ConditionCreationException e) {
+			// the error is reported when the operator is executed
+			return null;
+		}
+	}
+
+	@Override
+	public ChunkFilter getChunkFilter(ExampleSet structure) {
+		return null;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
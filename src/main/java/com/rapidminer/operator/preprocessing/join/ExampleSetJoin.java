@@ -18,13 +18,12 @@
 */
 package com.rapidminer.operator.preprocessing.join;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import com.rapidminer.example.Attribute;
@@ -32,6 +31,7 @@ import com.rapidminer.example.AttributeRole;
 import com.rapidminer.example.Attributes;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.NominalMapping;
 import com.rapidminer.example.utils.ExampleSetBuilder;
 import com.rapidminer.example.utils.ExampleSets;
 import com.rapidminer.operator.OperatorDescription;
@@ -50,10 +50,13 @@ import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeAttribute;
 import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.ParameterTypeCategory;
+import com.rapidminer.parameter.ParameterTypeInt;
 import com.rapidminer.parameter.ParameterTypeList;
 import com.rapidminer.parameter.conditions.BooleanParameterCondition;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
+import com.rapidminer.tools.Tools;
 import com.rapidminer.tools.container.Pair;
 
 
@@ -111,6 +114,14 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 	public static final String PARAMETER_KEEP_BOTH_JOIN_ATTRIBUTES = "keep_both_join_attributes";
 	public static final String PARAMETER_FILL_LEFT_ID = "";
 
+	/**
+	 * The parameter name for the memory in megabytes the hash tables may use before partitions are
+	 * written to disk.
+	 *
+	 * @since 7.6
+	 */
+	public static final String PARAMETER_MEMORY_BUDGET = "memory_budget";
+
 	public static final String[] JOIN_TYPES = { "inner", "left", "right", "outer" };
 
 	public static final int JOIN_TYPE_INNER = 0;
@@ -201,8 +212,6 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 	protected ExampleSetBuilder joinData(ExampleSet leftExampleSet, ExampleSet rightExampleSet,
 			List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList) throws OperatorException {
 		int joinType = getParameterAsInt(PARAMETER_JOIN_TYPE);
-		leftExampleSet.remapIds();
-		rightExampleSet.remapIds();
 
 		// the attributes that are used in the left and the right table as key attributes:
 
@@ -216,7 +225,7 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 			case JOIN_TYPE_LEFT:
 				getProgress().setTotal(leftExampleSet.size());
 				return performLeftJoin(leftExampleSet, rightExampleSet, originalAttributeSources, unionAttributeList,
-						keyAttributes, null);
+						match(rightExampleSet, keyAttributes.getSecond(), leftExampleSet, keyAttributes.getFirst()));
 			case JOIN_TYPE_RIGHT:
 				getProgress().setTotal(rightExampleSet.size());
 				return performRightJoin(leftExampleSet, rightExampleSet, originalAttributeSources, unionAttributeList,
@@ -309,33 +318,22 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 	 */
 	private ExampleSetBuilder performInnerJoin(ExampleSet leftExampleSet, ExampleSet rightExampleSet,
 			List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList,
-			Pair<Attribute[], Attribute[]> keyAttributes) throws ProcessStoppedException {
+			Pair<Attribute[], Attribute[]> keyAttributes) throws OperatorException {
 		ExampleSetBuilder builder = ExampleSets.from(unionAttributeList);
 
-		Attribute[] leftKeyAttributes = null;
-		Attribute[] rightKeyAttributes = null;
-		Map<DoubleArrayWrapper, List<Example>> rightKeyMapping = null;
-		boolean useId = getParameterAsBoolean(PARAMETER_USE_ID);
-
-		if (!useId) {
-			// create key mapping for right example set
-			leftKeyAttributes = keyAttributes.getFirst();
-			rightKeyAttributes = keyAttributes.getSecond();
-			rightKeyMapping = createKeyMapping(rightExampleSet, rightKeyAttributes, leftKeyAttributes);
-		}
+		// create key mapping for right example set
+		PartitionedHashJoin.Result matches = match(rightExampleSet, keyAttributes.getSecond(), leftExampleSet,
+				keyAttributes.getFirst());
 
 		int progressCounter = 0;
-		// iterate over all example from left table and search for matching examples in right table:
+		int leftRow = 0;
+		// iterate over all example from left table and add the matching examples in right table:
 		for (Example leftExample : leftExampleSet) {
-
-			List<Example> matchingRightExamples = getMatchingExamples(leftExampleSet, rightExampleSet, leftKeyAttributes,
-					rightKeyMapping, useId, leftExample);
-
-			if (matchingRightExamples != null) {
-				for (Example rightExample : matchingRightExamples) {
-					addCombinedOccurence(originalAttributeSources, unionAttributeList, builder, leftExample, rightExample);
-				}
+			for (int rightRow = matches.getFirstMatch(leftRow); rightRow >= 0; rightRow = matches.getNextMatch(rightRow)) {
+				addCombinedOccurence(originalAttributeSources, unionAttributeList, builder, leftExample,
+						rightExampleSet.getExample(rightRow));
 			}
+			leftRow++;
 
 			// trigger operator progress every 100 examples
 			++progressCounter;
@@ -353,41 +351,26 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 	 */
 	private ExampleSetBuilder performLeftJoin(ExampleSet leftExampleSet, ExampleSet rightExampleSet,
 			List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList,
-			Pair<Attribute[], Attribute[]> keyAttributes, Set<DoubleArrayWrapper> matchedExamplesInRightTable)
-			throws ProcessStoppedException {
+			PartitionedHashJoin.Result matches) throws ProcessStoppedException {
 		ExampleSetBuilder builder = ExampleSets.from(unionAttributeList);
 
-		Attribute[] leftKeyAttributes = null;
-		Attribute[] rightKeyAttributes = null;
-		Map<DoubleArrayWrapper, List<Example>> rightKeyMapping = null;
-		boolean useId = getParameterAsBoolean(PARAMETER_USE_ID);
-
-		leftKeyAttributes = keyAttributes.getFirst();
-		rightKeyAttributes = keyAttributes.getSecond();
-		if (!useId) {
-			// create key mapping for right example set
-			rightKeyMapping = createKeyMapping(rightExampleSet, rightKeyAttributes, leftKeyAttributes);
-		}
-
 		int progressCounter = 0;
-		// iterate over all example from left table and search for matching examples in right table:
+		int leftRow = 0;
+		// iterate over all example from left table and add the matching examples in right table:
 		for (Example leftExample : leftExampleSet) {
-			List<Example> matchingRightExamples = getMatchingExamples(leftExampleSet, rightExampleSet, leftKeyAttributes,
-					rightKeyMapping, useId, leftExample);
-
-			if (matchingRightExamples != null) {
+			int rightRow = matches.getFirstMatch(leftRow);
+			if (rightRow >= 0) {
 				// add combination of left example and all matching right examples
-				for (Example rightExample : matchingRightExamples) {
-					addCombinedOccurence(originalAttributeSources, unionAttributeList, builder, leftExample, rightExample);
-					if (matchedExamplesInRightTable != null) {
-						matchedExamplesInRightTable
-								.add(new DoubleArrayWrapper(getKeyValues(rightExample, rightKeyAttributes)));
-					}
+				for (; rightRow >= 0; rightRow = matches.getNextMatch(rightRow)) {
+					addCombinedOccurence(originalAttributeSources, unionAttributeList, builder, leftExample,
+							rightExampleSet.getExample(rightRow));
 				}
 			} else { // no rows with this key in right table
 				// insert this row with null values for the right table
 				addLeftOnlyOccurence(originalAttributeSources, unionAttributeList, builder, leftExample);
 			}
+			leftRow++;
+
 			// trigger operator progress every 100 examples
 			++progressCounter;
 			if (progressCounter % 100 == 0) {
@@ -404,47 +387,35 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 	 */
 	private ExampleSetBuilder performRightJoin(ExampleSet leftExampleSet, ExampleSet rightExampleSet,
 			List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList,
-			Pair<Attribute[], Attribute[]> keyAttributes) throws ProcessStoppedException {
+			Pair<Attribute[], Attribute[]> keyAttributes) throws OperatorException {
 		ExampleSetBuilder builder = ExampleSets.from(unionAttributeList);
 
-		Attribute[] leftKeyAttributes = null;
-		Attribute[] rightKeyAttributes = null;
-		Map<DoubleArrayWrapper, List<Example>> leftKeyMapping = null;
-		boolean useId = getParameterAsBoolean(PARAMETER_USE_ID);
-
-		Attribute leftIdAttribute = null;
-		Attribute rightIdAttribute = null;
-		if (useId) {
-			// needed for getting the right id when adding examples which occur only in right table
-			leftIdAttribute = leftExampleSet.getAttributes().getId();
-			rightIdAttribute = rightExampleSet.getAttributes().getId();
-			leftKeyAttributes = new Attribute[] { leftIdAttribute };
-			rightKeyAttributes = new Attribute[] { rightIdAttribute };
-		} else {
-			// create key mapping for right example set
-			leftKeyAttributes = keyAttributes.getFirst();
-			rightKeyAttributes = keyAttributes.getSecond();
-			leftKeyMapping = createKeyMapping(leftExampleSet, leftKeyAttributes, rightKeyAttributes);
-		}
+		Attribute[] leftKeyAttributes = keyAttributes.getFirst();
+		Attribute[] rightKeyAttributes = keyAttributes.getSecond();
+		// create key mapping for left example set
+		PartitionedHashJoin.Result matches = match(leftExampleSet, leftKeyAttributes, rightExampleSet,
+				rightKeyAttributes);
 
 		boolean keepBoth = getParameterAsBoolean(PARAMETER_KEEP_BOTH_JOIN_ATTRIBUTES);
 		boolean removeDoubleAttributes = getParameterAsBoolean(PARAMETER_REMOVE_DOUBLE_ATTRIBUTES);
 
 		int progressCounter = 0;
-		// iterate over all example from left table and search for matching examples in right table:
+		int rightRow = 0;
+		// iterate over all example from right table and add the matching examples in left table:
 		for (Example rightExample : rightExampleSet) {
-			List<Example> matchingLeftExamples = getMatchingExamples(rightExampleSet, leftExampleSet, rightKeyAttributes,
-					leftKeyMapping, useId, rightExample);
-
-			if (matchingLeftExamples != null) {
-				// add combination of left example and all matching right examples
-				for (Example leftExample : matchingLeftExamples) {
-					addCombinedOccurence(originalAttributeSources, unionAttributeList, builder, leftExample, rightExample);
+			int leftRow = matches.getFirstMatch(rightRow);
+			if (leftRow >= 0) {
+				// add combination of all matching left examples and right example
+				for (; leftRow >= 0; leftRow = matches.getNextMatch(leftRow)) {
+					addCombinedOccurence(originalAttributeSources, unionAttributeList, builder,
+							leftExampleSet.getExample(leftRow), rightExample);
 				}
 			} else {
 				addRightOnlyOccurence(originalAttributeSources, unionAttributeList, builder, rightExample, leftKeyAttributes,
 						rightKeyAttributes, keepBoth, removeDoubleAttributes);
 			}
+			rightRow++;
+
 			// trigger operator progress every 100 examples
 			++progressCounter;
 			if (progressCounter % 100 == 0) {
@@ -461,7 +432,7 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 	 */
 	private ExampleSetBuilder performOuterJoin(ExampleSet leftExampleSet, ExampleSet rightExampleSet,
 			List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList,
-			Pair<Attribute[], Attribute[]> keyAttributes) throws ProcessStoppedException {
+			Pair<Attribute[], Attribute[]> keyAttributes) throws OperatorException {
 		ExampleSetBuilder builder;
 
 		Attribute[] leftKeyAttributes = keyAttributes.getFirst();
@@ -469,20 +440,24 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 
 		// perform left join (an outer join is the union of a left join and a right join on the same
 		// tables)
-		Set<DoubleArrayWrapper> mappedRightExamples = new HashSet<>();
-		builder = performLeftJoin(leftExampleSet, rightExampleSet, originalAttributeSources, unionAttributeList,
-				keyAttributes, mappedRightExamples);
+		PartitionedHashJoin.Result matches = match(rightExampleSet, rightKeyAttributes, leftExampleSet,
+				leftKeyAttributes);
+		builder = performLeftJoin(leftExampleSet, rightExampleSet, originalAttributeSources, unionAttributeList, matches);
+		BitSet mappedRightExamples = matches.getMatchedBuildRows();
 
 		boolean keepBoth = getParameterAsBoolean(PARAMETER_KEEP_BOTH_JOIN_ATTRIBUTES);
 		boolean removeDoubleAttributes = getParameterAsBoolean(PARAMETER_REMOVE_DOUBLE_ATTRIBUTES);
 		int progressCounter = 0;
+		int rightRow = 0;
 		for (Example rightExample : rightExampleSet) {
 			// perform right join, but add example only if it has not been matched during left join
 			// above
-			if (!mappedRightExamples.contains(new DoubleArrayWrapper(getKeyValues(rightExample, rightKeyAttributes)))) {
+			if (!mappedRightExamples.get(rightRow)) {
 				addRightOnlyOccurence(originalAttributeSources, unionAttributeList, builder, rightExample, leftKeyAttributes,
 						rightKeyAttributes, keepBoth, removeDoubleAttributes);
 			}
+			rightRow++;
+
 			// trigger operator progress every 100 examples
 			++progressCounter;
 			if (progressCounter % 100 == 0) {
@@ -590,135 +565,48 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 	}
 
 	/**
-	 * Maps all values of the keyAttributes which occur in exampleSet to a list of matching
-	 * examples.
+	 * Finds the examples of the build example set whose key values match the key values of each
+	 * example of the probe example set.
 	 *
-	 * @param exampleSet
-	 *            The example set for whose key attributes the mapping is created
-	 * @param keyAttributes
-	 *            the attributes which resemble the key attributes
-	 * @param matchKeyAttributes
-	 *            if not null, the values of nominal keyAttributes are mapped to match the mapping
-	 *            of these attributes prior to adding them to the map
-	 * @return
+	 * @param buildExampleSet
+	 *            the example set for whose key attributes the hash tables are created
+	 * @param buildKeyAttributes
+	 *            the key attributes of the build example set
+	 * @param probeExampleSet
+	 *            the example set whose examples are looked up
+	 * @param probeKeyAttributes
+	 *            the key attributes of the probe example set
 	 */
-	private Map<DoubleArrayWrapper, List<Example>> createKeyMapping(ExampleSet exampleSet, Attribute[] keyAttributes,
-			Attribute[] matchKeyAttributes) {
-		Map<DoubleArrayWrapper, List<Example>> keyMapping = new HashMap<>();
-
-		assert keyAttributes.length == matchKeyAttributes.length;
-
-		// create mapping from nominal values of keyAttributes to matchKeyAttributes
-		Map<Attribute, Map<Double, Double>> valueMapping = null;
-		if (matchKeyAttributes != null) {
-			valueMapping = new HashMap<>();
-			for (int attributeNumber = 0; attributeNumber < keyAttributes.length; ++attributeNumber) {
-				if (keyAttributes[attributeNumber].isNominal()) {
-					Map<Double, Double> valueMap = new HashMap<>();
-					// TODO: iterate over getMappint().values() rather than relying on the
-					// assumption that values appear in increasing order
-					for (int valueNumber = 0; valueNumber < keyAttributes[attributeNumber].getMapping()
-							.size(); ++valueNumber) {
-						String valueString = keyAttributes[attributeNumber].getMapping().mapIndex(valueNumber);
-						valueMap.put((double) valueNumber,
-								(double) matchKeyAttributes[attributeNumber].getMapping().mapString(valueString));
-					}
-					valueMapping.put(keyAttributes[attributeNumber], valueMap);
-				}
-			}
-		}
-
-		double[] keyValues;
-
-		for (Example example : exampleSet) {
-			boolean continueIteration = false;
-			// fetch key values from example
-			keyValues = getKeyValues(example, keyAttributes);
-			if (valueMapping != null) {
-				// remap keyValues to match values of other attributes:
-				for (int i = 0; i < keyValues.length; ++i) {
-					if (Double.isNaN(keyValues[i])) {
-						continueIteration = true;
-						break;
-					}
-					if (keyAttributes[i].isNominal()) {
-						keyValues[i] = valueMapping.get(keyAttributes[i]).get(keyValues[i]);
-					}
-				}
-				if (continueIteration) {
-					continue;
-				}
-
-			}
-
-			// check if this key is in keyMapping. If not, add:
-			List<Example> keyExamples = keyMapping.get(new DoubleArrayWrapper(keyValues));
-			if (keyExamples != null) {
-				// add current example:
-				keyExamples.add(example);
-			} else {
-				// create set and add to keyMapping:
-				keyExamples = new LinkedList<>();
-				keyExamples.add(example);
-				keyMapping.put(new DoubleArrayWrapper(keyValues), keyExamples);
-			}
-		}
-		;
-		return keyMapping;
-	}
+	private PartitionedHashJoin.Result match(ExampleSet buildExampleSet, Attribute[] buildKeyAttributes,
+			ExampleSet probeExampleSet, Attribute[] probeKeyAttributes) throws OperatorException {
+		assert buildKeyAttributes.length == probeKeyAttributes.length;
 
-	/**
-	 * Gets examples from secondExampleSet which match the values of the keyAttributes from
-	 * firstExample. If PARAMETER_USE_ID_FOR_JOIN is true, the standard id-mapping of example sets
-	 * is used. If not, secondKeyMapping is used (@see createKeyMapping())
-	 *
-	 */
-	private List<Example> getMatchingExamples(ExampleSet firstExampleSet, ExampleSet secondExampleSet,
-			Attribute[] firstKeyAttributes, Map<DoubleArrayWrapper, List<Example>> secondKeyMapping, boolean useId,
-			Example referenceExample) {
-		// find right examples matching current left example:
-		List<Example> matchingExamples = null;
-		if (useId) {
-			// use existent id mapping of right example set
-			Attribute firstIdAttribute = firstExampleSet.getAttributes().getId();
-			Attribute secondIdAttribute = secondExampleSet.getAttributes().getId();
-			double firstIdValue = referenceExample.getValue(firstIdAttribute);
-			// firstIdValue is NaN if the first value in the id column is a missing value
-			if (Double.isNaN(firstIdValue)) {
-				return null;
-			}
-			int[] matchingExampleIndices = null;
-			if (firstIdAttribute.isNominal()) {
-				matchingExampleIndices = secondExampleSet.getExampleIndicesFromId(
-						secondIdAttribute.getMapping().getIndex(firstIdAttribute.getMapping().mapIndex((int) firstIdValue)));
-			} else {
-				matchingExampleIndices = secondExampleSet.getExampleIndicesFromId(firstIdValue);
-			}
-			if (matchingExampleIndices != null) {
-				matchingExamples = new LinkedList<>();
-				for (int secondExampleIndex : matchingExampleIndices) {
-					Example matchingExample = secondExampleSet.getExample(secondExampleIndex);
-					matchingExamples.add(matchingExample);
+		// create mapping from nominal values of the build keys to the probe keys
+		boolean useId = getParameterAsBoolean(PARAMETER_USE_ID);
+		double[][] valueMappings = new double[buildKeyAttributes.length][];
+		for (int attributeNumber = 0; attributeNumber < buildKeyAttributes.length; ++attributeNumber) {
+			if (buildKeyAttributes[attributeNumber].isNominal()) {
+				NominalMapping buildMapping = buildKeyAttributes[attributeNumber].getMapping();
+				NominalMapping probeMapping = probeKeyAttributes[attributeNumber].getMapping();
+				double[] valueMapping = new double[buildMapping.size()];
+				for (int valueNumber = 0; valueNumber < valueMapping.length; ++valueNumber) {
+					String valueString = buildMapping.mapIndex(valueNumber);
+					// ids only match existing values, other keys are added to the probe mapping
+					int probeIndex = useId ? probeMapping.getIndex(valueString) : probeMapping.mapString(valueString);
+					valueMapping[valueNumber] = probeIndex < 0 ? Double.NaN : probeIndex;
 				}
+				valueMappings[attributeNumber] = valueMapping;
 			}
-		} else {
-			// use previously created mapping
-			double[] leftKeyValues = getKeyValues(referenceExample, firstKeyAttributes);
-			matchingExamples = secondKeyMapping.get(new DoubleArrayWrapper(leftKeyValues));
 		}
-		return matchingExamples;
-	}
 
-	/**
-	 * Returns an array of doubles, which contains the values of the keyAttributes of example.
-	 */
-	private double[] getKeyValues(Example example, Attribute[] keyAttributes) {
-		int numKeys = keyAttributes.length;
-		double[] keyValues = new double[numKeys];
-		for (int i = 0; i < numKeys; ++i) {
-			keyValues[i] = example.getValue(keyAttributes[i]);
+		PartitionedHashJoin join = new PartitionedHashJoin(Resources.getConcurrencyContext(this),
+				Tools.getMemoryBudget(getParameterAsInt(PARAMETER_MEMORY_BUDGET)));
+		try {
+			return join.join(buildExampleSet, buildKeyAttributes, valueMappings, probeExampleSet, probeKeyAttributes,
+					null);
+		} catch (IOException e) {
+			throw new UserError(this, e, 322, "temporary join file", e.getMessage());
 		}
-		return keyValues;
 	}
 
 	/**
@@ -796,6 +684,12 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 				false, true);
 		types.add(keepBoth);
 
+		ParameterType memoryBudget = new ParameterTypeInt(PARAMETER_MEMORY_BUDGET,
+				"The memory in megabytes the hash tables of the keys may use before partitions are written to disk. If 0, half of the currently available memory is used.",
+				0, Integer.MAX_VALUE, 0);
+		memoryBudget.setExpert(true);
+		types.add(memoryBudget);
+
 		return types;
 	}
 
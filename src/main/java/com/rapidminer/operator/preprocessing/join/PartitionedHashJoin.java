@@ -0,0 +1,314 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.join;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.operator.preprocessing.PartitionedKeys;
+import com.rapidminer.operator.preprocessing.PartitionedKeys.KeyConverter;
+import com.rapidminer.studio.concurrency.internal.util.ConcurrencyTools;
+
+
+/**
+ * Matches the examples of a probe {@link ExampleSet} with the examples of a build example set that
+ * have equal values for the key attributes, e.g. for the {@link ExampleSetJoin}.
+ * <p>
+ * The keys of the build side are radix partitioned by the upper bits of their hash, see
+ * {@link PartitionedKeys}. Every partition
+ * gets its own open addressing hash table on primitive {@code long} keys, so the tables are built
+ * in parallel and probed in parallel by ranges of probe examples if a {@link ConcurrencyContext} is
+ * given. Partitions that do not fit into the memory budget are written to temporary files together
+ * with the probe keys falling into them and are joined batch by batch afterwards.
+ * <p>
+ * Key values are compared by their bits, like {@link Arrays#equals(double[], double[])} does.
+ * Examples with a missing key value never match. The values of nominal build keys must be mapped to
+ * the indices of the probe attributes before, see {@link #join}. The matches of a probe example are
+ * reported in the order of the build examples. The result needs four bytes per build and per probe
+ * example.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class PartitionedHashJoin {
+
+	/** Prefix of the temporary partition files */
+	private static final String TEMP_FILE_PREFIX = "rm_join_partition_";
+
+	/**
+	 * The matches of a join. The matching build examples of a probe example form a chain that
+	 * starts at {@link #getFirstMatch(int)} and continues with {@link #getNextMatch(int)}.
+	 */
+	public static final class Result {
+
+		private final int[] firstMatches;
+		private final int[] nextMatches;
+
+		private Result(int[] firstMatches, int[] nextMatches) {
+			this.firstMatches = firstMatches;
+			this.nextMatches = nextMatches;
+		}
+
+		/**
+		 * @return the index of the first build example matching the probe example or {@code -1} if
+		 *         there is none
+		 */
+		public int getFirstMatch(int probeRow) {
+			return firstMatches[probeRow];
+		}
+
+		/**
+		 * @return the index of the build example following the given one with the same key or
+		 *         {@code -1} if it was the last one
+		 */
+		public int getNextMatch(int buildRow) {
+			return nextMatches[buildRow];
+		}
+
+		/**
+		 * @return the indices of all build examples that match at least one probe example
+		 */
+		public BitSet getMatchedBuildRows() {
+			BitSet matched = new BitSet(nextMatches.length);
+			for (int first : firstMatches) {
+				if (first >= 0 && !matched.get(first)) {
+					for (int row = first; row >= 0; row = nextMatches[row]) {
+						matched.set(row);
+					}
+				}
+			}
+			return matched;
+		}
+	}
+
+	/**
+	 * The keys of build examples stored at a range of positions and an open addressing hash table
+	 * pointing to the first and last position of every distinct key.
+	 */
+	private static final class Table {
+
+		private final int[] rows;
+		private final long[][] keys;
+		private final int[] heads;
+		private final int[] tails;
+		private final int mask;
+
+		private Table(int[] rows, long[][] keys, int from, int to, int[] nextMatches) {
+			this.rows = rows;
+			this.keys = keys;
+			int capacity = Integer.highestOneBit(Math.max(1, to - from)) << 2;
+			this.heads = new int[capacity];
+			this.tails = new int[capacity];
+			this.mask = capacity - 1;
+			Arrays.fill(heads, -1);
+			for (int position = from; position < to; position++) {
+				int slot = (int) PartitionedKeys.hash(keys, position) & mask;
+				while (true) {
+					int head = heads[slot];
+					if (head < 0) {
+						heads[slot] = position;
+						tails[slot] = rows[position];
+						break;
+					}
+					if (PartitionedKeys.equal(keys, head, keys, position)) {
+						nextMatches[tails[slot]] = rows[position];
+						tails[slot] = rows[position];
+						break;
+					}
+					slot = slot + 1 & mask;
+				}
+			}
+		}
+
+		/**
+		 * @return the first build example with the given key or {@code -1}
+		 */
+		private int lookup(long[][] key, int position, long hash) {
+			int slot = (int) hash & mask;
+			while (true) {
+				int head = heads[slot];
+				if (head < 0) {
+					return -1;
+				}
+				if (PartitionedKeys.equal(keys, head, key, position)) {
+					return rows[head];
+				}
+				slot = slot + 1 & mask;
+			}
+		}
+	}
+
+	private final ConcurrencyContext context;
+
+	private final long memoryBudget;
+
+	/**
+	 * Creates a new join.
+	 *
+	 * @param context
+	 *            the context used to build and probe in parallel, can be {@code null} to join
+	 *            single-threaded
+	 * @param memoryBudget
+	 *            the number of bytes the hash tables may use in memory, partitions are written to
+	 *            disk if the tables exceed it
+	 */
+	public PartitionedHashJoin(ConcurrencyContext context, long memoryBudget) {
+		this.context = context;
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Finds the build examples matching each probe example.
+	 *
+	 * @param buildSet
+	 *            the example set the hash tables are built for
+	 * @param buildAttributes
+	 *            the key attributes of the build set
+	 * @param buildMappings
+	 *            for each key attribute the probe index of every nominal build index or {@code NaN}
+	 *            if the value does not exist on the probe side; {@code null} for numerical keys
+	 * @param probeSet
+	 *            the example set whose examples are looked up
+	 * @param probeAttributes
+	 *            the key attributes of the probe set in the same order
+	 * @param progress
+	 *            the progress to report to, can be {@code null}
+	 * @return the matches
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 * @throws IOException
+	 *             if a partition cannot be written to or read from disk
+	 */
+	public Result join(ExampleSet buildSet, Attribute[] buildAttributes, double[][] buildMappings, ExampleSet probeSet,
+			Attribute[] probeAttributes, OperatorProgress progress) throws ProcessStoppedException, IOException {
+		if (buildAttributes.length != probeAttributes.length || buildAttributes.length != buildMappings.length) {
+			throw new IllegalArgumentException("Same number of key attributes on both sides required");
+		}
+		int numberOfKeys = buildAttributes.length;
+		int[] nextMatches = new int[buildSet.size()];
+		Arrays.fill(nextMatches, -1);
+		int[] firstMatches = new int[probeSet.size()];
+		Arrays.fill(firstMatches, -1);
+		if (progress != null) {
+			progress.setTotal(100);
+		}
+
+		KeyConverter buildConverter = (k, values, keys, skipped) -> convert(values, buildMappings[k], keys, skipped);
+		KeyConverter probeConverter = (k, values, keys, skipped) -> convert(values, null, keys, skipped);
+		try (PartitionedKeys partitions = new PartitionedKeys(context, memoryBudget, getBytesPerRow(numberOfKeys),
+				TEMP_FILE_PREFIX)) {
+			ExampleSet buildKeySet = partitions.getThreadSafeView(buildSet, buildAttributes);
+			partitions.partition(buildKeySet, PartitionedKeys.getAttributes(buildKeySet, buildAttributes),
+					buildConverter);
+			if (progress != null) {
+				progress.setCompleted(30);
+			}
+
+			// build one table per partition in memory
+			int numberOfPartitions = partitions.getNumberOfPartitions();
+			Table[] tables = new Table[numberOfPartitions];
+			List<Callable<Void>> tasks = new ArrayList<>(numberOfPartitions);
+			for (int p = 0; p < numberOfPartitions; p++) {
+				if (partitions.isInMemory(p)) {
+					int partition = p;
+					tasks.add(() -> {
+						tables[partition] = new Table(partitions.getRows(), partitions.getKeys(),
+								partitions.getStart(partition), partitions.getEnd(partition), nextMatches);
+						return null;
+					});
+				}
+			}
+			ConcurrencyTools.call(context, tasks, IOException.class);
+			if (progress != null) {
+				progress.setCompleted(50);
+			}
+
+			// probe ranges of examples in parallel
+			ExampleSet probeKeySet = partitions.getThreadSafeView(probeSet, probeAttributes);
+			Attribute[] probeKeyAttributes = PartitionedKeys.getAttributes(probeKeySet, probeAttributes);
+			int probeChunks = PartitionedKeys.getNumberOfChunks(probeSet);
+			tasks = new ArrayList<>(probeChunks);
+			for (int c = 0; c < probeChunks; c++) {
+				int chunk = c;
+				tasks.add(() -> {
+					partitions.forEachKey(probeKeySet, probeKeyAttributes, probeConverter, chunk,
+							(chunkKeys, position, row, partition) -> {
+								Table table = tables[partition];
+								if (table != null) {
+									firstMatches[row] = table.lookup(chunkKeys, position,
+											PartitionedKeys.hash(chunkKeys, position));
+								}
+							});
+					return null;
+				});
+			}
+			ConcurrencyTools.call(context, tasks, IOException.class);
+			if (progress != null) {
+				progress.setCompleted(80);
+			}
+
+			// join the partitions on disk with the probe keys falling into them
+			partitions.spillKeys(probeKeySet, probeKeyAttributes, probeConverter);
+			partitions.forEachSpilledPartition((partition, rows, keys) -> {
+				Table table = new Table(rows, keys, 0, rows.length, nextMatches);
+				partitions.forEachSpilledKey(partition, (key, position, row, p) -> firstMatches[row] = table.lookup(key,
+						position, PartitionedKeys.hash(key, position)));
+			}, progress, 80, 100);
+		}
+		if (progress != null) {
+			progress.setCompleted(100);
+		}
+		return new Result(firstMatches, nextMatches);
+	}
+
+	/**
+	 * Converts the values of a key attribute to their bits, mapping nominal values to the indices
+	 * of the probe attribute first. Missing values are skipped.
+	 */
+	private static void convert(double[] values, double[] mapping, long[] keys, boolean[] skipped) {
+		for (int i = 0; i < values.length; i++) {
+			double value = values[i];
+			if (mapping != null && !Double.isNaN(value)) {
+				value = mapping[(int) value];
+			}
+			if (Double.isNaN(value)) {
+				skipped[i] = true;
+			} else {
+				keys[i] = Double.doubleToLongBits(value);
+			}
+		}
+	}
+
+	/**
+	 * @return the estimated memory of a key in a table, including the slots and the stored key
+	 */
+	private static long getBytesPerRow(int numberOfKeys) {
+		return 8L * numberOfKeys + 4 + 32;
+	}
+
+}
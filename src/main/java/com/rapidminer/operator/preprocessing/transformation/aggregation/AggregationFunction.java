@@ -84,6 +84,9 @@ public abstract class AggregationFunction {
 	public static final String FUNCTION_NAME_LEAST = "least";
 	public static final String FUNCTION_NAME_LEAST_ONLY_OCCURRING = "least (only occurring)";
 	public static final String FUNCTION_NAME_CONCATENATION = "concatenation";
+	public static final String FUNCTION_NAME_MEDIAN_APPROXIMATE = "median (approximate)";
+	public static final String FUNCTION_NAME_COUNT_DISTINCT_APPROXIMATE = "count (distinct, approximate)";
+	public static final String FUNCTION_NAME_MODE_APPROXIMATE = "mode (approximate)";
 
 	public static final Map<String, Class<? extends AggregationFunction>> AGGREATION_FUNCTIONS = new TreeMap<>();
 	static {
@@ -112,6 +115,12 @@ public abstract class AggregationFunction {
 		AGGREATION_FUNCTIONS.put(FUNCTION_NAME_LEAST, LeastAggregationFunction.class);
 		AGGREATION_FUNCTIONS.put(FUNCTION_NAME_LEAST_ONLY_OCCURRING, LeastOccurringAggregationFunction.class);
 		AGGREATION_FUNCTIONS.put(FUNCTION_NAME_CONCATENATION, ConcatAggregationFunction.class);
+
+		// approximations with bounded memory
+		AGGREATION_FUNCTIONS.put(FUNCTION_NAME_MEDIAN_APPROXIMATE, ApproximateMedianAggregationFunction.class);
+		AGGREATION_FUNCTIONS.put(FUNCTION_NAME_COUNT_DISTINCT_APPROXIMATE,
+				ApproximateDistinctCountAggregationFunction.class);
+		AGGREATION_FUNCTIONS.put(FUNCTION_NAME_MODE_APPROXIMATE, ApproximateModeAggregationFunction.class);
 	}
 
 	/**
@@ -220,6 +229,21 @@ public abstract class AggregationFunction {
 				new DefaultAggregationFunctionMetaDataProvider(FUNCTION_NAME_CONCATENATION,
 						ConcatAggregationFunction.FUNCTION_CONCAT, FUNCTION_SEPARATOR_OPEN, FUNCTION_SEPARATOR_CLOSE,
 						new int[] { Ontology.NOMINAL }, Ontology.POLYNOMINAL));
+
+		// approximations with bounded memory
+		AGGREGATION_FUNCTIONS_META_DATA_PROVIDER.put(FUNCTION_NAME_MEDIAN_APPROXIMATE,
+				new MappingAggregationFunctionMetaDataProvider(FUNCTION_NAME_MEDIAN_APPROXIMATE,
+						ApproximateMedianAggregationFunction.FUNCTION_MEDIAN_APPROXIMATE, FUNCTION_SEPARATOR_OPEN,
+						FUNCTION_SEPARATOR_CLOSE, transformationRules));
+		AGGREGATION_FUNCTIONS_META_DATA_PROVIDER.put(FUNCTION_NAME_COUNT_DISTINCT_APPROXIMATE,
+				new DefaultAggregationFunctionMetaDataProvider(FUNCTION_NAME_COUNT_DISTINCT_APPROXIMATE,
+						ApproximateDistinctCountAggregationFunction.FUNCTION_COUNT_DISTINCT_APPROXIMATE,
+						FUNCTION_SEPARATOR_OPEN, FUNCTION_SEPARATOR_CLOSE, new int[] { Ontology.ATTRIBUTE_VALUE },
+						Ontology.INTEGER));
+		AGGREGATION_FUNCTIONS_META_DATA_PROVIDER.put(FUNCTION_NAME_MODE_APPROXIMATE,
+				new DefaultAggregationFunctionMetaDataProvider(FUNCTION_NAME_MODE_APPROXIMATE,
+						ApproximateModeAggregationFunction.FUNCTION_MODE_APPROXIMATE, FUNCTION_SEPARATOR_OPEN,
+						FUNCTION_SEPARATOR_CLOSE, new int[] { Ontology.ATTRIBUTE_VALUE }));
 	}
 
 	private Attribute sourceAttribute;
@@ -71,6 +71,7 @@ import com.rapidminer.parameter.ParameterTypeList;
 import com.rapidminer.parameter.ParameterTypeStringCategory;
 import com.rapidminer.parameter.UndefinedParameterError;
 import com.rapidminer.parameter.conditions.BooleanParameterCondition;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
 import com.rapidminer.tools.OperatorService;
@@ -215,6 +216,7 @@ public class AggregationOperator extends AbstractDataProcessing {
 	public static final String PARAMETER_ONLY_DISTINCT = "only_distinct";
 	public static final String PARAMETER_IGNORE_MISSINGS = "ignore_missings";
 	public static final String PARAMETER_ALL_COMBINATIONS = "count_all_combinations";
+	public static final String PARAMETER_SORT_GROUPS = "sort_groups";
 
 	/* These two only remain for compatibility */
 	public static final String GENERIC_GROUP_NAME = "group";
@@ -338,6 +340,13 @@ public class AggregationOperator extends AbstractDataProcessing {
 
 	@Override
 	public ExampleSet apply(ExampleSet exampleSet) throws OperatorException {
+		// large example sets are counted by several threads, which requires a thread-safe view
+		if (!getParameterAsBoolean(PARAMETER_ALL_COMBINATIONS)
+				&& HashGroupBy.isParallel(exampleSet, Resources.getConcurrencyContext(this))
+				&& !ExampleSets.isThreadSafe(exampleSet)) {
+			exampleSet = ExampleSets.createThreadSafeCopy(exampleSet);
+		}
+
 		// creating data structures for building aggregates
 		List<AggregationFunction> aggregationFunctions = createAggreationFunctions(exampleSet);
 		Attribute[] groupAttributes;
@@ -398,55 +407,6 @@ public class AggregationOperator extends AbstractDataProcessing {
 					getParameterAsString(PARAMETER_GROUP_BY_ATTRIBUTES));
 		}
 
-		Attribute weightAttribute = exampleSet.getAttributes().getWeight();
-		boolean useWeights = weightAttribute != null;
-
-		// running over exampleSet and aggregate data of each example
-		AggregationTreeNode rootNode = new AggregationTreeNode();
-		LeafAggregationTreeNode leafNode = null;
-		if (groupAttributes.length == 0) {
-			// if no grouping, we will directly insert into leaf node
-			leafNode = new LeafAggregationTreeNode(aggregationFunctions);
-		}
-		getProgress().setTotal(exampleSet.size());
-		int progressCounter = 0;
-		for (Example example : exampleSet) {
-			if (groupAttributes.length > 0) {
-				AggregationTreeNode currentNode = rootNode;
-				// now traversing aggregation tree for m-1 group attributes
-				for (int i = 0; i < groupAttributes.length - 1; i++) {
-					Attribute currentAttribute = groupAttributes[i];
-					if (currentAttribute.isNominal()) {
-						currentNode = currentNode.getOrCreateChild(example.getValueAsString(currentAttribute));
-					} else {
-						currentNode = currentNode.getOrCreateChild(example.getValue(currentAttribute));
-					}
-				}
-
-				// now we have to get the leaf node containing the aggregators
-				Attribute currentAttribute = groupAttributes[groupAttributes.length - 1];
-				if (currentAttribute.isNominal()) {
-					leafNode = currentNode.getOrCreateLeaf(example.getValueAsString(currentAttribute), aggregationFunctions);
-				} else {
-					leafNode = currentNode.getOrCreateLeaf(example.getValue(currentAttribute), aggregationFunctions);
-				}
-			}
-			// now count current example
-			if (!useWeights) {
-				leafNode.count(example);
-			} else {
-				leafNode.count(example, example.getValue(weightAttribute));
-			}
-
-			// Trigger operator progress
-			if (++progressCounter % 100 == 0) {
-				getProgress().setCompleted(progressCounter);
-			}
-		}
-
-		// now derive new example set from aggregated values
-		boolean isCountingAllCombinations = getParameterAsBoolean(PARAMETER_ALL_COMBINATIONS);
-
 		// building new attributes from grouping attributes and aggregation functions
 		Attribute[] newAttributes = new Attribute[groupAttributes.length + aggregationFunctions.size()];
 		for (int i = 0; i < groupAttributes.length; i++) {
@@ -460,8 +420,6 @@ public class AggregationOperator extends AbstractDataProcessing {
 
 		// creating example set
 		ExampleSetBuilder builder = ExampleSets.from(newAttributes);
-		DataRowFactory factory = new DataRowFactory(DataRowFactory.TYPE_DOUBLE_ARRAY, '.');
-		double[] dataOfUpperLevels = new double[groupAttributes.length];
 
 		// prepare empty lists
 		ArrayList<List<Aggregator>> allAggregators = new ArrayList<>();
@@ -471,14 +429,17 @@ public class AggregationOperator extends AbstractDataProcessing {
 
 		ArrayList<double[]> allGroupCombinations = new ArrayList<>();
 
-		if (groupAttributes.length > 0) {
-			// going through all possible groups recursively
+		boolean isCountingAllCombinations = getParameterAsBoolean(PARAMETER_ALL_COMBINATIONS);
+		if (isCountingAllCombinations && groupAttributes.length > 0) {
+			// the tree also enumerates the combinations that do not occur
+			AggregationTreeNode rootNode = aggregateByTree(exampleSet, groupAttributes, aggregationFunctions);
+			DataRowFactory factory = new DataRowFactory(DataRowFactory.TYPE_DOUBLE_ARRAY, '.');
+			double[] dataOfUpperLevels = new double[groupAttributes.length];
 			parseTree(rootNode, groupAttributes, dataOfUpperLevels, 0, allGroupCombinations, allAggregators, factory,
 					newAttributes, isCountingAllCombinations, aggregationFunctions);
 		} else {
-			// just enter values from single leaf node
-			parseLeaf(leafNode, dataOfUpperLevels, allGroupCombinations, allAggregators, factory, newAttributes,
-					aggregationFunctions);
+			aggregateByHash(exampleSet, groupAttributes, aggregationFunctions, newAttributes, allGroupCombinations,
+					allAggregators);
 		}
 
 		// apply post-processing
@@ -557,6 +518,93 @@ public class AggregationOperator extends AbstractDataProcessing {
 		return resultSet;
 	}
 
+	/**
+	 * Counts the examples into a tree of their group values.
+	 */
+	private AggregationTreeNode aggregateByTree(ExampleSet exampleSet, Attribute[] groupAttributes,
+			List<AggregationFunction> aggregationFunctions) throws OperatorException {
+		Attribute weightAttribute = exampleSet.getAttributes().getWeight();
+		boolean useWeights = weightAttribute != null;
+
+		// running over exampleSet and aggregate data of each example
+		AggregationTreeNode rootNode = new AggregationTreeNode();
+		getProgress().setTotal(exampleSet.size());
+		int progressCounter = 0;
+		for (Example example : exampleSet) {
+			AggregationTreeNode currentNode = rootNode;
+			// now traversing aggregation tree for m-1 group attributes
+			for (int i = 0; i < groupAttributes.length - 1; i++) {
+				Attribute currentAttribute = groupAttributes[i];
+				if (currentAttribute.isNominal()) {
+					currentNode = currentNode.getOrCreateChild(example.getValueAsString(currentAttribute));
+				} else {
+					currentNode = currentNode.getOrCreateChild(example.getValue(currentAttribute));
+				}
+			}
+
+			// now we have to get the leaf node containing the aggregators
+			Attribute currentAttribute = groupAttributes[groupAttributes.length - 1];
+			LeafAggregationTreeNode leafNode;
+			if (currentAttribute.isNominal()) {
+				leafNode = currentNode.getOrCreateLeaf(example.getValueAsString(currentAttribute), aggregationFunctions);
+			} else {
+				leafNode = currentNode.getOrCreateLeaf(example.getValue(currentAttribute), aggregationFunctions);
+			}
+
+			// now count current example
+			if (!useWeights) {
+				leafNode.count(example);
+			} else {
+				leafNode.count(example, example.getValue(weightAttribute));
+			}
+
+			// Trigger operator progress
+			if (++progressCounter % 100 == 0) {
+				getProgress().setCompleted(progressCounter);
+			}
+		}
+		return rootNode;
+	}
+
+	/**
+	 * Counts the examples with a {@link HashGroupBy} and adds the values of the group attributes
+	 * and the aggregators of every group to the lists, sorted by the group values if requested.
+	 */
+	private void aggregateByHash(ExampleSet exampleSet, Attribute[] groupAttributes,
+			List<AggregationFunction> aggregationFunctions, Attribute[] newAttributes, List<double[]> allGroupCombinations,
+			List<List<Aggregator>> allAggregators) throws OperatorException {
+		for (Attribute groupAttribute : groupAttributes) {
+			if (!groupAttribute.isNominal() && !groupAttribute.isNumerical()
+					&& !Ontology.ATTRIBUTE_VALUE_TYPE.isA(groupAttribute.getValueType(), Ontology.DATE_TIME)) {
+				throw new UserError(this, "aggregation_operator.unsupported_value_type", groupAttribute.getName(),
+						Ontology.ATTRIBUTE_VALUE_TYPE.getNames()[groupAttribute.getValueType()]);
+			}
+		}
+
+		HashGroupBy.Groups groups = new HashGroupBy(Resources.getConcurrencyContext(this)).aggregate(exampleSet,
+				groupAttributes, aggregationFunctions, getProgress());
+		int[] order = getParameterAsBoolean(PARAMETER_SORT_GROUPS) ? groups.getSortedGroups(groupAttributes) : null;
+		for (int i = 0; i < groups.size(); i++) {
+			int group = order == null ? i : order[i];
+			double[] groupValues = new double[groupAttributes.length];
+			for (int k = 0; k < groupAttributes.length; k++) {
+				double value = groups.getValue(k, group);
+				if (groupAttributes[k].isNominal()) {
+					String nominalValue = Double.isNaN(value) ? Attribute.MISSING_NOMINAL_VALUE
+							: groupAttributes[k].getMapping().mapIndex((int) value);
+					value = newAttributes[k].getMapping().mapString(nominalValue);
+				}
+				groupValues[k] = value;
+			}
+			allGroupCombinations.add(groupValues);
+
+			Aggregator[] aggregators = groups.getAggregators(group);
+			for (int f = 0; f < aggregators.length; f++) {
+				allAggregators.get(f).add(aggregators[f]);
+			}
+		}
+	}
+
 	private void parseLeaf(LeafAggregationTreeNode node, double[] dataOfUpperLevels, List<double[]> allGroupCombinations,
 			List<List<Aggregator>> allAggregators, DataRowFactory factory, Attribute[] newAttributes,
 			List<AggregationFunction> aggregationFunctions) {
@@ -749,6 +797,11 @@ public class AggregationOperator extends AbstractDataProcessing {
 		types.add(new ParameterTypeBoolean(PARAMETER_IGNORE_MISSINGS,
 				"Indicates if missings should be ignored and aggregation should be based only on existing values or not. In the latter case the aggregated value will be missing in the presence of missing values.",
 				true));
+		type = new ParameterTypeBoolean(PARAMETER_SORT_GROUPS,
+				"Indicates if the groups are sorted by the values of the group by attributes. Otherwise they are delivered in the order of their first occurrence, which is faster for many groups.",
+				true, true);
+		type.registerDependencyCondition(new BooleanParameterCondition(this, PARAMETER_ALL_COMBINATIONS, false, false));
+		types.add(type);
 		return types;
 	}
 
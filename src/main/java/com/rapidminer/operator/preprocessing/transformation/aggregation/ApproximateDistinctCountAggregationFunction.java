@@ -0,0 +1,71 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.transformation.aggregation;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.table.DoubleArrayDataRow;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.math.sketch.HyperLogLog;
+
+
+/**
+ * This class implements the approximate distinct Count Aggregation function. It estimates the
+ * number of distinct values within a group with a {@link HyperLogLog} sketch of bounded size
+ * instead of remembering all values. Groups with up to 256 distinct values are counted exactly.
+ * Weights are not taken into account and the values are always counted only once.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class ApproximateDistinctCountAggregationFunction extends NumericalAggregationFunction {
+
+	public static final String FUNCTION_COUNT_DISTINCT_APPROXIMATE = "approximate_distinct_count";
+
+	public ApproximateDistinctCountAggregationFunction(Attribute sourceAttribute, boolean ignoreMissings,
+			boolean countOnlyDisctinct) {
+		this(sourceAttribute, ignoreMissings, countOnlyDisctinct, FUNCTION_COUNT_DISTINCT_APPROXIMATE,
+				FUNCTION_SEPARATOR_OPEN, FUNCTION_SEPARATOR_CLOSE);
+	}
+
+	public ApproximateDistinctCountAggregationFunction(Attribute sourceAttribute, boolean ignoreMissings,
+			boolean countOnlyDisctinct, String functionName, String separatorOpen, String separatorClose) {
+		// the sketch counts distinct values by itself, remembering them is not necessary
+		super(sourceAttribute, ignoreMissings, false, functionName, separatorOpen, separatorClose);
+	}
+
+	@Override
+	public Aggregator createAggregator() {
+		return new ApproximateDistinctCountAggregator(this);
+	}
+
+	@Override
+	public boolean isCompatible() {
+		return true;
+	}
+
+	@Override
+	public void setDefault(Attribute attribute, DoubleArrayDataRow row) {
+		row.set(attribute, 0);
+	}
+
+	@Override
+	protected int getTargetValueType(int sourceValueType) {
+		return Ontology.INTEGER;
+	}
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.transformation.aggregation;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.tools.math.sketch.QuantileSketch;
+
+
+/**
+ * This class implements the approximate Median Aggregation function. Other than the
+ * {@link MedianAggregationFunction}, it does not remember all values of a group but estimates the
+ * median with a {@link QuantileSketch} of bounded size. Groups with up to 1000 values get the
+ * exact median. Counting only distinct values is not supported, since it would require to remember
+ * all distinct values of a group, hence all values are taken into account.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class ApproximateMedianAggregationFunction extends MedianAggregationFunction {
+
+	public static final String FUNCTION_MEDIAN_APPROXIMATE = "approximate_median";
+
+	public ApproximateMedianAggregationFunction(Attribute sourceAttribute, boolean ignoreMissings,
+			boolean countOnlyDisctinct) {
+		this(sourceAttribute, ignoreMissings, countOnlyDisctinct, FUNCTION_MEDIAN_APPROXIMATE, FUNCTION_SEPARATOR_OPEN,
+				FUNCTION_SEPARATOR_CLOSE);
+	}
+
+	public ApproximateMedianAggregationFunction(Attribute sourceAttribute, boolean ignoreMissings,
+			boolean countOnlyDisctinct, String functionName, String separatorOpen, String separatorClose) {
+		// remembering the distinct values would defeat the bounded size of the sketch
+		super(sourceAttribute, ignoreMissings, false, functionName, separatorOpen, separatorClose);
+	}
+
+	@Override
+	public Aggregator createAggregator() {
+		return new ApproximateMedianAggregator(this);
+	}
+
+}
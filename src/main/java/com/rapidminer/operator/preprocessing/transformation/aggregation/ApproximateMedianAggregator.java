@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.transformation.aggregation;
+
+import com.rapidminer.tools.math.sketch.QuantileSketch;
+
+
+/**
+ * This is an {@link Aggregator} for the {@link ApproximateMedianAggregationFunction}. It summarizes
+ * the values in a {@link QuantileSketch}, so that its memory consumption is bounded independently
+ * of the size of the group. Its function never counts only distinct values, so the inherited
+ * handling of distinct values does not remember any values.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class ApproximateMedianAggregator extends NumericalAggregator implements MergeableAggregator {
+
+	private QuantileSketch sketch = new QuantileSketch();
+
+	public ApproximateMedianAggregator(AggregationFunction function) {
+		super(function);
+	}
+
+	@Override
+	protected void count(double value) {
+		sketch.add(value);
+	}
+
+	@Override
+	protected void count(double value, double weight) {
+		sketch.add(value, weight);
+	}
+
+	@Override
+	protected double getValue() {
+		return sketch.getQuantile(0.5);
+	}
+
+	@Override
+	public void merge(Aggregator other) {
+		ApproximateMedianAggregator aggregator = (ApproximateMedianAggregator) other;
+		if (mergeCountingState(aggregator)) {
+			sketch.merge(aggregator.sketch);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.transformation.aggregation;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.table.NominalMapping;
+import com.rapidminer.tools.math.sketch.HeavyHitters;
+
+
+/**
+ * This class implements the approximate Mode Aggregation function. Other than the
+ * {@link ModeAggregationFunction}, it does not count the frequencies of all values of a group but
+ * keeps the most frequent values in a {@link HeavyHitters} sketch of bounded size. Groups with up
+ * to 64 distinct values get the exact mode.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class ApproximateModeAggregationFunction extends AggregationFunction {
+
+	public static final String FUNCTION_MODE_APPROXIMATE = "approximate_mode";
+	private Attribute targetAttribute;
+
+	public ApproximateModeAggregationFunction(Attribute sourceAttribute, boolean ignoreMissings,
+			boolean countOnlyDisctinct) {
+		this(sourceAttribute, ignoreMissings, countOnlyDisctinct, FUNCTION_MODE_APPROXIMATE, FUNCTION_SEPARATOR_OPEN,
+				FUNCTION_SEPARATOR_CLOSE);
+	}
+
+	public ApproximateModeAggregationFunction(Attribute sourceAttribute, boolean ignoreMissings,
+			boolean countOnlyDisctinct, String functionName, String separatorOpen, String separatorClose) {
+		super(sourceAttribute, ignoreMissings, countOnlyDisctinct);
+		this.targetAttribute = AttributeFactory.createAttribute(
+				functionName + separatorOpen + getSourceAttribute().getName() + separatorClose,
+				getSourceAttribute().getValueType());
+		if (sourceAttribute.isNominal()) {
+			this.targetAttribute.setMapping((NominalMapping) sourceAttribute.getMapping().clone());
+		}
+	}
+
+	@Override
+	public Attribute getTargetAttribute() {
+		return targetAttribute;
+	}
+
+	@Override
+	public boolean isCompatible() {
+		return getSourceAttribute().isNominal() || getSourceAttribute().isNumerical();
+	}
+
+	@Override
+	public Aggregator createAggregator() {
+		return new ApproximateModeAggregator(this);
+	}
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.transformation.aggregation;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.table.DataRow;
+import com.rapidminer.tools.math.sketch.HeavyHitters;
+
+
+/**
+ * This is an {@link Aggregator} for the {@link ApproximateModeAggregationFunction}. Missing values
+ * are ignored. If the mode is not unique, the smallest value, i.e. the first value from the nominal
+ * mapping, will be used.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class ApproximateModeAggregator implements MergeableAggregator {
+
+	private Attribute sourceAttribute;
+	private HeavyHitters sketch = new HeavyHitters();
+
+	public ApproximateModeAggregator(AggregationFunction function) {
+		this.sourceAttribute = function.getSourceAttribute();
+	}
+
+	@Override
+	public void count(Example example) {
+		sketch.add(example.getValue(sourceAttribute));
+	}
+
+	@Override
+	public void count(Example example, double weight) {
+		sketch.add(example.getValue(sourceAttribute), weight);
+	}
+
+	@Override
+	public void set(Attribute attribute, DataRow row) {
+		row.set(attribute, sketch.getMostFrequent());
+	}
+
+	@Override
+	public void merge(Aggregator other) {
+		sketch.merge(((ApproximateModeAggregator) other).sketch);
+	}
+}
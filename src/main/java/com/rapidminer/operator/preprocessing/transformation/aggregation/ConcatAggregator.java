@@ -27,7 +27,7 @@ import com.rapidminer.example.table.DataRow;
  * @author Marius Helf
  * 
  */
-public class ConcatAggregator implements Aggregator {
+public class ConcatAggregator implements MergeableAggregator {
 
 	private ConcatAggregationFunction function;
 	boolean first = true;
@@ -64,4 +64,16 @@ public class ConcatAggregator implements Aggregator {
 		attribute.setValue(row, idx);
 	}
 
+	@Override
+	public void merge(Aggregator other) {
+		ConcatAggregator aggregator = (ConcatAggregator) other;
+		if (!aggregator.first) {
+			if (first) {
+				first = false;
+			} else {
+				concatenation.append(function.getSeparator());
+			}
+			concatenation.append(aggregator.concatenation);
+		}
+	}
 }
@@ -22,7 +22,9 @@ import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.table.DataRow;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map.Entry;
 
 
 /**
@@ -31,7 +33,7 @@ import java.util.HashSet;
  * 
  * @author Sebastian Land
  */
-public class CountAggregator implements Aggregator {
+public class CountAggregator implements MergeableAggregator {
 
 	private Attribute sourceAttribute;
 	private double count = 0;
@@ -39,6 +41,8 @@ public class CountAggregator implements Aggregator {
 
 	private boolean isCountingOnlyDistinct = false;
 	private HashSet<Double> valuesOccured = null;
+	/** the distinct values counted with weights and their first weight, needed for merging */
+	private HashMap<Double, Double> weightsOccured = null;
 
 	public CountAggregator(AggregationFunction function) {
 		this.sourceAttribute = function.getSourceAttribute();
@@ -63,7 +67,7 @@ public class CountAggregator implements Aggregator {
 	public void count(Example example, double weight) {
 		double value = example.getValue(sourceAttribute);
 		if (!Double.isNaN(value)) {
-			if (!isCountingOnlyDistinct || valuesOccured.add(value)) {
+			if (!isCountingOnlyDistinct || addWeighted(value, weight)) {
 				count += weight;
 			}
 		} else if (!isIgnoringMissings) {
@@ -83,4 +87,35 @@ public class CountAggregator implements Aggregator {
 	public void setCount(double count) {
 		this.count = count;
 	}
+
+	private boolean addWeighted(double value, double weight) {
+		if (weightsOccured == null) {
+			weightsOccured = new HashMap<>();
+		}
+		return weightsOccured.putIfAbsent(value, weight) == null;
+	}
+
+	@Override
+	public void merge(Aggregator other) {
+		CountAggregator aggregator = (CountAggregator) other;
+		if (isCountingOnlyDistinct) {
+			for (Double value : aggregator.valuesOccured) {
+				if (valuesOccured.add(value)) {
+					count++;
+				}
+			}
+			if (aggregator.weightsOccured != null) {
+				for (Entry<Double, Double> entry : aggregator.weightsOccured.entrySet()) {
+					if (addWeighted(entry.getKey(), entry.getValue())) {
+						count += entry.getValue();
+					}
+				}
+			}
+			if (Double.isNaN(aggregator.count)) {
+				count = Double.NaN;
+			}
+		} else {
+			count += aggregator.count;
+		}
+	}
 }
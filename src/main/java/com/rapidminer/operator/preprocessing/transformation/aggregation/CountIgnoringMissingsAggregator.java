@@ -22,7 +22,9 @@ import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.table.DataRow;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map.Entry;
 
 
 /**
@@ -31,13 +33,15 @@ import java.util.HashSet;
  * 
  * @author Sebastian Land
  */
-public class CountIgnoringMissingsAggregator implements Aggregator {
+public class CountIgnoringMissingsAggregator implements MergeableAggregator {
 
 	private Attribute sourceAttribute;
 	private double count = 0;
 
 	private boolean isCountingOnlyDistinct = false;
 	private HashSet<Double> valuesOccured = null;
+	/** the distinct values counted with weights and their first weight, needed for merging */
+	private HashMap<Double, Double> weightsOccured = null;
 
 	public CountIgnoringMissingsAggregator(AggregationFunction function) {
 		this.sourceAttribute = function.getSourceAttribute();
@@ -61,7 +65,7 @@ public class CountIgnoringMissingsAggregator implements Aggregator {
 	public void count(Example example, double weight) {
 		double value = example.getValue(sourceAttribute);
 		if (!Double.isNaN(value)) {
-			if (!isCountingOnlyDistinct || valuesOccured.add(value)) {
+			if (!isCountingOnlyDistinct || addWeighted(value, weight)) {
 				count += weight;
 			}
 		}
@@ -71,4 +75,35 @@ public class CountIgnoringMissingsAggregator implements Aggregator {
 	public void set(Attribute attribute, DataRow row) {
 		row.set(attribute, count);
 	}
+
+	private boolean addWeighted(double value, double weight) {
+		if (weightsOccured == null) {
+			weightsOccured = new HashMap<>();
+		}
+		return weightsOccured.putIfAbsent(value, weight) == null;
+	}
+
+	@Override
+	public void merge(Aggregator other) {
+		CountIgnoringMissingsAggregator aggregator = (CountIgnoringMissingsAggregator) other;
+		if (isCountingOnlyDistinct) {
+			for (Double value : aggregator.valuesOccured) {
+				if (valuesOccured.add(value)) {
+					count++;
+				}
+			}
+			if (aggregator.weightsOccured != null) {
+				for (Entry<Double, Double> entry : aggregator.weightsOccured.entrySet()) {
+					if (addWeighted(entry.getKey(), entry.getValue())) {
+						count += entry.getValue();
+					}
+				}
+			}
+			if (Double.isNaN(aggregator.count)) {
+				count = Double.NaN;
+			}
+		} else {
+			count += aggregator.count;
+		}
+	}
 }
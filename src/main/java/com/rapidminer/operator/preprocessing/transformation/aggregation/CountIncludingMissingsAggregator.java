@@ -22,7 +22,9 @@ import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.table.DataRow;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map.Entry;
 
 
 /**
@@ -32,7 +34,7 @@ import java.util.HashSet;
  * 
  * @author Sebastian Land
  */
-public class CountIncludingMissingsAggregator implements Aggregator {
+public class CountIncludingMissingsAggregator implements MergeableAggregator {
 
 	private Attribute sourceAttribute;
 	private double count = 0;
@@ -40,6 +42,8 @@ public class CountIncludingMissingsAggregator implements Aggregator {
 
 	private boolean isCountingOnlyDistinct = false;
 	private HashSet<Double> valuesOccured = null;
+	/** the distinct values counted with weights and their first weight, needed for merging */
+	private HashMap<Double, Double> weightsOccured = null;
 
 	public CountIncludingMissingsAggregator(AggregationFunction function) {
 		this.sourceAttribute = function.getSourceAttribute();
@@ -72,7 +76,7 @@ public class CountIncludingMissingsAggregator implements Aggregator {
 		} else {
 			double value = example.getValue(sourceAttribute);
 			if (!Double.isNaN(value)) {
-				if (!isCountingOnlyDistinct || valuesOccured.add(value)) {
+				if (!isCountingOnlyDistinct || addWeighted(value, weight)) {
 					count += weight;
 				}
 			}
@@ -91,4 +95,35 @@ public class CountIncludingMissingsAggregator implements Aggregator {
 	public void setCount(double count) {
 		this.count = count;
 	}
+
+	private boolean addWeighted(double value, double weight) {
+		if (weightsOccured == null) {
+			weightsOccured = new HashMap<>();
+		}
+		return weightsOccured.putIfAbsent(value, weight) == null;
+	}
+
+	@Override
+	public void merge(Aggregator other) {
+		CountIncludingMissingsAggregator aggregator = (CountIncludingMissingsAggregator) other;
+		if (isCountingOnlyDistinct) {
+			for (Double value : aggregator.valuesOccured) {
+				if (valuesOccured.add(value)) {
+					count++;
+				}
+			}
+			if (aggregator.weightsOccured != null) {
+				for (Entry<Double, Double> entry : aggregator.weightsOccured.entrySet()) {
+					if (addWeighted(entry.getKey(), entry.getValue())) {
+						count += entry.getValue();
+					}
+				}
+			}
+			if (Double.isNaN(aggregator.count)) {
+				count = Double.NaN;
+			}
+		} else {
+			count += aggregator.count;
+		}
+	}
 }
@@ -0,0 +1,437 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.transformation.aggregation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.NominalMapping;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.studio.concurrency.internal.util.ConcurrencyTools;
+
+
+/**
+ * Groups the examples of an {@link ExampleSet} by the values of the group attributes and counts
+ * every group with the {@link Aggregator}s of the {@link AggregationFunction}s, e.g. for the
+ * {@link AggregationOperator}.
+ * <p>
+ * The values of the group attributes are read in chunks and looked up by their primitive bits in an
+ * open addressing hash table, so no objects are created per example apart from the aggregators of
+ * new groups. Missing nominal values form the group {@link Attribute#MISSING_NOMINAL_VALUE}, all
+ * other values are grouped like {@link Double#equals(Object)} does.
+ * <p>
+ * If a {@link ConcurrencyContext} is given and all aggregators are {@link MergeableAggregator}s,
+ * the examples are split into one range per thread. Every range is counted into its own groups,
+ * which are merged in the order of the ranges afterwards. Thus the aggregators of a group see the
+ * examples in their original order in any case, but sums of floating point values might differ in
+ * the last digits from a sequential run. Since views like filtered or joined example sets are not
+ * safe for concurrent reads, only example sets that are {@link ExampleSets#isThreadSafe(ExampleSet)
+ * thread-safe} are counted in parallel; callers should hand over a
+ * {@link ExampleSets#createThreadSafeCopy(ExampleSet) thread-safe copy} if
+ * {@link #isParallel(ExampleSet, ConcurrencyContext)} holds.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+class HashGroupBy {
+
+	/** Example sets with fewer examples are counted sequentially */
+	static final int MIN_PARALLEL_ROWS = 1 << 16;
+
+	/** The number of examples of a range counted at once */
+	private static final int CHUNK_SIZE = 1 << 14;
+
+	/**
+	 * The groups found and their aggregators in the order of their first example.
+	 */
+	static final class Groups {
+
+		private final long[][] keys;
+		private long[] hashes = new long[16];
+		private Aggregator[][] aggregators = new Aggregator[16][];
+		private int size = 0;
+
+		/** the index of the group plus one in every used slot */
+		private int[] table = new int[32];
+
+		private Groups(int numberOfKeys) {
+			keys = new long[numberOfKeys][16];
+		}
+
+		/**
+		 * @return the number of groups
+		 */
+		int size() {
+			return size;
+		}
+
+		/**
+		 * @return the value of the group attribute for the group, an index of the source mapping
+		 *         for nominal attributes
+		 */
+		double getValue(int attribute, int group) {
+			return Double.longBitsToDouble(keys[attribute][group]);
+		}
+
+		/**
+		 * @return the aggregators of the group in the order of the aggregation functions
+		 */
+		Aggregator[] getAggregators(int group) {
+			return aggregators[group];
+		}
+
+		/**
+		 * @return the group with the given key or {@code -1}
+		 */
+		private int find(long[][] key, int position, long hash) {
+			int mask = table.length - 1;
+			int slot = (int) hash & mask;
+			while (true) {
+				int group = table[slot] - 1;
+				if (group < 0) {
+					return -1;
+				}
+				if (hashes[group] == hash && equal(key, position, group)) {
+					return group;
+				}
+				slot = slot + 1 & mask;
+			}
+		}
+
+		private boolean equal(long[][] key, int position, int group) {
+			for (int k = 0; k < keys.length; k++) {
+				if (keys[k][group] != key[k][position]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Adds a new group with the given key, which must not be present yet.
+		 */
+		private int add(long[][] key, int position, long hash, Aggregator[] groupAggregators) {
+			if (size == hashes.length) {
+				int capacity = 2 * size;
+				for (int k = 0; k < keys.length; k++) {
+					keys[k] = Arrays.copyOf(keys[k], capacity);
+				}
+				hashes = Arrays.copyOf(hashes, capacity);
+				aggregators = Arrays.copyOf(aggregators, capacity);
+			}
+			int group = size++;
+			for (int k = 0; k < keys.length; k++) {
+				keys[k][group] = key[k][position];
+			}
+			hashes[group] = hash;
+			aggregators[group] = groupAggregators;
+			if (2 * size > table.length) {
+				table = new int[2 * table.length];
+				for (int i = 0; i < size; i++) {
+					insert(i);
+				}
+			} else {
+				insert(group);
+			}
+			return group;
+		}
+
+		private void insert(int group) {
+			int mask = table.length - 1;
+			int slot = (int) hashes[group] & mask;
+			while (table[slot] != 0) {
+				slot = slot + 1 & mask;
+			}
+			table[slot] = group + 1;
+		}
+
+		/**
+		 * Orders the groups like the tree of the legacy aggregation: by the nominal values of
+		 * nominal attributes and by the numbers of all other attributes, the first attribute being
+		 * the most significant one.
+		 *
+		 * @return the group indices in sorted order
+		 */
+		int[] getSortedGroups(Attribute[] groupAttributes) {
+			// ranks of the nominal values with the rank of the missing value stored at the end
+			int[][] ranks = new int[groupAttributes.length][];
+			for (int k = 0; k < groupAttributes.length; k++) {
+				if (groupAttributes[k].isNominal()) {
+					ranks[k] = getRanks(groupAttributes[k].getMapping());
+				}
+			}
+			Integer[] order = new Integer[size];
+			for (int i = 0; i < size; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, new Comparator<Integer>() {
+
+				@Override
+				public int compare(Integer first, Integer second) {
+					for (int k = 0; k < keys.length; k++) {
+						double firstValue = getValue(k, first);
+						double secondValue = getValue(k, second);
+						int comparison;
+						if (ranks[k] != null) {
+							int[] rank = ranks[k];
+							comparison = Integer.compare(
+									Double.isNaN(firstValue) ? rank[rank.length - 1] : rank[(int) firstValue],
+									Double.isNaN(secondValue) ? rank[rank.length - 1] : rank[(int) secondValue]);
+						} else {
+							comparison = Double.compare(firstValue, secondValue);
+						}
+						if (comparison != 0) {
+							return comparison;
+						}
+					}
+					return 0;
+				}
+			});
+			int[] sorted = new int[size];
+			for (int i = 0; i < size; i++) {
+				sorted[i] = order[i];
+			}
+			return sorted;
+		}
+
+		private static int[] getRanks(NominalMapping mapping) {
+			int mappingSize = mapping.size();
+			String[] values = new String[mappingSize + 1];
+			for (int i = 0; i < mappingSize; i++) {
+				values[i] = mapping.mapIndex(i);
+			}
+			values[mappingSize] = Attribute.MISSING_NOMINAL_VALUE;
+			Integer[] order = new Integer[values.length];
+			for (int i = 0; i < values.length; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, (first, second) -> values[first].compareTo(values[second]));
+			int[] ranks = new int[values.length];
+			for (int i = 0; i < order.length; i++) {
+				ranks[order[i]] = i;
+			}
+			return ranks;
+		}
+	}
+
+	private final ConcurrencyContext context;
+
+	/**
+	 * Creates a new group by.
+	 *
+	 * @param context
+	 *            the context used to count ranges of examples in parallel, can be {@code null} to
+	 *            count single-threaded
+	 */
+	HashGroupBy(ConcurrencyContext context) {
+		this.context = context;
+	}
+
+	/**
+	 * Checks whether the examples are large enough to be counted in parallel in the given context.
+	 *
+	 * @param exampleSet
+	 *            the examples to count
+	 * @param context
+	 *            the context to count in, can be {@code null}
+	 * @return {@code true} if the examples would be split into several ranges
+	 */
+	static boolean isParallel(ExampleSet exampleSet, ConcurrencyContext context) {
+		return context != null && context.getParallelism() > 1 && exampleSet.size() >= MIN_PARALLEL_ROWS;
+	}
+
+	/**
+	 * Groups and counts the examples. Without group attributes there is exactly one group, even if
+	 * the example set is empty.
+	 *
+	 * @param exampleSet
+	 *            the examples to count, weighted by the weight attribute if there is one
+	 * @param groupAttributes
+	 *            the attributes whose values define the groups
+	 * @param functions
+	 *            the functions creating the aggregators of every group
+	 * @param progress
+	 *            the progress to report to, can be {@code null}
+	 * @return the groups in the order of their first example
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 */
+	Groups aggregate(ExampleSet exampleSet, Attribute[] groupAttributes, List<AggregationFunction> functions,
+			OperatorProgress progress) throws ProcessStoppedException {
+		AggregationFunction[] functionArray = functions.toArray(new AggregationFunction[functions.size()]);
+		int size = exampleSet.size();
+
+		// nominal missings are grouped with the nominal value "?" if it exists
+		double[] missingIndices = new double[groupAttributes.length];
+		for (int k = 0; k < groupAttributes.length; k++) {
+			missingIndices[k] = Double.NaN;
+			if (groupAttributes[k].isNominal()) {
+				int index = groupAttributes[k].getMapping().getIndex(Attribute.MISSING_NOMINAL_VALUE);
+				if (index >= 0) {
+					missingIndices[k] = index;
+				}
+			}
+		}
+
+		int ranges = 1;
+		if (isParallel(exampleSet, context) && ExampleSets.isThreadSafe(exampleSet) && isMergeable(functionArray)) {
+			ranges = Math.max(1, Math.min(context.getParallelism(), size / CHUNK_SIZE));
+		}
+		Groups[] partials = new Groups[ranges];
+		int[] positions = new int[ranges];
+		int[] ends = new int[ranges];
+		for (int r = 0; r < ranges; r++) {
+			partials[r] = new Groups(groupAttributes.length);
+			positions[r] = (int) ((long) size * r / ranges);
+			ends[r] = (int) ((long) size * (r + 1) / ranges);
+		}
+
+		if (progress != null) {
+			progress.setTotal(size);
+		}
+		Attribute weightAttribute = exampleSet.getAttributes().getWeight();
+		int counted = 0;
+		List<Callable<Void>> tasks = new ArrayList<>(ranges);
+		while (counted < size) {
+			tasks.clear();
+			for (int r = 0; r < ranges; r++) {
+				int from = positions[r];
+				int to = Math.min(ends[r], from + CHUNK_SIZE);
+				if (from < to) {
+					Groups groups = partials[r];
+					tasks.add(() -> {
+						count(exampleSet, groupAttributes, missingIndices, weightAttribute, functionArray, from, to, groups);
+						return null;
+					});
+					positions[r] = to;
+					counted += to - from;
+				}
+			}
+			ConcurrencyTools.call(context, tasks);
+			if (progress != null) {
+				progress.setCompleted(counted);
+			}
+		}
+
+		Groups result = partials[0];
+		for (int r = 1; r < ranges; r++) {
+			Groups partial = partials[r];
+			for (int group = 0; group < partial.size; group++) {
+				int target = result.find(partial.keys, group, partial.hashes[group]);
+				if (target < 0) {
+					result.add(partial.keys, group, partial.hashes[group], partial.aggregators[group]);
+				} else {
+					Aggregator[] targetAggregators = result.aggregators[target];
+					Aggregator[] partialAggregators = partial.aggregators[group];
+					for (int f = 0; f < targetAggregators.length; f++) {
+						((MergeableAggregator) targetAggregators[f]).merge(partialAggregators[f]);
+					}
+				}
+			}
+			// free the memory of the merged partial
+			partials[r] = null;
+		}
+
+		if (groupAttributes.length == 0 && result.size == 0) {
+			result.add(new long[0][], 0, hash(new long[0][], 0), createAggregators(functionArray));
+		}
+		return result;
+	}
+
+	/**
+	 * @return whether the aggregators of all functions are mergeable
+	 */
+	private static boolean isMergeable(AggregationFunction[] functions) {
+		for (AggregationFunction function : functions) {
+			if (!(function.createAggregator() instanceof MergeableAggregator)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Aggregator[] createAggregators(AggregationFunction[] functions) {
+		Aggregator[] aggregators = new Aggregator[functions.length];
+		for (int f = 0; f < functions.length; f++) {
+			aggregators[f] = functions[f].createAggregator();
+		}
+		return aggregators;
+	}
+
+	/**
+	 * Counts the examples of the given range into the groups.
+	 */
+	private static void count(ExampleSet exampleSet, Attribute[] groupAttributes, double[] missingIndices,
+			Attribute weightAttribute, AggregationFunction[] functions, int from, int to, Groups groups) {
+		int size = to - from;
+		double[] values = new double[size];
+		long[][] keys = new long[groupAttributes.length][size];
+		for (int k = 0; k < groupAttributes.length; k++) {
+			exampleSet.getValues(groupAttributes[k], from, to, values);
+			for (int i = 0; i < size; i++) {
+				double value = values[i];
+				keys[k][i] = Double.doubleToLongBits(Double.isNaN(value) ? missingIndices[k] : value);
+			}
+		}
+		double[] weights = null;
+		if (weightAttribute != null) {
+			weights = new double[size];
+			exampleSet.getValues(weightAttribute, from, to, weights);
+		}
+
+		for (int i = 0; i < size; i++) {
+			long hash = hash(keys, i);
+			int group = groups.find(keys, i, hash);
+			if (group < 0) {
+				group = groups.add(keys, i, hash, createAggregators(functions));
+			}
+			Example example = exampleSet.getExample(from + i);
+			if (weights == null) {
+				for (Aggregator aggregator : groups.aggregators[group]) {
+					aggregator.count(example);
+				}
+			} else {
+				for (Aggregator aggregator : groups.aggregators[group]) {
+					aggregator.count(example, weights[i]);
+				}
+			}
+		}
+	}
+
+	private static long hash(long[][] keys, int position) {
+		long hash = 0;
+		for (long[] key : keys) {
+			hash = (hash ^ key[position]) * 0x9E3779B97F4A7C15L;
+			hash ^= hash >>> 32;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
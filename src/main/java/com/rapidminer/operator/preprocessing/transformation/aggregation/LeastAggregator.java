@@ -29,7 +29,7 @@ import com.rapidminer.example.table.DataRow;
  * 
  * @author Sebastian Land
  */
-public class LeastAggregator implements Aggregator {
+public class LeastAggregator implements MergeableAggregator {
 
 	private Attribute sourceAttribute;
 	private double[] frequencies;
@@ -69,4 +69,12 @@ public class LeastAggregator implements Aggregator {
 			row.set(attribute, Double.NaN);
 		}
 	}
+
+	@Override
+	public void merge(Aggregator other) {
+		double[] otherFrequencies = ((LeastAggregator) other).frequencies;
+		for (int i = 0; i < frequencies.length; i++) {
+			frequencies[i] += otherFrequencies[i];
+		}
+	}
 }
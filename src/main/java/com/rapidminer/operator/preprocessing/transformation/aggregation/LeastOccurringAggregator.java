@@ -30,7 +30,7 @@ import com.rapidminer.example.table.DataRow;
  * 
  * @author Sebastian Land
  */
-public class LeastOccurringAggregator implements Aggregator {
+public class LeastOccurringAggregator implements MergeableAggregator {
 
 	private Attribute sourceAttribute;
 	private double[] frequencies;
@@ -70,4 +70,12 @@ public class LeastOccurringAggregator implements Aggregator {
 			row.set(attribute, Double.NaN);
 		}
 	}
+
+	@Override
+	public void merge(Aggregator other) {
+		double[] otherFrequencies = ((LeastOccurringAggregator) other).frequencies;
+		for (int i = 0; i < frequencies.length; i++) {
+			frequencies[i] += otherFrequencies[i];
+		}
+	}
 }
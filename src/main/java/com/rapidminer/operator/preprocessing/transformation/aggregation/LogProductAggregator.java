@@ -23,7 +23,7 @@ package com.rapidminer.operator.preprocessing.transformation.aggregation;
  * 
  * @author Sebastian Land
  */
-public class LogProductAggregator extends NumericalAggregator {
+public class LogProductAggregator extends NumericalAggregator implements MergeableAggregator {
 
 	private double logSum = 0;
 
@@ -50,4 +50,12 @@ public class LogProductAggregator extends NumericalAggregator {
 	public void setValue(double value) {
 		this.logSum = value;
 	}
+
+	@Override
+	public void merge(Aggregator other) {
+		LogProductAggregator aggregator = (LogProductAggregator) other;
+		if (mergeCountingState(aggregator)) {
+			logSum += aggregator.logSum;
+		}
+	}
 }
@@ -23,7 +23,7 @@ package com.rapidminer.operator.preprocessing.transformation.aggregation;
  * 
  * @author Sebastian Land
  */
-public class MaxAggregator extends NumericalAggregator {
+public class MaxAggregator extends NumericalAggregator implements MergeableAggregator {
 
 	private double max = Double.NEGATIVE_INFINITY;
 	private boolean hasValue = false;
@@ -61,4 +61,17 @@ public class MaxAggregator extends NumericalAggregator {
 	public void setValue(double value) {
 		this.max = value;
 	}
+
+	@Override
+	public void merge(Aggregator other) {
+		MaxAggregator aggregator = (MaxAggregator) other;
+		if (mergeCountingState(aggregator)) {
+			if (aggregator.hasValue) {
+				hasValue = true;
+				if (max < aggregator.max) {
+					max = aggregator.max;
+				}
+			}
+		}
+	}
 }
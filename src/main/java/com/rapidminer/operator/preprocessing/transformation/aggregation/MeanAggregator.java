@@ -23,7 +23,7 @@ package com.rapidminer.operator.preprocessing.transformation.aggregation;
  * 
  * @author Sebastian Land
  */
-public class MeanAggregator extends NumericalAggregator {
+public class MeanAggregator extends NumericalAggregator implements MergeableAggregator {
 
 	private double sum = 0;
 	private double totalWeight = 0;
@@ -54,4 +54,12 @@ public class MeanAggregator extends NumericalAggregator {
 		this.sum = value;
 	}
 
+	@Override
+	public void merge(Aggregator other) {
+		MeanAggregator aggregator = (MeanAggregator) other;
+		if (mergeCountingState(aggregator)) {
+			sum += aggregator.sum;
+			totalWeight += aggregator.totalWeight;
+		}
+	}
 }
@@ -32,7 +32,7 @@ import java.util.Arrays;
  * @author Marcel Seifert
  * @since 7.5
  */
-public class MedianAggregator extends NumericalAggregator {
+public class MedianAggregator extends NumericalAggregator implements MergeableAggregator {
 
 	/**
 	 * This class implements an array of primitive doubles and provides getter, adder and size
@@ -244,4 +244,19 @@ public class MedianAggregator extends NumericalAggregator {
 			return quickNthWeighted(greaterValues, greaterWeights, n - smallerWeightCount - equalWeightCount);
 		}
 	}
+
+	@Override
+	public void merge(Aggregator other) {
+		MedianAggregator aggregator = (MedianAggregator) other;
+		if (mergeCountingState(aggregator)) {
+			// counting the values again keeps them in the order of the examples
+			for (int i = 0; i < aggregator.count; i++) {
+				if (aggregator.weights == null) {
+					count(aggregator.values.getArray()[i]);
+				} else {
+					count(aggregator.values.getArray()[i], aggregator.weights.getArray()[i]);
+				}
+			}
+		}
+	}
 }
@@ -30,7 +30,7 @@ import java.util.List;
  *
  * @author Sebastian Land
  */
-public class MedianAggregatorLegacy extends NumericalAggregator {
+public class MedianAggregatorLegacy extends NumericalAggregator implements MergeableAggregator {
 
 	private static final int BUFFER_SIZE = 65536;
 
@@ -219,4 +219,20 @@ public class MedianAggregatorLegacy extends NumericalAggregator {
 
 		return pivotValue;
 	}
+
+	@Override
+	public void merge(Aggregator other) {
+		MedianAggregatorLegacy aggregator = (MedianAggregatorLegacy) other;
+		if (mergeCountingState(aggregator)) {
+			// counting the values again keeps them in the order of the examples
+			for (int i = 0; i < aggregator.count; i++) {
+				if (aggregator.elements != null) {
+					count(aggregator.elements.get(i / BUFFER_SIZE).elements[i % BUFFER_SIZE]);
+				} else {
+					WeightedMedianListElement element = aggregator.weightedElements.get(i / BUFFER_SIZE);
+					count(element.elements[i % BUFFER_SIZE], element.weights[i % BUFFER_SIZE]);
+				}
+			}
+		}
+	}
 }
@@ -0,0 +1,41 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.transformation.aggregation;
+
+/**
+ * An {@link Aggregator} that can count parts of the examples of a group independently and combine
+ * them afterwards. This allows to aggregate an example set in chunks, e.g. in parallel.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public interface MergeableAggregator extends Aggregator {
+
+	/**
+	 * Adds the examples counted by the given aggregator to this aggregator. The result must be the
+	 * same as if the examples counted by the other aggregator had been counted by this aggregator
+	 * after its own examples. Both aggregators must have been created by the same
+	 * {@link AggregationFunction}.
+	 *
+	 * @param other
+	 *            an aggregator of the same class
+	 */
+	public void merge(Aggregator other);
+
+}
@@ -23,7 +23,7 @@ package com.rapidminer.operator.preprocessing.transformation.aggregation;
  * 
  * @author Sebastian Land
  */
-public class MinAggregator extends NumericalAggregator {
+public class MinAggregator extends NumericalAggregator implements MergeableAggregator {
 
 	private double min = Double.POSITIVE_INFINITY;
 	private boolean hasValue = false;
@@ -61,4 +61,17 @@ public class MinAggregator extends NumericalAggregator {
 	public void setValue(double value) {
 		this.min = value;
 	}
+
+	@Override
+	public void merge(Aggregator other) {
+		MinAggregator aggregator = (MinAggregator) other;
+		if (mergeCountingState(aggregator)) {
+			if (aggregator.hasValue) {
+				hasValue = true;
+				if (min > aggregator.min) {
+					min = aggregator.min;
+				}
+			}
+		}
+	}
 }
@@ -32,7 +32,7 @@ import java.util.Map.Entry;
  * 
  * @author Sebastian Land
  */
-public class ModeAggregator implements Aggregator {
+public class ModeAggregator implements MergeableAggregator {
 
 	private Attribute sourceAttribute;
 	private double[] frequencies;
@@ -110,4 +110,23 @@ public class ModeAggregator implements Aggregator {
 			row.set(attribute, Double.NaN);
 		}
 	}
+
+	@Override
+	public void merge(Aggregator other) {
+		ModeAggregator aggregator = (ModeAggregator) other;
+		if (frequencies != null) {
+			for (int i = 0; i < frequencies.length; i++) {
+				frequencies[i] += aggregator.frequencies[i];
+			}
+		} else {
+			for (Entry<Double, Double> entry : aggregator.frequenciesMap.entrySet()) {
+				Double frequency = frequenciesMap.get(entry.getKey());
+				if (frequency == null) {
+					frequenciesMap.put(entry.getKey(), entry.getValue());
+				} else {
+					frequenciesMap.put(entry.getKey(), frequency + entry.getValue());
+				}
+			}
+		}
+	}
 }
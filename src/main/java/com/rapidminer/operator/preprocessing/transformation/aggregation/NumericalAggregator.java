@@ -22,12 +22,15 @@ import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.table.DataRow;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map.Entry;
 
 
 /**
  * This is an implementation of a Aggregator for numerical attributes. It takes over the handling of
- * missing values.
+ * missing values. Subclasses implementing {@link MergeableAggregator} can use
+ * {@link #mergeCountingState(NumericalAggregator)} to merge the handled missing and distinct values.
  * 
  * @author Sebastian Land
  */
@@ -38,6 +41,8 @@ public abstract class NumericalAggregator implements Aggregator {
 	private boolean isMissing = false;
 	private boolean isCountingOnlyDistinct = false;
 	private HashSet<Double> distinctValueSet = null;
+	/** the distinct values counted with weights and their first weight, needed for merging */
+	private HashMap<Double, Double> distinctValueWeights = null;
 
 	public NumericalAggregator(AggregationFunction function) {
 		this.sourceAttribute = function.getSourceAttribute();
@@ -71,13 +76,55 @@ public abstract class NumericalAggregator implements Aggregator {
 			if (isMissing && !ignoreMissings || Double.isNaN(value)) {
 				isMissing = true;
 			} else {
-				if (!isCountingOnlyDistinct || distinctValueSet.add(value)) {
+				if (!isCountingOnlyDistinct || addWeighted(value, weight)) {
 					count(value, weight);
 				}
 			}
 		}
 	}
 
+	private boolean addWeighted(double value, double weight) {
+		if (distinctValueWeights == null) {
+			distinctValueWeights = new HashMap<>();
+		}
+		return distinctValueWeights.putIfAbsent(value, weight) == null;
+	}
+
+	/**
+	 * Merges the missing values and the distinct values seen by the other aggregator into this
+	 * aggregator. Distinct values that were not seen by this aggregator are counted again.
+	 *
+	 * @param other
+	 *            an aggregator created by the same function
+	 * @return whether the caller has to merge the values counted by the other aggregator, which is
+	 *         not the case if only distinct values are counted or if the result is missing anyway
+	 * @since 7.6
+	 */
+	protected final boolean mergeCountingState(NumericalAggregator other) {
+		if (other.isMissing) {
+			isMissing = true;
+		}
+		if (isMissing && !ignoreMissings) {
+			return false;
+		}
+		if (isCountingOnlyDistinct) {
+			for (Double value : other.distinctValueSet) {
+				if (distinctValueSet.add(value)) {
+					count(value);
+				}
+			}
+			if (other.distinctValueWeights != null) {
+				for (Entry<Double, Double> entry : other.distinctValueWeights.entrySet()) {
+					if (addWeighted(entry.getKey(), entry.getValue())) {
+						count(entry.getKey(), entry.getValue());
+					}
+				}
+			}
+			return false;
+		}
+		return true;
+	}
+
 	/**
 	 * This method will count the given numerical value. This method will not be called in cases,
 	 * where the examples value for the given source Attribute is unknown. Subclasses of this class
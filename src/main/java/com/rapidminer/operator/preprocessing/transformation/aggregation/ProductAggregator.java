@@ -23,7 +23,7 @@ package com.rapidminer.operator.preprocessing.transformation.aggregation;
  * 
  * @author Sebastian Land
  */
-public class ProductAggregator extends NumericalAggregator {
+public class ProductAggregator extends NumericalAggregator implements MergeableAggregator {
 
 	private double product = 1d;
 
@@ -51,4 +51,11 @@ public class ProductAggregator extends NumericalAggregator {
 		this.product = value;
 	}
 
+	@Override
+	public void merge(Aggregator other) {
+		ProductAggregator aggregator = (ProductAggregator) other;
+		if (mergeCountingState(aggregator)) {
+			product *= aggregator.product;
+		}
+	}
 }
@@ -23,7 +23,7 @@ package com.rapidminer.operator.preprocessing.transformation.aggregation;
  * 
  * @author Sebastian Land
  */
-public class StandardDeviationAggregator extends NumericalAggregator {
+public class StandardDeviationAggregator extends NumericalAggregator implements MergeableAggregator {
 
 	private double valueSum = 0d;
 	private double squaredValueSum = 0d;
@@ -62,4 +62,15 @@ public class StandardDeviationAggregator extends NumericalAggregator {
 			return Double.NaN;
 		}
 	}
+
+	@Override
+	public void merge(Aggregator other) {
+		StandardDeviationAggregator aggregator = (StandardDeviationAggregator) other;
+		if (mergeCountingState(aggregator)) {
+			valueSum += aggregator.valueSum;
+			squaredValueSum += aggregator.squaredValueSum;
+			totalWeightSum += aggregator.totalWeightSum;
+			count += aggregator.count;
+		}
+	}
 }
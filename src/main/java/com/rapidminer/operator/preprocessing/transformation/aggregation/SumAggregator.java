@@ -23,7 +23,7 @@ package com.rapidminer.operator.preprocessing.transformation.aggregation;
  * 
  * @author Sebastian Land
  */
-public class SumAggregator extends NumericalAggregator {
+public class SumAggregator extends NumericalAggregator implements MergeableAggregator {
 
 	private double sum = 0;
 
@@ -50,4 +50,12 @@ public class SumAggregator extends NumericalAggregator {
 	public void setValue(double value) {
 		this.sum = value;
 	}
+
+	@Override
+	public void merge(Aggregator other) {
+		SumAggregator aggregator = (SumAggregator) other;
+		if (mergeCountingState(aggregator)) {
+			sum += aggregator.sum;
+		}
+	}
 }
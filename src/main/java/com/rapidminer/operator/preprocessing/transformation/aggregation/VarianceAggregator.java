@@ -23,7 +23,7 @@ package com.rapidminer.operator.preprocessing.transformation.aggregation;
  * 
  * @author Sebastian Land
  */
-public class VarianceAggregator extends NumericalAggregator {
+public class VarianceAggregator extends NumericalAggregator implements MergeableAggregator {
 
 	private double valueSum = 0d;
 	private double squaredValueSum = 0d;
@@ -58,4 +58,15 @@ public class VarianceAggregator extends NumericalAggregator {
 			return Double.NaN;
 		}
 	}
+
+	@Override
+	public void merge(Aggregator other) {
+		VarianceAggregator aggregator = (VarianceAggregator) other;
+		if (mergeCountingState(aggregator)) {
+			valueSum += aggregator.valueSum;
+			squaredValueSum += aggregator.squaredValueSum;
+			totalWeightSum += aggregator.totalWeightSum;
+			count += aggregator.count;
+		}
+	}
 }
@@ -0,0 +1,611 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.tools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntToDoubleFunction;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.AttributeRole;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.SimpleExampleSet;
+import com.rapidminer.example.table.internal.ColumnarExampleTable;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.tools.ExampleSetToStream.Header;
+import com.rapidminer.tools.ParameterService;
+
+
+/**
+ * Writes and reads example sets to and from streams in a column-chunked format. In contrast to the
+ * row oriented {@link ExampleSetToStream}, the values are stored column by column in chunks of a
+ * fixed number of rows. This allows to read only selected attributes and row ranges by skipping the
+ * other chunks. The value range stored for every chunk allows to skip chunks whose rows are not
+ * needed, see {@link #selectChunks(InputStream, ChunkFilter)}.
+ * <p>
+ * The stream starts with the header as written by
+ * {@link ExampleSetToStream#writeHeader(com.rapidminer.operator.Annotations, List, DataOutputStream, boolean)}
+ * (version 3, never sparse), followed by the format version, the number of rows and the chunk size.
+ * Then, for every attribute in the order of the header, all chunks of this attribute follow. Every
+ * chunk consists of
+ * <ul>
+ * <li>the encoding (byte)</li>
+ * <li>the length of the encoded payload in bytes (int)</li>
+ * <li>the minimum and the maximum of the non-missing values in the chunk (doubles, {@code NaN} if
+ * all values are missing)</li>
+ * <li>the payload</li>
+ * </ul>
+ * The encoding is chosen per chunk as the smallest of
+ * <ul>
+ * <li>{@link #ENCODING_CONSTANT}: a single double if all values are equal</li>
+ * <li>{@link #ENCODING_RUN_LENGTH}: the number of runs followed by pairs of run length (int) and
+ * value (double)</li>
+ * <li>{@link #ENCODING_BIT_PACKED}: for integral values, the minimum (double) and the bit width
+ * (byte) followed by longs holding the bit-packed offsets to the minimum plus one. The offset 0
+ * encodes a missing value. Since nominal values are stored as indices of their mapping, this is a
+ * dictionary encoding for nominal attributes.</li>
+ * <li>{@link #ENCODING_RAW}: plain doubles</li>
+ * </ul>
+ *
+ * @author RapidMiner
+ * @see SerializationType#STREAMED_EXAMPLE_SET_COLUMNAR
+ * @since 7.6
+ */
+public class ColumnarExampleSetToStream {
+
+	/** Initial version of the columnar format */
+	public static final int VERSION_1 = 1;
+
+	/** Current version of the columnar format. */
+	public static final int CURRENT_VERSION = VERSION_1;
+
+	/** The default number of rows per chunk. */
+	public static final int DEFAULT_CHUNK_SIZE = 16384;
+
+	/** All values of the chunk are equal */
+	private static final byte ENCODING_CONSTANT = 0;
+
+	/** Values are stored as runs of equal values */
+	private static final byte ENCODING_RUN_LENGTH = 1;
+
+	/** Integral values are stored as bit-packed offsets to the minimum */
+	private static final byte ENCODING_BIT_PACKED = 2;
+
+	/** Values are stored as doubles */
+	private static final byte ENCODING_RAW = 3;
+
+	/** Bit-packing is only used if all offsets can be exactly represented as doubles */
+	private static final double MAX_PACKED_RANGE = 1L << 53;
+
+	/** Used to read and write the header */
+	private final ExampleSetToStream headerStream = new ExampleSetToStream(ExampleSetToStream.VERSION_3);
+
+	private final int chunkSize;
+
+	/**
+	 * Creates a new instance using the {@link #DEFAULT_CHUNK_SIZE} for writing.
+	 */
+	public ColumnarExampleSetToStream() {
+		this(DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Creates a new instance using the given chunk size for writing. When reading, the chunk size
+	 * stored in the stream is used.
+	 *
+	 * @param chunkSize
+	 *            the number of rows per chunk, must be positive
+	 */
+	public ColumnarExampleSetToStream(int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("Chunk size must be positive");
+		}
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Decides which chunks of rows need to be read based on the value ranges stored for every chunk.
+	 *
+	 * @see ColumnarExampleSetToStream#selectChunks(InputStream, ChunkFilter)
+	 * @since 7.6
+	 */
+	@FunctionalInterface
+	public interface ChunkFilter {
+
+		/**
+		 * Checks whether a chunk may contain needed rows. The rows of a chunk are only read if this
+		 * method returns {@code true} for all attributes.
+		 *
+		 * @param attributeName
+		 *            the name of the attribute
+		 * @param min
+		 *            the minimum of the non-missing values of the attribute in the chunk or
+		 *            {@code NaN} if all values are missing
+		 * @param max
+		 *            the maximum of the non-missing values of the attribute in the chunk or
+		 *            {@code NaN} if all values are missing
+		 * @return {@code false} if no row of the chunk is needed
+		 */
+		boolean accept(String attributeName, double min, double max);
+
+	}
+
+	/** Writes header and data of the example set to the stream. */
+	public void write(ExampleSet exampleSet, OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(outputStream);
+		List<AttributeRole> allRoles = new ArrayList<>();
+		Iterator<AttributeRole> i = exampleSet.getAttributes().allAttributeRoles();
+		while (i.hasNext()) {
+			allRoles.add(i.next());
+		}
+		headerStream.writeHeader(exampleSet.getAnnotations(), allRoles, out, false);
+
+		int size = exampleSet.size();
+		out.writeInt(CURRENT_VERSION);
+		out.writeInt(size);
+		out.writeInt(chunkSize);
+
+		double[] values = new double[Math.min(chunkSize, size)];
+		ByteArrayOutputStream payload = new ByteArrayOutputStream();
+		DataOutputStream payloadOut = new DataOutputStream(payload);
+		for (AttributeRole role : allRoles) {
+			Attribute attribute = role.getAttribute();
+			for (int from = 0; from < size; from += chunkSize) {
+				int length = Math.min(chunkSize, size - from);
+				exampleSet.getValues(attribute, from, from + length, values);
+				payload.reset();
+				writeChunk(values, length, out, payload, payloadOut);
+			}
+		}
+		out.flush();
+	}
+
+	/** Reads an example set as written by {@link #write(ExampleSet, OutputStream)}. */
+	public ExampleSet read(InputStream inputStream) throws IOException {
+		return read(inputStream, null, 0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Reads the given attributes and rows of an example set as written by
+	 * {@link #write(ExampleSet, OutputStream)}. The chunks of all other attributes and rows are
+	 * skipped without decoding them.
+	 *
+	 * @param inputStream
+	 *            the stream to read from
+	 * @param attributeNames
+	 *            the names of the attributes to read or {@code null} to read all attributes
+	 * @param fromRow
+	 *            the first row to read, inclusive
+	 * @param toRow
+	 *            the last row to read, exclusive. Values larger than the number of stored rows are
+	 *            allowed.
+	 * @return the example set containing the selected attributes and rows
+	 * @throws IOException
+	 *             if the stream cannot be read or is not in the columnar format
+	 */
+	public ExampleSet read(InputStream inputStream, Set<String> attributeNames, int fromRow, int toRow)
+			throws IOException {
+		return read(inputStream, attributeNames, null, fromRow, toRow);
+	}
+
+	/**
+	 * Reads the given attributes and all rows of the selected chunks of an example set as written
+	 * by {@link #write(ExampleSet, OutputStream)}. The selected chunks are usually determined by
+	 * {@link #selectChunks(InputStream, ChunkFilter)}.
+	 *
+	 * @param inputStream
+	 *            the stream to read from
+	 * @param attributeNames
+	 *            the names of the attributes to read or {@code null} to read all attributes
+	 * @param selectedChunks
+	 *            for every chunk whether its rows should be read or {@code null} to read all rows
+	 * @return the example set containing the selected attributes and rows
+	 * @throws IOException
+	 *             if the stream cannot be read or is not in the columnar format
+	 */
+	public ExampleSet read(InputStream inputStream, Set<String> attributeNames, boolean[] selectedChunks)
+			throws IOException {
+		return read(inputStream, attributeNames, selectedChunks, 0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Determines the chunks that contain rows which may be accepted by the given filter. Only the
+	 * chunk headers are read, all payloads are skipped.
+	 *
+	 * @param inputStream
+	 *            the stream to read from
+	 * @param filter
+	 *            the filter to check the value ranges of the chunks against
+	 * @return for every chunk whether it should be read, can be passed to
+	 *         {@link #read(InputStream, Set, boolean[])}
+	 * @throws IOException
+	 *             if the stream cannot be read or is not in the columnar format
+	 */
+	public boolean[] selectChunks(InputStream inputStream, ChunkFilter filter) throws IOException {
+		DataInputStream in = new DataInputStream(inputStream);
+		Header header = headerStream.readHeader(in);
+		int size = readSize(in);
+		int storedChunkSize = in.readInt();
+		int numberOfChunks = (int) (((long) size + storedChunkSize - 1) / storedChunkSize);
+		boolean[] selected = new boolean[numberOfChunks];
+		Arrays.fill(selected, true);
+		for (AttributeRole role : header.getAllRoles()) {
+			String name = role.getAttribute().getName();
+			for (int chunk = 0; chunk < numberOfChunks; chunk++) {
+				// encoding
+				in.readByte();
+				int payloadLength = in.readInt();
+				double min = in.readDouble();
+				double max = in.readDouble();
+				skipFully(in, payloadLength);
+				if (selected[chunk] && !filter.accept(name, min, max)) {
+					selected[chunk] = false;
+				}
+			}
+		}
+		return selected;
+	}
+
+	private ExampleSet read(InputStream inputStream, Set<String> attributeNames, boolean[] selectedChunks, int fromRow,
+			int toRow) throws IOException {
+		DataInputStream in = new DataInputStream(inputStream);
+		Header header = headerStream.readHeader(in);
+		int size = readSize(in);
+		int storedChunkSize = in.readInt();
+		int from = Math.max(0, Math.min(fromRow, size));
+		int to = Math.max(from, Math.min(toRow, size));
+		int rows = 0;
+		for (int start = 0, chunk = 0; start < size; start += storedChunkSize, chunk++) {
+			if (selectedChunks == null || selectedChunks[chunk]) {
+				rows += Math.max(0, Math.min(to, start + storedChunkSize) - Math.max(from, start));
+			}
+		}
+
+		List<AttributeRole> selectedRoles = new ArrayList<>();
+		List<Attribute> selectedAttributes = new ArrayList<>();
+		for (AttributeRole role : header.getAllRoles()) {
+			if (attributeNames == null || attributeNames.contains(role.getAttribute().getName())) {
+				selectedRoles.add(role);
+				selectedAttributes.add(role.getAttribute());
+			}
+		}
+
+		ExampleSet exampleSet;
+		try {
+			if (Boolean.parseBoolean(ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT))) {
+				ExampleSetBuilder builder = ExampleSets.from(selectedAttributes).withBlankSize(rows);
+				for (AttributeRole role : header.getAllRoles()) {
+					ChunkReader reader = new ChunkReader(in, size, storedChunkSize, selectedChunks, from, to);
+					if (selectedRoles.contains(role)) {
+						double[] column = new double[rows];
+						for (int i = 0; i < rows; i++) {
+							column[i] = reader.applyAsDouble(i);
+						}
+						builder.withColumnFiller(role.getAttribute(), i -> column[i]);
+					}
+					reader.finish();
+				}
+				exampleSet = builder.build();
+			} else {
+				// decode the columns straight into the table
+				ColumnarExampleTable table = new ColumnarExampleTable(selectedAttributes, DataManagement.AUTO, true);
+				table.setExpectedSize(rows);
+				table.addBlankRows(rows);
+				for (AttributeRole role : header.getAllRoles()) {
+					ChunkReader reader = new ChunkReader(in, size, storedChunkSize, selectedChunks, from, to);
+					if (selectedRoles.contains(role)) {
+						table.fillColumn(role.getAttribute(), reader);
+					}
+					reader.finish();
+				}
+				table.complete();
+				exampleSet = new SimpleExampleSet(table);
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		for (AttributeRole role : selectedRoles) {
+			if (role.isSpecial()) {
+				Attribute att = exampleSet.getAttributes().get(role.getAttribute().getName());
+				exampleSet.getAttributes().getRole(att).setSpecial(role.getSpecialName());
+			}
+		}
+		exampleSet.getAnnotations().putAll(header.getAnnotations());
+		return exampleSet;
+	}
+
+	/** Reads and checks the format version and returns the number of rows. */
+	private static int readSize(DataInputStream in) throws IOException {
+		int version = in.readInt();
+		if (version < VERSION_1 || version > CURRENT_VERSION) {
+			throw new IOException("Unknown columnar example set version: " + version);
+		}
+		return in.readInt();
+	}
+
+	/**
+	 * Encodes the first {@code length} values into the payload stream and writes the chunk to out.
+	 */
+	private static void writeChunk(double[] values, int length, DataOutputStream out, ByteArrayOutputStream payload,
+			DataOutputStream payloadOut) throws IOException {
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		boolean integral = true;
+		int runs = 1;
+		for (int i = 0; i < length; i++) {
+			double value = values[i];
+			if (i > 0 && Double.doubleToLongBits(value) != Double.doubleToLongBits(values[i - 1])) {
+				runs++;
+			}
+			if (!Double.isNaN(value)) {
+				min = Math.min(min, value);
+				max = Math.max(max, value);
+				if (integral && (Double.isInfinite(value) || value != Math.rint(value))) {
+					integral = false;
+				}
+			}
+		}
+		if (min > max) {
+			min = Double.NaN;
+			max = Double.NaN;
+		}
+
+		byte encoding;
+		if (runs == 1) {
+			encoding = ENCODING_CONSTANT;
+			payloadOut.writeDouble(values[0]);
+		} else {
+			int bitWidth = integral ? bitWidth(min, max) : -1;
+			long rawBytes = 8L * length;
+			long runLengthBytes = 4L + 12L * runs;
+			long packedBytes = bitWidth > 0 ? 9L + 8L * numberOfWords(length, bitWidth) : Long.MAX_VALUE;
+			if (packedBytes <= runLengthBytes && packedBytes < rawBytes) {
+				encoding = ENCODING_BIT_PACKED;
+				writeBitPacked(values, length, min, bitWidth, payloadOut);
+			} else if (runLengthBytes < rawBytes) {
+				encoding = ENCODING_RUN_LENGTH;
+				writeRunLength(values, length, runs, payloadOut);
+			} else {
+				encoding = ENCODING_RAW;
+				for (int i = 0; i < length; i++) {
+					payloadOut.writeDouble(values[i]);
+				}
+			}
+		}
+		payloadOut.flush();
+
+		out.writeByte(encoding);
+		out.writeInt(payload.size());
+		out.writeDouble(min);
+		out.writeDouble(max);
+		payload.writeTo(out);
+	}
+
+	/**
+	 * Returns the number of bits needed to store the offsets to min plus one or -1 if the range is
+	 * too large.
+	 */
+	private static int bitWidth(double min, double max) {
+		if (Double.isNaN(min) || max - min >= MAX_PACKED_RANGE) {
+			return -1;
+		}
+		long codes = (long) (max - min) + 2;
+		return 64 - Long.numberOfLeadingZeros(codes - 1);
+	}
+
+	private static long numberOfWords(int length, int bitWidth) {
+		return ((long) length * bitWidth + 63) / 64;
+	}
+
+	private static void writeRunLength(double[] values, int length, int runs, DataOutput out) throws IOException {
+		out.writeInt(runs);
+		int start = 0;
+		for (int i = 1; i <= length; i++) {
+			if (i == length || Double.doubleToLongBits(values[i]) != Double.doubleToLongBits(values[start])) {
+				out.writeInt(i - start);
+				out.writeDouble(values[start]);
+				start = i;
+			}
+		}
+	}
+
+	private static void writeBitPacked(double[] values, int length, double base, int bitWidth, DataOutput out)
+			throws IOException {
+		out.writeDouble(base);
+		out.writeByte(bitWidth);
+		long word = 0;
+		int used = 0;
+		for (int i = 0; i < length; i++) {
+			long code = Double.isNaN(values[i]) ? 0 : (long) (values[i] - base) + 1;
+			word |= code << used;
+			used += bitWidth;
+			if (used >= 64) {
+				out.writeLong(word);
+				used -= 64;
+				// keep the bits that did not fit into the written word
+				word = used > 0 ? code >>> bitWidth - used : 0;
+			}
+		}
+		if (used > 0) {
+			out.writeLong(word);
+		}
+	}
+
+	private static void readBitPacked(DataInput in, double[] target, int length) throws IOException {
+		double base = in.readDouble();
+		int bitWidth = in.readByte();
+		long mask = (1L << bitWidth) - 1;
+		long word = 0;
+		int available = 0;
+		for (int i = 0; i < length; i++) {
+			long code;
+			if (available >= bitWidth) {
+				code = word & mask;
+				word >>>= bitWidth;
+				available -= bitWidth;
+			} else {
+				long next = in.readLong();
+				code = (word | next << available) & mask;
+				int consumed = bitWidth - available;
+				word = consumed < 64 ? next >>> consumed : 0;
+				available = 64 - consumed;
+			}
+			target[i] = code == 0 ? Double.NaN : base + (code - 1);
+		}
+	}
+
+	private static void readRunLength(DataInput in, double[] target, int length) throws IOException {
+		int runs = in.readInt();
+		int position = 0;
+		for (int r = 0; r < runs; r++) {
+			int runLength = in.readInt();
+			double value = in.readDouble();
+			int end = Math.min(length, position + runLength);
+			for (int i = position; i < end; i++) {
+				target[i] = value;
+			}
+			position = end;
+		}
+	}
+
+	/**
+	 * Reads the chunks of a single attribute and provides the values of the selected chunks and row
+	 * range as {@link IntToDoubleFunction} as needed by {@link ColumnarExampleTable#fillColumn}.
+	 * Every value must be requested exactly once and in ascending order, the index itself is
+	 * ignored. {@link IOException}s are wrapped into {@link UncheckedIOException}s.
+	 */
+	private static final class ChunkReader implements IntToDoubleFunction {
+
+		private final DataInputStream in;
+		private final int size;
+		private final int chunkSize;
+		private final boolean[] selectedChunks;
+		private final int from;
+		private final int to;
+
+		private final double[] buffer;
+		private int position;
+		private int bufferEnd;
+		private int nextChunk;
+
+		private ChunkReader(DataInputStream in, int size, int chunkSize, boolean[] selectedChunks, int from, int to) {
+			this.in = in;
+			this.size = size;
+			this.chunkSize = chunkSize;
+			this.selectedChunks = selectedChunks;
+			this.from = from;
+			this.to = to;
+			this.buffer = new double[from < to ? Math.min(chunkSize, size) : 0];
+		}
+
+		@Override
+		public double applyAsDouble(int index) {
+			try {
+				while (position >= bufferEnd) {
+					readNextChunk();
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return buffer[position++];
+		}
+
+		/** Skips all chunks of the attribute that were not read yet. */
+		private void finish() throws IOException {
+			while ((long) nextChunk * chunkSize < size) {
+				readNextChunk();
+			}
+		}
+
+		private void readNextChunk() throws IOException {
+			int chunk = nextChunk++;
+			int start = chunk * chunkSize;
+			int length = Math.min(chunkSize, size - start);
+			byte encoding = in.readByte();
+			int payloadLength = in.readInt();
+			// minimum and maximum
+			in.readDouble();
+			in.readDouble();
+			position = 0;
+			bufferEnd = 0;
+			if (start + length <= from || start >= to || selectedChunks != null && !selectedChunks[chunk]) {
+				skipFully(in, payloadLength);
+				return;
+			}
+			switch (encoding) {
+				case ENCODING_CONSTANT:
+					double value = in.readDouble();
+					for (int i = 0; i < length; i++) {
+						buffer[i] = value;
+					}
+					break;
+				case ENCODING_RUN_LENGTH:
+					readRunLength(in, buffer, length);
+					break;
+				case ENCODING_BIT_PACKED:
+					readBitPacked(in, buffer, length);
+					break;
+				case ENCODING_RAW:
+					for (int i = 0; i < length; i++) {
+						buffer[i] = in.readDouble();
+					}
+					break;
+				default:
+					throw new IOException("Unknown chunk encoding: " + encoding);
+			}
+			position = Math.max(from, start) - start;
+			bufferEnd = Math.min(to, start + length) - start;
+		}
+
+	}
+
+	/** Skips exactly the given number of bytes. */
+	private static void skipFully(DataInputStream in, int bytes) throws IOException {
+		int remaining = bytes;
+		while (remaining > 0) {
+			int skipped = in.skipBytes(remaining);
+			if (skipped <= 0) {
+				// skipBytes may skip nothing without reaching the end, check by reading
+				if (in.read() < 0) {
+					throw new EOFException("Unexpected end of columnar example set stream");
+				}
+				skipped = 1;
+			}
+			remaining -= skipped;
+		}
+	}
+
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.tools;
+
+import java.util.Set;
+
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.tools.ColumnarExampleSetToStream.ChunkFilter;
+
+
+/**
+ * Operators consuming an {@link ExampleSet} can implement this interface to tell the operator
+ * delivering the example set which parts of it are actually needed. For example, the
+ * {@link com.rapidminer.operator.io.RepositorySource} uses it to load only the needed attributes and
+ * chunks of rows of entries stored in the {@link ColumnarExampleSetToStream columnar format}.
+ * <p>
+ * Both methods must be conservative: the result of the operator must not change if it receives the
+ * reduced example set instead of the complete one. Implementations should return {@code null}
+ * whenever this cannot be guaranteed, e.g. because the original input is passed on by the operator.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public interface ExampleSetPushdown {
+
+	/**
+	 * Returns the names of the attributes that are needed.
+	 *
+	 * @param structure
+	 *            an example set without rows containing all attributes of the data
+	 * @return the names of the needed attributes or {@code null} if all attributes are needed
+	 */
+	Set<String> getRequiredAttributes(ExampleSet structure);
+
+	/**
+	 * Returns a filter for the chunks of rows which are needed. A chunk may only be rejected if none
+	 * of its rows is needed.
+	 *
+	 * @param structure
+	 *            an example set without rows containing all attributes of the data
+	 * @return the filter or {@code null} if all rows are needed
+	 */
+	ChunkFilter getChunkFilter(ExampleSet structure);
+
+}
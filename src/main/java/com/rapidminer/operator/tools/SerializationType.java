@@ -115,7 +115,15 @@ public enum SerializationType {
 
 	STREAMED_EXAMPLE_SET_DENSE_2(new StreamedExampleSetBodySerializer(ExampleSetToStream.VERSION_2)),
 
-	STREAMED_EXAMPLE_SET_DENSE_3(new StreamedExampleSetBodySerializer(ExampleSetToStream.VERSION_3));
+	STREAMED_EXAMPLE_SET_DENSE_3(new StreamedExampleSetBodySerializer(ExampleSetToStream.VERSION_3)),
+
+	/**
+	 * Column-chunked, compressed example set format allowing to read selected attributes and rows.
+	 * See {@link ColumnarExampleSetToStream}.
+	 *
+	 * @since 7.6
+	 */
+	STREAMED_EXAMPLE_SET_COLUMNAR(new ColumnarExampleSetBodySerializer());
 
 	public static SerializationType STREAMED_EXAMPLE_SET_DENSE_CURRENT_VERSION = STREAMED_EXAMPLE_SET_DENSE_3;
 
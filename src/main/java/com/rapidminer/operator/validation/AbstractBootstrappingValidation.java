@@ -83,6 +83,28 @@ public abstract class AbstractBootstrappingValidation extends ValidationChain {
 
 		// start bootstrapping loop
 		RandomGenerator random = RandomGenerator.getRandomGenerator(this);
+		if (isFoldExecution(number)) {
+			ExampleSet exampleSet = isParallelExecution(number) ? getDataCopy(inputSet, true) : inputSet;
+			boolean localSeed = getParameterAsBoolean(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED);
+			performFolds(number, new Folds() {
+
+				@Override
+				public ExampleSet[] createFold(int fold, RandomGenerator foldRandom) throws OperatorException {
+					int[] mapping = createMapping(exampleSet, (int) Math.round(exampleSet.size() * sampleRatio),
+							localSeed ? random : foldRandom);
+					return new ExampleSet[] { new MappedExampleSet(exampleSet, mapping, true),
+							new MappedExampleSet(exampleSet, mapping, false) };
+				}
+
+				@Override
+				public void foldFinished(int fold) throws OperatorException {
+					iteration = fold;
+					inApplyLoop();
+				}
+			});
+			iteration = number;
+			return;
+		}
 		for (iteration = 0; iteration < number; iteration++) {
 			int[] mapping = createMapping(inputSet, (int) Math.round(inputSet.size() * sampleRatio), random);
 			MappedExampleSet trainingSet = new MappedExampleSet(inputSet, mapping, true);
@@ -95,6 +117,11 @@ public abstract class AbstractBootstrappingValidation extends ValidationChain {
 		// end loop
 	}
 
+	@Override
+	protected boolean supportsParallelExecution() {
+		return true;
+	}
+
 	@Override
 	protected MDInteger getTestSetSize(MDInteger originalSize) throws UndefinedParameterError {
 		return originalSize.multiply(1d - getParameterAsDouble(PARAMETER_SAMPLE_RATIO));
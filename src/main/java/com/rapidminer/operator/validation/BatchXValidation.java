@@ -34,6 +34,7 @@ import com.rapidminer.operator.visualization.ProcessLogOperator;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.UndefinedParameterError;
+import com.rapidminer.tools.RandomGenerator;
 
 
 /**
@@ -108,7 +109,14 @@ public class BatchXValidation extends ValidationChain {
 		if (batchAttribute == null) {
 			throw new UserError(this, 113, Attributes.BATCH_NAME);
 		}
-		SplittedExampleSet splittedES = SplittedExampleSet.splitByAttribute(inputSet, batchAttribute);
+		ExampleSet exampleSet = inputSet;
+		boolean foldExecution = isFoldExecution(2);
+		if (isParallelExecution(2)) {
+			exampleSet = getDataCopy(inputSet, true);
+			batchAttribute = exampleSet.getAttributes().getSpecial(Attributes.BATCH_NAME);
+		}
+		SplittedExampleSet splittedES = SplittedExampleSet.splitByAttribute(exampleSet, batchAttribute);
+		int number = splittedES.getNumberOfSubsets();
 
 		// start crossvalidation
 		if (modelOutput.isConnected()) {
@@ -118,7 +126,30 @@ public class BatchXValidation extends ValidationChain {
 		}
 		getProgress().setCheckForStop(false);
 
-		for (iteration = 0; iteration < splittedES.getNumberOfSubsets(); iteration++) {
+		if (foldExecution && number > 1) {
+			performFolds(number, new Folds() {
+
+				@Override
+				public ExampleSet[] createFold(int fold, RandomGenerator random) {
+					SplittedExampleSet trainingSet = new SplittedExampleSet(splittedES);
+					trainingSet.selectAllSubsetsBut(fold);
+					SplittedExampleSet testSet = new SplittedExampleSet(splittedES);
+					testSet.selectSingleSubset(fold);
+					return new ExampleSet[] { trainingSet, testSet };
+				}
+
+				@Override
+				public void foldFinished(int fold) throws OperatorException {
+					iteration = fold;
+					inApplyLoop();
+					getProgress().step();
+				}
+			});
+			iteration = number;
+			return;
+		}
+
+		for (iteration = 0; iteration < number; iteration++) {
 			splittedES.selectAllSubsetsBut(iteration);
 			learn(splittedES);
 
@@ -147,6 +178,11 @@ public class BatchXValidation extends ValidationChain {
 		return types;
 	}
 
+	@Override
+	protected boolean supportsParallelExecution() {
+		return true;
+	}
+
 	@Override
 	public boolean supportsCapability(OperatorCapability capability) {
 		return true;
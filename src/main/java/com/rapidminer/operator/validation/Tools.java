@@ -138,7 +138,16 @@ public class Tools {
 	 * the second or later iteration) builds the average. Null inputs are ignored.
 	 */
 	public static void buildAverages(InputPort inputPort, OutputPort outputPort) throws OperatorException {
-		AverageVector performance = inputPort.getDataOrNull(AverageVector.class);
+		buildAverages(inputPort.getDataOrNull(AverageVector.class), outputPort);
+	}
+
+	/**
+	 * Same as {@link #buildAverages(InputPort, OutputPort)} for an average vector that was already
+	 * taken from an input port, e.g. by a fold executed in parallel. Null vectors are ignored.
+	 *
+	 * @since 7.6
+	 */
+	public static void buildAverages(AverageVector performance, OutputPort outputPort) throws OperatorException {
 		if (performance == null) {
 			return;
 		}
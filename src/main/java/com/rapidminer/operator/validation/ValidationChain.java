@@ -18,16 +18,18 @@
 */
 package com.rapidminer.operator.validation;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.Model;
-import com.rapidminer.operator.OperatorChain;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.ValueDouble;
+import com.rapidminer.operator.concurrency.internal.ParallelOperatorChain;
 import com.rapidminer.operator.learner.CapabilityProvider;
 import com.rapidminer.operator.learner.PredictionModel;
 import com.rapidminer.operator.performance.PerformanceCriterion;
@@ -48,6 +50,7 @@ import com.rapidminer.operator.ports.metadata.SubprocessTransformRule;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.UndefinedParameterError;
+import com.rapidminer.tools.RandomGenerator;
 import com.rapidminer.tools.math.AverageVector;
 
 
@@ -60,7 +63,32 @@ import com.rapidminer.tools.math.AverageVector;
  *
  * @author Ingo Mierswa, Simon Fischer
  */
-public abstract class ValidationChain extends OperatorChain implements CapabilityProvider {
+public abstract class ValidationChain extends ParallelOperatorChain implements CapabilityProvider {
+
+	/**
+	 * Creates the training and test sets of the folds of a validation executed by
+	 * {@link ValidationChain#performFolds(int, Folds)} and is notified when the results of a fold
+	 * have been averaged. Both methods are called in the order of the folds by the thread executing
+	 * the validation.
+	 *
+	 * @since 7.6
+	 */
+	protected interface Folds {
+
+		/**
+		 * Creates the training set and the test set of the fold. Random samples must be drawn from
+		 * the given generator unless a local random seed is used, since the global random
+		 * generator is reseeded for every fold.
+		 *
+		 * @return the training set and the test set of the fold
+		 */
+		ExampleSet[] createFold(int fold, RandomGenerator random) throws OperatorException;
+
+		/**
+		 * Called after the averagable results of the fold have been added to the averages.
+		 */
+		void foldFinished(int fold) throws OperatorException;
+	}
 
 	/**
 	 * The parameter name for &quot;Indicates if a model of the complete data set should be
@@ -307,6 +335,101 @@ public abstract class ValidationChain extends OperatorChain implements Capabilit
 		}
 	}
 
+	/**
+	 * Subclasses which execute their folds by {@link #performFolds(int, Folds)} must return
+	 * {@code true}.
+	 */
+	@Override
+	protected boolean supportsParallelExecution() {
+		return false;
+	}
+
+	/**
+	 * The parallel execution of validations must be enabled by the user, since the inner operators
+	 * then draw from fold seeds instead of the global random generator.
+	 */
+	@Override
+	protected boolean isParallelExecutionEnabledByDefault() {
+		return false;
+	}
+
+	/**
+	 * Checks whether the given number of folds should be executed by
+	 * {@link #performFolds(int, Folds)}, i.e. whether there is more than one fold and the parallel
+	 * execution is enabled.
+	 *
+	 * @since 7.6
+	 */
+	protected boolean isFoldExecution(int numberOfFolds) {
+		return numberOfFolds > 1 && isParallelExecutionEnabled();
+	}
+
+	/**
+	 * Learns and evaluates the folds. A seed is drawn for every fold in the order of the folds by
+	 * the calling thread, and the global random generator of the thread executing the fold is
+	 * reseeded with it before the inner operators are executed. The folds are executed in parallel
+	 * if {@link #isParallelExecution(int)} allows it, see
+	 * {@link #executeInParallel(int, ParallelOperatorChain.Iterations)}, and one after another
+	 * otherwise, e.g. if there are breakpoints. The averagable results are averaged in the order of
+	 * the folds. Hence the results do not depend on whether the folds were executed in parallel.
+	 *
+	 * @since 7.6
+	 */
+	protected void performFolds(int numberOfFolds, Folds folds) throws OperatorException {
+		// the seeds and samples are drawn from a generator of their own, so the inner operators
+		// cannot interfere with them when reseeding the global random generator
+		RandomGenerator random = new RandomGenerator(RandomGenerator.getGlobalRandomGenerator().nextLong());
+		if (isParallelExecution(numberOfFolds)) {
+			List<PortPairExtender.PortPair> pairs = applyProcessPerformancePortExtender.getManagedPairs();
+			executeInParallel(numberOfFolds, new Iterations<List<AverageVector>>() {
+
+				@Override
+				public Callable<List<AverageVector>> createIteration(int fold, ParallelOperatorChain clone)
+						throws OperatorException {
+					ExampleSet[] sets = folds.createFold(fold, random);
+					long seed = random.nextLong();
+					return () -> {
+						RandomGenerator.getGlobalRandomGenerator().setSeed(seed);
+						return ((ValidationChain) clone).performFold(sets[0], sets[1]);
+					};
+				}
+
+				@Override
+				public void iterationFinished(int fold, List<AverageVector> averages) throws OperatorException {
+					for (int pair = 0; pair < pairs.size() && pair < averages.size(); pair++) {
+						Tools.buildAverages(averages.get(pair), pairs.get(pair).getOutputPort());
+					}
+					folds.foldFinished(fold);
+				}
+			});
+		} else {
+			for (int fold = 0; fold < numberOfFolds; fold++) {
+				ExampleSet[] sets = folds.createFold(fold, random);
+				RandomGenerator.getGlobalRandomGenerator().setSeed(random.nextLong());
+				learn(sets[0]);
+				evaluate(sets[1]);
+				folds.foldFinished(fold);
+			}
+		}
+		// subsequent operators find the global random generator in the same state either way
+		RandomGenerator.getGlobalRandomGenerator().setSeed(random.nextLong());
+	}
+
+	/**
+	 * Learns and evaluates a single fold in this clone.
+	 *
+	 * @return the averagable results of the fold for every port pair, can contain {@code null}
+	 */
+	private List<AverageVector> performFold(ExampleSet trainingSet, ExampleSet testSet) throws OperatorException {
+		learn(trainingSet);
+		evaluate(testSet);
+		List<AverageVector> averages = new ArrayList<>();
+		for (PortPairExtender.PortPair pair : applyProcessPerformancePortExtender.getManagedPairs()) {
+			averages.add(pair.getOutputPort().getDataOrNull(AverageVector.class));
+		}
+		return averages;
+	}
+
 	/** Applies the learner (= first encapsulated inner operator). for building the final model. */
 	protected void learnFinalModel(ExampleSet trainingSet) throws OperatorException {
 		learn(trainingSet);
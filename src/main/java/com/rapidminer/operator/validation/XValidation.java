@@ -153,8 +153,10 @@ public class XValidation extends ValidationChain {
 		getLogger().fine("Starting " + number + "-fold cross validation");
 
 		// Split training / test set
+		boolean foldExecution = isFoldExecution(number);
+		ExampleSet exampleSet = isParallelExecution(number) ? getDataCopy(inputSet, true) : inputSet;
 		int samplingType = getParameterAsInt(PARAMETER_SAMPLING_TYPE);
-		SplittedExampleSet splittedES = new SplittedExampleSet(inputSet, number, samplingType,
+		SplittedExampleSet splittedES = new SplittedExampleSet(exampleSet, number, samplingType,
 				getParameterAsBoolean(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED),
 				getParameterAsInt(RandomGenerator.PARAMETER_LOCAL_RANDOM_SEED),
 				getCompatibilityLevel().isAtMost(SplittedExampleSet.VERSION_SAMPLING_CHANGED));
@@ -167,6 +169,29 @@ public class XValidation extends ValidationChain {
 		}
 		getProgress().setCheckForStop(false);
 
+		if (foldExecution) {
+			performFolds(number, new Folds() {
+
+				@Override
+				public ExampleSet[] createFold(int fold, RandomGenerator random) {
+					SplittedExampleSet trainingSet = new SplittedExampleSet(splittedES);
+					trainingSet.selectAllSubsetsBut(fold);
+					SplittedExampleSet testSet = new SplittedExampleSet(splittedES);
+					testSet.selectSingleSubset(fold);
+					return new ExampleSet[] { trainingSet, testSet };
+				}
+
+				@Override
+				public void foldFinished(int fold) throws OperatorException {
+					iteration = fold;
+					inApplyLoop();
+					getProgress().step();
+				}
+			});
+			iteration = number;
+			return;
+		}
+
 		for (iteration = 0; iteration < number; iteration++) {
 			performIteration(splittedES, iteration);
 		}
@@ -234,6 +259,24 @@ public class XValidation extends ValidationChain {
 		return types;
 	}
 
+	/**
+	 * Folds executed by {@link #performFolds(int, Folds)} do not use
+	 * {@link #performIteration(SplittedExampleSet, int)}, so subclasses overwriting it do not offer
+	 * the parallel execution.
+	 */
+	@Override
+	protected boolean supportsParallelExecution() {
+		for (Class<?> clazz = getClass(); clazz != XValidation.class; clazz = clazz.getSuperclass()) {
+			try {
+				clazz.getDeclaredMethod("performIteration", SplittedExampleSet.class, int.class);
+				return false;
+			} catch (NoSuchMethodException e) {
+				// not overwritten by this class
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public OperatorVersion[] getIncompatibleVersionChanges() {
 		return new OperatorVersion[] { SplittedExampleSet.VERSION_SAMPLING_CHANGED };
@@ -26,6 +26,7 @@ import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.ports.InputPort;
 import com.rapidminer.operator.ports.OutputPort;
 import com.rapidminer.operator.ports.metadata.GenerateNewMDRule;
+import com.rapidminer.studio.internal.Resources;
 
 import java.util.Iterator;
 
@@ -57,7 +58,7 @@ public class DataStatisticsOperator extends Operator {
 	@Override
 	public void doWork() throws OperatorException {
 		ExampleSet eSet = exampleSetInput.getData(ExampleSet.class);
-		eSet.recalculateAllAttributeStatistics();
+		eSet.recalculateAllAttributeStatistics(Resources.getConcurrencyContext(this));
 		DataStatistics statistics = new DataStatistics();
 		Iterator<Attribute> i = eSet.getAttributes().allAttributes();
 		while (i.hasNext()) {
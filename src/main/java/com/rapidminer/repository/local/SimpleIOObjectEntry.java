@@ -24,29 +24,39 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.lang.ref.WeakReference;
+import java.util.Set;
 
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.ExampleSet;
 import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.ports.metadata.AttributeMetaData;
 import com.rapidminer.operator.ports.metadata.ExampleSetMetaData;
 import com.rapidminer.operator.ports.metadata.MetaData;
+import com.rapidminer.operator.tools.ColumnarExampleSetToStream;
+import com.rapidminer.operator.tools.ColumnarExampleSetToStream.ChunkFilter;
+import com.rapidminer.operator.tools.ExampleSetPushdown;
 import com.rapidminer.operator.tools.ExampleSetToStream;
 import com.rapidminer.operator.tools.IOObjectSerializer;
 import com.rapidminer.operator.tools.RMObjectInputStream;
+import com.rapidminer.operator.tools.SerializationType;
 import com.rapidminer.repository.Folder;
 import com.rapidminer.repository.IOObjectEntry;
 import com.rapidminer.repository.RepositoryException;
+import com.rapidminer.tools.ParameterService;
 import com.rapidminer.tools.ProgressListener;
 import com.rapidminer.tools.plugin.Plugin;
 
 
 /**
  * Stores IOObject in a file. Either as IOO serialized files using {@link ExampleSetToStream} where
- * appropriate.
+ * appropriate or, if enabled, using the {@link ColumnarExampleSetToStream columnar format} for
+ * example sets.
  *
  * @author Simon Fischer
  */
@@ -99,6 +109,83 @@ public class SimpleIOObjectEntry extends SimpleDataEntry implements IOObjectEntr
 		}
 	}
 
+	/**
+	 * Retrieves only the attributes and rows requested by the given {@link ExampleSetPushdown}. This
+	 * is only possible if the data is stored in the {@link ColumnarExampleSetToStream columnar
+	 * format}, otherwise the complete data is retrieved as by {@link #retrieveData(ProgressListener)}.
+	 * The file is read up to three times, but only the first pass for the header and the last pass
+	 * for the selected chunks decode data.
+	 *
+	 * @param pushdown
+	 *            the pushdown providing the needed attributes and chunks
+	 * @param l
+	 *            the progress listener, can be {@code null}
+	 * @return the retrieved data
+	 * @throws RepositoryException
+	 *             if the data cannot be loaded
+	 * @since 7.6
+	 */
+	public IOObject retrieveData(ExampleSetPushdown pushdown, ProgressListener l) throws RepositoryException {
+		File dataFile = getDataFile();
+		if (!dataFile.exists()) {
+			throw new RepositoryException("File '" + dataFile + " does not exist'.");
+		}
+		ColumnarExampleSetToStream columnarStream = new ColumnarExampleSetToStream();
+		ExampleSet structure;
+		try (InputStream in = openColumnarStream(dataFile)) {
+			if (in == null) {
+				return retrieveData(l);
+			}
+			structure = columnarStream.read(in, null, 0, 0);
+		} catch (IOException e) {
+			throw new RepositoryException("Cannot load data from '" + dataFile + "': " + e, e);
+		}
+		if (l != null) {
+			l.setTotal(100);
+			l.setCompleted(10);
+		}
+
+		Set<String> attributeNames = pushdown.getRequiredAttributes(structure);
+		ChunkFilter chunkFilter = pushdown.getChunkFilter(structure);
+		try {
+			boolean[] selectedChunks = null;
+			if (chunkFilter != null) {
+				try (InputStream in = openColumnarStream(dataFile)) {
+					selectedChunks = columnarStream.selectChunks(in, chunkFilter);
+				}
+			}
+			try (InputStream in = openColumnarStream(dataFile)) {
+				ExampleSet exampleSet = columnarStream.read(in, attributeNames, selectedChunks);
+				if (l != null) {
+					l.setCompleted(100);
+					l.complete();
+				}
+				return exampleSet;
+			}
+		} catch (IOException e) {
+			throw new RepositoryException("Cannot load data from '" + dataFile + "': " + e, e);
+		}
+	}
+
+	/**
+	 * Opens the data file and reads the serialization header. Returns {@code null} if the data is
+	 * not stored in the columnar format.
+	 */
+	private static InputStream openColumnarStream(File dataFile) throws IOException {
+		InputStream in = new BufferedInputStream(new FileInputStream(dataFile));
+		try {
+			if (IOObjectSerializer.getInstance()
+					.deserializeHeader(in) == SerializationType.STREAMED_EXAMPLE_SET_COLUMNAR) {
+				return in;
+			}
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		}
+		in.close();
+		return null;
+	}
+
 	@Override
 	public MetaData retrieveMetaData() throws RepositoryException {
 		if (metaData != null) {
@@ -150,7 +237,12 @@ public class SimpleIOObjectEntry extends SimpleDataEntry implements IOObjectEntr
 		OutputStream out = null;
 		try {
 			out = new BufferedOutputStream(new FileOutputStream(getDataFile()));
-			IOObjectSerializer.getInstance().serialize(out, data);
+			if (data instanceof ExampleSet && Boolean.parseBoolean(
+					ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_COLUMNAR_REPOSITORY_FORMAT))) {
+				IOObjectSerializer.getInstance().serialize(out, data, SerializationType.STREAMED_EXAMPLE_SET_COLUMNAR);
+			} else {
+				IOObjectSerializer.getInstance().serialize(out, data);
+			}
 			if (l != null) {
 				l.setCompleted(75);
 			}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.studio.concurrency.internal.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+
+
+/**
+ * Utility methods for the execution of tasks in a {@link ConcurrencyContext}.
+ * <p>
+ * Note that this part of the API is only temporary and might be removed in future versions again.
+ * </p>
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public final class ConcurrencyTools {
+
+	private ConcurrencyTools() {
+		throw new AssertionError("utility class");
+	}
+
+	/**
+	 * Executes the tasks in the context or directly in the calling thread if there is no context,
+	 * the context is single-threaded or there is only one task.
+	 *
+	 * @param context
+	 *            the context, can be {@code null}
+	 * @param tasks
+	 *            the tasks to execute
+	 * @return the results of the tasks in the order of the tasks
+	 * @throws RuntimeException
+	 *             if a task fails, checked exceptions are wrapped
+	 */
+	public static <T> List<T> call(ConcurrencyContext context, List<Callable<T>> tasks) {
+		return call(context, tasks, RuntimeException.class);
+	}
+
+	/**
+	 * Executes the tasks in the context or directly in the calling thread if there is no context,
+	 * the context is single-threaded or there is only one task.
+	 *
+	 * @param context
+	 *            the context, can be {@code null}
+	 * @param tasks
+	 *            the tasks to execute
+	 * @param exceptionType
+	 *            the type of the checked exceptions thrown by the tasks
+	 * @return the results of the tasks in the order of the tasks
+	 * @throws E
+	 *             if a task fails with an exception of the given type
+	 * @throws RuntimeException
+	 *             if a task fails with another exception, other checked exceptions are wrapped
+	 */
+	public static <T, E extends Exception> List<T> call(ConcurrencyContext context, List<Callable<T>> tasks,
+			Class<E> exceptionType) throws E {
+		if (context == null || context.getParallelism() < 2 || tasks.size() == 1) {
+			List<T> results = new ArrayList<>(tasks.size());
+			for (Callable<T> task : tasks) {
+				try {
+					results.add(task.call());
+				} catch (Exception e) {
+					throw rethrow(e, exceptionType);
+				}
+			}
+			return results;
+		}
+		try {
+			return context.call(tasks);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			} else if (cause instanceof Exception) {
+				throw rethrow((Exception) cause, exceptionType);
+			} else {
+				throw new RuntimeException(e.getMessage(), cause);
+			}
+		}
+	}
+
+	/**
+	 * Throws the exception if it has the given type or is unchecked, otherwise returns it wrapped
+	 * into a {@link RuntimeException}.
+	 */
+	private static <E extends Exception> RuntimeException rethrow(Exception e, Class<E> exceptionType) throws E {
+		if (exceptionType.isInstance(e)) {
+			throw exceptionType.cast(e);
+		} else if (e instanceof RuntimeException) {
+			return (RuntimeException) e;
+		} else {
+			return new RuntimeException(e.getMessage(), e);
+		}
+	}
+}
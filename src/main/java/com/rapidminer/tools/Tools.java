@@ -1660,6 +1660,23 @@ public class Tools {
 		}
 	}
 
+	/**
+	 * Converts the memory budget of an operator parameter to bytes.
+	 *
+	 * @param megabytes
+	 *            the budget in megabytes, {@code 0} for half of the currently available memory
+	 * @return the budget in bytes
+	 * @since 7.6
+	 */
+	public static long getMemoryBudget(int megabytes) {
+		if (megabytes > 0) {
+			return megabytes * 1024L * 1024L;
+		}
+		Runtime runtime = Runtime.getRuntime();
+		long used = runtime.totalMemory() - runtime.freeMemory();
+		return Math.max(0, runtime.maxMemory() - used) / 2;
+	}
+
 	/**
 	 * Copies the contents read from the input stream to the output stream in the current thread.
 	 * Both streams will be closed, even in case of a failure.
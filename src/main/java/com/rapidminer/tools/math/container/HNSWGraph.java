@@ -0,0 +1,534 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.container;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import com.rapidminer.tools.container.Tupel;
+import com.rapidminer.tools.math.similarity.DistanceMeasure;
+
+
+/**
+ * An approximate nearest neighbour index based on a hierarchical navigable small world graph
+ * (HNSW). Every point is connected to some of its near points in the bottom layer of the graph.
+ * Exponentially fewer points are part of the higher layers, which allow to move quickly towards
+ * the query. A search walks greedily through the higher layers and then explores the bottom layer
+ * with a beam of the size of the search effort.
+ * <p>
+ * The search is approximate: neighbours might be missed. Larger search efforts find more of the
+ * true neighbours at the cost of more distance computations, see {@link #setSearchEffort(int)}. In
+ * contrast to the tree based collections, the graph works with any distance measure and in high
+ * dimensional spaces. Searches for all points within a distance are answered exactly by a linear
+ * search.
+ * <p>
+ * Points are inserted into the graph when they are added, so adding is much more expensive than
+ * for a {@link LinearList}. Searches can be executed concurrently by multiple threads as long as no
+ * points are added.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ *
+ * @param <T>
+ *            This is the type of value with is stored with the points and retrieved on nearest
+ *            neighbour search
+ */
+public class HNSWGraph<T extends Serializable> implements GeometricDataCollection<T> {
+
+	private static final long serialVersionUID = -1958254337360516447L;
+
+	/** The default number of neighbours a point is connected to per layer */
+	public static final int DEFAULT_MAX_NEIGHBOURS = 16;
+
+	/** The default size of the beam used to find the neighbours of inserted points */
+	public static final int DEFAULT_CONSTRUCTION_EFFORT = 100;
+
+	/** The default size of the beam used to search neighbours */
+	public static final int DEFAULT_SEARCH_EFFORT = 50;
+
+	/**
+	 * A binary heap of nodes ordered by their distances. Ties are resolved by the node index to
+	 * keep the search deterministic.
+	 */
+	private static final class Heap {
+
+		private final boolean max;
+		private double[] distances = new double[16];
+		private int[] nodes = new int[16];
+		private int size = 0;
+
+		private Heap(boolean max) {
+			this.max = max;
+		}
+
+		private boolean isEmpty() {
+			return size == 0;
+		}
+
+		private double peekDistance() {
+			return distances[0];
+		}
+
+		private int peekNode() {
+			return nodes[0];
+		}
+
+		/** @return whether the first entry belongs above the second one */
+		private boolean isAbove(double distance, int node, double otherDistance, int otherNode) {
+			int comparison = Double.compare(distance, otherDistance);
+			if (comparison == 0) {
+				comparison = Integer.compare(node, otherNode);
+			}
+			return max ? comparison > 0 : comparison < 0;
+		}
+
+		private void push(double distance, int node) {
+			if (size == distances.length) {
+				distances = Arrays.copyOf(distances, 2 * size);
+				nodes = Arrays.copyOf(nodes, 2 * size);
+			}
+			int i = size++;
+			while (i > 0) {
+				int parent = (i - 1) / 2;
+				if (!isAbove(distance, node, distances[parent], nodes[parent])) {
+					break;
+				}
+				distances[i] = distances[parent];
+				nodes[i] = nodes[parent];
+				i = parent;
+			}
+			distances[i] = distance;
+			nodes[i] = node;
+		}
+
+		private void pop() {
+			size--;
+			double distance = distances[size];
+			int node = nodes[size];
+			int i = 0;
+			while (true) {
+				int child = 2 * i + 1;
+				if (child >= size) {
+					break;
+				}
+				if (child + 1 < size && isAbove(distances[child + 1], nodes[child + 1], distances[child], nodes[child])) {
+					child++;
+				}
+				if (!isAbove(distances[child], nodes[child], distance, node)) {
+					break;
+				}
+				distances[i] = distances[child];
+				nodes[i] = nodes[child];
+				i = child;
+			}
+			distances[i] = distance;
+			nodes[i] = node;
+		}
+	}
+
+	/** The nodes and distances of the nearest points ordered by their distance. */
+	private static final class Neighbours {
+
+		private final int[] nodes;
+		private final double[] distances;
+
+		private Neighbours(int[] nodes, double[] distances) {
+			this.nodes = nodes;
+			this.distances = distances;
+		}
+	}
+
+	/** A set of the visited node indices using open addressing. */
+	private static final class VisitedSet {
+
+		private int[] table = new int[256];
+		private int size = 0;
+
+		/** @return {@code true} if the node was not visited before */
+		private boolean add(int node) {
+			if (2 * size >= table.length) {
+				int[] old = table;
+				table = new int[2 * old.length];
+				size = 0;
+				for (int entry : old) {
+					if (entry != 0) {
+						add(entry - 1);
+					}
+				}
+			}
+			int mask = table.length - 1;
+			int i = (node * 0x9E3779B9) & mask;
+			while (table[i] != 0) {
+				if (table[i] == node + 1) {
+					return false;
+				}
+				i = (i + 1) & mask;
+			}
+			table[i] = node + 1;
+			size++;
+			return true;
+		}
+	}
+
+	private final DistanceMeasure distance;
+
+	private final int maxNeighbours;
+
+	private final int constructionEffort;
+
+	private volatile int searchEffort;
+
+	private final double levelFactor;
+
+	private final Random random;
+
+	private double[][] points = new double[16][];
+
+	/**
+	 * The neighbours of each node per layer. The first entry of each array is the number of
+	 * neighbours, followed by their indices.
+	 */
+	private int[][][] links = new int[16][][];
+
+	private final ArrayList<T> storedValues = new ArrayList<T>();
+
+	private int size = 0;
+
+	private int entryPoint = -1;
+
+	private int topLayer = -1;
+
+	/**
+	 * Creates a graph with default settings.
+	 */
+	public HNSWGraph(DistanceMeasure distance, long seed) {
+		this(distance, DEFAULT_MAX_NEIGHBOURS, DEFAULT_CONSTRUCTION_EFFORT, DEFAULT_SEARCH_EFFORT, seed);
+	}
+
+	/**
+	 * Creates a new graph.
+	 *
+	 * @param distance
+	 *            the distance measure
+	 * @param maxNeighbours
+	 *            the number of neighbours a point is connected to per layer, twice as many in the
+	 *            bottom layer
+	 * @param constructionEffort
+	 *            the size of the beam used to find the neighbours of inserted points
+	 * @param searchEffort
+	 *            the size of the beam used to search neighbours
+	 * @param seed
+	 *            the seed for choosing the layers of the points
+	 */
+	public HNSWGraph(DistanceMeasure distance, int maxNeighbours, int constructionEffort, int searchEffort, long seed) {
+		if (maxNeighbours < 2) {
+			throw new IllegalArgumentException("maxNeighbours must be at least 2");
+		}
+		this.distance = distance;
+		this.maxNeighbours = maxNeighbours;
+		this.constructionEffort = Math.max(1, constructionEffort);
+		this.searchEffort = Math.max(1, searchEffort);
+		this.levelFactor = 1 / Math.log(maxNeighbours);
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * Sets the size of the beam used to search neighbours. Larger values find more of the true
+	 * nearest neighbours but need more distance computations. The beam is never smaller than the
+	 * number of requested neighbours.
+	 */
+	public void setSearchEffort(int searchEffort) {
+		this.searchEffort = Math.max(1, searchEffort);
+	}
+
+	public int getSearchEffort() {
+		return searchEffort;
+	}
+
+	@Override
+	public synchronized void add(double[] values, T storeValue) {
+		int node = size;
+		if (node == points.length) {
+			points = Arrays.copyOf(points, 2 * node);
+			links = Arrays.copyOf(links, 2 * node);
+		}
+		points[node] = values;
+		storedValues.add(storeValue);
+
+		int layer = (int) (-Math.log(1 - random.nextDouble()) * levelFactor);
+		links[node] = new int[layer + 1][];
+		for (int l = 0; l <= layer; l++) {
+			// one more for the count and one more for temporarily exceeding the maximum
+			links[node][l] = new int[getMaxNeighbours(l) + 2];
+		}
+		size++;
+
+		if (entryPoint < 0) {
+			entryPoint = node;
+			topLayer = layer;
+			return;
+		}
+
+		// walking greedily down to the layer of the new node
+		int current = entryPoint;
+		double currentDistance = distance(values, current);
+		for (int l = topLayer; l > layer; l--) {
+			Heap nearest = searchLayer(values, new int[] { current }, new double[] { currentDistance }, 1, l);
+			current = nearest.peekNode();
+			currentDistance = nearest.peekDistance();
+		}
+
+		int[] entries = { current };
+		double[] entryDistances = { currentDistance };
+		for (int l = Math.min(layer, topLayer); l >= 0; l--) {
+			Heap candidates = searchLayer(values, entries, entryDistances, constructionEffort, l);
+			int count = candidates.size;
+			entries = new int[count];
+			entryDistances = new double[count];
+			for (int i = count - 1; i >= 0; i--) {
+				entries[i] = candidates.peekNode();
+				entryDistances[i] = candidates.peekDistance();
+				candidates.pop();
+			}
+
+			int[] selected = selectNeighbours(entries, entryDistances, count, getMaxNeighbours(l));
+			int[] nodeLinks = links[node][l];
+			nodeLinks[0] = selected.length;
+			System.arraycopy(selected, 0, nodeLinks, 1, selected.length);
+			for (int neighbour : selected) {
+				addLink(neighbour, node, l);
+			}
+		}
+
+		if (layer > topLayer) {
+			topLayer = layer;
+			entryPoint = node;
+		}
+	}
+
+	private int getMaxNeighbours(int layer) {
+		return layer == 0 ? 2 * maxNeighbours : maxNeighbours;
+	}
+
+	/**
+	 * Adds the link from the node to the neighbour and drops the least useful links of the node if
+	 * it has too many.
+	 */
+	private void addLink(int node, int neighbour, int layer) {
+		int[] nodeLinks = links[node][layer];
+		int count = nodeLinks[0];
+		nodeLinks[++count] = neighbour;
+		nodeLinks[0] = count;
+		int max = getMaxNeighbours(layer);
+		if (count <= max) {
+			return;
+		}
+
+		// ordering the neighbours by their distance to the node
+		Heap heap = new Heap(true);
+		for (int i = 1; i <= count; i++) {
+			heap.push(distance(points[node], nodeLinks[i]), nodeLinks[i]);
+		}
+		int[] candidates = new int[count];
+		double[] candidateDistances = new double[count];
+		for (int i = count - 1; i >= 0; i--) {
+			candidates[i] = heap.peekNode();
+			candidateDistances[i] = heap.peekDistance();
+			heap.pop();
+		}
+		int[] selected = selectNeighbours(candidates, candidateDistances, count, max);
+		nodeLinks[0] = selected.length;
+		System.arraycopy(selected, 0, nodeLinks, 1, selected.length);
+	}
+
+	/**
+	 * Selects up to max of the candidates ordered by their distance. A candidate is preferred if
+	 * it is nearer to the base point than to all candidates selected before, so that the links
+	 * point into different directions. The remaining places are filled with the nearest other
+	 * candidates.
+	 */
+	private int[] selectNeighbours(int[] candidates, double[] candidateDistances, int count, int max) {
+		int[] selected = new int[Math.min(max, count)];
+		int selectedCount = 0;
+		int[] pruned = new int[count];
+		int prunedCount = 0;
+		for (int i = 0; i < count && selectedCount < selected.length; i++) {
+			int candidate = candidates[i];
+			boolean diverse = true;
+			for (int j = 0; j < selectedCount; j++) {
+				if (distance(points[candidate], selected[j]) < candidateDistances[i]) {
+					diverse = false;
+					break;
+				}
+			}
+			if (diverse) {
+				selected[selectedCount++] = candidate;
+			} else {
+				pruned[prunedCount++] = candidate;
+			}
+		}
+		for (int i = 0; i < prunedCount && selectedCount < selected.length; i++) {
+			selected[selectedCount++] = pruned[i];
+		}
+		return selectedCount == selected.length ? selected : Arrays.copyOf(selected, selectedCount);
+	}
+
+	/**
+	 * Explores the layer starting at the entries with a beam of the given size.
+	 *
+	 * @return a max-heap of the nearest nodes found
+	 */
+	private Heap searchLayer(double[] values, int[] entries, double[] entryDistances, int beam, int layer) {
+		VisitedSet visited = new VisitedSet();
+		Heap candidates = new Heap(false);
+		Heap nearest = new Heap(true);
+		for (int i = 0; i < entries.length; i++) {
+			visited.add(entries[i]);
+			candidates.push(entryDistances[i], entries[i]);
+			nearest.push(entryDistances[i], entries[i]);
+			if (nearest.size > beam) {
+				nearest.pop();
+			}
+		}
+
+		while (!candidates.isEmpty()) {
+			double candidateDistance = candidates.peekDistance();
+			int candidate = candidates.peekNode();
+			candidates.pop();
+			if (nearest.size >= beam && Double.compare(candidateDistance, nearest.peekDistance()) > 0) {
+				break;
+			}
+			int[] neighbours = links[candidate][layer];
+			for (int i = 1; i <= neighbours[0]; i++) {
+				int neighbour = neighbours[i];
+				if (visited.add(neighbour)) {
+					double neighbourDistance = distance(values, neighbour);
+					if (nearest.size < beam || Double.compare(neighbourDistance, nearest.peekDistance()) < 0) {
+						candidates.push(neighbourDistance, neighbour);
+						nearest.push(neighbourDistance, neighbour);
+						if (nearest.size > beam) {
+							nearest.pop();
+						}
+					}
+				}
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * Searches the approximately nearest points.
+	 *
+	 * @return the nodes and distances of at most k points ordered by their distance
+	 */
+	private Neighbours searchNearest(int k, double[] values) {
+		int currentSize = size;
+		if (currentSize == 0 || k <= 0) {
+			return new Neighbours(new int[0], new double[0]);
+		}
+		int current = entryPoint;
+		double currentDistance = distance(values, current);
+		for (int l = topLayer; l > 0; l--) {
+			Heap nearest = searchLayer(values, new int[] { current }, new double[] { currentDistance }, 1, l);
+			current = nearest.peekNode();
+			currentDistance = nearest.peekDistance();
+		}
+		Heap nearest = searchLayer(values, new int[] { current }, new double[] { currentDistance },
+				Math.max(k, searchEffort), 0);
+		while (nearest.size > k) {
+			nearest.pop();
+		}
+		int count = nearest.size;
+		int[] nodes = new int[count];
+		double[] distances = new double[count];
+		for (int i = count - 1; i >= 0; i--) {
+			nodes[i] = nearest.peekNode();
+			distances[i] = nearest.peekDistance();
+			nearest.pop();
+		}
+		return new Neighbours(nodes, distances);
+	}
+
+	private double distance(double[] values, int node) {
+		return distance.calculateDistance(points[node], values);
+	}
+
+	@Override
+	public Collection<T> getNearestValues(int k, double[] values) {
+		int[] nodes = searchNearest(k, values).nodes;
+		List<T> result = new ArrayList<T>(nodes.length);
+		for (int node : nodes) {
+			result.add(storedValues.get(node));
+		}
+		return result;
+	}
+
+	@Override
+	public Collection<Tupel<Double, T>> getNearestValueDistances(int k, double[] values) {
+		Neighbours nearest = searchNearest(k, values);
+		int[] nodes = nearest.nodes;
+		double[] distances = nearest.distances;
+		List<Tupel<Double, T>> result = new ArrayList<Tupel<Double, T>>(nodes.length);
+		for (int i = 0; i < nodes.length; i++) {
+			result.add(new Tupel<Double, T>(distances[i], storedValues.get(nodes[i])));
+		}
+		return result;
+	}
+
+	@Override
+	public Collection<Tupel<Double, T>> getNearestValueDistances(double withinDistance, double[] values) {
+		List<Tupel<Double, T>> result = new ArrayList<Tupel<Double, T>>();
+		for (int i = 0; i < size; i++) {
+			double currentDistance = distance(values, i);
+			if (currentDistance <= withinDistance) {
+				result.add(new Tupel<Double, T>(currentDistance, storedValues.get(i)));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Collection<Tupel<Double, T>> getNearestValueDistances(double withinDistance, int butAtLeastK, double[] values) {
+		Collection<Tupel<Double, T>> result = getNearestValueDistances(withinDistance, values);
+		if (result.size() < butAtLeastK) {
+			return getNearestValueDistances(butAtLeastK, values);
+		}
+		return result;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public T get(int index) {
+		return storedValues.get(index);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return storedValues.iterator();
+	}
+}
@@ -0,0 +1,478 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.container;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import com.rapidminer.tools.container.Tupel;
+import com.rapidminer.tools.math.similarity.DistanceMeasure;
+import com.rapidminer.tools.math.similarity.numerical.ChebychevNumericalDistance;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+import com.rapidminer.tools.math.similarity.numerical.ManhattanDistance;
+
+
+/**
+ * A balanced KD-Tree over points stored in a primitive {@code double[][]} array. In contrast to
+ * the {@link KDTree} the tree is built at once from all points by splitting at the median of the
+ * dimension with the largest spread, and nodes are stored in primitive arrays as well. The tree
+ * is (re-)built on the first search after points have been added, so adding points one after
+ * another is cheap but searching in between is not.
+ * <p>
+ * The search is exact: it returns the same neighbours as a {@link LinearList}, ties are resolved in
+ * favour of the point added first. This requires a distance measure that is at least as large as
+ * the difference in any single dimension, see {@link #isSupported(DistanceMeasure)}. Points and
+ * queries with missing or infinite values are compared linearly since the measures ignore missing
+ * dimensions.
+ * <p>
+ * After the tree is built, searches can be executed concurrently by multiple threads.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ *
+ * @param <T>
+ *            This is the type of value with is stored with the points and retrieved on nearest
+ *            neighbour search
+ */
+public class PrimitiveKDTree<T extends Serializable> implements GeometricDataCollection<T> {
+
+	private static final long serialVersionUID = 5368015376373417208L;
+
+	/** The maximal number of points in a leaf */
+	private static final int LEAF_SIZE = 16;
+
+	/**
+	 * The nodes of the tree. Node {@code i} contains the points {@code order[from[i]]} to
+	 * {@code order[to[i] - 1]}. Inner nodes split them at {@code split[i]} in {@code dimension[i]}
+	 * into the children {@code lesser[i]} and {@code greater[i]}, leaves have a dimension of -1.
+	 */
+	private static final class Tree {
+
+		private final int[] order;
+		private final int[] from;
+		private final int[] to;
+		private final int[] dimension;
+		private final double[] split;
+		private final int[] lesser;
+		private final int[] greater;
+
+		/** The points which are not part of the tree because of missing or infinite values */
+		private final int[] unindexed;
+
+		private int nodes = 0;
+
+		private Tree(double[][] points, int size) {
+			int[] indexed = new int[size];
+			int[] other = new int[size];
+			int indexedCount = 0;
+			int otherCount = 0;
+			for (int i = 0; i < size; i++) {
+				if (isFinite(points[i])) {
+					indexed[indexedCount++] = i;
+				} else {
+					other[otherCount++] = i;
+				}
+			}
+			order = Arrays.copyOf(indexed, indexedCount);
+			unindexed = Arrays.copyOf(other, otherCount);
+
+			// leaves contain at least LEAF_SIZE / 2 points unless all points are equal
+			int maxNodes = 2 * (indexedCount / (LEAF_SIZE / 2) + 1);
+			from = new int[maxNodes];
+			to = new int[maxNodes];
+			dimension = new int[maxNodes];
+			split = new double[maxNodes];
+			lesser = new int[maxNodes];
+			greater = new int[maxNodes];
+			if (indexedCount > 0) {
+				build(points, 0, indexedCount);
+			}
+		}
+
+		/**
+		 * Creates the node for the points {@code order[start]} to {@code order[end - 1]}.
+		 *
+		 * @return the index of the node
+		 */
+		private int build(double[][] points, int start, int end) {
+			int node = nodes++;
+			from[node] = start;
+			to[node] = end;
+			dimension[node] = -1;
+			if (end - start <= LEAF_SIZE) {
+				return node;
+			}
+
+			// splitting the dimension with the largest spread
+			int dimensions = points[order[start]].length;
+			int splitDimension = -1;
+			double largestSpread = 0;
+			for (int d = 0; d < dimensions; d++) {
+				double min = Double.POSITIVE_INFINITY;
+				double max = Double.NEGATIVE_INFINITY;
+				for (int i = start; i < end; i++) {
+					double value = points[order[i]][d];
+					if (value < min) {
+						min = value;
+					}
+					if (value > max) {
+						max = value;
+					}
+				}
+				if (max - min > largestSpread) {
+					largestSpread = max - min;
+					splitDimension = d;
+				}
+			}
+			if (splitDimension < 0) {
+				// all points are equal
+				return node;
+			}
+
+			int median = (start + end) >>> 1;
+			select(points, splitDimension, start, end, median);
+			dimension[node] = splitDimension;
+			split[node] = points[order[median]][splitDimension];
+			lesser[node] = build(points, start, median);
+			greater[node] = build(points, median, end);
+			return node;
+		}
+
+		/**
+		 * Reorders {@code order[start]} to {@code order[end - 1]} such that the point at position k
+		 * is the one which would be there if the points were sorted by the given dimension. All
+		 * points before are lesser or equal, all points after are greater or equal.
+		 */
+		private void select(double[][] points, int d, int start, int end, int k) {
+			int left = start;
+			int right = end - 1;
+			while (left < right) {
+				double pivot = points[order[(left + right) >>> 1]][d];
+				int i = left;
+				int j = right;
+				while (i <= j) {
+					while (points[order[i]][d] < pivot) {
+						i++;
+					}
+					while (points[order[j]][d] > pivot) {
+						j--;
+					}
+					if (i <= j) {
+						int swap = order[i];
+						order[i] = order[j];
+						order[j] = swap;
+						i++;
+						j--;
+					}
+				}
+				if (k <= j) {
+					right = j;
+				} else if (k >= i) {
+					left = i;
+				} else {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * A bounded max-heap of the nearest points found so far. A point is nearer than another one if
+	 * its distance is smaller or if the distances are equal and it was added first.
+	 */
+	private static final class Neighbours {
+
+		private final double[] distances;
+		private final int[] indices;
+		private int size = 0;
+
+		private Neighbours(int bound) {
+			distances = new double[bound];
+			indices = new int[bound];
+		}
+
+		/**
+		 * @return whether the heap contains as many points as requested, must not be called for a
+		 *         bound of zero
+		 */
+		private boolean isFilled() {
+			return size == distances.length;
+		}
+
+		private double getMaximalDistance() {
+			return distances[0];
+		}
+
+		private void offer(double distance, int index) {
+			if (size < distances.length) {
+				int i = size++;
+				while (i > 0) {
+					int parent = (i - 1) / 2;
+					if (!isGreater(distance, index, distances[parent], indices[parent])) {
+						break;
+					}
+					distances[i] = distances[parent];
+					indices[i] = indices[parent];
+					i = parent;
+				}
+				distances[i] = distance;
+				indices[i] = index;
+			} else if (isGreater(distances[0], indices[0], distance, index)) {
+				int i = 0;
+				while (true) {
+					int child = 2 * i + 1;
+					if (child >= size) {
+						break;
+					}
+					if (child + 1 < size
+							&& isGreater(distances[child + 1], indices[child + 1], distances[child], indices[child])) {
+						child++;
+					}
+					if (!isGreater(distances[child], indices[child], distance, index)) {
+						break;
+					}
+					distances[i] = distances[child];
+					indices[i] = indices[child];
+					i = child;
+				}
+				distances[i] = distance;
+				indices[i] = index;
+			}
+		}
+
+		private static boolean isGreater(double distance, int index, double otherDistance, int otherIndex) {
+			int comparison = Double.compare(distance, otherDistance);
+			return comparison > 0 || comparison == 0 && index > otherIndex;
+		}
+
+		/**
+		 * @return the positions in the heap ordered from the nearest to the farthest point
+		 */
+		private Integer[] sortedPositions() {
+			Integer[] positions = new Integer[size];
+			for (int i = 0; i < size; i++) {
+				positions[i] = i;
+			}
+			Arrays.sort(positions, (a, b) -> {
+				int comparison = Double.compare(distances[a], distances[b]);
+				return comparison != 0 ? comparison : Integer.compare(indices[a], indices[b]);
+			});
+			return positions;
+		}
+	}
+
+	private final DistanceMeasure distance;
+
+	private double[][] points = new double[16][];
+
+	private final ArrayList<T> storedValues = new ArrayList<T>();
+
+	private int size = 0;
+
+	/** The tree over the current points, {@code null} if it has to be (re-)built */
+	private transient volatile Tree tree;
+
+	public PrimitiveKDTree(DistanceMeasure distance) {
+		this.distance = distance;
+	}
+
+	/**
+	 * Returns whether the given measure can be used with this tree, i.e., whether it is never
+	 * smaller than the difference of two points in a single dimension.
+	 */
+	public static boolean isSupported(DistanceMeasure distance) {
+		Class<?> measureClass = distance.getClass();
+		return measureClass == EuclideanDistance.class || measureClass == ManhattanDistance.class
+				|| measureClass == ChebychevNumericalDistance.class;
+	}
+
+	@Override
+	public synchronized void add(double[] values, T storeValue) {
+		if (size == points.length) {
+			points = Arrays.copyOf(points, 2 * size);
+		}
+		points[size++] = values;
+		storedValues.add(storeValue);
+		tree = null;
+	}
+
+	@Override
+	public Collection<T> getNearestValues(int k, double[] values) {
+		Neighbours neighbours = getNearestNeighbours(k, values);
+		List<T> result = new ArrayList<T>(neighbours.size);
+		for (int position : neighbours.sortedPositions()) {
+			result.add(storedValues.get(neighbours.indices[position]));
+		}
+		return result;
+	}
+
+	@Override
+	public Collection<Tupel<Double, T>> getNearestValueDistances(int k, double[] values) {
+		Neighbours neighbours = getNearestNeighbours(k, values);
+		List<Tupel<Double, T>> result = new ArrayList<Tupel<Double, T>>(neighbours.size);
+		for (int position : neighbours.sortedPositions()) {
+			result.add(new Tupel<Double, T>(neighbours.distances[position],
+					storedValues.get(neighbours.indices[position])));
+		}
+		return result;
+	}
+
+	private Neighbours getNearestNeighbours(int k, double[] values) {
+		Tree currentTree = getTree();
+		Neighbours neighbours = new Neighbours(Math.max(0, Math.min(k, size)));
+		if (neighbours.distances.length == 0) {
+			return neighbours;
+		}
+		if (!isFinite(values)) {
+			for (int i = 0; i < size; i++) {
+				neighbours.offer(distance.calculateDistance(points[i], values), i);
+			}
+			return neighbours;
+		}
+		if (currentTree.nodes > 0) {
+			searchNearest(currentTree, 0, values, neighbours);
+		}
+		for (int i : currentTree.unindexed) {
+			neighbours.offer(distance.calculateDistance(points[i], values), i);
+		}
+		return neighbours;
+	}
+
+	private void searchNearest(Tree tree, int node, double[] values, Neighbours neighbours) {
+		int dimension = tree.dimension[node];
+		if (dimension < 0) {
+			for (int i = tree.from[node]; i < tree.to[node]; i++) {
+				int index = tree.order[i];
+				neighbours.offer(distance.calculateDistance(points[index], values), index);
+			}
+			return;
+		}
+		double difference = values[dimension] - tree.split[node];
+		int near = difference < 0 ? tree.lesser[node] : tree.greater[node];
+		int far = difference < 0 ? tree.greater[node] : tree.lesser[node];
+		searchNearest(tree, near, values, neighbours);
+		// points in the far child are at least as far away as the split
+		if (!neighbours.isFilled() || Math.abs(difference) <= neighbours.getMaximalDistance()) {
+			searchNearest(tree, far, values, neighbours);
+		}
+	}
+
+	@Override
+	public Collection<Tupel<Double, T>> getNearestValueDistances(double withinDistance, double[] values) {
+		Tree currentTree = getTree();
+		List<Integer> indices = new ArrayList<Integer>();
+		if (!isFinite(values)) {
+			for (int i = 0; i < size; i++) {
+				indices.add(i);
+			}
+		} else {
+			if (currentTree.nodes > 0) {
+				searchWithin(currentTree, 0, withinDistance, values, indices);
+			}
+			for (int i : currentTree.unindexed) {
+				indices.add(i);
+			}
+		}
+		// same order as a linear search
+		indices.sort(null);
+
+		List<Tupel<Double, T>> result = new ArrayList<Tupel<Double, T>>();
+		for (int index : indices) {
+			double currentDistance = distance.calculateDistance(points[index], values);
+			if (currentDistance <= withinDistance) {
+				result.add(new Tupel<Double, T>(currentDistance, storedValues.get(index)));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Collects the indices of all points of the node which might be within the given distance.
+	 */
+	private void searchWithin(Tree tree, int node, double withinDistance, double[] values, List<Integer> indices) {
+		int dimension = tree.dimension[node];
+		if (dimension < 0) {
+			for (int i = tree.from[node]; i < tree.to[node]; i++) {
+				indices.add(tree.order[i]);
+			}
+			return;
+		}
+		double difference = values[dimension] - tree.split[node];
+		if (difference <= withinDistance) {
+			searchWithin(tree, tree.lesser[node], withinDistance, values, indices);
+		}
+		if (-difference <= withinDistance) {
+			searchWithin(tree, tree.greater[node], withinDistance, values, indices);
+		}
+	}
+
+	@Override
+	public Collection<Tupel<Double, T>> getNearestValueDistances(double withinDistance, int butAtLeastK, double[] values) {
+		Collection<Tupel<Double, T>> result = getNearestValueDistances(withinDistance, values);
+		if (result.size() < butAtLeastK) {
+			return getNearestValueDistances(butAtLeastK, values);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the tree over the current points and builds it if necessary.
+	 */
+	private Tree getTree() {
+		Tree currentTree = tree;
+		if (currentTree == null) {
+			synchronized (this) {
+				currentTree = tree;
+				if (currentTree == null) {
+					currentTree = new Tree(points, size);
+					tree = currentTree;
+				}
+			}
+		}
+		return currentTree;
+	}
+
+	private static boolean isFinite(double[] values) {
+		for (double value : values) {
+			if (Double.isNaN(value) || Double.isInfinite(value)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public T get(int index) {
+		return storedValues.get(index);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return storedValues.iterator();
+	}
+}
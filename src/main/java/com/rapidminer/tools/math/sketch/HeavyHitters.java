@@ -0,0 +1,162 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.sketch;
+
+import java.util.Arrays;
+
+
+/**
+ * A mergeable sketch for finding the most frequent values of a weighted stream in bounded memory,
+ * following the Space-Saving algorithm by Metwally et al. It keeps a fixed number of counters. A
+ * value without counter takes over the counter with the smallest weight and inherits its weight
+ * as possible overestimation. Every value whose weight exceeds {@code 1 / capacity} of the total
+ * weight is guaranteed to keep its counter.
+ * <p>
+ * As long as there are no more distinct values than counters, all weights are exact.
+ * <p>
+ * This class is not thread-safe. Sketches of parts of a stream can be combined with
+ * {@link #merge(HeavyHitters)}.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class HeavyHitters {
+
+	/** The default number of counters */
+	public static final int DEFAULT_CAPACITY = 64;
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	private final int capacity;
+
+	private double[] values = new double[INITIAL_CAPACITY];
+	private double[] weights = new double[INITIAL_CAPACITY];
+	private int size;
+
+	/**
+	 * Creates a sketch with the {@link #DEFAULT_CAPACITY}.
+	 */
+	public HeavyHitters() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a sketch with the given number of counters.
+	 *
+	 * @param capacity
+	 *            the number of counters, at least 1
+	 */
+	public HeavyHitters(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be at least 1");
+		}
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Adds the given value with weight one.
+	 */
+	public void add(double value) {
+		add(value, 1);
+	}
+
+	/**
+	 * Adds the given value with the given weight. Missing values and values with a non-positive
+	 * weight are ignored, 0 and -0 are the same value.
+	 */
+	public void add(double value, double weight) {
+		if (Double.isNaN(value) || !(weight > 0)) {
+			return;
+		}
+		value += 0.0;
+		int smallest = 0;
+		for (int i = 0; i < size; i++) {
+			if (values[i] == value) {
+				weights[i] += weight;
+				return;
+			}
+			if (weights[i] < weights[smallest]) {
+				smallest = i;
+			}
+		}
+		if (size < capacity) {
+			if (size == values.length) {
+				int newLength = Math.min(capacity, 2 * size);
+				values = Arrays.copyOf(values, newLength);
+				weights = Arrays.copyOf(weights, newLength);
+			}
+			values[size] = value;
+			weights[size] = weight;
+			size++;
+		} else {
+			values[smallest] = value;
+			weights[smallest] += weight;
+		}
+	}
+
+	/**
+	 * Adds all values counted by the other sketch with their estimated weights to this sketch.
+	 */
+	public void merge(HeavyHitters other) {
+		for (int i = 0; i < other.size; i++) {
+			add(other.values[i], other.weights[i]);
+		}
+	}
+
+	/**
+	 * @return the number of values with a counter
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the value with the largest estimated weight. Ties are broken by the smaller value.
+	 *
+	 * @return the most frequent value or {@link Double#NaN} if no values have been added
+	 */
+	public double getMostFrequent() {
+		if (size == 0) {
+			return Double.NaN;
+		}
+		int best = 0;
+		for (int i = 1; i < size; i++) {
+			if (weights[i] > weights[best] || weights[i] == weights[best] && values[i] < values[best]) {
+				best = i;
+			}
+		}
+		return values[best];
+	}
+
+	/**
+	 * Returns the estimated weight of the given value. It is never smaller than the true weight of
+	 * a value with counter.
+	 *
+	 * @return the estimated weight or 0 if the value has no counter
+	 */
+	public double getWeight(double value) {
+		value += 0.0;
+		for (int i = 0; i < size; i++) {
+			if (values[i] == value) {
+				return weights[i];
+			}
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.sketch;
+
+/**
+ * A mergeable sketch for estimating the number of distinct values in bounded memory, following the
+ * HyperLogLog algorithm by Flajolet et al. with 64 bit hashes. The relative standard error is about
+ * {@code 1.04 / sqrt(2^precision)}, i.e. 1.6% for the default precision.
+ * <p>
+ * Small sets are stored sparsely as the hashes of their values, so that their distinct count is
+ * exact except for hash collisions. Once the sparse hashes would use more memory than the
+ * registers, the sketch switches to the registers.
+ * <p>
+ * This class is not thread-safe. Sketches of parts of a stream can be combined with
+ * {@link #merge(HyperLogLog)}.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class HyperLogLog {
+
+	/** The default precision, using 4096 registers */
+	public static final int DEFAULT_PRECISION = 12;
+
+	private static final int INITIAL_SPARSE_CAPACITY = 8;
+
+	private final int precision;
+
+	/** the sparse hashes in an open addressing table, zero marks empty slots */
+	private long[] sparse = new long[INITIAL_SPARSE_CAPACITY];
+	private int sparseSize;
+
+	/** the registers or {@code null} while the sketch is sparse */
+	private byte[] registers;
+
+	/**
+	 * Creates a sketch with the {@link #DEFAULT_PRECISION}.
+	 */
+	public HyperLogLog() {
+		this(DEFAULT_PRECISION);
+	}
+
+	/**
+	 * Creates a sketch with {@code 2^precision} registers.
+	 *
+	 * @param precision
+	 *            the precision between 4 and 18
+	 */
+	public HyperLogLog(int precision) {
+		if (precision < 4 || precision > 18) {
+			throw new IllegalArgumentException("precision must be between 4 and 18");
+		}
+		this.precision = precision;
+	}
+
+	/**
+	 * Adds the given value. Missing values are ignored, 0 and -0 are the same value.
+	 */
+	public void add(double value) {
+		if (!Double.isNaN(value)) {
+			addHash(hash(value));
+		}
+	}
+
+	/**
+	 * Adds all values summarized by the other sketch to this sketch.
+	 *
+	 * @param other
+	 *            a sketch with the same precision
+	 */
+	public void merge(HyperLogLog other) {
+		if (other.precision != precision) {
+			throw new IllegalArgumentException("Only sketches with the same precision can be merged");
+		}
+		if (other.registers == null) {
+			for (long hash : other.sparse) {
+				if (hash != 0) {
+					addHash(hash);
+				}
+			}
+		} else {
+			toRegisters();
+			for (int i = 0; i < registers.length; i++) {
+				registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+			}
+		}
+	}
+
+	/**
+	 * @return the estimated number of distinct values
+	 */
+	public double getEstimate() {
+		if (registers == null) {
+			return sparseSize;
+		}
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for (byte register : registers) {
+			sum += 1d / (1L << register);
+			if (register == 0) {
+				zeros++;
+			}
+		}
+		double estimate = 0.7213 / (1 + 1.079 / m) * m * m / sum;
+		if (estimate <= 2.5 * m && zeros > 0) {
+			// linear counting is more accurate for small cardinalities
+			return m * Math.log((double) m / zeros);
+		}
+		return estimate;
+	}
+
+	private void addHash(long hash) {
+		if (registers != null) {
+			addToRegisters(hash);
+			return;
+		}
+		int mask = sparse.length - 1;
+		int slot = (int) hash & mask;
+		while (sparse[slot] != 0) {
+			if (sparse[slot] == hash) {
+				return;
+			}
+			slot = slot + 1 & mask;
+		}
+		sparse[slot] = hash;
+		sparseSize++;
+		// keep the table at most half full and switch when it would outgrow the registers
+		if (2 * sparseSize > sparse.length) {
+			if (sparse.length * 2 * Long.BYTES > 1 << precision) {
+				toRegisters();
+			} else {
+				long[] oldSparse = sparse;
+				sparse = new long[2 * oldSparse.length];
+				sparseSize = 0;
+				for (long oldHash : oldSparse) {
+					if (oldHash != 0) {
+						addHash(oldHash);
+					}
+				}
+			}
+		}
+	}
+
+	private void toRegisters() {
+		if (registers == null) {
+			registers = new byte[1 << precision];
+			for (long hash : sparse) {
+				if (hash != 0) {
+					addToRegisters(hash);
+				}
+			}
+			sparse = null;
+			sparseSize = 0;
+		}
+	}
+
+	private void addToRegisters(long hash) {
+		int index = (int) (hash >>> 64 - precision);
+		// the sentinel bit bounds the rank if all remaining bits are zero
+		byte rank = (byte) (Long.numberOfLeadingZeros(hash << precision | 1L << precision - 1) + 1);
+		if (rank > registers[index]) {
+			registers[index] = rank;
+		}
+	}
+
+	/**
+	 * Mixes the bits of the value with the finalizer of MurmurHash3. Zero is reserved for empty
+	 * slots.
+	 */
+	private static long hash(double value) {
+		long hash = Double.doubleToLongBits(value + 0.0) + 0x9E3779B97F4A7C15L;
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		hash *= 0xC4CEB9FE1A85EC53L;
+		hash ^= hash >>> 33;
+		return hash == 0 ? 1 : hash;
+	}
+}
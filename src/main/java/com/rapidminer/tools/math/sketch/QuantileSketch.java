@@ -0,0 +1,259 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.sketch;
+
+import java.util.Arrays;
+
+
+/**
+ * A mergeable sketch for estimating quantiles of weighted values in bounded memory. It follows the
+ * merging variant of the t-digest by Dunning and Ertl: values are buffered and, whenever the buffer
+ * is full, sorted and compressed into centroids. The centroids near the tails hold only a few
+ * values, so extreme quantiles stay accurate. For the default compression, the rank of the
+ * estimated median is typically off by less than half a percent.
+ * <p>
+ * As long as no more than {@code 5 * compression} values have been added, no values are compressed
+ * and the quantiles of unweighted values are exact, e.g. the median of an even number of values is
+ * the midpoint of the two middle values.
+ * <p>
+ * This class is not thread-safe. Sketches of parts of a stream can be combined with
+ * {@link #merge(QuantileSketch)}.
+ *
+ * @author RapidMiner
+ * @since 7.6
+ */
+public class QuantileSketch {
+
+	/** The default compression, bounding the number of centroids to about one hundred */
+	public static final int DEFAULT_COMPRESSION = 200;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final double compression;
+
+	/** the maximal number of centroids and buffered values */
+	private final int capacity;
+
+	/** the means and weights of the centroids and of the buffered values, in no particular order */
+	private double[] means;
+	private double[] weights;
+	private int size;
+
+	private double totalWeight;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * Creates a sketch with the {@link #DEFAULT_COMPRESSION}.
+	 */
+	public QuantileSketch() {
+		this(DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 * Creates a sketch with the given compression. Higher compressions keep more centroids and
+	 * increase the accuracy.
+	 *
+	 * @param compression
+	 *            the compression, at least 10
+	 */
+	public QuantileSketch(int compression) {
+		if (compression < 10) {
+			throw new IllegalArgumentException("compression must be at least 10");
+		}
+		this.compression = compression;
+		this.capacity = 5 * compression;
+		this.means = new double[INITIAL_CAPACITY];
+		this.weights = new double[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Adds the given value with weight one.
+	 */
+	public void add(double value) {
+		add(value, 1);
+	}
+
+	/**
+	 * Adds the given value with the given weight. Missing values and values with a non-positive
+	 * weight are ignored.
+	 */
+	public void add(double value, double weight) {
+		if (Double.isNaN(value) || !(weight > 0)) {
+			return;
+		}
+		if (size == means.length) {
+			if (size < capacity) {
+				int newLength = Math.min(capacity, 2 * size);
+				means = Arrays.copyOf(means, newLength);
+				weights = Arrays.copyOf(weights, newLength);
+			} else {
+				compress();
+			}
+		}
+		means[size] = value;
+		weights[size] = weight;
+		size++;
+		totalWeight += weight;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Adds all values summarized by the other sketch to this sketch.
+	 */
+	public void merge(QuantileSketch other) {
+		for (int i = 0; i < other.size; i++) {
+			add(other.means[i], other.weights[i]);
+		}
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * @return the sum of the weights of all added values
+	 */
+	public double getTotalWeight() {
+		return totalWeight;
+	}
+
+	/**
+	 * Estimates the value below which the given fraction of the total weight lies. Between the
+	 * centroids, the quantile is interpolated linearly.
+	 *
+	 * @param q
+	 *            the fraction between 0 and 1
+	 * @return the estimated quantile or {@link Double#NaN} if no values have been added
+	 */
+	public double getQuantile(double q) {
+		if (q < 0 || q > 1) {
+			throw new IllegalArgumentException("q must be between 0 and 1");
+		}
+		if (size == 0) {
+			return Double.NaN;
+		}
+		// sort a copy, so that querying does not change the state of the sketch
+		double[] sortedMeans = Arrays.copyOf(means, size);
+		double[] sortedWeights = Arrays.copyOf(weights, size);
+		sort(sortedMeans, sortedWeights, 0, size - 1);
+
+		// every centroid is centered on the middle of its weight
+		double target = q * totalWeight;
+		double cumulative = 0;
+		double previousCenter = 0;
+		double previousMean = min;
+		for (int i = 0; i < size; i++) {
+			double center = cumulative + sortedWeights[i] / 2;
+			if (target < center) {
+				double fraction = (target - previousCenter) / (center - previousCenter);
+				return previousMean + fraction * (sortedMeans[i] - previousMean);
+			} else if (target == center) {
+				return sortedMeans[i];
+			}
+			cumulative += sortedWeights[i];
+			previousCenter = center;
+			previousMean = sortedMeans[i];
+		}
+		double fraction = (target - previousCenter) / (totalWeight - previousCenter);
+		return previousMean + fraction * (max - previousMean);
+	}
+
+	/**
+	 * Sorts all centroids and buffered values and merges neighbours as long as the weight of the
+	 * merged centroid stays within the limit of the arcsine scale function.
+	 */
+	private void compress() {
+		sort(means, weights, 0, size - 1);
+		double mergedWeight = 0;
+		double limit = getWeightLimit(0);
+		int last = 0;
+		for (int i = 1; i < size; i++) {
+			double weight = weights[i];
+			if (mergedWeight + weights[last] + weight <= limit) {
+				double newWeight = weights[last] + weight;
+				means[last] += (means[i] - means[last]) * weight / newWeight;
+				weights[last] = newWeight;
+			} else {
+				mergedWeight += weights[last];
+				limit = getWeightLimit(mergedWeight);
+				last++;
+				means[last] = means[i];
+				weights[last] = weight;
+			}
+		}
+		size = last + 1;
+	}
+
+	/**
+	 * Returns the cumulative weight up to which a centroid starting at the given cumulative weight
+	 * may grow. The scale function k(q) = compression / (2 pi) * asin(2q - 1) allows a step of one.
+	 */
+	private double getWeightLimit(double startWeight) {
+		double q = startWeight / totalWeight;
+		double k = compression / (2 * Math.PI) * Math.asin(2 * q - 1) + 1;
+		if (k >= compression / 4) {
+			return totalWeight;
+		}
+		return (Math.sin(k * 2 * Math.PI / compression) + 1) / 2 * totalWeight;
+	}
+
+	/**
+	 * Sorts the keys in the given inclusive range and permutes the values alike.
+	 */
+	private static void sort(double[] keys, double[] values, int from, int to) {
+		while (to - from > 16) {
+			double pivot = keys[from + to >>> 1];
+			int i = from;
+			int j = to;
+			while (i <= j) {
+				while (keys[i] < pivot) {
+					i++;
+				}
+				while (keys[j] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					swap(keys, values, i++, j--);
+				}
+			}
+			// recurse into the smaller part to bound the stack depth
+			if (j - from < to - i) {
+				sort(keys, values, from, j);
+				from = i;
+			} else {
+				sort(keys, values, i, to);
+				to = j;
+			}
+		}
+		for (int i = from + 1; i <= to; i++) {
+			for (int j = i; j > from && keys[j - 1] > keys[j]; j--) {
+				swap(keys, values, j - 1, j);
+			}
+		}
+	}
+
+	private static void swap(double[] keys, double[] values, int i, int j) {
+		double key = keys[i];
+		keys[i] = keys[j];
+		keys[j] = key;
+		double value = values[i];
+		values[i] = values[j];
+		values[j] = value;
+	}
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.set;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.Statistics;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.test.PoolConcurrencyContext;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Tests that the {@link AttributeStatisticsCalculator} calculates the same statistics
+ * single-threaded, in parallel and lazily as counting every example in a single pass.
+ *
+ * @author RapidMiner
+ */
+public class AttributeStatisticsCalculatorTest {
+
+	/** Enough rows for several parallel parts */
+	private static final int ROWS = 200_000;
+
+	private static final String[] STATISTICS = { Statistics.AVERAGE, Statistics.VARIANCE, Statistics.SUM,
+			Statistics.AVERAGE_WEIGHTED, Statistics.VARIANCE_WEIGHTED, Statistics.SUM_WEIGHTED, Statistics.MINIMUM,
+			Statistics.MAXIMUM, Statistics.UNKNOWN, Statistics.MODE, Statistics.LEAST };
+
+	private static ExampleSet exampleSet;
+
+	private static Attribute real;
+
+	private static Attribute nominal;
+
+	/** Nominal attribute with the same count for every value */
+	private static Attribute tied;
+
+	private static Attribute weight;
+
+	@BeforeClass
+	public static void createExampleSet() {
+		real = AttributeFactory.createAttribute("real", Ontology.REAL);
+		nominal = AttributeFactory.createAttribute("nominal", Ontology.NOMINAL);
+		tied = AttributeFactory.createAttribute("tied", Ontology.NOMINAL);
+		weight = AttributeFactory.createAttribute("weight", Ontology.REAL);
+		for (String value : new String[] { "a", "b", "c", "d", "e" }) {
+			nominal.getMapping().mapString(value);
+			tied.getMapping().mapString(value);
+		}
+		exampleSet = ExampleSets.from(real, nominal, tied, weight).withBlankSize(ROWS)
+				.withColumnFiller(real, i -> i % 11 == 0 ? Double.NaN : (i * 7919) % 1000 / 10.0 - 20)
+				.withColumnFiller(nominal, i -> i % 13 == 0 ? Double.NaN : (i * i) % 5)
+				.withColumnFiller(tied, i -> (i + 3) % 5).withColumnFiller(weight, i -> i % 7 + 0.5)
+				.withRole(weight, Attributes.WEIGHT_NAME).build();
+	}
+
+	@Test
+	public void sequentialTest() {
+		Map<String, List<Statistics>> statistics = new AttributeStatisticsCalculator(null).calculate(exampleSet,
+				attributes());
+		for (Attribute attribute : attributes()) {
+			assertStatistics(attribute, expected(attribute), statistics.get(attribute.getName()));
+		}
+	}
+
+	@Test
+	public void parallelTest() {
+		PoolConcurrencyContext context = new PoolConcurrencyContext(4);
+		try {
+			Map<String, List<Statistics>> statistics = new AttributeStatisticsCalculator(context).calculate(exampleSet,
+					attributes());
+			for (Attribute attribute : attributes()) {
+				assertStatistics(attribute, expected(attribute), statistics.get(attribute.getName()));
+			}
+		} finally {
+			context.shutdown();
+		}
+	}
+
+	@Test
+	public void lazyTest() {
+		ExampleSet clone = (ExampleSet) exampleSet.clone();
+		assertEquals(Double.NaN, clone.getStatistics(real, Statistics.AVERAGE), 0);
+		clone.recalculateAllAttributeStatistics();
+		for (Attribute attribute : attributes()) {
+			List<Statistics> expected = expected(attribute);
+			for (String name : STATISTICS) {
+				for (Statistics statistics : expected) {
+					if (statistics.handleStatistics(name)) {
+						assertEquals(attribute.getName() + " " + name,
+								statistics.getStatistics(attribute, name, null),
+								clone.getStatistics(attribute, name), 1e-9);
+					}
+				}
+			}
+		}
+	}
+
+	private static List<Attribute> attributes() {
+		return Arrays.asList(real, nominal, tied, weight);
+	}
+
+	/** Counts every example into fresh statistics. */
+	private static List<Statistics> expected(Attribute attribute) {
+		List<Statistics> expected = new ArrayList<>();
+		for (Iterator<Statistics> stats = attribute.getAllStatistics(); stats.hasNext();) {
+			Statistics statistics = (Statistics) stats.next().clone();
+			statistics.startCounting(attribute);
+			expected.add(statistics);
+		}
+		for (Example example : exampleSet) {
+			for (Statistics statistics : expected) {
+				statistics.count(example.getValue(attribute), example.getValue(weight));
+			}
+		}
+		return expected;
+	}
+
+	private static void assertStatistics(Attribute attribute, List<Statistics> expected, List<Statistics> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			for (String name : STATISTICS) {
+				if (expected.get(i).handleStatistics(name)) {
+					double expectedValue = expected.get(i).getStatistics(attribute, name, null);
+					double actualValue = actual.get(i).getStatistics(attribute, name, null);
+					assertEquals(attribute.getName() + " " + name, expectedValue, actualValue,
+							Math.abs(expectedValue) * 1e-12);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.example.set;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.test.ExampleTestTools;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.tools.ParameterService;
+
+
+/**
+ * Tests the bulk access methods {@link ExampleSet#getValues(Attribute, int, int, double[])} and
+ * {@link ExampleSet#getValues(Attribute, int[], int, int, double[])}.
+ *
+ * @author RapidMiner
+ */
+public class ExampleSetGetValuesTest {
+
+	private static final int ROWS = 20;
+
+	private static ExampleSet createExampleSet(boolean legacy) {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT, String.valueOf(legacy));
+		Attribute real = ExampleTestTools.attributeReal();
+		Attribute nominal = ExampleTestTools.attributeDogCatMouse();
+		return ExampleSets.from(real, nominal).withBlankSize(ROWS).withColumnFiller(real, i -> i * 1.5)
+				.withColumnFiller(nominal, i -> i % 3).build();
+	}
+
+	private static void assertSameValues(ExampleSet exampleSet) {
+		for (Attribute attribute : exampleSet.getAttributes()) {
+			int size = exampleSet.size();
+			double[] values = new double[size];
+			exampleSet.getValues(attribute, 0, size, values);
+			for (int i = 0; i < size; i++) {
+				assertEquals(exampleSet.getExample(i).getValue(attribute), values[i], 0);
+			}
+
+			double[] part = new double[2];
+			exampleSet.getValues(attribute, 3, 5, part);
+			assertEquals(exampleSet.getExample(3).getValue(attribute), part[0], 0);
+			assertEquals(exampleSet.getExample(4).getValue(attribute), part[1], 0);
+
+			int[] rows = new int[] { 4, 0, 2 };
+			exampleSet.getValues(attribute, rows, 1, 3, part);
+			assertEquals(exampleSet.getExample(0).getValue(attribute), part[0], 0);
+			assertEquals(exampleSet.getExample(2).getValue(attribute), part[1], 0);
+		}
+	}
+
+	@Test
+	public void simpleExampleSetTest() {
+		assertSameValues(createExampleSet(false));
+	}
+
+	@Test
+	public void simpleExampleSetLegacyTest() {
+		assertSameValues(createExampleSet(true));
+	}
+
+	@Test
+	public void mappedExampleSetTest() {
+		ExampleSet exampleSet = createExampleSet(false);
+		assertSameValues(new MappedExampleSet(exampleSet, new int[] { 19, 1, 7, 7, 3, 12, 0 }, true, false));
+	}
+
+	@Test
+	public void conditionedExampleSetTest() throws Exception {
+		ExampleSet exampleSet = createExampleSet(false);
+		assertSameValues(new ConditionedExampleSet(exampleSet, new AttributeValueFilter(exampleSet, "real > 10")));
+	}
+
+	@Test
+	public void nestedViewTest() throws Exception {
+		ExampleSet exampleSet = createExampleSet(false);
+		ExampleSet mapped = new MappedExampleSet(exampleSet, new int[] { 19, 1, 7, 7, 3, 12, 0 }, true, false);
+		assertSameValues(new ConditionedExampleSet(mapped, new AcceptAllCondition()));
+	}
+
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.test.PoolConcurrencyContext;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Tests that the {@link ExampleSetSorter} produces the same order in memory, in parallel and when
+ * merging runs from disk.
+ *
+ * @author RapidMiner
+ */
+public class ExampleSetSorterTest {
+
+	/** Enough rows for parallel sorting and for more runs than are merged at once */
+	private static final int ROWS = 300_000;
+
+	private static ExampleSet exampleSet;
+
+	private static Attribute real;
+
+	private static Attribute nominal;
+
+	@BeforeClass
+	public static void createExampleSet() {
+		real = AttributeFactory.createAttribute("real", Ontology.REAL);
+		nominal = AttributeFactory.createAttribute("nominal", Ontology.NOMINAL);
+		// not in lexicographical order
+		for (String value : new String[] { "mouse", "cat", "?", "dog", "ant" }) {
+			nominal.getMapping().mapString(value);
+		}
+		exampleSet = ExampleSets.from(real, nominal).withBlankSize(ROWS)
+				.withColumnFiller(real, i -> i % 11 == 0 ? Double.NaN : (i * 7919) % 1000 / 10.0)
+				.withColumnFiller(nominal, i -> i % 13 == 0 ? Double.NaN : i % 5).build();
+	}
+
+	@Test
+	public void sequentialTest() throws Exception {
+		List<Attribute> attributes = Arrays.asList(nominal, real);
+		boolean[] descending = { false, true };
+		int[] mapping = new ExampleSetSorter(null, Long.MAX_VALUE).sort(exampleSet, attributes, descending, null);
+		assertArrayEquals(expected(attributes, descending), mapping);
+	}
+
+	@Test
+	public void parallelTest() throws Exception {
+		List<Attribute> attributes = Arrays.asList(real, nominal);
+		boolean[] descending = { true, false };
+		PoolConcurrencyContext context = new PoolConcurrencyContext(4);
+		try {
+			int[] mapping = new ExampleSetSorter(context, Long.MAX_VALUE).sort(exampleSet, attributes, descending, null);
+			assertArrayEquals(expected(attributes, descending), mapping);
+		} finally {
+			context.shutdown();
+		}
+	}
+
+	@Test
+	public void externalTest() throws Exception {
+		List<Attribute> attributes = Arrays.asList(nominal, real);
+		boolean[] descending = { true, false };
+		int[] mapping = new ExampleSetSorter(null, 1024).sort(exampleSet, attributes, descending, null);
+		assertArrayEquals(expected(attributes, descending), mapping);
+	}
+
+	@Test
+	public void sortedExampleSetTest() throws Exception {
+		List<Attribute> attributes = Arrays.asList(real);
+		boolean[] descending = { true };
+		SortedExampleSet sorted = new SortedExampleSet(exampleSet, real, SortedExampleSet.DECREASING);
+		int[] expected = expected(attributes, descending);
+		for (int i = 0; i < ROWS; i++) {
+			Example example = exampleSet.getExample(expected[i]);
+			assertEquals(example.getValue(real), sorted.getExample(i).getValue(real), 0);
+			assertEquals(example.getValue(nominal), sorted.getExample(i).getValue(nominal), 0);
+		}
+	}
+
+	/**
+	 * Sorts using the boxed comparisons of the former {@link SortedExampleSet} implementation.
+	 */
+	private static int[] expected(List<Attribute> attributes, boolean[] descending) {
+		Integer[] rows = new Integer[ROWS];
+		for (int i = 0; i < ROWS; i++) {
+			rows[i] = i;
+		}
+		Comparator<Integer> comparator = (a, b) -> {
+			Example first = exampleSet.getExample(a);
+			Example second = exampleSet.getExample(b);
+			for (int k = 0; k < attributes.size(); k++) {
+				Attribute attribute = attributes.get(k);
+				int result;
+				if (attribute.isNominal()) {
+					result = first.getNominalValue(attribute).compareTo(second.getNominalValue(attribute));
+				} else {
+					result = Double.compare(first.getValue(attribute), second.getValue(attribute));
+				}
+				if (result != 0) {
+					return descending[k] ? -result : result;
+				}
+			}
+			return 0;
+		};
+		// stable sort keeps the original order of ties
+		Arrays.sort(rows, comparator);
+		int[] result = new int[ROWS];
+		for (int i = 0; i < ROWS; i++) {
+			result[i] = rows[i];
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,324 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.example.table;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.table.internal.ColumnarExampleTable;
+import com.rapidminer.test.PoolConcurrencyContext;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Tests the {@link BatchedResultSetReader} against result sets backed by arrays.
+ *
+ * @author RapidMiner
+ */
+public class BatchedResultSetReaderTest {
+
+	private static final int ROWS = 1000;
+
+	private static final String[] NAMES = { "id", "value", "name", "time" };
+
+	private static final int[] TYPES = { Types.BIGINT, Types.DOUBLE, Types.VARCHAR, Types.TIMESTAMP };
+
+	private static final List<Object[]> DATA = new ArrayList<>();
+
+	static {
+		for (int i = 0; i < ROWS; i++) {
+			Long id = i % 97 == 5 ? null : Long.valueOf(10 * i + 3);
+			Double value = i % 13 == 0 ? null : Double.valueOf(i / 7.0);
+			String name = i % 7 == 0 ? null : "name" + i % 23;
+			Timestamp time = i % 11 == 0 ? null : new Timestamp(1_500_000_000_000L + 1000L * i);
+			DATA.add(new Object[] { id, value, name, time });
+		}
+	}
+
+	@Test
+	public void createAttributesTest() throws Exception {
+		List<Attribute> attributes = BatchedResultSetReader.createAttributes(metaData());
+		assertEquals(4, attributes.size());
+		assertEquals("id", attributes.get(0).getName());
+		assertEquals(Ontology.INTEGER, attributes.get(0).getValueType());
+		assertEquals(Ontology.REAL, attributes.get(1).getValueType());
+		assertEquals(Ontology.POLYNOMINAL, attributes.get(2).getValueType());
+		assertEquals(Ontology.DATE_TIME, attributes.get(3).getValueType());
+	}
+
+	@Test
+	public void sequentialTest() throws Exception {
+		List<Attribute> attributes = BatchedResultSetReader.createAttributes(metaData());
+		BatchedResultSetReader reader = new BatchedResultSetReader(attributes);
+		reader.setBatchSize(7);
+		reader.setFetchSize(100);
+		ColumnarExampleTable table = reader.read(resultSet(DATA));
+
+		assertEquals(ROWS, table.size());
+		for (int i = 0; i < ROWS; i++) {
+			assertRow(DATA.get(i), table.getDataRow(i), attributes);
+		}
+	}
+
+	@Test
+	public void emptyTest() throws Exception {
+		List<Attribute> attributes = BatchedResultSetReader.createAttributes(metaData());
+		ColumnarExampleTable table = new BatchedResultSetReader(attributes).read(resultSet(new ArrayList<>()));
+		assertEquals(0, table.size());
+	}
+
+	@Test
+	public void parallelTest() throws Exception {
+		List<Attribute> attributes = BatchedResultSetReader.createAttributes(metaData());
+		BatchedResultSetReader reader = new BatchedResultSetReader(attributes);
+		reader.setBatchSize(16);
+		PoolConcurrencyContext context = new PoolConcurrencyContext(4);
+		ColumnarExampleTable table;
+		try {
+			table = reader.readParallel(BatchedResultSetReaderTest::connection, "SELECT * FROM data", "id", 5, context);
+		} finally {
+			context.shutdown();
+		}
+
+		assertEquals(ROWS, table.size());
+		double lastId = Double.NEGATIVE_INFINITY;
+		int missingIds = 0;
+		for (int i = 0; i < ROWS; i++) {
+			DataRow row = table.getDataRow(i);
+			double id = row.get(attributes.get(0));
+			if (Double.isNaN(id)) {
+				missingIds++;
+				continue;
+			}
+			// the ranges are appended in ascending order
+			assertTrue(id > lastId);
+			lastId = id;
+			assertRow(DATA.get((int) (id - 3) / 10), row, attributes);
+		}
+		assertEquals(ROWS / 97 + 1, missingIds);
+	}
+
+	/**
+	 * A single thread reads all ranges one after the other and waits whenever the batches of a
+	 * range are not appended fast enough.
+	 */
+	@Test(timeout = 10_000)
+	public void singleReaderTest() throws Exception {
+		List<Attribute> attributes = BatchedResultSetReader.createAttributes(metaData());
+		BatchedResultSetReader reader = new BatchedResultSetReader(attributes);
+		reader.setBatchSize(3);
+		PoolConcurrencyContext context = new PoolConcurrencyContext(1);
+		ColumnarExampleTable table;
+		try {
+			table = reader.readParallel(BatchedResultSetReaderTest::connection, "SELECT * FROM data", "id", 7, context);
+		} finally {
+			context.shutdown();
+		}
+
+		assertEquals(ROWS, table.size());
+		double lastId = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < ROWS; i++) {
+			double id = table.getDataRow(i).get(attributes.get(0));
+			if (!Double.isNaN(id)) {
+				assertTrue(id > lastId);
+				lastId = id;
+			}
+		}
+	}
+
+	@Test(timeout = 10_000)
+	public void failingRangeTest() throws Exception {
+		List<Attribute> attributes = BatchedResultSetReader.createAttributes(metaData());
+		BatchedResultSetReader reader = new BatchedResultSetReader(attributes);
+		reader.setBatchSize(3);
+		AtomicInteger connections = new AtomicInteger();
+		PoolConcurrencyContext context = new PoolConcurrencyContext(4);
+		try {
+			reader.readParallel(() -> {
+				if (connections.incrementAndGet() == 4) {
+					throw new SQLException("broken connection");
+				}
+				return connection();
+			}, "SELECT * FROM data", "id", 6, context);
+			fail("exception expected");
+		} catch (SQLException e) {
+			assertEquals("broken connection", e.getMessage());
+		} finally {
+			context.shutdown();
+		}
+	}
+
+	private static void assertRow(Object[] expected, DataRow row, List<Attribute> attributes) {
+		assertEquals(expected[0] == null ? Double.NaN : ((Long) expected[0]).doubleValue(),
+				row.get(attributes.get(0)), 0);
+		assertEquals(expected[1] == null ? Double.NaN : (Double) expected[1], row.get(attributes.get(1)), 0);
+		double name = row.get(attributes.get(2));
+		if (expected[2] == null) {
+			assertTrue(Double.isNaN(name));
+		} else {
+			assertEquals(expected[2], attributes.get(2).getMapping().mapIndex((int) name));
+		}
+		assertEquals(expected[3] == null ? Double.NaN : ((Timestamp) expected[3]).getTime(),
+				row.get(attributes.get(3)), 0);
+	}
+
+	private static ResultSetMetaData metaData() {
+		return proxy(ResultSetMetaData.class, (method, args) -> {
+			switch (method) {
+				case "getColumnCount":
+					return NAMES.length;
+				case "getColumnType":
+					return TYPES[(Integer) args[0] - 1];
+				case "getColumnLabel":
+				case "getColumnName":
+					return NAMES[(Integer) args[0] - 1];
+				default:
+					throw new UnsupportedOperationException(method);
+			}
+		});
+	}
+
+	private static ResultSet resultSet(List<Object[]> rows) {
+		int[] cursor = { -1 };
+		boolean[] wasNull = { false };
+		return proxy(ResultSet.class, (method, args) -> {
+			switch (method) {
+				case "next":
+					return ++cursor[0] < rows.size();
+				case "getMetaData":
+					return metaData();
+				case "setFetchSize":
+				case "close":
+					return null;
+				case "wasNull":
+					return wasNull[0];
+				default:
+					break;
+			}
+			Object value = rows.get(cursor[0])[(Integer) args[0] - 1];
+			wasNull[0] = value == null;
+			switch (method) {
+				case "getLong":
+					return value == null ? 0L : ((Number) value).longValue();
+				case "getDouble":
+					return value == null ? 0d : ((Number) value).doubleValue();
+				case "getBigDecimal":
+					return value == null ? null : new BigDecimal(value.toString());
+				case "getString":
+					return value == null ? null : value.toString();
+				case "getTimestamp":
+					return value;
+				default:
+					throw new UnsupportedOperationException(method);
+			}
+		});
+	}
+
+	/**
+	 * Creates a connection that understands the queries of a parallel import on {@link #DATA}.
+	 */
+	private static Connection connection() {
+		return proxy(Connection.class, (method, args) -> {
+			switch (method) {
+				case "createStatement":
+					return proxy(Statement.class, (statementMethod, statementArgs) -> {
+						if (statementMethod.equals("close")) {
+							return null;
+						}
+						assertTrue(((String) statementArgs[0]).startsWith("SELECT MIN(id), MAX(id) FROM (SELECT * FROM data)"));
+						Object[] bounds = { Long.MAX_VALUE, Long.MIN_VALUE };
+						for (Object[] row : DATA) {
+							if (row[0] != null) {
+								bounds[0] = Math.min((Long) bounds[0], (Long) row[0]);
+								bounds[1] = Math.max((Long) bounds[1], (Long) row[0]);
+							}
+						}
+						return resultSet(Arrays.<Object[]> asList(bounds));
+					});
+				case "prepareStatement":
+					String sql = (String) args[0];
+					BigDecimal[] parameters = new BigDecimal[2];
+					return proxy(PreparedStatement.class, (statementMethod, statementArgs) -> {
+						switch (statementMethod) {
+							case "setBigDecimal":
+								parameters[(Integer) statementArgs[0] - 1] = (BigDecimal) statementArgs[1];
+								return null;
+							case "setFetchSize":
+							case "close":
+								return null;
+							case "executeQuery":
+								List<Object[]> rows = new ArrayList<>();
+								for (Object[] row : DATA) {
+									if (row[0] == null) {
+										if (sql.contains("id IS NULL")) {
+											rows.add(row);
+										}
+										continue;
+									}
+									BigDecimal id = BigDecimal.valueOf((Long) row[0]);
+									int upper = id.compareTo(parameters[1]);
+									if (id.compareTo(parameters[0]) >= 0
+											&& (upper < 0 || upper == 0 && sql.contains("id <= ?"))) {
+										rows.add(row);
+									}
+								}
+								return resultSet(rows);
+							default:
+								throw new UnsupportedOperationException(statementMethod);
+						}
+					});
+				case "close":
+					return null;
+				default:
+					throw new UnsupportedOperationException(method);
+			}
+		});
+	}
+
+	@FunctionalInterface
+	private interface Handler {
+
+		Object handle(String method, Object[] args) throws Exception;
+	}
+
+	private static <T> T proxy(Class<T> type, Handler handler) {
+		return type.cast(Proxy.newProxyInstance(BatchedResultSetReaderTest.class.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> handler.handle(method.getName(), args)));
+	}
+
+}
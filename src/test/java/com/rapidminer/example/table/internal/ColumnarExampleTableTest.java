@@ -20,12 +20,21 @@ package com.rapidminer.example.table.internal;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
 
+import com.rapidminer.RapidMiner;
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.table.AttributeFactory;
 import com.rapidminer.example.table.DataRow;
@@ -34,6 +43,7 @@ import com.rapidminer.example.table.IntArrayDataRow;
 import com.rapidminer.example.test.ExampleTestTools;
 import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
 import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.ParameterService;
 
 
 /**
@@ -329,4 +339,98 @@ public class ColumnarExampleTableTest {
 		assertEquals(true, Double.isNaN(table.getDataRow(10).get(attribute)));
 	}
 
+	@Test
+	public void offHeapFilledRowsTest() {
+		Attribute attribute1 = ExampleTestTools.attributeDogCatMouse();
+		Attribute attribute2 = ExampleTestTools.attributeReal();
+
+		ColumnarExampleTable table = new ColumnarExampleTable(Arrays.asList(attribute1, attribute2),
+				DataManagement.OFF_HEAP, true);
+		int rows = AbstractBufferColumn.CHUNK_SIZE + 3;
+		for (int i = 0; i < rows; i++) {
+			table.addRow(new double[] { i % 3, i == 5 ? Double.NaN : i * 0.5 });
+		}
+		table.getDataRow(7).set(attribute1, Double.NaN);
+		table.complete();
+
+		assertEquals(rows, table.size());
+		for (int i = 0; i < rows; i++) {
+			if (i == 7) {
+				assertEquals(true, Double.isNaN(table.getDataRow(i).get(attribute1)));
+			} else {
+				assertEquals(i % 3, table.getDataRow(i).get(attribute1), 0);
+			}
+			if (i == 5) {
+				assertEquals(true, Double.isNaN(table.getDataRow(i).get(attribute2)));
+			} else {
+				assertEquals(i * 0.5, table.getDataRow(i).get(attribute2), 0);
+			}
+		}
+	}
+
+	@Test
+	public void offHeapMappedTest() throws IOException {
+		Path directory = Files.createTempDirectory("off-heap");
+		String previous = ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OFF_HEAP_DIRECTORY);
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OFF_HEAP_DIRECTORY,
+				directory.toString());
+		try {
+			// chunks sliced from several regions do not overlap
+			OffHeapBuffers buffers = new OffHeapBuffers(OffHeapBuffers.MIN_REGION_BYTES / 2);
+			List<ByteBuffer> chunks = new ArrayList<>();
+			for (int i = 0; i < 7; i++) {
+				ByteBuffer chunk = buffers.allocate();
+				assertEquals(OffHeapBuffers.MIN_REGION_BYTES / 2, chunk.capacity());
+				chunk.putInt(0, i);
+				chunk.putInt(chunk.capacity() - 4, -i);
+				chunks.add(chunk);
+			}
+			for (int i = 0; i < chunks.size(); i++) {
+				assertEquals(i, chunks.get(i).getInt(0));
+				assertEquals(-i, chunks.get(i).getInt(chunks.get(i).capacity() - 4));
+			}
+
+			Attribute attribute1 = ExampleTestTools.attributeDogCatMouse();
+			Attribute attribute2 = ExampleTestTools.attributeReal();
+			ColumnarExampleTable table = new ColumnarExampleTable(Arrays.asList(attribute1, attribute2),
+					DataManagement.OFF_HEAP, true);
+			int rows = 3 * AbstractBufferColumn.CHUNK_SIZE + 5;
+			for (int i = 0; i < rows; i++) {
+				table.addRow(new double[] { i % 3, i * 0.5 });
+			}
+			table.complete();
+			for (int i = 0; i < rows; i++) {
+				assertEquals(i % 3, table.getDataRow(i).get(attribute1), 0);
+				assertEquals(i * 0.5, table.getDataRow(i).get(attribute2), 0);
+			}
+		} finally {
+			ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OFF_HEAP_DIRECTORY,
+					previous == null ? "" : previous);
+			directory.toFile().delete();
+		}
+	}
+
+	@Test
+	public void offHeapSerializationTest() throws IOException, ClassNotFoundException {
+		Attribute attribute = ExampleTestTools.attributeReal();
+		ColumnarExampleTable table = new ColumnarExampleTable(Arrays.asList(attribute), DataManagement.OFF_HEAP,
+				false);
+		table.addBlankRows(10);
+		table.fillColumn(attribute, i -> i + 0.25);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(table);
+		}
+		ColumnarExampleTable copy;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			copy = (ColumnarExampleTable) in.readObject();
+		}
+
+		assertEquals(10, copy.size());
+		for (int i = 0; i < 10; i++) {
+			assertEquals(i + 0.25, copy.getDataRow(i).get(attribute), 0);
+		}
+	}
+
 }
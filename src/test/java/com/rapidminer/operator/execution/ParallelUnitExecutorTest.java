@@ -0,0 +1,296 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.BreakpointListener;
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.RapidMiner.ExecutionMode;
+import com.rapidminer.operator.IOContainer;
+import com.rapidminer.operator.IOObjectCollection;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.operator.ports.InputPort;
+import com.rapidminer.operator.ports.OutputPort;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.ParameterService;
+
+
+/**
+ * Tests the {@link ParallelUnitExecutor}: the dependencies between the operators, the propagation
+ * of the first error, breakpoints, stopping the process and interrupting the executing thread.
+ *
+ * @author RapidMiner
+ */
+public class ParallelUnitExecutorTest {
+
+	/**
+	 * Records its start and end in a shared log. It can wait for some time, run an action and fail.
+	 */
+	public static class RecordingOperator extends Operator {
+
+		private final InputPort firstInput = getInputPorts().createPort("first");
+		private final InputPort secondInput = getInputPorts().createPort("second");
+		private final OutputPort output = getOutputPorts().createPort("output");
+
+		private List<String> log;
+		private long sleep;
+		private Runnable action;
+		private OperatorException error;
+
+		public RecordingOperator(OperatorDescription description) {
+			super(description);
+		}
+
+		@Override
+		public void doWork() throws OperatorException {
+			log.add("start " + getName());
+			if (sleep > 0) {
+				try {
+					Thread.sleep(sleep);
+				} catch (InterruptedException e) {
+					log.add("interrupted " + getName());
+					return;
+				}
+			}
+			if (action != null) {
+				action.run();
+			}
+			if (error != null) {
+				log.add("failed " + getName());
+				throw error;
+			}
+			log.add("end " + getName());
+			output.deliver(new IOObjectCollection<>());
+		}
+	}
+
+	private static OperatorDescription description;
+
+	private Process process;
+
+	private List<String> log;
+
+	@BeforeClass
+	public static void setup() {
+		RapidMiner.setExecutionMode(ExecutionMode.TEST);
+		RapidMiner.init();
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS, "4");
+		UnitExecutionFactory.setInstance(new ParallelUnitExecutionFactory());
+		description = new OperatorDescription("test", "recording_operator", RecordingOperator.class,
+				ParallelUnitExecutorTest.class.getClassLoader(), null, null);
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		UnitExecutionFactory.setInstance(null);
+	}
+
+	@Before
+	public void createProcess() {
+		process = new Process();
+		log = Collections.synchronizedList(new ArrayList<>());
+	}
+
+	@Test
+	public void dependencyOrderTest() throws Exception {
+		RecordingOperator a = add("A", 50);
+		RecordingOperator b = add("B", 30);
+		RecordingOperator c = add("C", 10);
+		RecordingOperator d = add("D", 0);
+		add("E", 20);
+		connect(a, b, "first");
+		connect(a, c, "first");
+		connect(b, d, "first");
+		connect(c, d, "second");
+
+		process.run(new IOContainer());
+
+		assertEquals(10, log.size());
+		assertBefore("end A", "start B");
+		assertBefore("end A", "start C");
+		assertBefore("end B", "start D");
+		assertBefore("end C", "start D");
+	}
+
+	@Test
+	public void firstErrorTest() throws Exception {
+		assumeParallel();
+		RecordingOperator a = add("A", 0);
+		a.error = new OperatorException("first failure");
+		RecordingOperator b = add("B", 200);
+		b.error = new OperatorException("second failure");
+		RecordingOperator c = add("C", 0);
+		connect(a, c, "first");
+
+		try {
+			process.run(new IOContainer());
+			fail("Error not propagated");
+		} catch (OperatorException e) {
+			assertEquals("first failure", e.getMessage());
+		}
+		assertFalse(log.contains("start C"));
+		// the error is only thrown once the running operators are finished
+		assertTrue(log.contains("failed B"));
+	}
+
+	@Test
+	public void breakpointTest() throws Exception {
+		add("A", 100);
+		RecordingOperator b = add("B", 0);
+		b.setBreakpoint(BreakpointListener.BREAKPOINT_BEFORE, true);
+		add("C", 0);
+		process.addBreakpointListener(new BreakpointListener() {
+
+			@Override
+			public void breakpointReached(Process process, Operator op, IOContainer iocontainer, int location) {
+				log.add("breakpoint " + op.getName());
+				process.resume();
+			}
+
+			@Override
+			public void resume() {
+				// nothing to do
+			}
+		});
+
+		process.run(new IOContainer());
+
+		assertEquals(Arrays.asList("start A", "end A", "breakpoint B", "start B", "end B", "start C", "end C"), log);
+	}
+
+	@Test
+	public void stopTest() throws Exception {
+		RecordingOperator a = add("A", 0);
+		a.action = () -> process.stop();
+		RecordingOperator b = add("B", 0);
+		connect(a, b, "first");
+
+		try {
+			process.run(new IOContainer());
+			fail("Process not stopped");
+		} catch (ProcessStoppedException e) {
+			// expected
+		}
+		assertTrue(log.contains("end A"));
+		assertFalse(log.contains("start B"));
+	}
+
+	@Test
+	public void interruptTest() throws Exception {
+		assumeParallel();
+		CountDownLatch started = new CountDownLatch(2);
+		RecordingOperator a = add("A", 10_000);
+		a.log = new StartCountingList(log, started);
+		RecordingOperator b = add("B", 10_000);
+		b.log = a.log;
+		Thread caller = Thread.currentThread();
+		Thread interrupter = new Thread(() -> {
+			try {
+				started.await();
+			} catch (InterruptedException e) {
+				return;
+			}
+			caller.interrupt();
+		});
+		interrupter.start();
+
+		try {
+			process.run(new IOContainer());
+			fail("Process not stopped");
+		} catch (ProcessStoppedException e) {
+			// expected
+		} finally {
+			Thread.interrupted();
+			interrupter.join();
+		}
+		// the running operators are interrupted and finished before the exception is thrown
+		assertTrue(log.contains("interrupted A"));
+		assertTrue(log.contains("interrupted B"));
+	}
+
+	/** Operators only run at the same time if the concurrency context allows it. */
+	private void assumeParallel() {
+		Assume.assumeTrue(Resources.getConcurrencyContext(process.getRootOperator()).getParallelism() > 1);
+	}
+
+	/** Adds a recording operator with the given name to the process. */
+	private RecordingOperator add(String name, long sleep) {
+		RecordingOperator operator = new RecordingOperator(description);
+		process.getRootOperator().getSubprocess(0).addOperator(operator);
+		operator.rename(name);
+		operator.log = log;
+		operator.sleep = sleep;
+		return operator;
+	}
+
+	private static void connect(Operator source, Operator target, String port) {
+		source.getOutputPorts().getPortByName("output").connectTo(target.getInputPorts().getPortByName(port));
+	}
+
+	private void assertBefore(String first, String second) {
+		int firstIndex = log.indexOf(first);
+		int secondIndex = log.indexOf(second);
+		assertTrue(first + " missing", firstIndex >= 0);
+		assertTrue(second + " missing", secondIndex >= 0);
+		assertTrue(first + " not before " + second, firstIndex < secondIndex);
+	}
+
+	/** Counts down the latch whenever an operator starts. */
+	private static class StartCountingList extends ArrayList<String> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<String> log;
+		private final CountDownLatch started;
+
+		private StartCountingList(List<String> log, CountDownLatch started) {
+			this.log = log;
+			this.started = started;
+		}
+
+		@Override
+		public boolean add(String entry) {
+			log.add(entry);
+			if (entry.startsWith("start ")) {
+				started.countDown();
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.RapidMiner.ExecutionMode;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.SplittedExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.ModelApplier;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.learner.functions.LogisticRegressionModel;
+import com.rapidminer.operator.learner.rules.RuleLearner;
+import com.rapidminer.operator.learner.rules.RuleModel;
+import com.rapidminer.operator.learner.tree.DecisionTreeLearner;
+import com.rapidminer.operator.learner.tree.TreeModel;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.ParameterService;
+
+
+/**
+ * Tests that models supporting concurrent predictions predict the same labels and confidences when
+ * applied in parallel by a {@link BatchPredictor} as when applied example by example.
+ *
+ * @author RapidMiner
+ */
+public class ConcurrentPredictionTest {
+
+	private static final int ROWS = 3 * BatchPredictor.MIN_CONCURRENT_PREDICTION_SIZE + 17;
+
+	private static String threadSetting;
+
+	@BeforeClass
+	public static void setup() {
+		RapidMiner.setExecutionMode(ExecutionMode.TEST);
+		RapidMiner.init();
+		threadSetting = ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS);
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS, "4");
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS, threadSetting);
+	}
+
+	@Test
+	public void treeModelTest() throws Exception {
+		ExampleSet exampleSet = createExampleSet();
+		DecisionTreeLearner learner = OperatorService.createOperator(DecisionTreeLearner.class);
+		PredictionModel model = (PredictionModel) learner.learn(exampleSet);
+		assertEquals(TreeModel.class, model.getClass());
+		assertSamePredictions(model, exampleSet);
+	}
+
+	@Test
+	public void ruleModelTest() throws Exception {
+		ExampleSet exampleSet = createExampleSet();
+		RuleLearner learner = OperatorService.createOperator(RuleLearner.class);
+		PredictionModel model = (PredictionModel) learner.learn(exampleSet);
+		assertEquals(RuleModel.class, model.getClass());
+		assertSamePredictions(model, exampleSet);
+	}
+
+	@Test
+	public void binaryModelTest() throws Exception {
+		ExampleSet exampleSet = createExampleSet();
+		PredictionModel model = new LogisticRegressionModel(exampleSet, new double[] { 0.8, -1.2, 0.3, 0.1 },
+				new double[] { 1, 1, 1, 1 }, true);
+		assertSamePredictions(model, exampleSet);
+	}
+
+	@Test
+	public void viewTest() throws Exception {
+		ExampleSet exampleSet = createExampleSet();
+		DecisionTreeLearner treeLearner = OperatorService.createOperator(DecisionTreeLearner.class);
+		PredictionModel tree = (PredictionModel) treeLearner.learn(exampleSet);
+		RuleLearner ruleLearner = OperatorService.createOperator(RuleLearner.class);
+		PredictionModel rules = (PredictionModel) ruleLearner.learn(exampleSet);
+
+		// views are not thread-safe and must be read by the calling thread only
+		SplittedExampleSet view = new SplittedExampleSet(exampleSet, 2, SplittedExampleSet.SHUFFLED_SAMPLING, true, 5);
+		view.selectSingleSubset(1);
+		assertSamePredictions(tree, view);
+		assertSamePredictions(rules, view);
+	}
+
+	/**
+	 * Applies the model once without an operator, i.e. example by example, and once with an
+	 * operator of a process, i.e. in parallel, and compares the results.
+	 */
+	private static void assertSamePredictions(PredictionModel model, ExampleSet exampleSet) throws Exception {
+		model.setOperator(null);
+		ExampleSet sequential = model.apply((ExampleSet) exampleSet.clone());
+		model.setOperator(createOperator());
+		ExampleSet concurrent = model.apply((ExampleSet) exampleSet.clone());
+
+		Attribute sequentialLabel = sequential.getAttributes().getPredictedLabel();
+		Attribute concurrentLabel = concurrent.getAttributes().getPredictedLabel();
+		List<String> values = exampleSet.getAttributes().getLabel().getMapping().getValues();
+		for (int i = 0; i < exampleSet.size(); i++) {
+			assertEquals("prediction of example " + i, sequential.getExample(i).getValueAsString(sequentialLabel),
+					concurrent.getExample(i).getValueAsString(concurrentLabel));
+			for (String value : values) {
+				assertEquals("confidence of example " + i, sequential.getExample(i).getConfidence(value),
+						concurrent.getExample(i).getConfidence(value), 0);
+			}
+		}
+	}
+
+	private static Operator createOperator() throws Exception {
+		Process process = new Process();
+		Operator operator = OperatorService.createOperator(ModelApplier.class);
+		process.getRootOperator().getSubprocess(0).addOperator(operator);
+		return operator;
+	}
+
+	/** Creates two numerical and a nominal attribute and a noisy binominal label. */
+	private static ExampleSet createExampleSet() {
+		Random random = new Random(11);
+		double[][] values = new double[4][ROWS];
+		for (int i = 0; i < ROWS; i++) {
+			values[0][i] = random.nextGaussian();
+			values[1][i] = random.nextGaussian();
+			values[2][i] = random.nextInt(3);
+			values[3][i] = values[0][i] - values[1][i] + values[2][i] / 2 + random.nextGaussian() / 2 > 0.5 ? 1 : 0;
+		}
+		Attribute first = AttributeFactory.createAttribute("first", Ontology.REAL);
+		Attribute second = AttributeFactory.createAttribute("second", Ontology.REAL);
+		Attribute color = AttributeFactory.createAttribute("color", Ontology.NOMINAL);
+		color.getMapping().mapString("red");
+		color.getMapping().mapString("green");
+		color.getMapping().mapString("blue");
+		Attribute label = AttributeFactory.createAttribute("label", Ontology.BINOMINAL);
+		label.getMapping().mapString("no");
+		label.getMapping().mapString("yes");
+		return ExampleSets.from(first, second, color, label).withBlankSize(ROWS)
+				.withColumnFiller(first, i -> values[0][i]).withColumnFiller(second, i -> values[1][i])
+				.withColumnFiller(color, i -> values[2][i]).withColumnFiller(label, i -> values[3][i])
+				.withRole(label, Attributes.LABEL_NAME).build();
+	}
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.functions.kernel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.RapidMiner.ExecutionMode;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.Model;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+
+
+/**
+ * Tests that the kernel logistic regression learns the same model whether the kernel cache stores
+ * its rows with float or with double precision.
+ *
+ * @author RapidMiner
+ */
+public class MyKLRLearnerTest {
+
+	private static final int ROWS = 400;
+
+	@BeforeClass
+	public static void setup() {
+		RapidMiner.setExecutionMode(ExecutionMode.TEST);
+		RapidMiner.init();
+	}
+
+	@Test
+	public void floatPrecisionCacheTest() throws Exception {
+		ExampleSet exampleSet = createExampleSet();
+		ExampleSet doublePrecision = learnAndApply(exampleSet, false);
+		ExampleSet floatPrecision = learnAndApply(exampleSet, true);
+
+		Attribute label = exampleSet.getAttributes().getLabel();
+		String positive = label.getMapping().getPositiveString();
+		int correct = 0;
+		for (int i = 0; i < ROWS; i++) {
+			Example expected = doublePrecision.getExample(i);
+			Example actual = floatPrecision.getExample(i);
+			// the float rounding of the kernel values only moves the optimum slightly
+			assertEquals("confidence of example " + i, expected.getConfidence(positive), actual.getConfidence(positive),
+					1e-2);
+			if (actual.getValue(actual.getAttributes().getPredictedLabel()) == actual.getValue(label)) {
+				correct++;
+			}
+		}
+		assertTrue("accuracy " + correct / (double) ROWS, correct > 0.8 * ROWS);
+	}
+
+	/**
+	 * Learns a model with the given precision of the kernel cache and applies it to a copy of the
+	 * example set. With float precision, even cached rows are returned in buffers.
+	 */
+	private static ExampleSet learnAndApply(ExampleSet exampleSet, boolean floatPrecision) throws Exception {
+		MyKLRLearner learner = OperatorService.createOperator(MyKLRLearner.class);
+		learner.setParameter(AbstractMySVMLearner.PARAMETER_KERNEL_TYPE, "radial");
+		learner.setParameter(AbstractMySVMLearner.PARAMETER_KERNEL_GAMMA, "0.5");
+		learner.setParameter(AbstractMySVMLearner.PARAMETER_KERNEL_CACHE_FLOAT_PRECISION, String.valueOf(floatPrecision));
+		Model model = learner.learn(exampleSet);
+		return model.apply((ExampleSet) exampleSet.clone());
+	}
+
+	/** Creates two numerical attributes and a slightly noisy binominal label. */
+	private static ExampleSet createExampleSet() {
+		Random random = new Random(7);
+		Attribute first = AttributeFactory.createAttribute("first", Ontology.REAL);
+		Attribute second = AttributeFactory.createAttribute("second", Ontology.REAL);
+		Attribute label = AttributeFactory.createAttribute("label", Ontology.BINOMINAL);
+		label.getMapping().mapString("negative");
+		label.getMapping().mapString("positive");
+		double[][] values = new double[3][ROWS];
+		for (int i = 0; i < ROWS; i++) {
+			values[0][i] = random.nextGaussian();
+			values[1][i] = random.nextGaussian();
+			values[2][i] = values[0][i] * values[0][i] + values[1][i] + random.nextGaussian() / 4 > 1 ? 1 : 0;
+		}
+		return ExampleSets.from(first, second, label).withBlankSize(ROWS)
+				.withColumnFiller(first, i -> values[0][i]).withColumnFiller(second, i -> values[1][i])
+				.withColumnFiller(label, i -> values[2][i]).withRole(label, Attributes.LABEL_NAME).build();
+	}
+}
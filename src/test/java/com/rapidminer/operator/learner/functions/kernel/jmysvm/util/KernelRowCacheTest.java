@@ -0,0 +1,154 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.functions.kernel.jmysvm.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the eviction, the memory accounting and the shrinking operations of the {@link KernelRowCache}.
+ *
+ * @author RapidMiner
+ */
+public class KernelRowCacheTest {
+
+	private static final int LENGTH = 100;
+
+	private static double[] createRow(int i) {
+		double[] row = new double[LENGTH];
+		for (int k = 0; k < LENGTH; k++) {
+			row[k] = i + k / 3.0;
+		}
+		return row;
+	}
+
+	@Test
+	public void testHitsAndMisses() {
+		KernelRowCache cache = new KernelRowCache(1 << 20, false);
+		assertNull(cache.get(3));
+		cache.put(3, createRow(3));
+		assertArrayEquals(createRow(3), cache.get(3), 0);
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() {
+		// room for three rows
+		KernelRowCache cache = new KernelRowCache(3 * (8 * LENGTH + 64), false);
+		cache.put(0, createRow(0));
+		cache.put(1, createRow(1));
+		cache.put(2, createRow(2));
+		cache.get(0);
+		cache.put(3, createRow(3));
+
+		assertEquals(3, cache.getNumberOfRows());
+		assertEquals(1, cache.getEvictions());
+		assertNull(cache.get(1));
+		assertArrayEquals(createRow(0), cache.get(0), 0);
+		assertTrue(cache.getUsedBytes() <= 3 * (8 * LENGTH + 64));
+	}
+
+	@Test
+	public void testKeepsOneRow() {
+		KernelRowCache cache = new KernelRowCache(0, false);
+		cache.put(0, createRow(0));
+		cache.put(1, createRow(1));
+		assertEquals(1, cache.getNumberOfRows());
+		assertArrayEquals(createRow(1), cache.get(1), 0);
+	}
+
+	@Test
+	public void testFloatPrecision() {
+		KernelRowCache cache = new KernelRowCache(3 * (4 * LENGTH + 64), true);
+		double[] row = createRow(7);
+		cache.put(7, row);
+		for (int k = 0; k < LENGTH; k++) {
+			assertEquals((float) createRow(7)[k], row[k], 0);
+		}
+		assertArrayEquals(row, cache.get(7), 0);
+
+		cache.put(8, createRow(8));
+		cache.put(9, createRow(9));
+		assertEquals(3, cache.getNumberOfRows());
+		assertEquals(0, cache.getEvictions());
+	}
+
+	@Test
+	public void testFloatBufferReuse() {
+		KernelRowCache cache = new KernelRowCache(1 << 20, true);
+		cache.put(1, createRow(1));
+		cache.put(2, createRow(2));
+		double[] buffer = new double[LENGTH];
+		assertSame(buffer, cache.get(1, buffer));
+		assertEquals((float) createRow(1)[5], buffer[5], 0);
+		assertSame(buffer, cache.get(2, buffer));
+		assertEquals((float) createRow(2)[5], buffer[5], 0);
+		assertEquals(LENGTH, cache.get(2, new double[LENGTH - 1]).length);
+
+		KernelRowCache doubleCache = new KernelRowCache(1 << 20, false);
+		double[] row = createRow(1);
+		doubleCache.put(1, row);
+		assertSame(row, doubleCache.get(1, buffer));
+	}
+
+	@Test
+	public void testSwapAndTruncate() {
+		KernelRowCache cache = new KernelRowCache(1 << 20, false);
+		cache.put(1, createRow(1));
+		cache.put(5, createRow(5));
+		cache.swap(1, 5);
+
+		double[] row = cache.get(1);
+		assertNull(cache.get(5));
+		assertEquals(createRow(5)[5], row[1], 0);
+		assertEquals(createRow(5)[1], row[5], 0);
+
+		long before = cache.getUsedBytes();
+		cache.truncate(10);
+		assertEquals(10, cache.get(1).length);
+		assertEquals(before - 8 * (LENGTH - 10), cache.getUsedBytes());
+	}
+
+	@Test
+	public void testSharedBudget() {
+		long budget = KernelRowCache.getSharedBudget();
+		try {
+			KernelRowCache first = new KernelRowCache(1 << 20, false);
+			KernelRowCache second = new KernelRowCache(1 << 20, false);
+			for (int i = 0; i < 10; i++) {
+				first.put(i, createRow(i));
+			}
+			KernelRowCache.setSharedBudget(KernelRowCache.getSharedUsedBytes() + 2 * (8 * LENGTH + 64));
+			for (int i = 0; i < 10; i++) {
+				second.put(i, createRow(i));
+			}
+			assertEquals(10, first.getNumberOfRows());
+			assertEquals(2, second.getNumberOfRows());
+		} finally {
+			KernelRowCache.setSharedBudget(budget);
+		}
+	}
+}
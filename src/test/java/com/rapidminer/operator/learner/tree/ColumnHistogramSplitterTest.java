@@ -0,0 +1,145 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.learner.tree.criterions.ColumnCriterion;
+import com.rapidminer.operator.learner.tree.criterions.GainRatioColumnCriterion;
+import com.rapidminer.operator.learner.tree.criterions.GiniIndexColumnCriterion;
+import com.rapidminer.operator.learner.tree.criterions.InfoGainColumnCriterion;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Tests the binning of the {@link ColumnExampleTable} and that trees grown on histograms equal the
+ * ones grown on sorted attributes if every value has its own bin.
+ *
+ * @author RapidMiner
+ */
+public class ColumnHistogramSplitterTest {
+
+	private static final int ROWS = 10000;
+
+	private static ExampleSet createExampleSet() {
+		Attribute coarse = AttributeFactory.createAttribute("coarse", Ontology.REAL);
+		Attribute fine = AttributeFactory.createAttribute("fine", Ontology.INTEGER);
+		Attribute nominal = AttributeFactory.createAttribute("nominal", Ontology.NOMINAL);
+		for (String value : new String[] { "a", "b", "c" }) {
+			nominal.getMapping().mapString(value);
+		}
+		Attribute label = AttributeFactory.createAttribute("label", Ontology.NOMINAL);
+		for (String value : new String[] { "yes", "no", "maybe" }) {
+			label.getMapping().mapString(value);
+		}
+		return ExampleSets.from(coarse, fine, nominal, label).withRole(label, Attributes.LABEL_NAME)
+				.withBlankSize(ROWS).withColumnFiller(coarse, i -> i % 17 == 0 ? Double.NaN : i * 7 % 101 / 10.0)
+				.withColumnFiller(fine, i -> i * 31 % 200).withColumnFiller(nominal, i -> i % 13 == 0 ? Double.NaN : i % 3)
+				.withColumnFiller(label, i -> i * 7 % 101 < 40 ? i % 2 : i * 31 % 200 < 120 ? 2 : i % 3).build();
+	}
+
+	@Test
+	public void binsContainTheirValues() throws OperatorException {
+		ColumnExampleTable table = new ColumnExampleTable(createExampleSet(), null, false);
+		table.createBins(16, null);
+		for (int attribute = table.getNumberOfRegularNominalAttributes(); attribute < table
+				.getTotalNumberOfRegularAttributes(); attribute++) {
+			int numberOfBins = table.getNumberOfBins(attribute);
+			assertTrue(numberOfBins <= 16);
+			for (int bin = 1; bin < numberOfBins; bin++) {
+				assertTrue(table.getBinMaximum(attribute, bin - 1) < table.getBinMinimum(attribute, bin));
+			}
+			double[] column = table.getNumericalAttributeColumn(attribute);
+			byte[] bins = table.getBinColumn(attribute);
+			for (int row = 0; row < column.length; row++) {
+				int bin = bins[row] & 0xFF;
+				if (Double.isNaN(column[row])) {
+					assertEquals(numberOfBins, bin);
+				} else {
+					assertTrue(table.getBinMinimum(attribute, bin) <= column[row]);
+					assertTrue(column[row] <= table.getBinMaximum(attribute, bin));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void valuePerBinForFewValues() throws OperatorException {
+		ColumnExampleTable table = new ColumnExampleTable(createExampleSet(), null, false);
+		table.createBins(ColumnExampleTable.MAXIMAL_NUMBER_OF_BINS, null);
+		assertEquals(101, table.getNumberOfBins(table.getNumberOfRegularNominalAttributes()));
+		assertEquals(200, table.getNumberOfBins(table.getNumberOfRegularNominalAttributes() + 1));
+	}
+
+	@Test
+	public void sameTreeWithInfoGain() throws OperatorException {
+		assertSameTree(new InfoGainColumnCriterion(0.01));
+	}
+
+	@Test
+	public void sameTreeWithGainRatio() throws OperatorException {
+		assertSameTree(new GainRatioColumnCriterion());
+	}
+
+	@Test
+	public void sameTreeWithGiniIndex() throws OperatorException {
+		assertSameTree(new GiniIndexColumnCriterion());
+	}
+
+	@Test
+	public void sameTreeWithoutIncrementalCalculation() throws OperatorException {
+		assertSameTree(new InfoGainColumnCriterion(0.01) {
+
+			@Override
+			public boolean supportsIncrementalCalculation() {
+				return false;
+			}
+		});
+	}
+
+	private static void assertSameTree(ColumnCriterion criterion) throws OperatorException {
+		ExampleSet exampleSet = createExampleSet();
+		AbstractParallelTreeBuilder sorted = createBuilder(criterion);
+		AbstractParallelTreeBuilder binned = createBuilder(criterion);
+		binned.setNumberOfBins(ColumnExampleTable.MAXIMAL_NUMBER_OF_BINS);
+		assertEquals(sorted.learnTree(exampleSet).toString(), binned.learnTree(exampleSet).toString());
+	}
+
+	private static AbstractParallelTreeBuilder createBuilder(ColumnCriterion criterion) {
+		List<ColumnTerminator> terminators = new ArrayList<>();
+		terminators.add(new ColumnSingleLabelTermination());
+		terminators.add(new ColumnNoAttributeLeftTermination());
+		terminators.add(new ColumnEmptyTermination());
+		terminators.add(new ColumnMaxDepthTermination(8));
+		return new NonParallelTreeBuilder(null, criterion, terminators, null, null, true, 3, 4, 2);
+	}
+
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.learner.SimplePredictionModel;
+import com.rapidminer.operator.learner.tree.ConfigurableRandomForestModel.VotingStrategy;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.RandomGenerator;
+
+
+/**
+ * Tests that the models scored with {@link CompiledTrees} predict the same as the uncompiled models.
+ *
+ * @author RapidMiner
+ */
+public class CompiledTreesTest {
+
+	private static final int ROWS = 5000;
+
+	private static final String[] CLASSES = { "yes", "no", "maybe" };
+
+	private static ExampleSet exampleSet;
+
+	private static Attribute numerical;
+
+	private static Attribute nominal;
+
+	private static List<TreeModel> trees;
+
+	@BeforeClass
+	public static void createModels() {
+		numerical = AttributeFactory.createAttribute("numerical", Ontology.REAL);
+		nominal = AttributeFactory.createAttribute("nominal", Ontology.NOMINAL);
+		for (String value : new String[] { "a", "b", "c" }) {
+			nominal.getMapping().mapString(value);
+		}
+		Attribute label = AttributeFactory.createAttribute("label", Ontology.NOMINAL);
+		for (String value : CLASSES) {
+			label.getMapping().mapString(value);
+		}
+		exampleSet = ExampleSets.from(numerical, nominal, label).withRole(label, Attributes.LABEL_NAME)
+				.withBlankSize(ROWS).withColumnFiller(numerical, i -> i % 17 == 0 ? Double.NaN : i % 101 / 10.0)
+				.withColumnFiller(nominal, i -> i % 13 == 0 ? Double.NaN : i % 3).withColumnFiller(label, i -> i % 3)
+				.build();
+
+		trees = new ArrayList<>();
+		for (double threshold : new double[] { 2.5, 5, 7.5, 9 }) {
+			trees.add(new TreeModel(exampleSet, createTree(threshold)));
+		}
+	}
+
+	/**
+	 * Creates a tree using all kinds of split conditions. Missing numerical values and the nominal
+	 * value c below the threshold are not covered by any condition.
+	 */
+	private static Tree createTree(double threshold) {
+		Tree lower = new Tree(null);
+		lower.addChild(createLeaf("yes", 5, 1, 0), new NominalSplitCondition(nominal, "a"));
+		lower.addChild(createLeaf("no", 1, 4, 2), new NominalSplitCondition(nominal, "b"));
+
+		Tree upper = new Tree(null);
+		upper.addChild(createLeaf("maybe", 2, 2, 3), new ContainsSplitCondition("nominal", new String[] { "a", "?" }));
+		Tree inner = new Tree(null);
+		inner.addChild(createLeaf("yes", 3, 0, 0), new NumericalMissingSplitCondition(numerical));
+		inner.addChild(createLeaf("no", 0, 3, 0), new LessEqualsSplitCondition(numerical, threshold + 1));
+		inner.addChild(createLeaf("maybe", 1, 1, 1), new GreaterSplitCondition(numerical, threshold + 1));
+		upper.addChild(inner, new NotContainsSplitCondition("nominal", new String[] { "a", "?" }));
+
+		Tree root = new Tree(null);
+		root.addChild(lower, new LessEqualsSplitCondition(numerical, threshold));
+		root.addChild(upper, new GreaterSplitCondition(numerical, threshold));
+		return root;
+	}
+
+	private static Tree createLeaf(String label, int... counts) {
+		Tree leaf = new Tree(null);
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] > 0) {
+				leaf.addCount(CLASSES[i], counts[i]);
+			}
+		}
+		leaf.setLeaf(label);
+		return leaf;
+	}
+
+	@Test
+	public void treeTest() throws Exception {
+		for (TreeModel tree : trees) {
+			assertSamePredictions(tree);
+		}
+	}
+
+	@Test
+	public void majorityVoteTest() throws Exception {
+		assertSamePredictions(new ConfigurableRandomForestModel(exampleSet, trees, VotingStrategy.MAJORITY_VOTE));
+	}
+
+	@Test
+	public void confidenceVoteTest() throws Exception {
+		assertSamePredictions(new ConfigurableRandomForestModel(exampleSet, trees, VotingStrategy.CONFIDENCE_VOTE));
+	}
+
+	@Test
+	public void unsupportedTreeTest() {
+		assertNotNull(CompiledTrees.compile(trees, exampleSet, exampleSet.getAttributes().getLabel().getMapping()));
+		// unknown attribute
+		assertNotCompiled(new ContainsSplitCondition("unknown", new String[] { "a" }), createLeaf("yes", 1));
+		// categories of a numerical attribute
+		assertNotCompiled(new NotContainsSplitCondition("numerical", new String[] { "a" }), createLeaf("yes", 1));
+		// unknown class
+		Tree leaf = createLeaf("yes", 1);
+		leaf.addCount("unknown", 1);
+		assertNotCompiled(new NominalSplitCondition(nominal, "a"), leaf);
+	}
+
+	/**
+	 * Checks that a tree with the given condition and leaf below a supported edge is not compiled.
+	 */
+	private static void assertNotCompiled(SplitCondition condition, Tree leaf) {
+		Tree inner = new Tree(null);
+		inner.addChild(leaf, condition);
+		Tree root = new Tree(null);
+		root.addChild(createLeaf("no", 0, 1), new LessEqualsSplitCondition(numerical, 5));
+		root.addChild(inner, new GreaterSplitCondition(numerical, 5));
+		assertNull(CompiledTrees.compile(Collections.singletonList(new TreeModel(exampleSet, root)), exampleSet,
+				exampleSet.getAttributes().getLabel().getMapping()));
+	}
+
+	/**
+	 * Applies the model with the compiled trees and compares the results to predicting every
+	 * example with the uncompiled model. The random generator is reset for both runs, so that ties
+	 * are broken alike.
+	 */
+	private static void assertSamePredictions(SimplePredictionModel model) throws Exception {
+		RandomGenerator.init(null);
+		ExampleSet result = model.apply(exampleSet);
+		Attribute prediction = result.getAttributes().getPredictedLabel();
+		double[] predictions = new double[ROWS];
+		double[][] confidences = new double[ROWS][];
+		for (int i = 0; i < ROWS; i++) {
+			Example example = result.getExample(i);
+			predictions[i] = example.getValue(prediction);
+			confidences[i] = getConfidences(example);
+		}
+
+		RandomGenerator.init(null);
+		for (int i = 0; i < ROWS; i++) {
+			Example example = result.getExample(i);
+			assertEquals(model.predict(example), predictions[i], 0);
+			assertEquals(Arrays.toString(getConfidences(example)), Arrays.toString(confidences[i]));
+		}
+	}
+
+	private static double[] getConfidences(Example example) {
+		double[] confidences = new double[CLASSES.length];
+		for (int i = 0; i < CLASSES.length; i++) {
+			confidences[i] = example.getConfidence(CLASSES[i]);
+		}
+		return confidences;
+	}
+}
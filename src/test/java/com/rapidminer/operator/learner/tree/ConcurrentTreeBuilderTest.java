@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.tree;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.learner.tree.criterions.ColumnCriterion;
+import com.rapidminer.operator.learner.tree.criterions.GiniIndexColumnCriterion;
+import com.rapidminer.operator.learner.tree.criterions.InfoGainColumnCriterion;
+import com.rapidminer.test.PoolConcurrencyContext;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Tests that the {@link ConcurrentTreeBuilder} grows the same tree as the
+ * {@link NonParallelTreeBuilder}, both when started from inside a fork-join pool, where the subtrees
+ * are forked into the pool, and when started outside of a pool.
+ *
+ * @author RapidMiner
+ */
+public class ConcurrentTreeBuilderTest {
+
+	/** Enough rows for subtrees that are large enough to be forked */
+	private static final int ROWS = 40000;
+
+	private static ExampleSet createExampleSet() {
+		Attribute coarse = AttributeFactory.createAttribute("coarse", Ontology.REAL);
+		Attribute fine = AttributeFactory.createAttribute("fine", Ontology.INTEGER);
+		Attribute nominal = AttributeFactory.createAttribute("nominal", Ontology.NOMINAL);
+		for (String value : new String[] { "a", "b", "c" }) {
+			nominal.getMapping().mapString(value);
+		}
+		Attribute label = AttributeFactory.createAttribute("label", Ontology.NOMINAL);
+		for (String value : new String[] { "yes", "no", "maybe" }) {
+			label.getMapping().mapString(value);
+		}
+		return ExampleSets.from(coarse, fine, nominal, label).withRole(label, Attributes.LABEL_NAME)
+				.withBlankSize(ROWS).withColumnFiller(coarse, i -> i % 17 == 0 ? Double.NaN : i * 7 % 101 / 10.0)
+				.withColumnFiller(fine, i -> i * 31 % 2000).withColumnFiller(nominal, i -> i % 13 == 0 ? Double.NaN : i % 3)
+				.withColumnFiller(label, i -> i * 7 % 101 < 40 ? i % 2 : i * 31 % 2000 < 1200 ? 2 : i % 3).build();
+	}
+
+	@Test
+	public void sameTreeInForkJoinPoolWithInfoGain() throws Exception {
+		assertSameTreeInPool(new InfoGainColumnCriterion(0.01));
+	}
+
+	@Test
+	public void sameTreeInForkJoinPoolWithGiniIndex() throws Exception {
+		assertSameTreeInPool(new GiniIndexColumnCriterion());
+	}
+
+	@Test
+	public void sameTreeOutsideForkJoinPool() throws OperatorException {
+		ExampleSet exampleSet = createExampleSet();
+		ColumnCriterion criterion = new InfoGainColumnCriterion(0.01);
+		Tree expected = createBuilder(criterion, false).learnTree(exampleSet);
+		assertEquals(expected.toString(), createBuilder(criterion, true).learnTree(exampleSet).toString());
+	}
+
+	private static void assertSameTreeInPool(ColumnCriterion criterion) throws OperatorException {
+		ExampleSet exampleSet = createExampleSet();
+		String expected = createBuilder(criterion, false).learnTree(exampleSet).toString();
+		PoolConcurrencyContext context = new PoolConcurrencyContext(4);
+		try {
+			AbstractParallelTreeBuilder builder = createBuilder(criterion, true);
+			Tree tree = context.invoke(ForkJoinTask.adapt(() -> builder.learnTree(exampleSet)));
+			assertEquals(expected, tree.toString());
+		} finally {
+			context.shutdown();
+		}
+	}
+
+	private static AbstractParallelTreeBuilder createBuilder(ColumnCriterion criterion, boolean concurrent) {
+		List<ColumnTerminator> terminators = new ArrayList<>();
+		terminators.add(new ColumnSingleLabelTermination());
+		terminators.add(new ColumnNoAttributeLeftTermination());
+		terminators.add(new ColumnEmptyTermination());
+		terminators.add(new ColumnMaxDepthTermination(12));
+		if (concurrent) {
+			return new ConcurrentTreeBuilder(null, criterion, terminators, null, null, true, 3, 4, 2);
+		}
+		return new NonParallelTreeBuilder(null, criterion, terminators, null, null, true, 3, 4, 2);
+	}
+
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.learner.tree;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.RapidMiner.ExecutionMode;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.Model;
+import com.rapidminer.operator.OperatorVersion;
+import com.rapidminer.operator.learner.meta.MetaModel;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.ParameterService;
+import com.rapidminer.tools.RandomGenerator;
+
+
+/**
+ * Tests that the trees of a {@link RandomForestLearner} learned as concurrent tasks do not depend
+ * on the task scheduling, and that the forest predicts as the forest learned by the sequential
+ * learning of compatibility level 7.5.1.
+ *
+ * @author RapidMiner
+ */
+public class RandomForestLearnerTest {
+
+	private static final int ROWS = 400;
+
+	private static final OperatorVersion VERSION_SEQUENTIAL_TREES = new OperatorVersion(7, 5, 1);
+
+	private static String threadSetting;
+
+	@BeforeClass
+	public static void setup() {
+		RapidMiner.setExecutionMode(ExecutionMode.TEST);
+		RapidMiner.init();
+		threadSetting = ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS);
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS, threadSetting);
+	}
+
+	@Test
+	public void reproducibleTest() throws Exception {
+		ExampleSet exampleSet = createNoisyExampleSet();
+		MetaModel parallel = learn(exampleSet, null, 4);
+		assertEquals(getTrees(parallel), getTrees(learn(exampleSet, null, 4)));
+		assertEquals(getTrees(parallel), getTrees(learn(exampleSet, null, 1)));
+	}
+
+	/**
+	 * The trees themselves differ from the ones learned sequentially, since the bootstrap samples
+	 * are drawn from other random numbers. Hence the forests are compared on a data set for which
+	 * every bootstrap sample leads to the same predictions.
+	 */
+	@Test
+	public void sequentialPredictionTest() throws Exception {
+		ExampleSet exampleSet = createSeparableExampleSet();
+		MetaModel sequential = learn(exampleSet, VERSION_SEQUENTIAL_TREES, 1);
+		MetaModel concurrent = learn(exampleSet, null, 4);
+		assertEquals(getTrees(sequential).size(), getTrees(concurrent).size());
+
+		ExampleSet sequentialResult = ((Model) sequential).apply((ExampleSet) exampleSet.clone());
+		ExampleSet concurrentResult = ((Model) concurrent).apply((ExampleSet) exampleSet.clone());
+		Attribute label = exampleSet.getAttributes().getLabel();
+		for (int i = 0; i < ROWS; i++) {
+			Example sequentialExample = sequentialResult.getExample(i);
+			Example concurrentExample = concurrentResult.getExample(i);
+			assertEquals(sequentialExample.getValue(label), sequentialExample.getPredictedLabel(), 0);
+			assertEquals(sequentialExample.getPredictedLabel(), concurrentExample.getPredictedLabel(), 0);
+			assertArrayEquals(getConfidences(sequentialExample, label), getConfidences(concurrentExample, label), 0);
+		}
+	}
+
+	/**
+	 * Learns a forest of ten trees with a local random seed, resetting the global random generator
+	 * used by the sequential learning.
+	 */
+	private static MetaModel learn(ExampleSet exampleSet, OperatorVersion version, int threads) throws Exception {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS,
+				String.valueOf(threads));
+		RandomForestLearner learner = OperatorService.createOperator(RandomForestLearner.class);
+		learner.setParameter(RandomForestLearner.PARAMETER_NUMBER_OF_TREES, "10");
+		learner.setParameter(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED, "true");
+		learner.setParameter(RandomGenerator.PARAMETER_LOCAL_RANDOM_SEED, "1234");
+		if (version != null) {
+			learner.setCompatibilityLevel(version);
+		}
+		RandomGenerator.init(null);
+		return (MetaModel) learner.learn(exampleSet);
+	}
+
+	private static List<String> getTrees(MetaModel forest) {
+		List<String> trees = new ArrayList<>();
+		for (Model tree : forest.getModels()) {
+			trees.add(tree.toString());
+		}
+		return trees;
+	}
+
+	private static double[] getConfidences(Example example, Attribute label) {
+		List<String> values = label.getMapping().getValues();
+		double[] confidences = new double[values.size()];
+		for (int i = 0; i < confidences.length; i++) {
+			confidences[i] = example.getConfidence(values.get(i));
+		}
+		return confidences;
+	}
+
+	/** Creates an example set with a noisy label, so the trees depend on the drawn samples. */
+	private static ExampleSet createNoisyExampleSet() {
+		Random random = new Random(7);
+		double[][] values = new double[3][ROWS];
+		for (int i = 0; i < ROWS; i++) {
+			values[0][i] = random.nextGaussian();
+			values[1][i] = random.nextInt(4);
+			values[2][i] = values[0][i] + values[1][i] / 2 + random.nextGaussian() > 1 ? 0 : 1;
+		}
+		return createExampleSet(values);
+	}
+
+	/** Creates two clusters which are separated by both attributes. */
+	private static ExampleSet createSeparableExampleSet() {
+		Random random = new Random(7);
+		double[][] values = new double[3][ROWS];
+		for (int i = 0; i < ROWS; i++) {
+			int cluster = i % 2;
+			values[0][i] = cluster * 10 + random.nextDouble();
+			values[1][i] = cluster * 10 + random.nextDouble();
+			values[2][i] = cluster;
+		}
+		return createExampleSet(values);
+	}
+
+	private static ExampleSet createExampleSet(double[][] values) {
+		Attribute first = AttributeFactory.createAttribute("first", Ontology.REAL);
+		Attribute second = AttributeFactory.createAttribute("second", Ontology.REAL);
+		Attribute label = AttributeFactory.createAttribute("label", Ontology.NOMINAL);
+		label.getMapping().mapString("yes");
+		label.getMapping().mapString("no");
+		return ExampleSets.from(first, second, label).withBlankSize(ROWS).withColumnFiller(first, i -> values[0][i])
+				.withColumnFiller(second, i -> values[1][i]).withColumnFiller(label, i -> values[2][i])
+				.withRole(label, Attributes.LABEL_NAME).build();
+	}
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.meta;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.rapidminer.operator.performance.EstimatedPerformance;
+import com.rapidminer.operator.performance.PerformanceVector;
+
+
+/**
+ * Tests the rounds and the selection of the successive halving of the
+ * {@link GridSearchParameterOptimizationOperator}.
+ *
+ * @author RapidMiner
+ */
+public class GridSearchParameterOptimizationOperatorTest {
+
+	private static final int LARGE = 100 * GridSearchParameterOptimizationOperator.MINIMUM_SAMPLE_SIZE;
+
+	@Test
+	public void roundSizesTest() {
+		assertArrayEquals(new int[] { 27, 9, 3 }, GridSearchParameterOptimizationOperator.getRoundSizes(27, LARGE, 3));
+		assertArrayEquals(new int[] { 16, 8, 4, 2 },
+				GridSearchParameterOptimizationOperator.getRoundSizes(16, LARGE, 2));
+	}
+
+	@Test
+	public void roundSizesRoundUpTest() {
+		// one out of three combinations rounded up: 10 -> 4 -> 2
+		assertArrayEquals(new int[] { 10, 4, 2 }, GridSearchParameterOptimizationOperator.getRoundSizes(10, LARGE, 3));
+		assertArrayEquals(new int[] { 7, 4, 2 }, GridSearchParameterOptimizationOperator.getRoundSizes(7, LARGE, 2));
+	}
+
+	@Test
+	public void roundSizesLimitedBySampleTest() {
+		int minimum = GridSearchParameterOptimizationOperator.MINIMUM_SAMPLE_SIZE;
+		// the second sample would be smaller than the minimum
+		assertArrayEquals(new int[] { 27, 9 },
+				GridSearchParameterOptimizationOperator.getRoundSizes(27, 5 * minimum, 3));
+		// already the first sample would be smaller than the minimum
+		assertArrayEquals(new int[] { 27 }, GridSearchParameterOptimizationOperator.getRoundSizes(27, 2 * minimum, 3));
+		assertArrayEquals(new int[] { 27, 9 },
+				GridSearchParameterOptimizationOperator.getRoundSizes(27, 3 * minimum, 3));
+	}
+
+	@Test
+	public void roundSizesFewCombinationsTest() {
+		assertArrayEquals(new int[] { 2 }, GridSearchParameterOptimizationOperator.getRoundSizes(2, LARGE, 2));
+		assertArrayEquals(new int[] { 3, 2 }, GridSearchParameterOptimizationOperator.getRoundSizes(3, LARGE, 2));
+	}
+
+	@Test
+	public void selectBestTest() {
+		List<int[]> combinations = createCombinations(6);
+		PerformanceVector[] performances = createPerformances(0.5, 0.9, 0.7, 0.8, 0.1, 0.6);
+
+		List<int[]> selected = GridSearchParameterOptimizationOperator.selectBest(combinations, performances, 3);
+		assertSelected(combinations, selected, 1, 2, 3);
+		selected = GridSearchParameterOptimizationOperator.selectBest(combinations, performances, 1);
+		assertSelected(combinations, selected, 1);
+	}
+
+	@Test
+	public void selectBestTiesTest() {
+		List<int[]> combinations = createCombinations(6);
+		PerformanceVector[] performances = createPerformances(0.7, 0.9, 0.5, 0.7, 0.9, 0.7);
+
+		// equal performances are selected in the order of the grid
+		List<int[]> selected = GridSearchParameterOptimizationOperator.selectBest(combinations, performances, 3);
+		assertSelected(combinations, selected, 0, 1, 4);
+		selected = GridSearchParameterOptimizationOperator.selectBest(combinations, performances, 4);
+		assertSelected(combinations, selected, 0, 1, 3, 4);
+	}
+
+	@Test
+	public void selectBestMissingPerformanceTest() {
+		List<int[]> combinations = createCombinations(4);
+		PerformanceVector[] performances = createPerformances(0.2, 0.1, 0.3, 0.4);
+		performances[0] = null;
+		performances[3] = null;
+
+		List<int[]> selected = GridSearchParameterOptimizationOperator.selectBest(combinations, performances, 2);
+		assertSelected(combinations, selected, 1, 2);
+		selected = GridSearchParameterOptimizationOperator.selectBest(combinations, performances, 3);
+		assertSelected(combinations, selected, 0, 1, 2);
+
+		performances = new PerformanceVector[4];
+		selected = GridSearchParameterOptimizationOperator.selectBest(combinations, performances, 2);
+		assertSelected(combinations, selected, 0, 1);
+	}
+
+	private static void assertSelected(List<int[]> combinations, List<int[]> selected, int... expected) {
+		assertEquals(expected.length, selected.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertSame(combinations.get(expected[i]), selected.get(i));
+		}
+	}
+
+	private static List<int[]> createCombinations(int number) {
+		List<int[]> combinations = new ArrayList<>(number);
+		for (int i = 0; i < number; i++) {
+			combinations.add(new int[] { i });
+		}
+		return combinations;
+	}
+
+	private static PerformanceVector[] createPerformances(double... values) {
+		PerformanceVector[] performances = new PerformanceVector[values.length];
+		for (int i = 0; i < values.length; i++) {
+			performances[i] = new PerformanceVector();
+			performances[i].addCriterion(new EstimatedPerformance("accuracy", values[i], 1, false));
+		}
+		return performances;
+	}
+}
@@ -0,0 +1,301 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.meta;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.RapidMiner.ExecutionMode;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.ExecutionUnit;
+import com.rapidminer.operator.IOContainer;
+import com.rapidminer.operator.IOObject;
+import com.rapidminer.operator.IOObjectCollection;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.collections.CollectionIterationOperator;
+import com.rapidminer.operator.concurrency.internal.ParallelOperatorChain;
+import com.rapidminer.operator.ports.OutputPort;
+import com.rapidminer.operator.preprocessing.filter.ExampleFilter;
+import com.rapidminer.operator.preprocessing.filter.ExampleRangeFilter;
+import com.rapidminer.parameter.ParameterTypeTupel;
+import com.rapidminer.test.SynchronousExecutionService;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+
+
+/**
+ * Tests that loops executing their iterations in parallel deliver the same results in the same
+ * order as the sequential execution. The inner operators depend on the iteration macros or the
+ * iterated parameters, so every iteration delivers a different example set.
+ *
+ * @author RapidMiner
+ */
+public class ParallelLoopTest {
+
+	private static final String PARALLEL = "enable_parallel_execution";
+
+	private static final String[] COLORS = { "red", "green", "blue" };
+
+	@BeforeClass
+	public static void setup() {
+		RapidMiner.setExecutionMode(ExecutionMode.TEST);
+		RapidMiner.init();
+		SynchronousExecutionService.install();
+	}
+
+	@Test
+	public void valueIterationTest() throws Exception {
+		List<List<Double>> sequential = loopValues(false);
+		assertEquals(sequential, loopValues(true));
+
+		// one example set per color in the order of the mapping, holding the examples of the color
+		assertEquals(COLORS.length, sequential.size());
+		ExampleSet input = createExampleSet(30);
+		for (int c = 0; c < COLORS.length; c++) {
+			List<Double> expected = new ArrayList<>();
+			for (Example example : input) {
+				if (COLORS[c].equals(example.getNominalValue(input.getAttributes().get("color")))) {
+					expected.add(example.getValue(input.getAttributes().get("id")));
+				}
+			}
+			assertEquals(expected, sequential.get(c));
+		}
+	}
+
+	@Test
+	public void parameterIterationTest() throws Exception {
+		List<List<Double>> sequential = loopParameters(false);
+		assertEquals(sequential, loopParameters(true));
+		assertEquals(Arrays.asList(3, 7, 2, 5), getSizes(sequential));
+	}
+
+	@Test
+	public void collectionIterationTest() throws Exception {
+		List<List<Double>> sequential = loopCollection(false);
+		assertEquals(sequential, loopCollection(true));
+		// the i-th set is cut to i examples by the macro starting at 1
+		assertEquals(Arrays.asList(1, 2, 3, 4), getSizes(sequential));
+	}
+
+	@Test
+	public void iterationTest() throws Exception {
+		List<List<Double>> sequential = loopIterations(false);
+		assertEquals(sequential, loopIterations(true));
+		// the input is cut to i examples by the macro starting at 2
+		assertEquals(Arrays.asList(2, 3, 4, 5, 6), getSizes(sequential));
+	}
+
+	@Test
+	public void exampleSetIterationTest() throws Exception {
+		List<Double> sequential = loopExampleSets(false);
+		assertEquals(sequential, loopExampleSets(true));
+		// the output of the last iteration is delivered
+		assertEquals(getIds(createExampleSet(25)), sequential);
+	}
+
+	/**
+	 * Filters the examples of the current value of the color attribute in every iteration.
+	 */
+	private static List<List<Double>> loopValues(boolean parallel) throws Exception {
+		Process process = new Process();
+		ExecutionUnit root = process.getRootOperator().getSubprocess(0);
+		ValueIteration loop = OperatorService.createOperator(ValueIteration.class);
+		loop.setParameter(PARALLEL, String.valueOf(parallel));
+		loop.setParameter(ValueIteration.PARAMETER_ATTRIBUTE, "color");
+		root.addOperator(loop);
+		connect(root.getInnerSources().getPortByName("input 1"), loop, "example set");
+		loop.getOutputPorts().getPortByName("out 1").connectTo(root.getInnerSinks().getPortByName("result 1"));
+
+		ExecutionUnit body = loop.getSubprocess(0);
+		Operator filter = OperatorService.createOperator(ExampleFilter.class);
+		filter.setParameter(ExampleFilter.PARAMETER_CONDITION_CLASS, "attribute_value_filter");
+		filter.setParameter(ExampleFilter.PARAMETER_PARAMETER_STRING, "color = %{loop_value}");
+		connectBody(body, filter, "example set", "out 1");
+
+		return getIds(process.run(new IOContainer(createExampleSet(30))));
+	}
+
+	/**
+	 * Cuts the input to a different number of examples in every iteration.
+	 */
+	private static List<List<Double>> loopParameters(boolean parallel) throws Exception {
+		Process process = new Process();
+		ExecutionUnit root = process.getRootOperator().getSubprocess(0);
+		ParameterIteration loop = OperatorService.createOperator(ParameterIteration.class);
+		loop.setParameter(PARALLEL, String.valueOf(parallel));
+		root.addOperator(loop);
+		connect(root.getInnerSources().getPortByName("input 1"), loop, "input 1");
+		loop.getOutputPorts().getPortByName("result 1").connectTo(root.getInnerSinks().getPortByName("result 1"));
+
+		ExecutionUnit body = loop.getSubprocess(0);
+		Operator range = OperatorService.createOperator(ExampleRangeFilter.class);
+		range.rename("Range");
+		range.setParameter(ExampleRangeFilter.PARAMETER_FIRST_EXAMPLE, "1");
+		connectBody(body, range, "input 1", "result 1");
+		loop.setListParameter(ParameterIteration.PARAMETER_PARAMETERS, Collections.singletonList(new String[] {
+				ParameterTypeTupel.transformTupel2String("Range", ExampleRangeFilter.PARAMETER_LAST_EXAMPLE), "3,7,2,5" }));
+
+		return getIds(process.run(new IOContainer(createExampleSet(30))));
+	}
+
+	/**
+	 * Cuts the i-th example set of the collection to i examples by the iteration macro.
+	 */
+	private static List<List<Double>> loopCollection(boolean parallel) throws Exception {
+		Process process = new Process();
+		ExecutionUnit root = process.getRootOperator().getSubprocess(0);
+		CollectionIterationOperator loop = OperatorService.createOperator(CollectionIterationOperator.class);
+		loop.setParameter(PARALLEL, String.valueOf(parallel));
+		loop.setParameter("set_iteration_macro", "true");
+		loop.setParameter("macro_name", "iteration");
+		loop.setParameter("macro_start_value", "1");
+		root.addOperator(loop);
+		connect(root.getInnerSources().getPortByName("input 1"), loop, "collection");
+		loop.getOutputPorts().getPortByName("output 1").connectTo(root.getInnerSinks().getPortByName("result 1"));
+
+		ExecutionUnit body = loop.getSubprocess(0);
+		Operator range = OperatorService.createOperator(ExampleRangeFilter.class);
+		range.setParameter(ExampleRangeFilter.PARAMETER_FIRST_EXAMPLE, "1");
+		range.setParameter(ExampleRangeFilter.PARAMETER_LAST_EXAMPLE, "%{iteration}");
+		connectBody(body, range, "single", "output 1");
+
+		List<ExampleSet> sets = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			sets.add(createExampleSet(10 + i));
+		}
+		return getIds(process.run(new IOContainer(new IOObjectCollection<>(sets))));
+	}
+
+	/**
+	 * Cuts the input to the number of examples given by the iteration macro.
+	 */
+	@SuppressWarnings("deprecation")
+	private static List<List<Double>> loopIterations(boolean parallel) throws Exception {
+		Process process = new Process();
+		ExecutionUnit root = process.getRootOperator().getSubprocess(0);
+		IteratingOperatorChain loop = OperatorService.createOperator(IteratingOperatorChain.class);
+		loop.setParameter(PARALLEL, String.valueOf(parallel));
+		loop.setParameter(IteratingOperatorChain.PARAMETER_ITERATIONS, "5");
+		loop.setParameter(AbstractIteratingOperatorChain.PARAMETER_SET_MACRO, "true");
+		loop.setParameter(AbstractIteratingOperatorChain.PARAMETER_MACRO_NAME, "iteration");
+		loop.setParameter(AbstractIteratingOperatorChain.PARAMETER_MACRO_START_VALUE, "2");
+		root.addOperator(loop);
+		connect(root.getInnerSources().getPortByName("input 1"), loop, "input 1");
+		loop.getOutputPorts().getPortByName("output 1").connectTo(root.getInnerSinks().getPortByName("result 1"));
+
+		ExecutionUnit body = loop.getSubprocess(0);
+		Operator range = OperatorService.createOperator(ExampleRangeFilter.class);
+		range.setParameter(ExampleRangeFilter.PARAMETER_FIRST_EXAMPLE, "1");
+		range.setParameter(ExampleRangeFilter.PARAMETER_LAST_EXAMPLE, "%{iteration}");
+		connectBody(body, range, "input 1", "output 1");
+
+		return getIds(process.run(new IOContainer(createExampleSet(20))));
+	}
+
+	/**
+	 * Passes every input example set through the subprocess.
+	 */
+	private static List<Double> loopExampleSets(boolean parallel) throws Exception {
+		Process process = new Process();
+		ExecutionUnit root = process.getRootOperator().getSubprocess(0);
+		ExampleSetIterator loop = OperatorService.createOperator(ExampleSetIterator.class);
+		loop.setParameter(PARALLEL, String.valueOf(parallel));
+		root.addOperator(loop);
+		for (int i = 1; i <= 3; i++) {
+			connect(root.getInnerSources().getPortByName("input " + i), loop, "example set " + i);
+		}
+		loop.getOutputPorts().getPortByName("output 1").connectTo(root.getInnerSinks().getPortByName("result 1"));
+
+		ExecutionUnit body = loop.getSubprocess(0);
+		body.getInnerSources().getPortByName("example set").connectTo(body.getInnerSinks().getPortByName("output 1"));
+
+		IOContainer result = process.run(
+				new IOContainer(createExampleSet(15), createExampleSet(20), createExampleSet(25)));
+		return getIds(result.get(ExampleSet.class));
+	}
+
+	private static void connect(OutputPort source, ParallelOperatorChain loop, String inputPort) {
+		source.connectTo(loop.getInputPorts().getPortByName(inputPort));
+	}
+
+	/**
+	 * Connects the inner source to the example set input of the operator and its output to the
+	 * inner sink.
+	 */
+	private static void connectBody(ExecutionUnit body, Operator operator, String source, String sink) {
+		body.addOperator(operator);
+		body.getInnerSources().getPortByName(source)
+				.connectTo(operator.getInputPorts().getPortByName("example set input"));
+		operator.getOutputPorts().getPortByName("example set output")
+				.connectTo(body.getInnerSinks().getPortByName(sink));
+	}
+
+	private static List<List<Double>> getIds(IOContainer result) throws Exception {
+		List<List<Double>> ids = new ArrayList<>();
+		IOObjectCollection<?> collection = result.get(IOObjectCollection.class);
+		for (IOObject object : collection.getObjects()) {
+			ids.add(getIds((ExampleSet) object));
+		}
+		return ids;
+	}
+
+	private static List<Double> getIds(ExampleSet exampleSet) {
+		Attribute id = exampleSet.getAttributes().get("id");
+		List<Double> ids = new ArrayList<>();
+		for (Example example : exampleSet) {
+			ids.add(example.getValue(id));
+		}
+		return ids;
+	}
+
+	private static List<Integer> getSizes(List<List<Double>> ids) {
+		List<Integer> sizes = new ArrayList<>();
+		for (List<Double> set : ids) {
+			sizes.add(set.size());
+		}
+		return sizes;
+	}
+
+	/**
+	 * Creates an example set whose ids start at its size, so that the example sets of different
+	 * sizes can be told apart, and whose colors cycle irregularly.
+	 */
+	private static ExampleSet createExampleSet(int size) {
+		Attribute id = AttributeFactory.createAttribute("id", Ontology.REAL);
+		Attribute color = AttributeFactory.createAttribute("color", Ontology.NOMINAL);
+		for (String value : COLORS) {
+			color.getMapping().mapString(value);
+		}
+		return ExampleSets.from(id, color).withBlankSize(size).withColumnFiller(id, i -> size * 100 + i)
+				.withColumnFiller(color, i -> i * i % COLORS.length).build();
+	}
+}
@@ -0,0 +1,182 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.meta;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.RapidMiner.ExecutionMode;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.ExecutionUnit;
+import com.rapidminer.operator.IOContainer;
+import com.rapidminer.operator.ModelApplier;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.learner.tree.AbstractTreeLearner;
+import com.rapidminer.operator.learner.tree.DecisionTreeLearner;
+import com.rapidminer.operator.performance.PolynominalClassificationPerformanceEvaluator;
+import com.rapidminer.parameter.ParameterTypeTupel;
+import com.rapidminer.test.SynchronousExecutionService;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+
+
+/**
+ * Tests that parameter optimizations evaluating their parameter sets in parallel deliver the same
+ * best parameter set and performance as the sequential evaluation. The subprocess learns a decision
+ * tree whose training accuracy depends on the optimized parameters.
+ *
+ * @author RapidMiner
+ */
+public class ParallelOptimizationTest {
+
+	private static final String PARALLEL = "enable_parallel_execution";
+
+	/** Enough rows for three rounds of successive halving with 27 combinations */
+	private static final int ROWS = 9 * GridSearchParameterOptimizationOperator.MINIMUM_SAMPLE_SIZE;
+
+	private static final String MINIMAL_GAIN = ParameterTypeTupel.transformTupel2String("Tree",
+			AbstractTreeLearner.PARAMETER_MINIMAL_GAIN);
+
+	private static final String MAXIMAL_DEPTH = ParameterTypeTupel.transformTupel2String("Tree",
+			DecisionTreeLearner.PARAMETER_MAXIMAL_DEPTH);
+
+	/** 9 times 3 combinations */
+	private static final List<String[]> GRID = Arrays.asList(new String[] { MINIMAL_GAIN, "[0.0;0.4;8;linear]" },
+			new String[] { MAXIMAL_DEPTH, "2,5,10" });
+
+	@BeforeClass
+	public static void setup() {
+		RapidMiner.setExecutionMode(ExecutionMode.TEST);
+		RapidMiner.init();
+		SynchronousExecutionService.install();
+	}
+
+	@Test
+	public void gridSearchTest() throws Exception {
+		String sequential = optimize(GridSearchParameterOptimizationOperator.class, false, GRID, false);
+		assertEquals(sequential, optimize(GridSearchParameterOptimizationOperator.class, true, GRID, false));
+	}
+
+	@Test
+	public void successiveHalvingTest() throws Exception {
+		String sequential = optimize(GridSearchParameterOptimizationOperator.class, false, GRID, true);
+		assertEquals(sequential, optimize(GridSearchParameterOptimizationOperator.class, true, GRID, true));
+		// both parameters of the best combination are delivered, and the samples are reproducible
+		assertTrue(sequential, sequential.contains(MINIMAL_GAIN) && sequential.contains(MAXIMAL_DEPTH));
+		assertEquals(sequential, optimize(GridSearchParameterOptimizationOperator.class, false, GRID, true));
+	}
+
+	@Test
+	public void quadraticTest() throws Exception {
+		List<String[]> gains = Collections.singletonList(new String[] { MINIMAL_GAIN, "0.0,0.05,0.1,0.2,0.3,0.4" });
+		String sequential = optimize(QuadraticParameterOptimizationOperator.class, false, gains, false);
+		assertEquals(sequential, optimize(QuadraticParameterOptimizationOperator.class, true, gains, false));
+	}
+
+	@Test
+	public void evolutionaryTest() throws Exception {
+		List<String[]> gains = Collections.singletonList(new String[] { MINIMAL_GAIN, "[0.0;0.4]" });
+		String sequential = optimize(EvolutionaryParameterOptimizationOperator.class, false, gains, false);
+		assertEquals(sequential, optimize(EvolutionaryParameterOptimizationOperator.class, true, gains, false));
+	}
+
+	/**
+	 * Runs a process optimizing the parameters of a decision tree by its training accuracy and
+	 * returns the description of the delivered parameter set including its performance.
+	 */
+	private static String optimize(Class<? extends ParameterOptimizationOperator> type, boolean parallel,
+			List<String[]> parameters, boolean successiveHalving) throws Exception {
+		Process process = new Process();
+		ExecutionUnit root = process.getRootOperator().getSubprocess(0);
+		ParameterOptimizationOperator optimization = OperatorService.createOperator(type);
+		optimization.setParameter(PARALLEL, String.valueOf(parallel));
+		if (successiveHalving) {
+			optimization.setParameter(GridSearchParameterOptimizationOperator.PARAMETER_SUCCESSIVE_HALVING, "true");
+			optimization.setParameter(GridSearchParameterOptimizationOperator.PARAMETER_HALVING_FACTOR, "3");
+		}
+		if (type == QuadraticParameterOptimizationOperator.class) {
+			optimization.setParameter(QuadraticParameterOptimizationOperator.PARAMETER_IF_EXCEEDS_RANGE, "clip");
+		} else if (type == EvolutionaryParameterOptimizationOperator.class) {
+			optimization.setParameter(EvolutionaryParameterOptimizationOperator.PARAMETER_MAX_GENERATIONS, "4");
+		}
+		root.addOperator(optimization);
+		root.getInnerSources().getPortByName("input 1").connectTo(optimization.getInputPorts().getPortByName("input 1"));
+		optimization.getOutputPorts().getPortByName("parameter")
+				.connectTo(root.getInnerSinks().getPortByName("result 1"));
+
+		ExecutionUnit body = optimization.getSubprocess(0);
+		Operator learner = OperatorService.createOperator(DecisionTreeLearner.class);
+		learner.rename("Tree");
+		Operator applier = OperatorService.createOperator(ModelApplier.class);
+		Operator evaluator = OperatorService.createOperator(PolynominalClassificationPerformanceEvaluator.class);
+		evaluator.setParameter("accuracy", "true");
+		body.addOperator(learner);
+		body.addOperator(applier);
+		body.addOperator(evaluator);
+		body.getInnerSources().getPortByName("input 1").connectTo(learner.getInputPorts().getPortByName("training set"));
+		learner.getOutputPorts().getPortByName("model").connectTo(applier.getInputPorts().getPortByName("model"));
+		learner.getOutputPorts().getPortByName("exampleSet")
+				.connectTo(applier.getInputPorts().getPortByName("unlabelled data"));
+		applier.getOutputPorts().getPortByName("labelled data")
+				.connectTo(evaluator.getInputPorts().getPortByName("labelled data"));
+		evaluator.getOutputPorts().getPortByName("performance")
+				.connectTo(body.getInnerSinks().getPortByName("performance"));
+		optimization.setListParameter(ParameterIteratingOperatorChain.PARAMETER_PARAMETERS, parameters);
+
+		return process.run(new IOContainer(createExampleSet())).get(ParameterSet.class).toString();
+	}
+
+	/**
+	 * Creates a noisy example set, so that the training accuracy depends on the size of the tree.
+	 */
+	private static ExampleSet createExampleSet() {
+		Attribute first = AttributeFactory.createAttribute("first", Ontology.REAL);
+		Attribute second = AttributeFactory.createAttribute("second", Ontology.REAL);
+		Attribute label = AttributeFactory.createAttribute("label", Ontology.NOMINAL);
+		label.getMapping().mapString("yes");
+		label.getMapping().mapString("no");
+
+		Random random = new Random(23);
+		double[] firstValues = new double[ROWS];
+		double[] secondValues = new double[ROWS];
+		double[] labels = new double[ROWS];
+		for (int i = 0; i < ROWS; i++) {
+			firstValues[i] = random.nextGaussian();
+			secondValues[i] = random.nextGaussian();
+			labels[i] = firstValues[i] * secondValues[i] + random.nextGaussian() / 2 > 0 ? 0 : 1;
+		}
+		return ExampleSets.from(first, second, label).withBlankSize(ROWS).withColumnFiller(first, i -> firstValues[i])
+				.withColumnFiller(second, i -> secondValues[i]).withColumnFiller(label, i -> labels[i])
+				.withRole(label, Attributes.LABEL_NAME).build();
+	}
+}
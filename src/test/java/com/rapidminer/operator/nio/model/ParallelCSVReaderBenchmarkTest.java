@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.nio.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.Annotations;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.test.PoolConcurrencyContext;
+import com.rapidminer.tools.LogService;
+import com.rapidminer.tools.ParameterService;
+
+
+/**
+ * Benchmarks the throughput of the {@link ParallelCSVReader} for an increasing number of threads
+ * against the sequential {@link DataResultSetTranslator}. The measured numbers are logged, the test
+ * only fails if reading with all cores is not faster than reading with a single thread.
+ *
+ * @author RapidMiner
+ */
+public class ParallelCSVReaderBenchmarkTest {
+
+	private static final int ROWS = 1_000_000;
+
+	private static final long CHUNK_BYTES = 1 << 22;
+
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT, String.valueOf(false));
+		file = File.createTempFile("benchmark", ".csv");
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writer.write("id,first,second,nominal\n");
+			for (int i = 0; i < ROWS; i++) {
+				writer.write(i + "," + i * 0.5 + "," + (ROWS - i) * 1.25 + ",value" + i % 11 + "\n");
+			}
+		}
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void throughputScalingBenchmark() throws Exception {
+		int cores = Runtime.getRuntime().availableProcessors();
+		assumeTrue(cores > 1);
+		double megabytes = file.length() / 1024.0 / 1024.0;
+
+		long start = System.nanoTime();
+		assertEquals(ROWS, readSequential().size());
+		log("sequential translator: %.1f MB/s", megabytes / seconds(start));
+
+		double singleThroughput = 0;
+		double throughput = 0;
+		for (int parallelism = 1; parallelism <= cores; parallelism *= 2) {
+			throughput = measure(parallelism, megabytes);
+			if (parallelism == 1) {
+				singleThroughput = throughput;
+			}
+		}
+		if (Integer.bitCount(cores) != 1) {
+			throughput = measure(cores, megabytes);
+		}
+		assertTrue(cores + " threads " + throughput + " vs. single thread " + singleThroughput + " MB/s",
+				throughput > singleThroughput);
+	}
+
+	/**
+	 * Reads the file twice with the given parallelism and returns the throughput of the second,
+	 * warmed up run.
+	 */
+	private double measure(int parallelism, double megabytes) throws OperatorException {
+		PoolConcurrencyContext context = new PoolConcurrencyContext(parallelism);
+		try {
+			readParallel(context);
+			long start = System.nanoTime();
+			assertEquals(ROWS, readParallel(context).size());
+			double throughput = megabytes / seconds(start);
+			log("parallelism %d: %.1f MB/s", parallelism, throughput);
+			return throughput;
+		} finally {
+			context.shutdown();
+		}
+	}
+
+	private CSVResultSet createResultSet() throws OperatorException {
+		CSVResultSetConfiguration csvConfiguration = new CSVResultSetConfiguration();
+		csvConfiguration.setCsvFile(file.getAbsolutePath());
+		csvConfiguration.setColumnSeparators(",");
+		csvConfiguration.setEncoding(StandardCharsets.UTF_8);
+		return new CSVResultSet(csvConfiguration, null);
+	}
+
+	private DataResultSetTranslationConfiguration createConfiguration(CSVResultSet resultSet) throws OperatorException {
+		DataResultSetTranslationConfiguration configuration = new DataResultSetTranslationConfiguration(resultSet,
+				Collections.singletonList(Annotations.ANNOTATION_NAME));
+		new DataResultSetTranslator(null).guessValueTypes(configuration, resultSet, null);
+		return configuration;
+	}
+
+	private ExampleSet readSequential() throws OperatorException {
+		CSVResultSet resultSet = createResultSet();
+		return new DataResultSetTranslator(null).read(resultSet, createConfiguration(resultSet), false, null);
+	}
+
+	private ExampleSet readParallel(ConcurrencyContext context) throws OperatorException {
+		CSVResultSet resultSet = createResultSet();
+		return new ParallelCSVReader(null, context, resultSet, createConfiguration(resultSet), CHUNK_BYTES).read();
+	}
+
+	private static double seconds(long start) {
+		return (System.nanoTime() - start) / 1e9;
+	}
+
+	private static void log(String format, Object... arguments) {
+		LogService.getRoot().info(String.format(format, arguments));
+	}
+}
@@ -0,0 +1,252 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.nio.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.Annotations;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.UserError;
+import com.rapidminer.test.PoolConcurrencyContext;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.ParameterService;
+
+
+/**
+ * Tests that the {@link ParallelCSVReader} produces the same example sets as the sequential
+ * {@link DataResultSetTranslator}.
+ *
+ * @author RapidMiner
+ */
+public class ParallelCSVReaderTest {
+
+	private static final int ROWS = 2000;
+
+	/** Small chunks to get many chunk boundaries */
+	private static final long CHUNK_BYTES = 64;
+
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT, String.valueOf(false));
+		file = File.createTempFile("parallel", ".csv");
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	/**
+	 * Writes a file with a byte order mark, a header, an annotation row, mixed line endings, a
+	 * comment, empty lines, quoted values, missing values and unparseable numbers and dates.
+	 */
+	private void writeFile(int rows) throws IOException {
+		try (OutputStream out = Files.newOutputStream(file.toPath())) {
+			out.write(new byte[] { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF });
+			try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+				writer.write("id,real,nominal,binominal,broken,date\n");
+				writer.write("first,second,third,fourth,fifth,sixth\r\n");
+				for (int i = 0; i < rows; i++) {
+					String nominal = i % 13 == 0 ? "" : i % 37 == 0 ? "\"q, " + i % 3 + "\"" : "välue" + i % 7;
+					String binominal = i % 5 == 0 ? "yes" : "no";
+					String broken = i % 17 == 0 ? "abc" : String.valueOf(i * 0.25);
+					String date = i % 23 == 0 ? "n/a" : String.format("2017-%02d-%02d", 1 + i / 500 % 12, 1 + i / 50 % 28);
+					writer.write(i + "," + i * 1.5 + "," + nominal + "," + binominal + "," + broken + "," + date);
+					writer.write(i % 3 == 0 ? "\r\n" : i % 3 == 1 ? "\n" : "\r");
+					if (i % 101 == 0) {
+						writer.write("\n# comment\n");
+					}
+				}
+			}
+		}
+	}
+
+	private DataResultSetTranslationConfiguration createConfiguration(CSVResultSet resultSet, boolean faultTolerant)
+			throws OperatorException {
+		DataResultSetTranslationConfiguration configuration = new DataResultSetTranslationConfiguration(resultSet,
+				Arrays.asList(Annotations.ANNOTATION_NAME, Annotations.KEY_COMMENT));
+		configuration.setDatePattern("yyyy-MM-dd");
+		new DataResultSetTranslator(null).guessValueTypes(configuration, resultSet, null);
+		configuration.getColumnMetaData(3).setAttributeValueType(Ontology.BINOMINAL);
+		configuration.getColumnMetaData(4).setAttributeValueType(Ontology.REAL);
+		configuration.getColumnMetaData(5).setAttributeValueType(Ontology.DATE);
+		configuration.getColumnMetaData(0).setRole(Attributes.ID_NAME);
+		configuration.setFaultTolerant(faultTolerant);
+		return configuration;
+	}
+
+	private CSVResultSet createResultSet() throws OperatorException {
+		CSVResultSetConfiguration csvConfiguration = new CSVResultSetConfiguration();
+		csvConfiguration.setCsvFile(file.getAbsolutePath());
+		csvConfiguration.setColumnSeparators(",");
+		csvConfiguration.setSkipComments(true);
+		csvConfiguration.setEncoding(StandardCharsets.UTF_8);
+		return new CSVResultSet(csvConfiguration, null);
+	}
+
+	private static void assertSameExampleSet(ExampleSet expected, ExampleSet actual) {
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected.getAttributes().allSize(), actual.getAttributes().allSize());
+		for (Attribute expectedAttribute : expected.getAttributes()) {
+			Attribute attribute = actual.getAttributes().get(expectedAttribute.getName());
+			assertEquals(expectedAttribute.getValueType(), attribute.getValueType());
+			assertEquals(expectedAttribute.getAnnotations(), attribute.getAnnotations());
+			if (expectedAttribute.isNominal()) {
+				assertEquals(expectedAttribute.getMapping().getValues(), attribute.getMapping().getValues());
+			}
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expectedAttribute.getName() + " row " + i, expected.getExample(i).getValue(expectedAttribute),
+						actual.getExample(i).getValue(attribute), 0);
+			}
+		}
+		assertEquals(expected.getAttributes().getId().getName(), actual.getAttributes().getId().getName());
+	}
+
+	private ExampleSet readSequential(boolean faultTolerant) throws OperatorException {
+		CSVResultSet resultSet = createResultSet();
+		return new DataResultSetTranslator(null).read(resultSet, createConfiguration(resultSet, faultTolerant), false,
+				null);
+	}
+
+	private ExampleSet readParallel(ConcurrencyContext context, long chunkBytes, boolean faultTolerant,
+			boolean tokenizeBytes) throws OperatorException {
+		CSVResultSet resultSet = createResultSet();
+		assertTrue(ParallelCSVReader.isSupported(resultSet));
+		ParallelCSVReader reader = new ParallelCSVReader(null, context, resultSet,
+				createConfiguration(resultSet, faultTolerant), chunkBytes);
+		reader.setTokenizeBytes(tokenizeBytes);
+		return reader.read();
+	}
+
+	@Test
+	public void sequentialChunksTest() throws Exception {
+		writeFile(ROWS);
+		ExampleSet expected = readSequential(true);
+		ExampleSet actual = readParallel(null, CHUNK_BYTES, true, false);
+		assertEquals(ROWS, actual.size());
+		assertEquals("second", actual.getAttributes().get("real").getAnnotations().get(Annotations.KEY_COMMENT));
+		assertSameExampleSet(expected, actual);
+	}
+
+	@Test
+	public void parallelChunksTest() throws Exception {
+		writeFile(ROWS);
+		PoolConcurrencyContext context = new PoolConcurrencyContext(4);
+		try {
+			assertSameExampleSet(readSequential(true), readParallel(context, CHUNK_BYTES, true, false));
+			assertSameExampleSet(readSequential(true), readParallel(context, 1 << 20, true, false));
+		} finally {
+			context.shutdown();
+		}
+	}
+
+	@Test
+	public void tokenizeBytesTest() throws Exception {
+		writeFile(ROWS);
+		PoolConcurrencyContext context = new PoolConcurrencyContext(4);
+		try {
+			assertSameExampleSet(readSequential(true), readParallel(null, CHUNK_BYTES, true, true));
+			assertSameExampleSet(readSequential(true), readParallel(context, CHUNK_BYTES, true, true));
+			assertSameExampleSet(readSequential(true), readParallel(context, 1 << 20, true, true));
+		} finally {
+			context.shutdown();
+		}
+	}
+
+	@Test
+	public void parseDecimalTest() {
+		String[] values = { "0", "-0", "12", "-12.5", "1.", ".5", "-.25", "007", "123456789012345", "0.000000000000001",
+				"1e5", "-", ".", "1.2.3", "+1" };
+		for (String value : values) {
+			ByteBuffer buffer = ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII));
+			double parsed = ParallelCSVReader.parseDecimal(buffer, 0, value.length(), (byte) '.');
+			if (!Double.isNaN(parsed)) {
+				assertEquals(value, Double.doubleToLongBits(Double.parseDouble(value)), Double.doubleToLongBits(parsed));
+			}
+		}
+		// too many digits, exponent and sign are left to the formats
+		assertTrue(Double.isNaN(ParallelCSVReader.parseDecimal(ByteBuffer.wrap("0.000000000000001".getBytes()), 0, 17,
+				(byte) '.')));
+		assertTrue(Double.isNaN(ParallelCSVReader.parseDecimal(ByteBuffer.wrap("1e5".getBytes()), 0, 3, (byte) '.')));
+		assertTrue(Double.isNaN(ParallelCSVReader.parseDecimal(ByteBuffer.wrap("+1".getBytes()), 0, 2, (byte) '.')));
+	}
+
+	@Test
+	public void sameErrorTest() throws Exception {
+		writeFile(ROWS);
+		String expected = null;
+		try {
+			readSequential(false);
+			fail("exception expected");
+		} catch (UserError e) {
+			expected = e.getMessage();
+		}
+		PoolConcurrencyContext context = new PoolConcurrencyContext(4);
+		try {
+			readParallel(context, CHUNK_BYTES, false, false);
+			fail("exception expected");
+		} catch (UserError e) {
+			assertEquals(expected, e.getMessage());
+		}
+		try {
+			readParallel(context, CHUNK_BYTES, false, true);
+			fail("exception expected");
+		} catch (UserError e) {
+			assertEquals(expected, e.getMessage());
+		} finally {
+			context.shutdown();
+		}
+	}
+
+	@Test
+	public void emptyFileTest() throws Exception {
+		Files.write(file.toPath(), new byte[0]);
+		CSVResultSet resultSet = createResultSet();
+		DataResultSetTranslationConfiguration configuration = new DataResultSetTranslationConfiguration(resultSet,
+				new ArrayList<>());
+		ExampleSet read = new ParallelCSVReader(null, null, resultSet, configuration, CHUNK_BYTES).read();
+		assertEquals(0, read.size());
+	}
+
+}
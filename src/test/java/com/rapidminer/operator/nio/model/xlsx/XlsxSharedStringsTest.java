@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.nio.model.xlsx;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.stream.XMLInputFactory;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ * Unit tests for the streaming {@link XlsxSharedStrings} table.
+ *
+ * @author RapidMiner
+ */
+public class XlsxSharedStringsTest {
+
+	private static final String PATH = "sharedStrings.xml";
+
+	private static final int NUMBER_OF_STRINGS = 5000;
+
+	private static File file;
+
+	private static XMLInputFactory factory;
+
+	@BeforeClass
+	public static void createFile() throws IOException {
+		file = File.createTempFile("shared_strings_test", ".xlsx");
+		StringBuilder builder = new StringBuilder();
+		builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+		builder.append("<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"")
+				.append(NUMBER_OF_STRINGS).append("\" uniqueCount=\"").append(NUMBER_OF_STRINGS).append("\">");
+		for (int i = 0; i < NUMBER_OF_STRINGS; i++) {
+			switch (i % 4) {
+				case 0:
+					builder.append("<si><t>value ").append(i).append("</t></si>");
+					break;
+				case 1:
+					// rich text with several runs
+					builder.append("<si><r><rPr><b/></rPr><t>r\u00e4ch ").append(i).append("</t></r>")
+							.append("<r><t xml:space=\"preserve\"> &amp; more</t></r></si>");
+					break;
+				case 2:
+					// empty string item
+					builder.append("<si><t/></si>");
+					break;
+				default:
+					builder.append("<si><t>\u20ac").append(i).append("\u65e5\u672c</t></si>");
+					break;
+			}
+		}
+		builder.append("</sst>");
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+			out.putNextEntry(new ZipEntry(XlsxUtilities.XLSX_PATH_PREFIX + PATH));
+			out.write(builder.toString().getBytes(StandardCharsets.UTF_8));
+			out.closeEntry();
+		}
+		factory = XMLInputFactory.newFactory();
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+	}
+
+	@AfterClass
+	public static void deleteFile() {
+		file.delete();
+	}
+
+	@Test
+	public void inMemoryTest() throws Exception {
+		String[] expected = new XlsxSharedStringsParser(file, PATH, factory).parseSharedStrings(null,
+				StandardCharsets.UTF_8);
+		try (XlsxSharedStrings strings = new XlsxSharedStrings(file, PATH, factory, StandardCharsets.UTF_8,
+				Long.MAX_VALUE)) {
+			assertArrayEquals(expected, readAll(strings));
+			assertFalse(strings.isSpilled());
+		}
+	}
+
+	@Test
+	public void spilledTest() throws Exception {
+		String[] expected = new XlsxSharedStringsParser(file, PATH, factory).parseSharedStrings(null,
+				StandardCharsets.UTF_8);
+		try (XlsxSharedStrings strings = new XlsxSharedStrings(file, PATH, factory, StandardCharsets.UTF_8, 10_000)) {
+			assertArrayEquals(expected, readAll(strings));
+			assertTrue(strings.isSpilled());
+			// read again in reverse order to bypass the cache
+			for (int i = NUMBER_OF_STRINGS - 1; i >= 0; i--) {
+				assertEquals(expected[i], strings.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void lazyTest() throws Exception {
+		try (XlsxSharedStrings strings = new XlsxSharedStrings(file, PATH, factory, StandardCharsets.UTF_8, 0)) {
+			assertEquals(0, strings.getParsedSize());
+			assertEquals("r\u00e4ch 1 & more", strings.get(1));
+			assertEquals(2, strings.getParsedSize());
+			assertNull(strings.get(2));
+			assertEquals("value 0", strings.get(0));
+			assertEquals("\u20ac3\u65e5\u672c", strings.get(3));
+			assertEquals(4, strings.getParsedSize());
+		}
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void outOfBoundsTest() throws Exception {
+		try (XlsxSharedStrings strings = new XlsxSharedStrings(file, PATH, factory, StandardCharsets.UTF_8, 0)) {
+			strings.get(NUMBER_OF_STRINGS);
+		}
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void noSharedStringsTest() throws Exception {
+		try (XlsxSharedStrings strings = new XlsxSharedStrings(file, null, factory, StandardCharsets.UTF_8, 0)) {
+			strings.get(0);
+		}
+	}
+
+	private static String[] readAll(XlsxSharedStrings strings) throws Exception {
+		String[] result = new String[NUMBER_OF_STRINGS];
+		for (int i = 0; i < NUMBER_OF_STRINGS; i++) {
+			result[i] = strings.get(i);
+		}
+		return result;
+	}
+
+}
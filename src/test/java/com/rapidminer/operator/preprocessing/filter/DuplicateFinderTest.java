@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.filter;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.test.PoolConcurrencyContext;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Tests which examples the {@link DuplicateFinder} marks as duplicates.
+ *
+ * @author RapidMiner
+ */
+public class DuplicateFinderTest {
+
+	private static final int D = DuplicateFinder.DUPLICATE;
+
+	private static final double NAN = Double.NaN;
+
+	@Test
+	public void firstKeptTest() throws Exception {
+		assertArrayEquals(new int[] { 0, 0, D, 0, D, D },
+				findDuplicates(false, new double[] { 3, 1, 3, 2, 1, 3 }));
+	}
+
+	@Test
+	public void allAttributesComparedTest() throws Exception {
+		assertArrayEquals(new int[] { 0, 0, D, 0, D },
+				findDuplicates(false, new double[] { 1, 1, 1, 2, 1 }, new double[] { 1, 2, 1, 1, 2 }));
+	}
+
+	@Test
+	public void missingsUniqueTest() throws Exception {
+		assertArrayEquals(new int[] { 0, 0, 0, 0, 0, D },
+				findDuplicates(false, new double[] { 1, 1, NAN, NAN, 1, 1 }, new double[] { NAN, NAN, NAN, NAN, 2, 2 }));
+	}
+
+	@Test
+	public void missingsAsDuplicatesTest() throws Exception {
+		assertArrayEquals(new int[] { 0, D, 0, D, 0, D },
+				findDuplicates(true, new double[] { 1, 1, NAN, NAN, 1, 1 }, new double[] { NAN, NAN, NAN, NAN, 2, 2 }));
+	}
+
+	@Test
+	public void signedZerosTest() throws Exception {
+		assertArrayEquals(new int[] { 0, D, D, 0 }, findDuplicates(false, new double[] { -0.0, 0.0, -0.0, 1 }));
+	}
+
+	/**
+	 * Checks that the first example of every group is kept if partitions are deduplicated in
+	 * parallel and from disk.
+	 */
+	@Test
+	public void firstKeptInPartitionsTest() throws Exception {
+		int rows = 200_000;
+		Attribute attribute = AttributeFactory.createAttribute("value", Ontology.INTEGER);
+		ExampleSet exampleSet = ExampleSets.from(attribute).withBlankSize(rows)
+				.withColumnFiller(attribute, i -> i * 7919L % 30_000).build();
+		int[] expected = new int[rows];
+		Map<Double, Integer> first = new HashMap<>();
+		for (int i = 0; i < rows; i++) {
+			if (first.putIfAbsent(i * 7919L % 30_000d, i) != null) {
+				expected[i] = D;
+			}
+		}
+
+		Attribute[] attributes = { attribute };
+		PoolConcurrencyContext context = new PoolConcurrencyContext(4);
+		try {
+			assertArrayEquals(expected, new DuplicateFinder(context, Long.MAX_VALUE).findDuplicates(exampleSet,
+					attributes, false, null));
+			assertArrayEquals(expected,
+					new DuplicateFinder(context, 500_000).findDuplicates(exampleSet, attributes, false, null));
+			assertArrayEquals(expected, new DuplicateFinder(null, 0).findDuplicates(exampleSet, attributes, false, null));
+		} finally {
+			context.shutdown();
+		}
+	}
+
+	/**
+	 * Finds the duplicates of an example set with one real attribute per value array.
+	 */
+	private static int[] findDuplicates(boolean missingsAsDuplicates, double[]... columns) throws Exception {
+		Attribute[] attributes = new Attribute[columns.length];
+		for (int i = 0; i < columns.length; i++) {
+			attributes[i] = AttributeFactory.createAttribute("att" + i, Ontology.REAL);
+		}
+		ExampleSetBuilder builder = ExampleSets.from(attributes).withBlankSize(columns[0].length);
+		for (int i = 0; i < columns.length; i++) {
+			double[] column = columns[i];
+			builder.withColumnFiller(attributes[i], row -> column[row]);
+		}
+		ExampleSet exampleSet = builder.build();
+		return new DuplicateFinder(null, Long.MAX_VALUE).findDuplicates(exampleSet, attributes, missingsAsDuplicates,
+				null);
+	}
+
+}
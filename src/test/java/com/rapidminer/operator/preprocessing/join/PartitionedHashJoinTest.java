@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.join;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.test.PoolConcurrencyContext;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Tests that the {@link PartitionedHashJoin} finds the same matches in memory, in parallel and when
+ * joining partitions from disk.
+ *
+ * @author RapidMiner
+ */
+public class PartitionedHashJoinTest {
+
+	/** Enough build rows for partitioning */
+	private static final int BUILD_ROWS = 200_000;
+
+	private static final int PROBE_ROWS = 300_000;
+
+	/** Maps the nominal build values 0, 1 and 2 to the probe values 1, 0 and none */
+	private static final double[][] MAPPINGS = { null, { 1, 0, Double.NaN } };
+
+	private static ExampleSet buildSet;
+
+	private static ExampleSet probeSet;
+
+	private static Attribute[] buildAttributes;
+
+	private static Attribute[] probeAttributes;
+
+	private static List<List<Integer>> expectedMatches;
+
+	private static BitSet expectedMatchedRows;
+
+	@BeforeClass
+	public static void createExampleSets() {
+		buildAttributes = new Attribute[] { AttributeFactory.createAttribute("id", Ontology.INTEGER),
+				AttributeFactory.createAttribute("group", Ontology.NOMINAL) };
+		probeAttributes = new Attribute[] { AttributeFactory.createAttribute("id", Ontology.INTEGER),
+				AttributeFactory.createAttribute("group", Ontology.NOMINAL) };
+		buildSet = ExampleSets.from(buildAttributes).withBlankSize(BUILD_ROWS)
+				.withColumnFiller(buildAttributes[0], i -> i % 101 == 0 ? Double.NaN : (i * 7919L) % 50_000)
+				.withColumnFiller(buildAttributes[1], i -> i % 3).build();
+		probeSet = ExampleSets.from(probeAttributes).withBlankSize(PROBE_ROWS)
+				.withColumnFiller(probeAttributes[0], i -> i % 97 == 0 ? Double.NaN : (i * 104_729L) % 60_000)
+				.withColumnFiller(probeAttributes[1], i -> i % 4).build();
+
+		// match by boxed keys
+		Map<List<Double>, List<Integer>> buildRows = new HashMap<>();
+		for (int i = 0; i < BUILD_ROWS; i++) {
+			double id = buildSet.getExample(i).getValue(buildAttributes[0]);
+			double group = MAPPINGS[1][(int) buildSet.getExample(i).getValue(buildAttributes[1])];
+			if (!Double.isNaN(id) && !Double.isNaN(group)) {
+				buildRows.computeIfAbsent(Arrays.asList(id, group), key -> new ArrayList<>()).add(i);
+			}
+		}
+		expectedMatches = new ArrayList<>();
+		expectedMatchedRows = new BitSet();
+		for (int i = 0; i < PROBE_ROWS; i++) {
+			double id = probeSet.getExample(i).getValue(probeAttributes[0]);
+			double group = probeSet.getExample(i).getValue(probeAttributes[1]);
+			List<Integer> matches = buildRows.get(Arrays.asList(id, group));
+			if (Double.isNaN(id) || matches == null) {
+				expectedMatches.add(Collections.emptyList());
+			} else {
+				expectedMatches.add(matches);
+				for (int row : matches) {
+					expectedMatchedRows.set(row);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void sequentialTest() throws Exception {
+		assertMatches(new PartitionedHashJoin(null, Long.MAX_VALUE));
+	}
+
+	@Test
+	public void parallelTest() throws Exception {
+		PoolConcurrencyContext context = new PoolConcurrencyContext(4);
+		try {
+			assertMatches(new PartitionedHashJoin(context, Long.MAX_VALUE));
+		} finally {
+			context.shutdown();
+		}
+	}
+
+	@Test
+	public void partiallySpilledTest() throws Exception {
+		PoolConcurrencyContext context = new PoolConcurrencyContext(4);
+		try {
+			assertMatches(new PartitionedHashJoin(context, 2_000_000));
+		} finally {
+			context.shutdown();
+		}
+	}
+
+	@Test
+	public void spilledTest() throws Exception {
+		assertMatches(new PartitionedHashJoin(null, 0));
+	}
+
+	private static void assertMatches(PartitionedHashJoin join) throws Exception {
+		PartitionedHashJoin.Result result = join.join(buildSet, buildAttributes, MAPPINGS, probeSet, probeAttributes,
+				null);
+		for (int i = 0; i < PROBE_ROWS; i++) {
+			List<Integer> matches = new ArrayList<>();
+			for (int row = result.getFirstMatch(i); row >= 0; row = result.getNextMatch(row)) {
+				matches.add(row);
+			}
+			assertEquals(expectedMatches.get(i), matches);
+		}
+		assertEquals(expectedMatchedRows, result.getMatchedBuildRows());
+	}
+
+}
@@ -0,0 +1,221 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.preprocessing.transformation.aggregation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.table.DoubleArrayDataRow;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.test.PoolConcurrencyContext;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Tests that the {@link HashGroupBy} finds the same groups and aggregates sequentially and in
+ * parallel.
+ *
+ * @author RapidMiner
+ */
+public class HashGroupByTest {
+
+	/** Enough rows for parallel counting */
+	private static final int ROWS = 200_000;
+
+	private static final String[] FUNCTIONS = { AggregationFunction.FUNCTION_NAME_SUM,
+			AggregationFunction.FUNCTION_NAME_AVERAGE, AggregationFunction.FUNCTION_NAME_VARIANCE,
+			AggregationFunction.FUNCTION_NAME_MINIMUM, AggregationFunction.FUNCTION_NAME_MAXIMUM,
+			AggregationFunction.FUNCTION_NAME_MEDIAN, AggregationFunction.FUNCTION_NAME_COUNT,
+			AggregationFunction.FUNCTION_NAME_COUNT_INCLUDE_MISSINGS };
+
+	private static final String[] NOMINAL_FUNCTIONS = { AggregationFunction.FUNCTION_NAME_MODE,
+			AggregationFunction.FUNCTION_NAME_LEAST, AggregationFunction.FUNCTION_NAME_CONCATENATION };
+
+	private static ExampleSet exampleSet;
+
+	private static Attribute[] groupAttributes;
+
+	private static Attribute value;
+
+	private static Attribute label;
+
+	@BeforeClass
+	public static void createExampleSet() {
+		Attribute group = AttributeFactory.createAttribute("group", Ontology.NOMINAL);
+		for (String nominalValue : new String[] { "c", "a", "b" }) {
+			group.getMapping().mapString(nominalValue);
+		}
+		Attribute id = AttributeFactory.createAttribute("id", Ontology.INTEGER);
+		value = AttributeFactory.createAttribute("value", Ontology.REAL);
+		label = AttributeFactory.createAttribute("label", Ontology.NOMINAL);
+		for (String nominalValue : new String[] { "x", "y" }) {
+			label.getMapping().mapString(nominalValue);
+		}
+		Attribute weight = AttributeFactory.createAttribute("weight", Ontology.REAL);
+		groupAttributes = new Attribute[] { group, id };
+		exampleSet = ExampleSets.from(group, id, value, label, weight).withRole(weight, Attributes.WEIGHT_NAME)
+				.withBlankSize(ROWS).withColumnFiller(group, i -> i % 31 == 0 ? Double.NaN : i % 3)
+				.withColumnFiller(id, i -> i % 97 == 0 ? Double.NaN : (i * 7919L) % 500)
+				.withColumnFiller(value, i -> i % 89 == 0 ? Double.NaN : (i * 104_729L) % 1000 / 10.0)
+				.withColumnFiller(label, i -> i % 5 == 0 ? 1 : 0).withColumnFiller(weight, i -> 1 + i % 4).build();
+	}
+
+	@Test
+	public void parallelTest() throws Exception {
+		for (boolean distinct : new boolean[] { false, true }) {
+			List<AggregationFunction> functions = createFunctions(distinct);
+			Map<List<Double>, double[]> expected = aggregate(null, functions);
+			PoolConcurrencyContext context = new PoolConcurrencyContext(4);
+			try {
+				Map<List<Double>, double[]> actual = aggregate(context, functions);
+				assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+				for (Map.Entry<List<Double>, double[]> entry : expected.entrySet()) {
+					double[] expectedValues = entry.getValue();
+					double[] actualValues = actual.get(entry.getKey());
+					for (int f = 0; f < expectedValues.length; f++) {
+						assertEquals(expectedValues[f], actualValues[f], 1e-9 * Math.max(1, Math.abs(expectedValues[f])));
+					}
+				}
+			} finally {
+				context.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void countTest() throws Exception {
+		List<AggregationFunction> functions = Arrays.asList(AggregationFunction.createAggregationFunction(
+				AggregationFunction.FUNCTION_NAME_COUNT_INCLUDE_MISSINGS, value, false, false));
+		Map<List<Double>, double[]> actual = aggregate(null, functions);
+
+		// count the weights by boxed keys in the order of the first occurrence
+		Map<List<Double>, Double> expected = new LinkedHashMap<>();
+		Attribute weight = exampleSet.getAttributes().getWeight();
+		for (int i = 0; i < ROWS; i++) {
+			List<Double> key = Arrays.asList(exampleSet.getExample(i).getValue(groupAttributes[0]),
+					exampleSet.getExample(i).getValue(groupAttributes[1]));
+			expected.merge(key, exampleSet.getExample(i).getValue(weight), Double::sum);
+		}
+		assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+		for (Map.Entry<List<Double>, Double> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), actual.get(entry.getKey())[0], 0);
+		}
+	}
+
+	/**
+	 * The sketch functions do not remember the distinct values, so counting only distinct values is
+	 * ignored.
+	 */
+	@Test
+	public void approximateDistinctTest() throws Exception {
+		for (String name : new String[] { AggregationFunction.FUNCTION_NAME_MEDIAN_APPROXIMATE,
+				AggregationFunction.FUNCTION_NAME_COUNT_DISTINCT_APPROXIMATE }) {
+			AggregationFunction distinct = AggregationFunction.createAggregationFunction(name, value, true, true);
+			assertFalse(name, distinct.isCountingOnlyDistinct());
+			Map<List<Double>, double[]> expected = aggregate(null,
+					Arrays.asList(AggregationFunction.createAggregationFunction(name, value, true, false)));
+			Map<List<Double>, double[]> actual = aggregate(null, Arrays.asList(distinct));
+			for (Map.Entry<List<Double>, double[]> entry : expected.entrySet()) {
+				assertEquals(entry.getValue()[0], actual.get(entry.getKey())[0], 0);
+			}
+		}
+	}
+
+	@Test
+	public void sortTest() throws Exception {
+		HashGroupBy.Groups groups = new HashGroupBy(null).aggregate(exampleSet, groupAttributes,
+				new ArrayList<AggregationFunction>(), null);
+		int[] sorted = groups.getSortedGroups(groupAttributes);
+		assertEquals(groups.size(), sorted.length);
+		for (int i = 1; i < sorted.length; i++) {
+			String previousGroup = getGroupName(groups.getValue(0, sorted[i - 1]));
+			String group = getGroupName(groups.getValue(0, sorted[i]));
+			int comparison = previousGroup.compareTo(group);
+			if (comparison == 0) {
+				comparison = Double.compare(groups.getValue(1, sorted[i - 1]), groups.getValue(1, sorted[i]));
+			}
+			assertEquals(-1, Integer.signum(comparison));
+		}
+	}
+
+	@Test
+	public void noGroupsTest() throws Exception {
+		List<AggregationFunction> functions = createFunctions(false);
+		HashGroupBy.Groups groups = new HashGroupBy(null).aggregate(exampleSet, new Attribute[0], functions, null);
+		assertEquals(1, groups.size());
+
+		ExampleSet empty = ExampleSets.from(groupAttributes[0], value).build();
+		groups = new HashGroupBy(null).aggregate(empty, new Attribute[0], functions, null);
+		assertEquals(1, groups.size());
+	}
+
+	private static String getGroupName(double value) {
+		return Double.isNaN(value) ? Attribute.MISSING_NOMINAL_VALUE : groupAttributes[0].getMapping().mapIndex((int) value);
+	}
+
+	private static List<AggregationFunction> createFunctions(boolean distinct) throws Exception {
+		List<AggregationFunction> functions = new ArrayList<>();
+		for (String name : FUNCTIONS) {
+			functions.add(AggregationFunction.createAggregationFunction(name, value, true, distinct));
+		}
+		for (String name : NOMINAL_FUNCTIONS) {
+			functions.add(AggregationFunction.createAggregationFunction(name, label, true, distinct));
+		}
+		return functions;
+	}
+
+	/**
+	 * @return the aggregated values by the group values in the order of the groups
+	 */
+	private static Map<List<Double>, double[]> aggregate(PoolConcurrencyContext context,
+			List<AggregationFunction> functions) throws Exception {
+		HashGroupBy.Groups groups = new HashGroupBy(context).aggregate(exampleSet, groupAttributes, functions, null);
+		Map<List<Double>, double[]> result = new LinkedHashMap<>();
+		for (int group = 0; group < groups.size(); group++) {
+			Aggregator[] aggregators = groups.getAggregators(group);
+			double[] values = new double[aggregators.length];
+			for (int f = 0; f < aggregators.length; f++) {
+				Attribute target = functions.get(f).getTargetAttribute();
+				target.setTableIndex(0);
+				DoubleArrayDataRow row = new DoubleArrayDataRow(new double[1]);
+				aggregators[f].set(target, row);
+				values[f] = row.get(target);
+				if (target.isNominal() && !Double.isNaN(values[f])) {
+					// compare nominal results by their string, the mappings grow independently
+					values[f] = target.getMapping().mapIndex((int) values[f]).hashCode();
+				}
+			}
+			result.put(Arrays.asList(groups.getValue(0, group), groups.getValue(1, group)), values);
+		}
+		return result;
+	}
+}
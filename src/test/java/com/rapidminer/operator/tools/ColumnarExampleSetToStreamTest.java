@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.tools;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.ParameterService;
+
+
+/**
+ * Tests the {@link ColumnarExampleSetToStream}.
+ *
+ * @author RapidMiner
+ */
+public class ColumnarExampleSetToStreamTest {
+
+	private static final int ROWS = 1000;
+
+	private static final int CHUNK_SIZE = 64;
+
+	private static ExampleSet createExampleSet() {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT, String.valueOf(false));
+		Attribute constant = AttributeFactory.createAttribute("constant", Ontology.REAL);
+		Attribute runs = AttributeFactory.createAttribute("runs", Ontology.REAL);
+		Attribute integers = AttributeFactory.createAttribute("integers", Ontology.INTEGER);
+		Attribute reals = AttributeFactory.createAttribute("reals", Ontology.REAL);
+		Attribute nominal = AttributeFactory.createAttribute("nominal", Ontology.NOMINAL);
+		Attribute label = AttributeFactory.createAttribute("label", Ontology.BINOMINAL);
+		for (String value : new String[] { "a", "b", "c", "d", "e" }) {
+			nominal.getMapping().mapString(value);
+		}
+		label.getMapping().mapString("no");
+		label.getMapping().mapString("yes");
+
+		ExampleSet exampleSet = ExampleSets.from(constant, runs, integers, reals, nominal, label).withBlankSize(ROWS)
+				.withColumnFiller(constant, i -> 42)
+				.withColumnFiller(runs, i -> i / 100 == 3 ? Double.NaN : i / 100 * 0.5)
+				.withColumnFiller(integers, i -> i % 7 == 0 ? Double.NaN : -100_000 + i * 37)
+				.withColumnFiller(reals, i -> Math.sin(i))
+				.withColumnFiller(nominal, i -> i % 11 == 0 ? Double.NaN : i % 5)
+				.withColumnFiller(label, i -> i % 2).withRole(label, Attributes.LABEL_NAME).build();
+		exampleSet.getAnnotations().setAnnotation("key", "value");
+		return exampleSet;
+	}
+
+	private static byte[] write(ExampleSet exampleSet) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new ColumnarExampleSetToStream(CHUNK_SIZE).write(exampleSet, out);
+		return out.toByteArray();
+	}
+
+	private static void assertValues(ExampleSet expected, int offset, ExampleSet actual) {
+		for (Attribute attribute : actual.getAttributes()) {
+			Attribute original = expected.getAttributes().get(attribute.getName());
+			for (int i = 0; i < actual.size(); i++) {
+				double expectedValue = expected.getExample(offset + i).getValue(original);
+				double actualValue = actual.getExample(i).getValue(attribute);
+				assertEquals(attribute.getName() + " row " + i, expectedValue, actualValue, 0);
+			}
+		}
+	}
+
+	@Test
+	public void roundTripTest() throws IOException {
+		ExampleSet exampleSet = createExampleSet();
+		ExampleSet read = new ColumnarExampleSetToStream().read(new ByteArrayInputStream(write(exampleSet)));
+
+		assertEquals(ROWS, read.size());
+		assertEquals(exampleSet.getAttributes().allSize(), read.getAttributes().allSize());
+		assertEquals("label", read.getAttributes().getLabel().getName());
+		assertEquals("value", read.getAnnotations().getAnnotation("key"));
+		assertEquals("c", read.getExample(2).getNominalValue(read.getAttributes().get("nominal")));
+		assertValues(exampleSet, 0, read);
+	}
+
+	@Test
+	public void roundTripLegacyTest() throws IOException {
+		ExampleSet exampleSet = createExampleSet();
+		byte[] bytes = write(exampleSet);
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT, String.valueOf(true));
+		ExampleSet read = new ColumnarExampleSetToStream().read(new ByteArrayInputStream(bytes));
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT, String.valueOf(false));
+
+		assertEquals(ROWS, read.size());
+		assertValues(exampleSet, 0, read);
+	}
+
+	@Test
+	public void selectedAttributesAndRowsTest() throws IOException {
+		ExampleSet exampleSet = createExampleSet();
+		ExampleSet read = new ColumnarExampleSetToStream().read(new ByteArrayInputStream(write(exampleSet)),
+				new HashSet<>(Arrays.asList("integers", "nominal")), 100, 333);
+
+		assertEquals(233, read.size());
+		assertEquals(2, read.getAttributes().allSize());
+		assertNull(read.getAttributes().get("reals"));
+		assertValues(exampleSet, 100, read);
+	}
+
+	@Test
+	public void emptyRangeTest() throws IOException {
+		ExampleSet exampleSet = createExampleSet();
+		ExampleSet read = new ColumnarExampleSetToStream().read(new ByteArrayInputStream(write(exampleSet)),
+				Collections.singleton("reals"), ROWS, ROWS + 10);
+
+		assertEquals(0, read.size());
+		assertEquals(1, read.getAttributes().allSize());
+	}
+
+	@Test
+	public void selectedChunksTest() throws IOException {
+		ExampleSet exampleSet = createExampleSet();
+		byte[] bytes = write(exampleSet);
+		ColumnarExampleSetToStream stream = new ColumnarExampleSetToStream();
+		// the runs attribute is 2 on rows 400-499 and missing on rows 300-399
+		boolean[] chunks = stream.selectChunks(new ByteArrayInputStream(bytes),
+				(name, min, max) -> !"runs".equals(name) || min <= 2 && 2 <= max);
+		boolean[] expected = new boolean[(ROWS + CHUNK_SIZE - 1) / CHUNK_SIZE];
+		expected[400 / CHUNK_SIZE] = true;
+		expected[499 / CHUNK_SIZE] = true;
+		assertArrayEquals(expected, chunks);
+
+		ExampleSet read = stream.read(new ByteArrayInputStream(bytes), Collections.singleton("runs"), chunks);
+		assertEquals(2 * CHUNK_SIZE, read.size());
+		assertEquals(1, read.getAttributes().allSize());
+		assertValues(exampleSet, 400 / CHUNK_SIZE * CHUNK_SIZE, read);
+	}
+
+	@Test
+	public void serializerTest() throws IOException {
+		ExampleSet exampleSet = createExampleSet();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		IOObjectSerializer.getInstance().serialize(out, exampleSet, SerializationType.STREAMED_EXAMPLE_SET_COLUMNAR);
+		ExampleSet read = (ExampleSet) IOObjectSerializer.getInstance()
+				.deserialize(new ByteArrayInputStream(out.toByteArray()));
+
+		assertEquals(ROWS, read.size());
+		assertValues(exampleSet, 0, read);
+	}
+
+}
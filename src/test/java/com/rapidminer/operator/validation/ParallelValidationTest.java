@@ -0,0 +1,200 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.operator.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.BreakpointListener;
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.RapidMiner.ExecutionMode;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.SplittedExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.ExecutionUnit;
+import com.rapidminer.operator.IOContainer;
+import com.rapidminer.operator.ModelApplier;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.learner.tree.RandomTreeLearner;
+import com.rapidminer.operator.performance.PerformanceCriterion;
+import com.rapidminer.operator.performance.PerformanceVector;
+import com.rapidminer.operator.performance.PolynominalClassificationPerformanceEvaluator;
+import com.rapidminer.test.SynchronousExecutionService;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.OperatorService;
+
+
+/**
+ * Tests that validations executing their folds in parallel deliver the same results as the
+ * sequential execution of the folds, which is used if there are breakpoints. The folds learn random
+ * trees, so the results depend on the random numbers drawn by the inner operators.
+ *
+ * @author RapidMiner
+ */
+public class ParallelValidationTest {
+
+	private static final int ROWS = 300;
+
+	@BeforeClass
+	public static void setup() {
+		RapidMiner.setExecutionMode(ExecutionMode.TEST);
+		RapidMiner.init();
+		SynchronousExecutionService.install();
+	}
+
+	@Test
+	public void crossValidationTest() throws Exception {
+		PerformanceVector parallel = validate(XValidation.class, false);
+		assertSamePerformance(parallel, validate(XValidation.class, false));
+		assertSamePerformance(parallel, validate(XValidation.class, true));
+	}
+
+	@Test
+	public void bootstrappingValidationTest() throws Exception {
+		PerformanceVector parallel = validate(WeightedBootstrappingValidation.class, false);
+		assertSamePerformance(parallel, validate(WeightedBootstrappingValidation.class, false));
+		assertSamePerformance(parallel, validate(WeightedBootstrappingValidation.class, true));
+	}
+
+	@Test
+	public void parallelExecutionDisabledByDefaultTest() throws Exception {
+		XValidation validation = OperatorService.createOperator(XValidation.class);
+		assertTrue(validation.supportsParallelExecution());
+		assertFalse(validation.getParameterAsBoolean("enable_parallel_execution"));
+	}
+
+	@Test
+	public void overwrittenIterationTest() throws Exception {
+		XValidation validation = OperatorService.createOperator(XValidation.class);
+		XValidation subclass = new XValidation(validation.getOperatorDescription()) {
+
+			@Override
+			protected void performIteration(SplittedExampleSet splittedES, int iteration) throws OperatorException {
+				super.performIteration(splittedES, iteration);
+			}
+		};
+		subclass.setParameter("enable_parallel_execution", "true");
+		assertFalse(subclass.supportsParallelExecution());
+		assertFalse(subclass.isFoldExecution(10));
+	}
+
+	private static void assertSamePerformance(PerformanceVector expected, PerformanceVector actual) {
+		assertEquals(expected.getSize(), actual.getSize());
+		for (int i = 0; i < expected.getSize(); i++) {
+			PerformanceCriterion expectedCriterion = expected.getCriterion(i);
+			PerformanceCriterion actualCriterion = actual.getCriterion(i);
+			assertEquals(expectedCriterion.getName(), expectedCriterion.getAverage(), actualCriterion.getAverage(), 0);
+			assertEquals(expectedCriterion.getName(), expectedCriterion.getVariance(), actualCriterion.getVariance(), 0);
+		}
+	}
+
+	/**
+	 * Runs a process validating a random tree with parallel execution enabled. If requested, a
+	 * breakpoint forces the sequential execution of the folds.
+	 */
+	private static PerformanceVector validate(Class<? extends ValidationChain> type, boolean breakpoint)
+			throws Exception {
+		Process process = new Process();
+		ExecutionUnit root = process.getRootOperator().getSubprocess(0);
+		ValidationChain validation = OperatorService.createOperator(type);
+		validation.setParameter("enable_parallel_execution", "true");
+		validation.setParameter(XValidation.PARAMETER_NUMBER_OF_VALIDATIONS, "5");
+		root.addOperator(validation);
+		root.getInnerSources().getPortByName("input 1").connectTo(validation.getInputPorts().getPortByName("training"));
+		validation.getOutputPorts().getPortByName("averagable 1").connectTo(root.getInnerSinks().getPortByName("result 1"));
+
+		ExecutionUnit training = validation.getSubprocess(0);
+		Operator learner = OperatorService.createOperator(RandomTreeLearner.class);
+		training.addOperator(learner);
+		training.getInnerSources().getPortByName("training")
+				.connectTo(learner.getInputPorts().getPortByName("training set"));
+		learner.getOutputPorts().getPortByName("model").connectTo(training.getInnerSinks().getPortByName("model"));
+
+		ExecutionUnit testing = validation.getSubprocess(1);
+		Operator applier = OperatorService.createOperator(ModelApplier.class);
+		Operator evaluator = OperatorService.createOperator(PolynominalClassificationPerformanceEvaluator.class);
+		evaluator.setParameter("accuracy", "true");
+		testing.addOperator(applier);
+		testing.addOperator(evaluator);
+		testing.getInnerSources().getPortByName("model").connectTo(applier.getInputPorts().getPortByName("model"));
+		testing.getInnerSources().getPortByName("test set")
+				.connectTo(applier.getInputPorts().getPortByName("unlabelled data"));
+		applier.getOutputPorts().getPortByName("labelled data")
+				.connectTo(evaluator.getInputPorts().getPortByName("labelled data"));
+		evaluator.getOutputPorts().getPortByName("performance")
+				.connectTo(testing.getInnerSinks().getPortByName("averagable 1"));
+
+		if (breakpoint) {
+			learner.setBreakpoint(BreakpointListener.BREAKPOINT_AFTER, true);
+			process.addBreakpointListener(new BreakpointListener() {
+
+				@Override
+				public void breakpointReached(Process process, Operator op, IOContainer iocontainer, int location) {
+					process.resume();
+				}
+
+				@Override
+				public void resume() {
+					// nothing to do
+				}
+			});
+		}
+
+		return process.run(new IOContainer(createExampleSet())).get(PerformanceVector.class);
+	}
+
+	/**
+	 * Creates a noisy example set, so that the random trees differ in their predictions.
+	 */
+	private static ExampleSet createExampleSet() {
+		Attribute first = AttributeFactory.createAttribute("first", Ontology.REAL);
+		Attribute second = AttributeFactory.createAttribute("second", Ontology.REAL);
+		Attribute weight = AttributeFactory.createAttribute("weight", Ontology.REAL);
+		Attribute label = AttributeFactory.createAttribute("label", Ontology.NOMINAL);
+		label.getMapping().mapString("yes");
+		label.getMapping().mapString("no");
+
+		Random random = new Random(42);
+		double[] firstValues = new double[ROWS];
+		double[] secondValues = new double[ROWS];
+		double[] weights = new double[ROWS];
+		double[] labels = new double[ROWS];
+		for (int i = 0; i < ROWS; i++) {
+			firstValues[i] = random.nextGaussian();
+			secondValues[i] = random.nextGaussian();
+			weights[i] = 0.5 + random.nextDouble() / 2;
+			labels[i] = firstValues[i] + secondValues[i] + random.nextGaussian() > 0 ? 0 : 1;
+		}
+		return ExampleSets.from(first, second, weight, label).withBlankSize(ROWS)
+				.withColumnFiller(first, i -> firstValues[i]).withColumnFiller(second, i -> secondValues[i])
+				.withColumnFiller(weight, i -> weights[i]).withColumnFiller(label, i -> labels[i])
+				.withRole(weight, Attributes.WEIGHT_NAME).withRole(label, Attributes.LABEL_NAME).build();
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+
+
+/**
+ * Simple {@link ConcurrencyContext} for tests executing the tasks in a {@link ForkJoinPool}. The
+ * context is never stopped.
+ *
+ * @author RapidMiner
+ */
+public class PoolConcurrencyContext implements ConcurrencyContext {
+
+	private final ForkJoinPool pool;
+
+	public PoolConcurrencyContext(int parallelism) {
+		pool = new ForkJoinPool(parallelism);
+	}
+
+	@Override
+	public void run(List<Runnable> runnables) throws ExecutionException {
+		List<Callable<Void>> callables = new ArrayList<>();
+		for (Runnable runnable : runnables) {
+			callables.add(() -> {
+				runnable.run();
+				return null;
+			});
+		}
+		call(callables);
+	}
+
+	@Override
+	public <T> List<T> call(List<Callable<T>> callables) throws ExecutionException {
+		return collectResults(submit(callables));
+	}
+
+	@Override
+	public <T> List<Future<T>> submit(List<Callable<T>> callables) {
+		List<Future<T>> futures = new ArrayList<>();
+		for (Callable<T> callable : callables) {
+			futures.add(pool.submit(callable));
+		}
+		return futures;
+	}
+
+	@Override
+	public <T> List<T> collectResults(List<Future<T>> futures) throws ExecutionException {
+		List<T> results = new ArrayList<>();
+		for (Future<T> future : futures) {
+			try {
+				results.add(future.get());
+			} catch (InterruptedException e) {
+				throw new ExecutionException(e);
+			}
+		}
+		return results;
+	}
+
+	@Override
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	@Override
+	public void checkStatus() {
+		// never stopped
+	}
+
+	@Override
+	public <T> T invoke(ForkJoinTask<T> task) {
+		return pool.invoke(task);
+	}
+
+	@Override
+	public <T> List<T> invokeAll(List<ForkJoinTask<T>> tasks) {
+		List<T> results = new ArrayList<>();
+		for (ForkJoinTask<T> task : tasks) {
+			results.add(pool.invoke(task));
+		}
+		return results;
+	}
+
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import com.rapidminer.MacroHandler;
+import com.rapidminer.Process;
+import com.rapidminer.operator.IOContainer;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.ConcurrencyExecutionService;
+import com.rapidminer.studio.concurrency.internal.ConcurrencyExecutionServiceProvider;
+import com.rapidminer.studio.concurrency.internal.util.BackgroundExecution;
+import com.rapidminer.studio.concurrency.internal.util.BackgroundExecutionServiceListener;
+import com.rapidminer.studio.concurrency.internal.util.ProcessBackgroundExecution;
+
+
+/**
+ * Simple {@link ConcurrencyExecutionService} for tests executing the operator tasks one after
+ * another in the calling thread. It allows to test the parallel code paths of operators
+ * deterministically. As in the real service, every cloned operator is executed in its own
+ * process. Background processes are not supported.
+ *
+ * @author RapidMiner
+ */
+public class SynchronousExecutionService implements ConcurrencyExecutionService {
+
+	/**
+	 * Installs a synchronous execution service unless a service was installed before.
+	 */
+	public static synchronized void install() {
+		if (!ConcurrencyExecutionServiceProvider.INSTANCE.isInitialized()) {
+			ConcurrencyExecutionServiceProvider.INSTANCE.setConcurrencyExecutionService(new SynchronousExecutionService());
+		}
+	}
+
+	@Override
+	public void executeProcess(Process process) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void executeProcess(Process process, IOContainer container, Map<String, String> macroSettings) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Adds the cloned operator to an otherwise empty process which knows the macros of the parent
+	 * process. If requested, the macros of this process are copied back after the task.
+	 */
+	@Override
+	public <V, T> Callable<V> prepareOperatorTask(Process parentProcess, Operator clonedOperator, int applyCount,
+			boolean synchronizeSideEffects, Callable<V> task) {
+		Process process = new Process();
+		copyMacros(parentProcess.getMacroHandler(), process.getMacroHandler());
+		process.getRootOperator().getSubprocess(0).addOperator(clonedOperator);
+		if (!synchronizeSideEffects) {
+			return task;
+		}
+		return () -> {
+			V result = task.call();
+			copyMacros(process.getMacroHandler(), parentProcess.getMacroHandler());
+			return result;
+		};
+	}
+
+	private static void copyMacros(MacroHandler source, MacroHandler target) {
+		for (Iterator<String> names = source.getDefinedMacroNames(); names.hasNext();) {
+			String name = names.next();
+			target.addMacro(name, source.getMacro(name));
+		}
+	}
+
+	@Override
+	public <T> List<T> executeOperatorTasks(Operator operator, List<Callable<T>> tasks) throws OperatorException {
+		List<Future<T>> futures = new ArrayList<>(tasks.size());
+		for (Callable<T> task : tasks) {
+			futures.add(submitOperatorTask(operator, task));
+		}
+		return collectResults(operator, futures);
+	}
+
+	@Override
+	public <T> Future<T> submitOperatorTask(Operator operator, Callable<T> task) {
+		FutureTask<T> future = new FutureTask<>(task);
+		future.run();
+		return future;
+	}
+
+	@Override
+	public <T> List<T> collectResults(Operator operator, List<Future<T>> futures) throws OperatorException {
+		List<T> results = new ArrayList<>(futures.size());
+		for (Future<T> future : futures) {
+			try {
+				results.add(future.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperatorException(e.getMessage(), e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof OperatorException) {
+					throw (OperatorException) cause;
+				} else if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				} else {
+					throw new OperatorException(cause.getMessage(), cause);
+				}
+			}
+		}
+		return results;
+	}
+
+	@Override
+	public void removeOperatorTask(Process parentProcess, String operatorName, int applyCount) {
+		// nothing registered
+	}
+
+	@Override
+	public List<BackgroundExecution> getExecutions() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public <T> T executeBlockingTask(Callable<T> callable) throws Exception {
+		return callable.call();
+	}
+
+	@Override
+	public void stopProcessExecution(ProcessBackgroundExecution execution) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void removeProcessExecution(ProcessBackgroundExecution execution) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void addListener(BackgroundExecutionServiceListener listener) {
+		// no background executions
+	}
+
+	@Override
+	public void newProcessEvent(BackgroundExecution execution) {
+		// no background executions
+	}
+
+	@Override
+	public void removedProcessEvent(BackgroundExecution execution) {
+		// no background executions
+	}
+
+}
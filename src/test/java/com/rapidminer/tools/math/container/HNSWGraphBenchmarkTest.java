@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.container;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.rapidminer.tools.LogService;
+import com.rapidminer.tools.math.similarity.DistanceMeasure;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+
+
+/**
+ * Benchmarks the recall and the query throughput of the {@link HNSWGraph} for different search
+ * efforts against the exact {@link LinearList}. The measured numbers are logged, the test only
+ * fails if the graph loses its recall or is not faster than the linear search.
+ *
+ * @author RapidMiner
+ */
+public class HNSWGraphBenchmarkTest {
+
+	private static final int DIMENSIONS = 16;
+
+	private static final int POINTS = 20_000;
+
+	private static final int QUERIES = 500;
+
+	private static final int K = 10;
+
+	private static final int[] SEARCH_EFFORTS = { 10, 20, 50, 100, 200, 400 };
+
+	/** The search effort for which the recall and the speedup are asserted */
+	private static final int ASSERTED_EFFORT = 200;
+
+	@Test
+	public void recallAndThroughputBenchmark() {
+		Random random = new Random(1);
+		DistanceMeasure measure = new EuclideanDistance();
+		LinearList<Integer> list = new LinearList<>(measure);
+		HNSWGraph<Integer> graph = new HNSWGraph<>(measure, 1);
+		long start = System.nanoTime();
+		for (int i = 0; i < POINTS; i++) {
+			double[] values = randomPoint(random, DIMENSIONS);
+			list.add(values, i);
+			graph.add(values, i);
+		}
+		log("graph construction of %d points: %.1f s", POINTS, seconds(start));
+
+		List<double[]> queries = new ArrayList<>();
+		for (int q = 0; q < QUERIES; q++) {
+			queries.add(randomPoint(random, DIMENSIONS));
+		}
+		List<Set<Integer>> truth = new ArrayList<>();
+		start = System.nanoTime();
+		for (double[] query : queries) {
+			truth.add(new HashSet<>(list.getNearestValues(K, query)));
+		}
+		double linearThroughput = QUERIES / seconds(start);
+		log("linear list: %.1f queries/s", linearThroughput);
+
+		for (int effort : SEARCH_EFFORTS) {
+			graph.setSearchEffort(effort);
+			int found = 0;
+			start = System.nanoTime();
+			for (int q = 0; q < QUERIES; q++) {
+				for (Integer value : graph.getNearestValues(K, queries.get(q))) {
+					if (truth.get(q).contains(value)) {
+						found++;
+					}
+				}
+			}
+			double throughput = QUERIES / seconds(start);
+			double recall = found / (double) (QUERIES * K);
+			log("search effort %d: recall %.3f, %.1f queries/s", effort, recall, throughput);
+			if (effort == ASSERTED_EFFORT) {
+				assertTrue("recall " + recall, recall >= 0.9);
+				assertTrue("graph " + throughput + " vs. linear " + linearThroughput + " queries/s",
+						throughput > linearThroughput);
+			}
+		}
+	}
+
+	private static double seconds(long start) {
+		return (System.nanoTime() - start) / 1e9;
+	}
+
+	private static void log(String format, Object... arguments) {
+		LogService.getRoot().info(String.format(format, arguments));
+	}
+
+	private static double[] randomPoint(Random random, int dimensions) {
+		double[] values = new double[dimensions];
+		for (int d = 0; d < dimensions; d++) {
+			values[d] = random.nextGaussian();
+		}
+		return values;
+	}
+}
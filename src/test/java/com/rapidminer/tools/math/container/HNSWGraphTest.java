@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.rapidminer.tools.container.Tupel;
+import com.rapidminer.tools.math.similarity.DistanceMeasure;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+import com.rapidminer.tools.math.similarity.numerical.ManhattanDistance;
+
+
+/**
+ * Tests the recall of the {@link HNSWGraph} compared to the exact {@link LinearList}.
+ *
+ * @author RapidMiner
+ */
+public class HNSWGraphTest {
+
+	private static final int POINTS = 3000;
+
+	private static final int QUERIES = 100;
+
+	private static final int K = 10;
+
+	@Test
+	public void euclideanRecallTest() {
+		double recall = recall(new EuclideanDistance(), 16, POINTS, QUERIES, 100);
+		assertTrue("recall " + recall, recall >= 0.9);
+	}
+
+	@Test
+	public void manhattanRecallTest() {
+		double recall = recall(new ManhattanDistance(), 16, POINTS, QUERIES, 100);
+		assertTrue("recall " + recall, recall >= 0.9);
+	}
+
+	/** A search effort larger than the number of points visits the whole graph */
+	@Test
+	public void smallGraphExactTest() {
+		Random random = new Random(3);
+		HNSWGraph<Integer> graph = new HNSWGraph<>(new EuclideanDistance(), 8, 50, 500, 11);
+		LinearList<Integer> list = new LinearList<>(new EuclideanDistance());
+		for (int i = 0; i < 200; i++) {
+			double[] values = randomPoint(random, 4);
+			graph.add(values, i);
+			list.add(values, i);
+		}
+		for (int q = 0; q < QUERIES; q++) {
+			double[] query = randomPoint(random, 4);
+			assertEquals(distances(list.getNearestValueDistances(K, query)),
+					distances(graph.getNearestValueDistances(K, query)));
+			assertEquals(distances(list.getNearestValueDistances(1.0, query)).size(),
+					graph.getNearestValueDistances(1.0, query).size());
+		}
+	}
+
+	@Test
+	public void emptyAndSizeTest() {
+		HNSWGraph<Integer> graph = new HNSWGraph<>(new EuclideanDistance(), 5);
+		assertEquals(0, graph.getNearestValues(3, new double[] { 0, 0 }).size());
+		graph.add(new double[] { 1, 1 }, 42);
+		graph.add(new double[] { 2, 2 }, 43);
+		assertEquals(2, graph.size());
+		assertEquals(Integer.valueOf(43), graph.get(1));
+		assertEquals(2, graph.getNearestValues(3, new double[] { 0, 0 }).size());
+		assertEquals(Integer.valueOf(42), graph.getNearestValues(1, new double[] { 0, 0 }).iterator().next());
+		assertEquals(0, graph.getNearestValues(0, new double[] { 0, 0 }).size());
+	}
+
+	private static double recall(DistanceMeasure measure, int dimensions, int points, int queries, int effort) {
+		Random random = new Random(5);
+		HNSWGraph<Integer> graph = new HNSWGraph<>(measure, HNSWGraph.DEFAULT_MAX_NEIGHBOURS,
+				HNSWGraph.DEFAULT_CONSTRUCTION_EFFORT, effort, 17);
+		LinearList<Integer> list = new LinearList<>(measure);
+		for (int i = 0; i < points; i++) {
+			double[] values = randomPoint(random, dimensions);
+			graph.add(values, i);
+			list.add(values, i);
+		}
+		int found = 0;
+		for (int q = 0; q < queries; q++) {
+			double[] query = randomPoint(random, dimensions);
+			Set<Integer> expected = new HashSet<>(list.getNearestValues(K, query));
+			Collection<Integer> actual = graph.getNearestValues(K, query);
+			assertEquals(K, actual.size());
+			for (Integer value : actual) {
+				if (expected.contains(value)) {
+					found++;
+				}
+			}
+		}
+		return found / (double) (queries * K);
+	}
+
+	private static List<Double> distances(Collection<Tupel<Double, Integer>> neighbours) {
+		List<Double> distances = new ArrayList<>();
+		for (Tupel<Double, Integer> neighbour : neighbours) {
+			distances.add(neighbour.getFirst());
+		}
+		Collections.sort(distances);
+		return distances;
+	}
+
+	private static double[] randomPoint(Random random, int dimensions) {
+		double[] values = new double[dimensions];
+		for (int d = 0; d < dimensions; d++) {
+			values[d] = random.nextGaussian();
+		}
+		return values;
+	}
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.container;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rapidminer.tools.container.Tupel;
+import com.rapidminer.tools.math.similarity.DistanceMeasure;
+import com.rapidminer.tools.math.similarity.numerical.ChebychevNumericalDistance;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+import com.rapidminer.tools.math.similarity.numerical.ManhattanDistance;
+
+
+/**
+ * Tests that the {@link PrimitiveKDTree} finds the same neighbours as the {@link LinearList}.
+ *
+ * @author RapidMiner
+ */
+public class PrimitiveKDTreeTest {
+
+	private static final int POINTS = 5000;
+
+	private static final int QUERIES = 200;
+
+	@Test
+	public void euclideanTest() {
+		compare(new EuclideanDistance(), 3, false);
+	}
+
+	@Test
+	public void manhattanTest() {
+		compare(new ManhattanDistance(), 5, false);
+	}
+
+	@Test
+	public void chebychevTest() {
+		compare(new ChebychevNumericalDistance(), 2, false);
+	}
+
+	/** Integer coordinates lead to many equal distances */
+	@Test
+	public void tiesTest() {
+		compare(new EuclideanDistance(), 2, true);
+	}
+
+	@Test
+	public void missingValuesTest() {
+		Random random = new Random(7);
+		PrimitiveKDTree<Integer> tree = new PrimitiveKDTree<>(new EuclideanDistance());
+		LinearList<Integer> list = new LinearList<>(new EuclideanDistance());
+		for (int i = 0; i < POINTS; i++) {
+			double[] values = randomPoint(random, 3, false);
+			if (i % 17 == 0) {
+				values[random.nextInt(3)] = Double.NaN;
+			}
+			tree.add(values, i);
+			list.add(values, i);
+		}
+		for (int i = 0; i < QUERIES; i++) {
+			double[] query = randomPoint(random, 3, false);
+			if (i % 5 == 0) {
+				query[random.nextInt(3)] = Double.NaN;
+			}
+			assertEquals(distances(list.getNearestValueDistances(7, query)),
+					distances(tree.getNearestValueDistances(7, query)));
+		}
+	}
+
+	private static void compare(DistanceMeasure measure, int dimensions, boolean integers) {
+		Random random = new Random(dimensions);
+		PrimitiveKDTree<Integer> tree = new PrimitiveKDTree<>(measure);
+		LinearList<Integer> list = new LinearList<>(measure);
+		for (int i = 0; i < POINTS; i++) {
+			double[] values = randomPoint(random, dimensions, integers);
+			tree.add(values, i);
+			list.add(values, i);
+		}
+		for (int i = 0; i < QUERIES; i++) {
+			double[] query = randomPoint(random, dimensions, integers);
+			for (int k : new int[] { 1, 5, 20 }) {
+				assertEquals(distances(list.getNearestValueDistances(k, query)),
+						distances(tree.getNearestValueDistances(k, query)));
+			}
+			assertEquals(list.getNearestValueDistances(0.1, query).size(),
+					tree.getNearestValueDistances(0.1, query).size());
+		}
+	}
+
+	private static double[] randomPoint(Random random, int dimensions, boolean integers) {
+		double[] values = new double[dimensions];
+		for (int d = 0; d < dimensions; d++) {
+			values[d] = integers ? random.nextInt(10) : random.nextDouble();
+		}
+		return values;
+	}
+
+	/** The sorted distances, independent of the order and the chosen neighbours for ties */
+	private static List<Double> distances(Collection<Tupel<Double, Integer>> neighbours) {
+		List<Double> distances = new ArrayList<>();
+		for (Tupel<Double, Integer> neighbour : neighbours) {
+			distances.add(neighbour.getFirst());
+		}
+		distances.sort(null);
+		return distances;
+	}
+}
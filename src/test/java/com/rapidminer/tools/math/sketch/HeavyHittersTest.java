@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.sketch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the {@link HeavyHitters}.
+ *
+ * @author RapidMiner
+ */
+public class HeavyHittersTest {
+
+	@Test
+	public void exactTest() {
+		HeavyHitters sketch = new HeavyHitters();
+		assertTrue(Double.isNaN(sketch.getMostFrequent()));
+		for (int i = 0; i < 1000; i++) {
+			sketch.add(i % 10, i % 10 == 7 ? 2 : 1);
+		}
+		sketch.add(Double.NaN);
+		assertEquals(7, sketch.getMostFrequent(), 0);
+		assertEquals(200, sketch.getWeight(7), 0);
+		assertEquals(100, sketch.getWeight(3), 0);
+
+		// ties are broken by the smaller value
+		sketch.add(3, 100);
+		assertEquals(3, sketch.getMostFrequent(), 0);
+	}
+
+	@Test
+	public void heavyHitterTest() {
+		Random random = new Random(42);
+		HeavyHitters sketch = new HeavyHitters();
+		HeavyHitters merged = new HeavyHitters();
+		HeavyHitters part = new HeavyHitters();
+		for (int i = 0; i < 1_000_000; i++) {
+			// a frequent value within many rare ones
+			double value = random.nextInt(20) == 0 ? -1 : random.nextInt(100_000);
+			sketch.add(value);
+			part.add(value);
+			if (i % 10_000 == 9_999) {
+				merged.merge(part);
+				part = new HeavyHitters();
+			}
+		}
+		assertEquals(HeavyHitters.DEFAULT_CAPACITY, sketch.size());
+		assertEquals(-1, sketch.getMostFrequent(), 0);
+		assertEquals(-1, merged.getMostFrequent(), 0);
+		assertTrue(sketch.getWeight(-1) >= 45_000);
+	}
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.sketch;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the {@link HyperLogLog}.
+ *
+ * @author RapidMiner
+ */
+public class HyperLogLogTest {
+
+	@Test
+	public void exactSmallTest() {
+		HyperLogLog sketch = new HyperLogLog();
+		assertEquals(0, sketch.getEstimate(), 0);
+		for (int i = 0; i < 10_000; i++) {
+			sketch.add(i % 200);
+		}
+		sketch.add(Double.NaN);
+		sketch.add(-0.0);
+		assertEquals(200, sketch.getEstimate(), 0);
+	}
+
+	@Test
+	public void estimateTest() {
+		Random random = new Random(42);
+		for (int distinct : new int[] { 1_000, 10_000, 100_000, 1_000_000 }) {
+			HyperLogLog sketch = new HyperLogLog();
+			for (int i = 0; i < 2 * distinct; i++) {
+				sketch.add(random.nextInt(distinct) + distinct * 0.5);
+			}
+			for (int i = 0; i < distinct; i++) {
+				// makes sure that all values occurred
+				sketch.add(i + distinct * 0.5);
+			}
+			assertEquals(distinct, sketch.getEstimate(), 0.05 * distinct);
+		}
+	}
+
+	@Test
+	public void mergeTest() {
+		HyperLogLog sketch = new HyperLogLog();
+		HyperLogLog merged = new HyperLogLog();
+		for (int part = 0; part < 10; part++) {
+			HyperLogLog partSketch = new HyperLogLog();
+			// overlapping ranges, part sketches are sparse for the first parts
+			for (int i = 0; i < 100 * (1 << part); i++) {
+				double value = i * 1.5;
+				sketch.add(value);
+				partSketch.add(value);
+			}
+			merged.merge(partSketch);
+			assertEquals(sketch.getEstimate(), merged.getEstimate(), 0);
+		}
+	}
+}
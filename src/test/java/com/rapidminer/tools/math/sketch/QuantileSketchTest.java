@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2001-2017 by RapidMiner and the contributors
+ * 
+ * Complete list of developers available at our web site:
+ * 
+ * http://rapidminer.com
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+*/
+package com.rapidminer.tools.math.sketch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the {@link QuantileSketch}.
+ *
+ * @author RapidMiner
+ */
+public class QuantileSketchTest {
+
+	@Test
+	public void emptyTest() {
+		assertTrue(Double.isNaN(new QuantileSketch().getQuantile(0.5)));
+	}
+
+	@Test
+	public void exactMedianTest() {
+		QuantileSketch sketch = new QuantileSketch();
+		for (double value : new double[] { 4, 1, 3 }) {
+			sketch.add(value);
+		}
+		assertEquals(3, sketch.getQuantile(0.5), 0);
+		sketch.add(Double.NaN);
+		sketch.add(2);
+		assertEquals(2.5, sketch.getQuantile(0.5), 0);
+		assertEquals(1, sketch.getQuantile(0), 0);
+		assertEquals(4, sketch.getQuantile(1), 0);
+	}
+
+	@Test
+	public void approximateQuantilesTest() {
+		Random random = new Random(42);
+		int n = 1_000_000;
+		double[] values = new double[n];
+		QuantileSketch sketch = new QuantileSketch();
+		for (int i = 0; i < n; i++) {
+			values[i] = random.nextGaussian();
+			sketch.add(values[i]);
+		}
+		assertRankErrors(values, sketch);
+	}
+
+	@Test
+	public void mergeTest() {
+		Random random = new Random(42);
+		int n = 1_000_000;
+		double[] values = new double[n];
+		QuantileSketch sketch = new QuantileSketch();
+		QuantileSketch part = new QuantileSketch();
+		for (int i = 0; i < n; i++) {
+			values[i] = random.nextDouble() * random.nextDouble();
+			part.add(values[i]);
+			if (i % 10_000 == 9_999) {
+				sketch.merge(part);
+				part = new QuantileSketch();
+			}
+		}
+		assertEquals(n, sketch.getTotalWeight(), 0);
+		assertRankErrors(values, sketch);
+	}
+
+	@Test
+	public void weightedTest() {
+		QuantileSketch sketch = new QuantileSketch();
+		for (int i = 0; i < 100_000; i++) {
+			// the values 0 to 9 with weight 3 and the values 10 to 19 with weight 1
+			sketch.add(i % 20, i % 20 < 10 ? 3 : 1);
+		}
+		assertEquals(6.5, sketch.getQuantile(0.5), 0.5);
+	}
+
+	/**
+	 * Checks that the ranks of the estimated quantiles are close to the requested ranks.
+	 */
+	private static void assertRankErrors(double[] values, QuantileSketch sketch) {
+		double[] sorted = values.clone();
+		Arrays.sort(sorted);
+		for (double q : new double[] { 0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999 }) {
+			double estimate = sketch.getQuantile(q);
+			double rank = (double) Math.abs(Arrays.binarySearch(sorted, estimate)) / sorted.length;
+			assertEquals(q, rank, Math.min(0.006, q * (1 - q) / 10 + 0.0003));
+		}
+		assertEquals(sorted[0], sketch.getQuantile(0), 0);
+		assertEquals(sorted[sorted.length - 1], sketch.getQuantile(1), 0);
+	}
+}